@@ -0,0 +1,212 @@
+/**
+ * Importa a interface Cenario, por meio da qual a bancada do JMH usa as classes da simulação.
+ */
+import bancada.Cenario;
+
+/**
+ * Importa a classe ArrayList para guardar os atores do cenário.
+ */
+import java.util.ArrayList;
+
+/**
+ * Importa a classe List para trabalhar com listas.
+ */
+import java.util.List;
+
+/**
+ * Importa a classe SplittableRandom para sortear as posições iniciais.
+ */
+import java.util.SplittableRandom;
+
+/**
+ * Classe CenarioBancada representa uma população montada para a bancada de desempenho, com o tamanho de grade
+ * calculado a partir do número de pessoas e da densidade (pessoas por célula), e as operações medidas pela
+ * BancadaDesempenho. Os casos contatosReordenados, tickReordenado e moverEstrategias usam as mesmas operações de
+ * contatos, tickCompleto e moverLote, com o cenário preparado em montar: a população reordenada uma vez pela curva de
+ * Morton, a reordenação a cada "intervaloReordenacao" iterações, ou parte das pessoas atraídas por polos e parte em
+ * voos de Lévy.
+ */
+public class CenarioBancada implements Cenario {
+    /**
+     * Semente usada para montar todos os cenários, para que as medições sejam comparáveis entre execuções.
+     */
+    private static final long SEMENTE = 42;
+
+    /**
+     * Número de linhas da grade.
+     */
+    private int linhas;
+
+    /**
+     * Número de colunas da grade.
+     */
+    private int colunas;
+
+    /**
+     * População do cenário.
+     */
+    private Populacao populacao;
+
+    /**
+     * Índice espacial do cenário.
+     */
+    private IndiceEspacial indice;
+
+    /**
+     * Motor que executa as fases da iteração.
+     */
+    private MotorTick motor;
+
+    /**
+     * Índice espacial das IAs e dos meios de comunicação do cenário.
+     */
+    private IndiceAtores indiceAtores;
+
+    /**
+     * Reordenador usado no caso reordenacao.
+     */
+    private ReordenadorMorton reordenador;
+
+    /**
+     * Número da próxima iteração a executar.
+     */
+    private long iteracao;
+
+    /**
+     * Monta a população, os índices espaciais e o motor do cenário, e prepara o caso informado.
+     *
+     * @param caso                  O nome do benchmark que usará o cenário.
+     * @param pessoas               O número de pessoas.
+     * @param densidade             O número médio de pessoas por célula.
+     * @param atoresPorTipo         O número de IAs geradoras, de IAs destruidoras e de meios de comunicação.
+     * @param threads               O número de threads do motor.
+     * @param intervaloReordenacao  O intervalo entre as reordenações da população no caso tickReordenado.
+     */
+    public void montar(String caso, int pessoas, double densidade, int atoresPorTipo, int threads, long intervaloReordenacao) {
+        int lado = (int) Math.max(3, Math.ceil(Math.sqrt(pessoas / densidade)));
+        this.linhas = lado;
+        this.colunas = lado;
+
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        this.populacao = new Populacao(pessoas, new GeradorAleatorio(SEMENTE));
+        this.indice = new IndiceEspacial(linhas, colunas, pessoas);
+        for (int i = 0; i < pessoas; i++) {
+            int id = populacao.adicionar(random.nextInt(linhas), random.nextInt(colunas),
+                    random.nextInt(10) == 0 ? Populacao.MAL_INFORMADA : Populacao.BEM_INFORMADA);
+            indice.inserir(id, populacao.getX(id), populacao.getY(id));
+        }
+
+        List<IAtor> atores = new ArrayList<>();
+        for (int i = 0; i < atoresPorTipo; i++) {
+            atores.add(new IAGeradoraFakeNews(random.nextInt(linhas), random.nextInt(colunas)));
+            atores.add(new IADestruidoraFakeNews(random.nextInt(linhas), random.nextInt(colunas)));
+            atores.add(new MeioComunicacaoConfiavel(random.nextInt(linhas), random.nextInt(colunas)));
+        }
+        this.indiceAtores = new IndiceAtores(linhas, colunas, 1, atores);
+        this.motor = new MotorTick(populacao, indice, threads);
+        motor.setDuracaoResistencia(30);
+        motor.definirAtores(atores);
+
+        switch (caso) {
+            case "contatosReordenados":
+                new ReordenadorMorton(populacao, indice, null).reordenar();
+                break;
+            case "tickReordenado":
+                motor.setIntervaloReordenacao(intervaloReordenacao);
+                break;
+            case "reordenacao":
+                reordenador = new ReordenadorMorton(populacao, indice, null);
+                break;
+            case "moverEstrategias":
+                populacao.getMovimento().configurar(linhas, colunas, 0.3, 4, 0.5, 0.2, 1.5);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Executa a fase de movimento do motor.
+     *
+     * @return A coordenada X da primeira pessoa.
+     */
+    public long mover() {
+        motor.executarMovimento(iteracao++);
+        return populacao.getX(0);
+    }
+
+    /**
+     * Executa a fase de interações do motor.
+     *
+     * @return O número de pessoas mal informadas.
+     */
+    public long contatos() {
+        motor.executarInteracoes();
+        return populacao.getMalInformadas();
+    }
+
+    /**
+     * Verifica, para cada pessoa, a proximidade com as IAs e os meios de comunicação confiáveis.
+     *
+     * @return A soma dos tipos de atores próximos de cada pessoa.
+     */
+    public long proximidadeAtores() {
+        long proximos = 0;
+        for (int i = 0; i < populacao.tamanho(); i++) {
+            proximos += indiceAtores.tiposProximos(populacao.getX(i), populacao.getY(i));
+        }
+        return proximos;
+    }
+
+    /**
+     * Executa uma iteração completa do motor: o movimento e as interações.
+     *
+     * @return O número de pessoas mal informadas.
+     */
+    public long tickCompleto() {
+        motor.executarMovimento(iteracao++);
+        motor.executarInteracoes();
+        return populacao.getMalInformadas();
+    }
+
+    /**
+     * Reordena a população pela curva de Morton.
+     *
+     * @return A coordenada X da primeira pessoa.
+     */
+    public long reordenacao() {
+        reordenador.reordenar();
+        return populacao.getX(0);
+    }
+
+    /**
+     * Avança o relógio e move as pessoas uma a uma, como Pessoa.mover.
+     *
+     * @return A coordenada X da primeira pessoa.
+     */
+    public long moverPorPessoa() {
+        populacao.avancarRelogio(iteracao++);
+        for (int i = 0; i < populacao.tamanho(); i++) {
+            populacao.mover(i, linhas, colunas);
+        }
+        return populacao.getX(0);
+    }
+
+    /**
+     * Avança o relógio e move todas as pessoas com o núcleo em lote, sem o índice espacial nem as threads do motor.
+     *
+     * @return A coordenada X da primeira pessoa.
+     */
+    public long moverLote() {
+        populacao.avancarRelogio(iteracao++);
+        populacao.getMovimento().moverLote(0, populacao.tamanho(), linhas, colunas);
+        return populacao.getX(0);
+    }
+
+    /**
+     * Encerra as threads do motor.
+     */
+    public void encerrar() {
+        motor.encerrar();
+    }
+}
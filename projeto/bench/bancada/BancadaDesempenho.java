@@ -0,0 +1,282 @@
+package bancada;
+
+/**
+ * Importa a classe TimeUnit para indicar as unidades de tempo das medições.
+ */
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importa a anotação Benchmark do JMH, que marca cada caso medido.
+ */
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Importa a anotação BenchmarkMode do JMH, que escolhe o tempo médio por operação como medida.
+ */
+import org.openjdk.jmh.annotations.BenchmarkMode;
+
+/**
+ * Importa a anotação Fork do JMH, que executa as medições em uma JVM separada.
+ */
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * Importa a enumeração Level do JMH, que indica quando o cenário é montado e encerrado.
+ */
+import org.openjdk.jmh.annotations.Level;
+
+/**
+ * Importa a anotação Measurement do JMH, que define as rodadas medidas.
+ */
+import org.openjdk.jmh.annotations.Measurement;
+
+/**
+ * Importa a enumeração Mode do JMH, com os modos de medição.
+ */
+import org.openjdk.jmh.annotations.Mode;
+
+/**
+ * Importa a anotação OutputTimeUnit do JMH, que define a unidade dos resultados.
+ */
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Importa a anotação Param do JMH, que define os tamanhos e as densidades dos cenários.
+ */
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Importa a enumeração Scope do JMH, que indica que o cenário é compartilhado pelas threads da medição.
+ */
+import org.openjdk.jmh.annotations.Scope;
+
+/**
+ * Importa a anotação Setup do JMH, que marca a montagem do cenário.
+ */
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Importa a anotação State do JMH, que marca a classe com o cenário das medições.
+ */
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Importa a anotação TearDown do JMH, que marca o encerramento do cenário.
+ */
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Importa a anotação Warmup do JMH, que define as rodadas de aquecimento.
+ */
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Importa a classe BenchmarkParams do JMH, para preparar o cenário de acordo com o caso medido.
+ */
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Importa a classe Blackhole do JMH, que consome os resultados para que o compilador JIT não descarte as operações.
+ */
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Classe BancadaDesempenho representa a bancada de medição de desempenho da simulação, executada pelo JMH.
+ * Mede o movimento das pessoas, a fase de contatos e contágio, a verificação de proximidade com as IAs
+ * e o meio de comunicação, e a iteração completa, para vários tamanhos de população e densidades.
+ * Os casos contatosReordenados e tickReordenado repetem contatos e tickCompleto com a população reordenada pela curva
+ * de Morton (uma vez, antes da medição, ou a cada "intervaloReordenacao" iterações), e o caso reordenacao mede o custo
+ * de uma reordenação, para comparar com a ordem original das pessoas, espalhadas pelo mapa.
+ * Os casos moverPorPessoa e moverLote comparam o movimento pessoa a pessoa, o mesmo chamado por Pessoa.mover na
+ * interface IMovable, com o núcleo em lote de MovimentoPessoas sobre os registros da população, e o caso
+ * moverEstrategias mede o núcleo em lote com parte das pessoas atraídas por polos e parte em voos de Lévy.
+ * Com "-prof gc", o JMH informa também os bytes alocados por operação e as coletas de lixo de cada caso.
+ *
+ * Uso: java -cp ... org.openjdk.jmh.Main BancadaDesempenho.contatos -p pessoas=10000,1000000 -p densidade=0.5 -prof gc
+ *      (ou "ant bench", com os argumentos em -Dbench.args)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BancadaDesempenho {
+    /**
+     * Nome da classe, no pacote padrão com as classes da simulação, que implementa a interface Cenario.
+     */
+    private static final String CLASSE_CENARIO = "CenarioBancada";
+
+    /**
+     * Classe Estado representa os parâmetros de um cenário da bancada e o cenário montado com eles, compartilhado
+     * por todas as rodadas de um mesmo caso.
+     */
+    @State(Scope.Benchmark)
+    public static class Estado {
+        /**
+         * Número de pessoas do cenário.
+         */
+        @Param({"100", "10000", "1000000"})
+        public int pessoas;
+
+        /**
+         * Número médio de pessoas por célula, que define o tamanho da grade.
+         */
+        @Param({"0.05", "0.5"})
+        public double densidade;
+
+        /**
+         * Número de IAs geradoras, de IAs destruidoras e de meios de comunicação do cenário.
+         */
+        @Param({"1"})
+        public int atores;
+
+        /**
+         * Número de threads do motor, ou zero para usar o número de processadores disponíveis.
+         */
+        @Param({"0"})
+        public int threads;
+
+        /**
+         * Intervalo entre as reordenações da população no caso tickReordenado.
+         */
+        @Param({"16"})
+        public long intervaloReordenacao;
+
+        /**
+         * Cenário montado com os parâmetros.
+         */
+        Cenario cenario;
+
+        /**
+         * Monta o cenário antes das rodadas de um caso.
+         *
+         * @param parametros  Os parâmetros do JMH, com o nome do caso medido.
+         * @throws ReflectiveOperationException Se a classe CenarioBancada não puder ser instanciada.
+         */
+        @Setup(Level.Trial)
+        public void montar(BenchmarkParams parametros) throws ReflectiveOperationException {
+            String benchmark = parametros.getBenchmark();
+            cenario = (Cenario) Class.forName(CLASSE_CENARIO).getDeclaredConstructor().newInstance();
+            cenario.montar(benchmark.substring(benchmark.lastIndexOf('.') + 1), pessoas, densidade, atores,
+                    threads == 0 ? Runtime.getRuntime().availableProcessors() : threads, intervaloReordenacao);
+        }
+
+        /**
+         * Encerra as threads do motor depois das rodadas de um caso.
+         */
+        @TearDown(Level.Trial)
+        public void encerrar() {
+            cenario.encerrar();
+        }
+    }
+
+    /**
+     * Mede a fase de movimento do motor.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void mover(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.mover());
+    }
+
+    /**
+     * Mede a fase de contatos e contágio do motor.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void contatos(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.contatos());
+    }
+
+    /**
+     * Mede a verificação de proximidade de cada pessoa com as IAs e os meios de comunicação.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void proximidadeAtores(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.proximidadeAtores());
+    }
+
+    /**
+     * Mede a iteração completa do motor.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void tickCompleto(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.tickCompleto());
+    }
+
+    /**
+     * Mede a fase de contatos com a população reordenada pela curva de Morton antes da medição.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void contatosReordenados(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.contatos());
+    }
+
+    /**
+     * Mede a iteração completa com a reordenação a cada "intervaloReordenacao" iterações.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void tickReordenado(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.tickCompleto());
+    }
+
+    /**
+     * Mede uma reordenação da população pela curva de Morton.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void reordenacao(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.reordenacao());
+    }
+
+    /**
+     * Mede o movimento pessoa a pessoa.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void moverPorPessoa(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.moverPorPessoa());
+    }
+
+    /**
+     * Mede o movimento pelo núcleo em lote, só com o passeio aleatório.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void moverLote(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.moverLote());
+    }
+
+    /**
+     * Mede o movimento pelo núcleo em lote com 30% das pessoas atraídas por polos e 20% em voos de Lévy.
+     *
+     * @param estado     O cenário medido.
+     * @param blackhole  O consumidor do resultado.
+     */
+    @Benchmark
+    public void moverEstrategias(Estado estado, Blackhole blackhole) {
+        blackhole.consume(estado.cenario.moverLote());
+    }
+}
@@ -0,0 +1,76 @@
+package bancada;
+
+/**
+ * Interface Cenario representa uma população montada para a bancada de desempenho, com as operações medidas.
+ * O JMH não aceita benchmarks no pacote padrão, e as classes da simulação, que estão no pacote padrão, não podem ser
+ * usadas a partir de um pacote nomeado; a BancadaDesempenho, no pacote bancada, usa as classes da simulação por meio
+ * desta interface, implementada pela classe CenarioBancada, no pacote padrão.
+ * Cada operação retorna um valor que depende do estado da população, consumido pelo Blackhole do JMH.
+ */
+public interface Cenario {
+    /**
+     * Monta a população, os índices espaciais e o motor do cenário, e prepara o caso informado.
+     *
+     * @param caso                  O nome do benchmark que usará o cenário.
+     * @param pessoas               O número de pessoas.
+     * @param densidade             O número médio de pessoas por célula.
+     * @param atoresPorTipo         O número de IAs geradoras, de IAs destruidoras e de meios de comunicação.
+     * @param threads               O número de threads do motor.
+     * @param intervaloReordenacao  O intervalo entre as reordenações da população no caso tickReordenado.
+     */
+    void montar(String caso, int pessoas, double densidade, int atoresPorTipo, int threads, long intervaloReordenacao);
+
+    /**
+     * Executa a fase de movimento do motor.
+     *
+     * @return A coordenada X da primeira pessoa.
+     */
+    long mover();
+
+    /**
+     * Executa a fase de interações do motor.
+     *
+     * @return O número de pessoas mal informadas.
+     */
+    long contatos();
+
+    /**
+     * Verifica, para cada pessoa, a proximidade com as IAs e os meios de comunicação confiáveis.
+     *
+     * @return A soma dos tipos de atores próximos de cada pessoa.
+     */
+    long proximidadeAtores();
+
+    /**
+     * Executa uma iteração completa do motor: o movimento e as interações.
+     *
+     * @return O número de pessoas mal informadas.
+     */
+    long tickCompleto();
+
+    /**
+     * Reordena a população pela curva de Morton.
+     *
+     * @return A coordenada X da primeira pessoa.
+     */
+    long reordenacao();
+
+    /**
+     * Move as pessoas uma a uma, como Pessoa.mover.
+     *
+     * @return A coordenada X da primeira pessoa.
+     */
+    long moverPorPessoa();
+
+    /**
+     * Move todas as pessoas com o núcleo em lote de MovimentoPessoas.
+     *
+     * @return A coordenada X da primeira pessoa.
+     */
+    long moverLote();
+
+    /**
+     * Encerra as threads do motor.
+     */
+    void encerrar();
+}
@@ -0,0 +1,244 @@
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Classe AgendaMensagens representa a fila de eventos das mensagens de Whatsapp encaminhadas entre contatos, organizada
+ * como uma fila de calendário: há TAMANHO posições, uma por iteração, e a mensagem entregue na iteração t fica na lista da
+ * posição (t mod TAMANHO). A cada iteração, apenas a lista da iteração corrente é percorrida, então o custo é proporcional
+ * ao número de mensagens em trânsito, e não ao tamanho da população. Mensagens com atraso maior que TAMANHO iterações
+ * dão mais de uma volta no calendário e são ignoradas nas voltas anteriores.
+ *
+ * Como na RodaExpiracao, as listas são guardadas em arrays de inteiros. Cada lista é uma fila (as mensagens novas entram
+ * no fim), e as posições das mensagens entregues são reaproveitadas por meio de uma lista de posições livres.
+ */
+class AgendaMensagens {
+    /**
+     * Valor usado para indicar o fim de uma lista encadeada.
+     */
+    public static final int VAZIO = -1;
+
+    /**
+     * Número de posições do calendário. É uma potência de 2, para que a posição seja calculada com uma máscara.
+     */
+    public static final int TAMANHO = 1024;
+
+    /**
+     * Primeira mensagem de cada posição do calendário.
+     */
+    private final int[] cabeca;
+
+    /**
+     * Última mensagem de cada posição do calendário.
+     */
+    private final int[] cauda;
+
+    /**
+     * Pessoa que enviou cada mensagem.
+     */
+    private int[] remetente;
+
+    /**
+     * Pessoa que recebe cada mensagem.
+     */
+    private int[] destinatario;
+
+    /**
+     * Iteração em que cada mensagem é entregue.
+     */
+    private long[] instante;
+
+    /**
+     * Próxima mensagem na mesma posição do calendário, ou na lista de posições livres.
+     */
+    private int[] proximo;
+
+    /**
+     * Primeira posição livre dos arrays de mensagens.
+     */
+    private int livre;
+
+    /**
+     * Número de posições dos arrays de mensagens já usadas alguma vez.
+     */
+    private int usadas;
+
+    /**
+     * Número de mensagens em trânsito.
+     */
+    private int pendentes;
+
+    /**
+     * Remetentes das mensagens retiradas pela última chamada de retirar.
+     */
+    private int[] remetentesRetirados;
+
+    /**
+     * Destinatários das mensagens retiradas pela última chamada de retirar.
+     */
+    private int[] destinatariosRetirados;
+
+    /**
+     * Construtor da classe AgendaMensagens.
+     */
+    public AgendaMensagens() {
+        this.cabeca = new int[TAMANHO];
+        this.cauda = new int[TAMANHO];
+        this.remetente = new int[16];
+        this.destinatario = new int[16];
+        this.instante = new long[16];
+        this.proximo = new int[16];
+        this.remetentesRetirados = new int[16];
+        this.destinatariosRetirados = new int[16];
+        this.livre = VAZIO;
+        Arrays.fill(cabeca, VAZIO);
+        Arrays.fill(cauda, VAZIO);
+    }
+
+    /**
+     * Agenda a entrega de uma mensagem.
+     *
+     * @param de        A pessoa que envia a mensagem.
+     * @param para      A pessoa que recebe a mensagem.
+     * @param entrega   A iteração em que a mensagem é entregue.
+     */
+    public void agendar(int de, int para, long entrega) {
+        int m;
+        if (livre != VAZIO) {
+            m = livre;
+            livre = proximo[m];
+        } else {
+            if (usadas == proximo.length) {
+                int novoTamanho = proximo.length * 2;
+                remetente = Arrays.copyOf(remetente, novoTamanho);
+                destinatario = Arrays.copyOf(destinatario, novoTamanho);
+                instante = Arrays.copyOf(instante, novoTamanho);
+                proximo = Arrays.copyOf(proximo, novoTamanho);
+            }
+            m = usadas++;
+        }
+        remetente[m] = de;
+        destinatario[m] = para;
+        instante[m] = entrega;
+        proximo[m] = VAZIO;
+        int posicao = posicao(entrega);
+        if (cauda[posicao] == VAZIO) {
+            cabeca[posicao] = m;
+        } else {
+            proximo[cauda[posicao]] = m;
+        }
+        cauda[posicao] = m;
+        pendentes++;
+    }
+
+    /**
+     * Retira da agenda as mensagens entregues na iteração informada, na ordem em que foram agendadas.
+     * Os remetentes e os destinatários ficam disponíveis em getRemetentesRetirados e getDestinatariosRetirados
+     * até a próxima chamada.
+     *
+     * @param iteracao  A iteração corrente.
+     * @return O número de mensagens retiradas.
+     */
+    public int retirar(long iteracao) {
+        int posicao = posicao(iteracao);
+        int n = 0;
+        int anterior = VAZIO;
+        int m = cabeca[posicao];
+        while (m != VAZIO) {
+            int seguinte = proximo[m];
+            if (instante[m] == iteracao) {
+                if (n == remetentesRetirados.length) {
+                    remetentesRetirados = Arrays.copyOf(remetentesRetirados, n * 2);
+                    destinatariosRetirados = Arrays.copyOf(destinatariosRetirados, n * 2);
+                }
+                remetentesRetirados[n] = remetente[m];
+                destinatariosRetirados[n] = destinatario[m];
+                n++;
+
+                // Tira a mensagem da lista e devolve a posição à lista de posições livres.
+                if (anterior == VAZIO) {
+                    cabeca[posicao] = seguinte;
+                } else {
+                    proximo[anterior] = seguinte;
+                }
+                if (cauda[posicao] == m) {
+                    cauda[posicao] = anterior;
+                }
+                proximo[m] = livre;
+                livre = m;
+                pendentes--;
+            } else {
+                anterior = m;
+            }
+            m = seguinte;
+        }
+        return n;
+    }
+
+    /**
+     * Retorna os remetentes das mensagens retiradas pela última chamada de retirar.
+     *
+     * @return O array de remetentes; apenas as primeiras posições, informadas por retirar, são válidas.
+     */
+    public int[] getRemetentesRetirados() {
+        return remetentesRetirados;
+    }
+
+    /**
+     * Retorna os destinatários das mensagens retiradas pela última chamada de retirar.
+     *
+     * @return O array de destinatários; apenas as primeiras posições, informadas por retirar, são válidas.
+     */
+    public int[] getDestinatariosRetirados() {
+        return destinatariosRetirados;
+    }
+
+    /**
+     * Retorna o número de mensagens em trânsito.
+     *
+     * @return O número de mensagens agendadas e ainda não entregues.
+     */
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    /**
+     * Retorna o número de posições reservadas nos arrays de mensagens, que só aumenta quando a agenda precisa crescer.
+     *
+     * @return A soma dos tamanhos dos arrays de mensagens e de mensagens retiradas.
+     */
+    public long getCapacidade() {
+        return (long) proximo.length + remetentesRetirados.length;
+    }
+
+    /**
+     * Copia todas as mensagens em trânsito, posição por posição do calendário e, em cada posição, na ordem da fila.
+     * Agendar as mensagens copiadas nessa mesma ordem em uma agenda vazia reconstrói as mesmas filas.
+     *
+     * @param remetentes     O array que recebe os remetentes, com pelo menos getPendentes posições.
+     * @param destinatarios  O array que recebe os destinatários, com pelo menos getPendentes posições.
+     * @param instantes      O array que recebe as iterações de entrega, com pelo menos getPendentes posições.
+     */
+    public void copiar(int[] remetentes, int[] destinatarios, long[] instantes) {
+        int n = 0;
+        for (int posicao = 0; posicao < TAMANHO; posicao++) {
+            for (int m = cabeca[posicao]; m != VAZIO; m = proximo[m]) {
+                remetentes[n] = remetente[m];
+                destinatarios[n] = destinatario[m];
+                instantes[n] = instante[m];
+                n++;
+            }
+        }
+    }
+
+    /**
+     * Calcula a posição do calendário correspondente a uma iteração.
+     *
+     * @param iteracao  A iteração.
+     * @return A posição do calendário.
+     */
+    private static int posicao(long iteracao) {
+        return (int) (iteracao & (TAMANHO - 1));
+    }
+}
@@ -0,0 +1,585 @@
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Importa a classe Locale para formatar os indicadores com ponto decimal.
+ */
+import java.util.Locale;
+
+/**
+ * Classe AnaliseSurto calcula, a cada iteração, indicadores epidemiológicos da fake news a partir das transições de
+ * estado entregues pelo MotorTick: a floresta de infecções (quem infectou quem, em que iteração e em que geração), a
+ * distribuição dos intervalos de geração, o número de reprodução efetivo e os surtos, conjuntos de pessoas mal
+ * informadas ligadas pela proximidade no mapa.
+ *
+ * O custo de cada iteração é proporcional ao número de transições, e não ao tamanho da população:
+ * - cada infecção grava o seu infectante, a iteração e a geração em arrays indexados pela identidade, e soma o
+ *   intervalo de geração a um histograma;
+ * - o número de reprodução efetivo é calculado pelo método de Cori: as infecções causadas por pessoas na iteração,
+ *   divididas pela soma das infecções das iterações anteriores ponderadas pela distribuição dos intervalos de geração,
+ *   somadas nas últimas JANELA_REPRODUCAO iterações, com custo fixo de MAX_INTERVALO operações por iteração;
+ * - os surtos são mantidos em uma estrutura union-find: cada pessoa infectada na iteração é unida às pessoas mal
+ *   informadas que estão a até raio unidades dela, encontradas pelo IndiceEspacial. Como a union-find não separa
+ *   conjuntos, um surto continua o mesmo quando as pessoas se afastam ou são curadas; ele deixa de estar ativo quando
+ *   não tem mais nenhuma pessoa mal informada. Por isso há duas medidas do maior surto: o tamanho acumulado, com todas
+ *   as pessoas que já entraram no surto, e o número de pessoas mal informadas do maior surto atual, mantido por um
+ *   histograma do número de mal informadas dos surtos, que cai no máximo 1 a cada cura.
+ *
+ * As pessoas já mal informadas quando a análise começa são as origens da floresta, na iteração inicial.
+ */
+class AnaliseSurto {
+    /**
+     * Maior intervalo de geração guardado no histograma; intervalos maiores são contados na última posição.
+     * É uma potência de 2, para que as infecções de cada iteração fiquem em um anel indexado por máscara.
+     */
+    static final int MAX_INTERVALO = 256;
+
+    /**
+     * Valor de infectante para as pessoas que não foram infectadas por outra pessoa.
+     */
+    public static final int ORIGEM = -1;
+
+    /**
+     * Número de iterações somadas no cálculo do número de reprodução efetivo.
+     */
+    static final int JANELA_REPRODUCAO = 16;
+
+    /**
+     * A população analisada.
+     */
+    private final Populacao populacao;
+
+    /**
+     * O índice espacial com as posições das pessoas.
+     */
+    private final IndiceEspacial indice;
+
+    /**
+     * Distância máxima, em qualquer direção, para que duas pessoas mal informadas fiquem no mesmo surto.
+     */
+    private final int raio;
+
+    /**
+     * Identidade de quem infectou cada pessoa na última infecção dela, ou ORIGEM.
+     */
+    private final int[] infectante;
+
+    /**
+     * Iteração da última infecção de cada pessoa, contada em iterações concluídas.
+     */
+    private final long[] iteracaoInfeccao;
+
+    /**
+     * Geração da última infecção de cada pessoa: 0 para as origens e a geração do infectante mais 1 para as demais.
+     */
+    private final int[] geracao;
+
+    /**
+     * Pai de cada pessoa na union-find dos surtos, ou -1 se a pessoa nunca foi infectada.
+     */
+    private final int[] conjunto;
+
+    /**
+     * Número de pessoas de cada surto, válido na raiz do conjunto.
+     */
+    private final int[] tamanhoSurto;
+
+    /**
+     * Número de pessoas mal informadas de cada surto, válido na raiz do conjunto.
+     */
+    private final int[] ativasSurto;
+
+    /**
+     * Identidades das pessoas infectadas na iteração corrente, reaproveitadas entre as iterações.
+     */
+    private int[] infectadasIteracao = new int[64];
+
+    /**
+     * Geração de cada infecção em infectadasIteracao, gravada em geracao só ao concluir a iteração.
+     */
+    private int[] geracoesIteracao = new int[64];
+
+    /**
+     * Número de pessoas em infectadasIteracao.
+     */
+    private int numInfectadasIteracao;
+
+    /**
+     * Número de infecções de cada uma das últimas MAX_INTERVALO iterações, na posição iteração & (MAX_INTERVALO - 1).
+     */
+    private final long[] incidencia = new long[MAX_INTERVALO];
+
+    /**
+     * Número de infecções com cada intervalo de geração.
+     */
+    private final long[] histogramaIntervalos = new long[MAX_INTERVALO];
+
+    /**
+     * Número de infecções causadas por pessoas, com intervalo de geração conhecido.
+     */
+    private long numIntervalos;
+
+    /**
+     * Soma dos intervalos de geração.
+     */
+    private long somaIntervalos;
+
+    /**
+     * Número de infecções na iteração corrente.
+     */
+    private long infeccoesIteracao;
+
+    /**
+     * Número de infecções causadas por pessoas na iteração corrente.
+     */
+    private long infeccoesPorPessoasIteracao;
+
+    /**
+     * Número de infecções por vizinhos.
+     */
+    private long infeccoesVizinho;
+
+    /**
+     * Número de infecções por IAs geradoras.
+     */
+    private long infeccoesGeradora;
+
+    /**
+     * Número de infecções por mensagem.
+     */
+    private long infeccoesMensagem;
+
+    /**
+     * Número de infecções sem infectante: as pessoas mal informadas no início e as infectadas por IAs geradoras ou
+     * por mensagens de remetente desconhecido.
+     */
+    private long origens;
+
+    /**
+     * Maior geração alcançada.
+     */
+    private int maiorGeracao;
+
+    /**
+     * Número de surtos, contando os que não estão mais ativos.
+     */
+    private long surtos;
+
+    /**
+     * Número de surtos com pelo menos uma pessoa mal informada.
+     */
+    private long surtosAtivos;
+
+    /**
+     * Número de pessoas do maior surto, contando as que já foram curadas.
+     */
+    private int maiorSurto;
+
+    /**
+     * Número de surtos com cada número de pessoas mal informadas, a partir de 1.
+     */
+    private final int[] surtosPorAtivas;
+
+    /**
+     * Maior número de pessoas mal informadas de um surto na iteração.
+     */
+    private int maiorSurtoAtual;
+
+    /**
+     * Infecções causadas por pessoas em cada uma das últimas JANELA_REPRODUCAO iterações.
+     */
+    private final long[] porPessoasJanela = new long[JANELA_REPRODUCAO];
+
+    /**
+     * Infecções esperadas para um número de reprodução igual a 1 em cada uma das últimas JANELA_REPRODUCAO iterações.
+     */
+    private final double[] esperadasJanela = new double[JANELA_REPRODUCAO];
+
+    /**
+     * Número de reprodução efetivo nas últimas JANELA_REPRODUCAO iterações, ou NaN se ainda não pode ser calculado.
+     */
+    private double reproducaoEfetiva = Double.NaN;
+
+    /**
+     * Construtor da classe AnaliseSurto. As pessoas mal informadas no início são as origens da floresta e formam os
+     * primeiros surtos, o único passo que percorre toda a população.
+     *
+     * @param populacao  A população analisada.
+     * @param indice     O índice espacial com as posições atuais das pessoas.
+     * @param raio       O raio de contato.
+     * @param iteracoes  O número de iterações já concluídas.
+     */
+    public AnaliseSurto(Populacao populacao, IndiceEspacial indice, int raio, long iteracoes) {
+        this.populacao = populacao;
+        this.indice = indice;
+        this.raio = raio;
+        int numPessoas = populacao.tamanho();
+        this.infectante = new int[numPessoas];
+        this.iteracaoInfeccao = new long[numPessoas];
+        this.geracao = new int[numPessoas];
+        this.conjunto = new int[numPessoas];
+        this.tamanhoSurto = new int[numPessoas];
+        this.ativasSurto = new int[numPessoas];
+        this.surtosPorAtivas = new int[numPessoas + 1];
+        Arrays.fill(infectante, ORIGEM);
+        Arrays.fill(conjunto, -1);
+
+        for (int id = 0; id < numPessoas; id++) {
+            if (populacao.isMalInformada(id)) {
+                int identidade = populacao.getIdentidade(id);
+                iteracaoInfeccao[identidade] = iteracoes;
+                ativar(identidade);
+                origens++;
+                incidencia[(int) iteracoes & (MAX_INTERVALO - 1)]++;
+            }
+        }
+        for (int id = 0; id < numPessoas; id++) {
+            if (populacao.isMalInformada(id)) {
+                unirVizinhos(id);
+            }
+        }
+    }
+
+    /**
+     * Registra uma transição de estado da iteração corrente. As infecções entram na floresta e ativam o surto da
+     * pessoa; as curas desativam a pessoa no seu surto; as mudanças de resistência são ignoradas.
+     *
+     * @param tipo        O tipo da transição (GravadorRastro.INFECCAO_VIZINHO, ..., GravadorRastro.PERDA_RESISTENCIA).
+     * @param identidade  A identidade da pessoa.
+     * @param fonte       A fonte da transição, ou -1 se não houver.
+     */
+    public void registrar(int tipo, int identidade, int fonte) {
+        switch (tipo) {
+            case GravadorRastro.INFECCAO_VIZINHO:
+                infeccoesVizinho++;
+                infectar(identidade, fonte);
+                break;
+            case GravadorRastro.INFECCAO_MENSAGEM:
+                infeccoesMensagem++;
+                infectar(identidade, fonte);
+                break;
+            case GravadorRastro.INFECCAO_GERADORA:
+                infeccoesGeradora++;
+                infectar(identidade, ORIGEM);
+                break;
+            case GravadorRastro.CURA_DESTRUIDORA:
+                int raiz = raiz(identidade);
+                mudarAtivas(ativasSurto[raiz], ativasSurto[raiz] - 1);
+                if (--ativasSurto[raiz] == 0) {
+                    surtosAtivos--;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Acrescenta uma infecção à floresta e ao histograma dos intervalos de geração. A iteração e a geração da pessoa
+     * só são gravadas ao concluir a iteração: um infectante curado e infectado de novo por mensagem na mesma iteração
+     * continua com os dados da infecção anterior para todas as infecções dela, qualquer que seja a ordem de entrega.
+     *
+     * @param identidade  A identidade da pessoa infectada.
+     * @param fonte       A identidade do infectante, ou ORIGEM.
+     */
+    private void infectar(int identidade, int fonte) {
+        long iteracao = populacao.iteracao + 1;
+        infectante[identidade] = fonte;
+        int geracaoInfeccao = 0;
+        if (fonte == ORIGEM) {
+            origens++;
+        } else {
+            geracaoInfeccao = geracao[fonte] + 1;
+            maiorGeracao = Math.max(maiorGeracao, geracaoInfeccao);
+            long intervalo = iteracao - iteracaoInfeccao[fonte];
+            histogramaIntervalos[(int) Math.min(intervalo, MAX_INTERVALO - 1)]++;
+            somaIntervalos += intervalo;
+            numIntervalos++;
+            infeccoesPorPessoasIteracao++;
+        }
+        infeccoesIteracao++;
+        ativar(identidade);
+        if (numInfectadasIteracao == infectadasIteracao.length) {
+            infectadasIteracao = Arrays.copyOf(infectadasIteracao, numInfectadasIteracao * 2);
+            geracoesIteracao = Arrays.copyOf(geracoesIteracao, numInfectadasIteracao * 2);
+        }
+        geracoesIteracao[numInfectadasIteracao] = geracaoInfeccao;
+        infectadasIteracao[numInfectadasIteracao++] = identidade;
+    }
+
+    /**
+     * Encerra a iteração corrente: une as pessoas infectadas nela às pessoas mal informadas próximas e calcula o
+     * número de reprodução efetivo. Deve ser chamado depois da fase de interações, com o novo estado na população.
+     */
+    public void concluirIteracao() {
+        long iteracao = populacao.iteracao + 1;
+        for (int k = 0; k < numInfectadasIteracao; k++) {
+            iteracaoInfeccao[infectadasIteracao[k]] = iteracao;
+            geracao[infectadasIteracao[k]] = geracoesIteracao[k];
+            int id = populacao.getLugar(infectadasIteracao[k]);
+            if (populacao.isMalInformada(id)) {
+                unirVizinhos(id);
+            }
+        }
+        numInfectadasIteracao = 0;
+
+        /**
+         * Infecções esperadas na iteração para um número de reprodução igual a 1: a soma das infecções de cada
+         * iteração anterior, ponderada pela fração das infecções com o intervalo de geração correspondente.
+         */
+        double esperadas = 0;
+        for (int s = 1; s < MAX_INTERVALO; s++) {
+            esperadas += histogramaIntervalos[s] * (double) incidencia[(int) (iteracao - s) & (MAX_INTERVALO - 1)];
+        }
+        int posicao = (int) (iteracao % JANELA_REPRODUCAO);
+        porPessoasJanela[posicao] = infeccoesPorPessoasIteracao;
+        esperadasJanela[posicao] = numIntervalos == 0 ? 0 : esperadas / numIntervalos;
+        long porPessoas = 0;
+        esperadas = 0;
+        for (int k = 0; k < JANELA_REPRODUCAO; k++) {
+            porPessoas += porPessoasJanela[k];
+            esperadas += esperadasJanela[k];
+        }
+        reproducaoEfetiva = esperadas > 0 ? porPessoas / esperadas : Double.NaN;
+        incidencia[(int) iteracao & (MAX_INTERVALO - 1)] = infeccoesIteracao;
+        infeccoesIteracao = 0;
+        infeccoesPorPessoasIteracao = 0;
+    }
+
+    /**
+     * Une uma pessoa mal informada aos surtos das pessoas mal informadas a até raio unidades dela.
+     *
+     * @param i  O identificador da pessoa.
+     */
+    private void unirVizinhos(int i) {
+        int x = populacao.getX(i);
+        int y = populacao.getY(i);
+        int identidade = populacao.getIdentidade(i);
+        int bxMin = indice.baldeLinha(Math.max(0, x - raio));
+        int bxMax = indice.baldeLinha(Math.min(indice.getLinhas() - 1, x + raio));
+        int byMin = indice.baldeColuna(Math.max(0, y - raio));
+        int byMax = indice.baldeColuna(Math.min(indice.getColunas() - 1, y + raio));
+        for (int cx = bxMin; cx <= bxMax; cx++) {
+            for (int cy = byMin; cy <= byMax; cy++) {
+                for (int j = indice.primeiro(cx, cy); j != IndiceEspacial.VAZIO; j = indice.proximo(j)) {
+                    if (j != i && populacao.isMalInformada(j)
+                            && MotorTick.proximo(x, y, populacao.getX(j), populacao.getY(j), raio)) {
+                        unir(identidade, populacao.getIdentidade(j));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Marca uma pessoa como mal informada no seu surto, criando um surto só com ela se ela nunca foi infectada.
+     *
+     * @param identidade  A identidade da pessoa.
+     */
+    private void ativar(int identidade) {
+        if (conjunto[identidade] < 0) {
+            conjunto[identidade] = identidade;
+            tamanhoSurto[identidade] = 1;
+            ativasSurto[identidade] = 1;
+            surtos++;
+            surtosAtivos++;
+            maiorSurto = Math.max(maiorSurto, 1);
+            mudarAtivas(0, 1);
+            return;
+        }
+        int raiz = raiz(identidade);
+        mudarAtivas(ativasSurto[raiz], ativasSurto[raiz] + 1);
+        if (ativasSurto[raiz]++ == 0) {
+            surtosAtivos++;
+        }
+    }
+
+    /**
+     * Une os surtos de duas pessoas, pendurando o menor no maior.
+     *
+     * @param a  A identidade da primeira pessoa.
+     * @param b  A identidade da segunda pessoa.
+     */
+    private void unir(int a, int b) {
+        int raizA = raiz(a);
+        int raizB = raiz(b);
+        if (raizA == raizB) {
+            return;
+        }
+        if (tamanhoSurto[raizA] < tamanhoSurto[raizB]) {
+            int troca = raizA;
+            raizA = raizB;
+            raizB = troca;
+        }
+        conjunto[raizB] = raizA;
+        tamanhoSurto[raizA] += tamanhoSurto[raizB];
+        if (ativasSurto[raizA] > 0 && ativasSurto[raizB] > 0) {
+            surtosAtivos--;
+        }
+        mudarAtivas(ativasSurto[raizB], 0);
+        mudarAtivas(ativasSurto[raizA], ativasSurto[raizA] + ativasSurto[raizB]);
+        ativasSurto[raizA] += ativasSurto[raizB];
+        surtos--;
+        maiorSurto = Math.max(maiorSurto, tamanhoSurto[raizA]);
+    }
+
+    /**
+     * Move um surto no histograma do número de pessoas mal informadas e atualiza o maior surto atual. O máximo só
+     * diminui quando o último surto com esse número de mal informadas perde uma pessoa, e então passa a ser o número
+     * dele, que tem uma pessoa a menos.
+     *
+     * @param antes   O número de mal informadas do surto antes da mudança, ou 0 se ele não estava ativo.
+     * @param depois  O número de mal informadas do surto depois da mudança, ou 0 se ele deixou de estar ativo.
+     */
+    private void mudarAtivas(int antes, int depois) {
+        if (antes > 0) {
+            surtosPorAtivas[antes]--;
+        }
+        if (depois > 0) {
+            surtosPorAtivas[depois]++;
+        }
+        if (depois > maiorSurtoAtual) {
+            maiorSurtoAtual = depois;
+        } else if (antes == maiorSurtoAtual && surtosPorAtivas[antes] == 0) {
+            maiorSurtoAtual = depois;
+        }
+    }
+
+    /**
+     * Encontra a raiz do surto de uma pessoa, encurtando o caminho pela metade a cada passo.
+     *
+     * @param identidade  A identidade de uma pessoa já infectada.
+     * @return A identidade da raiz do surto.
+     */
+    private int raiz(int identidade) {
+        while (conjunto[identidade] != identidade) {
+            conjunto[identidade] = conjunto[conjunto[identidade]];
+            identidade = conjunto[identidade];
+        }
+        return identidade;
+    }
+
+    /**
+     * Retorna quem infectou a pessoa na última infecção dela.
+     *
+     * @param identidade  A identidade da pessoa.
+     * @return A identidade do infectante, ou ORIGEM.
+     */
+    public int getInfectante(int identidade) {
+        return infectante[identidade];
+    }
+
+    /**
+     * Retorna a geração da última infecção da pessoa.
+     *
+     * @param identidade  A identidade da pessoa.
+     * @return A geração, zero para as origens.
+     */
+    public int getGeracao(int identidade) {
+        return geracao[identidade];
+    }
+
+    /**
+     * Retorna a iteração da última infecção da pessoa.
+     *
+     * @param identidade  A identidade da pessoa.
+     * @return O número de iterações concluídas quando a pessoa foi infectada.
+     */
+    public long getIteracaoInfeccao(int identidade) {
+        return iteracaoInfeccao[identidade];
+    }
+
+    /**
+     * Retorna o número de reprodução efetivo nas últimas JANELA_REPRODUCAO iterações.
+     *
+     * @return O número de reprodução, ou NaN se ainda não há intervalos de geração ou infecções anteriores.
+     */
+    public double getReproducaoEfetiva() {
+        return reproducaoEfetiva;
+    }
+
+    /**
+     * Retorna a média dos intervalos de geração.
+     *
+     * @return A média, em iterações, ou NaN se ainda não houve infecções causadas por pessoas.
+     */
+    public double getIntervaloGeracaoMedio() {
+        return numIntervalos == 0 ? Double.NaN : (double) somaIntervalos / numIntervalos;
+    }
+
+    /**
+     * Retorna o número de surtos com pelo menos uma pessoa mal informada.
+     *
+     * @return O número de surtos ativos.
+     */
+    public long getSurtosAtivos() {
+        return surtosAtivos;
+    }
+
+    /**
+     * Retorna o número de pessoas do maior surto, contando as que já foram curadas.
+     *
+     * @return O tamanho acumulado do maior surto.
+     */
+    public int getMaiorSurto() {
+        return maiorSurto;
+    }
+
+    /**
+     * Retorna o maior número de pessoas mal informadas de um surto.
+     *
+     * @return O número de mal informadas do maior surto atual.
+     */
+    public int getMaiorSurtoAtual() {
+        return maiorSurtoAtual;
+    }
+
+    /**
+     * Monta a linha com os indicadores da iteração.
+     *
+     * @param iteracao  O número de iterações concluídas.
+     * @return A linha, sem quebra no final.
+     */
+    public String linha(long iteracao) {
+        return String.format(Locale.ROOT, "Análise %d - R efetivo: %.3f, Intervalo de geração médio: %.2f, "
+                + "Surtos ativos: %d, Maior surto acumulado: %d, Maior surto atual: %d", iteracao, reproducaoEfetiva,
+                getIntervaloGeracaoMedio(), surtosAtivos, maiorSurto, maiorSurtoAtual);
+    }
+
+    /**
+     * Monta o resumo da floresta de infecções e dos surtos, impresso ao final da execução.
+     *
+     * @return O resumo, com uma linha por indicador.
+     */
+    public String resumo() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "Infecções: %d (vizinhos: %d, IAs geradoras: %d, mensagens: %d)%n",
+                infeccoesVizinho + infeccoesGeradora + infeccoesMensagem, infeccoesVizinho, infeccoesGeradora,
+                infeccoesMensagem));
+        texto.append(String.format(Locale.ROOT, "Origens da floresta de infecções: %d, maior geração: %d%n",
+                origens, maiorGeracao));
+        texto.append(String.format(Locale.ROOT, "Intervalo de geração: média %.2f, mediana %d%n",
+                getIntervaloGeracaoMedio(), medianaIntervalos()));
+        texto.append(String.format(Locale.ROOT, "Surtos: %d, ativos: %d, maior acumulado: %d pessoas, "
+                + "maior atual: %d mal informadas%n", surtos, surtosAtivos, maiorSurto, maiorSurtoAtual));
+        return texto.toString();
+    }
+
+    /**
+     * Calcula a mediana dos intervalos de geração pelo histograma.
+     *
+     * @return A mediana, em iterações, ou zero se ainda não houve infecções causadas por pessoas.
+     */
+    private int medianaIntervalos() {
+        long acumulado = 0;
+        for (int s = 0; s < MAX_INTERVALO; s++) {
+            acumulado += histogramaIntervalos[s];
+            if (acumulado * 2 >= numIntervalos && numIntervalos > 0) {
+                return s;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Importa a classe AtomicLong para publicar as posições do anel entre as duas threads.
+ */
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importa a classe LockSupport para estacionar a thread que espera o anel.
+ */
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Classe AnelEventos representa um anel de eventos sem travas entre exatamente uma thread produtora e uma thread
+ * consumidora. Cada evento ocupa dois longs. A produtora escreve os eventos direto no anel e os publica de uma vez com
+ * publicar(), com uma única escrita ordenada; a consumidora lê tudo o que foi publicado e devolve as posições com
+ * consumir(). Nenhuma das duas threads aloca memória nem toma travas.
+ *
+ * A produtora só espera se o anel estiver cheio, ou seja, se a consumidora estiver atrasada um anel inteiro.
+ */
+class AnelEventos {
+    /**
+     * Tempo máximo que uma thread fica estacionada esperando a outra, em nanossegundos.
+     */
+    private static final long ESPERA_NS = 100_000;
+
+    /**
+     * Os eventos, dois longs por evento.
+     */
+    private final long[] dados;
+
+    /**
+     * Máscara para transformar uma posição em índice de dados.
+     */
+    private final int mascara;
+
+    /**
+     * Número de longs publicados pela produtora.
+     */
+    private final AtomicLong publicados = new AtomicLong();
+
+    /**
+     * Número de longs já consumidos pela consumidora.
+     */
+    private final AtomicLong consumidos = new AtomicLong();
+
+    /**
+     * Número de longs escritos pela produtora, publicados ou não. Só é acessado pela produtora.
+     */
+    private long escritos;
+
+    /**
+     * Último valor de consumidos lido pela produtora, para que ela só leia a posição da consumidora quando o anel
+     * parecer cheio.
+     */
+    private long consumidosVistos;
+
+    /**
+     * Thread consumidora, acordada a cada publicação.
+     */
+    private volatile Thread consumidora;
+
+    /**
+     * Indica que a produtora não vai mais publicar eventos.
+     */
+    private volatile boolean fechado;
+
+    /**
+     * Construtor da classe AnelEventos.
+     *
+     * @param eventos  O número de eventos que cabem no anel, uma potência de 2.
+     * @throws IllegalArgumentException Se o número de eventos não for uma potência de 2.
+     */
+    public AnelEventos(int eventos) {
+        if (eventos <= 0 || Integer.bitCount(eventos) != 1) {
+            throw new IllegalArgumentException("O número de eventos do anel deve ser uma potência de 2.");
+        }
+        this.dados = new long[eventos * 2];
+        this.mascara = dados.length - 1;
+    }
+
+    /**
+     * Escreve um evento no anel, sem publicá-lo. Chamado apenas pela produtora.
+     *
+     * @param a  O primeiro long do evento.
+     * @param b  O segundo long do evento.
+     */
+    public void escrever(long a, long b) {
+        if (escritos + 2 - consumidosVistos > dados.length) {
+            esperarEspaco();
+        }
+        dados[(int) escritos & mascara] = a;
+        dados[(int) (escritos + 1) & mascara] = b;
+        escritos += 2;
+    }
+
+    /**
+     * Publica os eventos escritos desde a última publicação e acorda a consumidora. Chamado apenas pela produtora.
+     */
+    public void publicar() {
+        publicados.lazySet(escritos);
+        Thread thread = consumidora;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Publica os últimos eventos e avisa a consumidora de que não haverá outros. Chamado apenas pela produtora.
+     */
+    public void fechar() {
+        fechado = true;
+        publicar();
+    }
+
+    /**
+     * Publica os eventos escritos e espera a consumidora liberar espaço para mais um evento.
+     */
+    private void esperarEspaco() {
+        publicar();
+        while (escritos + 2 - (consumidosVistos = consumidos.get()) > dados.length) {
+            LockSupport.parkNanos(this, ESPERA_NS);
+        }
+    }
+
+    /**
+     * Espera até que haja eventos publicados depois da posição informada. Chamado apenas pela consumidora.
+     *
+     * @param lidos  O número de longs já lidos pela consumidora.
+     * @return O número de longs publicados, maior que lidos, ou -1 se o anel foi fechado e não há mais eventos.
+     */
+    public long aguardar(long lidos) {
+        consumidora = Thread.currentThread();
+        while (true) {
+            long disponiveis = publicados.get();
+            if (disponiveis > lidos) {
+                return disponiveis;
+            }
+            if (fechado) {
+                disponiveis = publicados.get();
+                return disponiveis > lidos ? disponiveis : -1;
+            }
+            LockSupport.parkNanos(this, ESPERA_NS);
+        }
+    }
+
+    /**
+     * Lê um long publicado. Chamado apenas pela consumidora.
+     *
+     * @param posicao  A posição do long, entre os lidos e os publicados.
+     * @return O valor.
+     */
+    public long ler(long posicao) {
+        return dados[(int) posicao & mascara];
+    }
+
+    /**
+     * Devolve à produtora as posições lidas. Chamado apenas pela consumidora.
+     *
+     * @param lidos  O número de longs já lidos pela consumidora.
+     */
+    public void consumir(long lidos) {
+        consumidos.lazySet(lidos);
+    }
+}
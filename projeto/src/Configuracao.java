@@ -0,0 +1,1101 @@
+/**
+ * Importa a classe FileInputStream para ler o arquivo de cenário.
+ */
+import java.io.FileInputStream;
+
+/**
+ * Importa a classe IOException para tratar erros de leitura.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe InputStreamReader para ler o arquivo de cenário em UTF-8.
+ */
+import java.io.InputStreamReader;
+
+/**
+ * Importa a classe Reader para ler o arquivo de cenário.
+ */
+import java.io.Reader;
+
+/**
+ * Importa a classe StandardCharsets para indicar a codificação do arquivo de cenário.
+ */
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Importa a classe Properties para ler o arquivo de cenário.
+ */
+import java.util.Properties;
+
+/**
+ * Classe Configuracao representa os parâmetros de uma execução da simulação: tamanho do mundo, população,
+ * fração inicial de mal informadas, raio de contato, duração da resistência, quantidade de cada tipo de IA,
+ * semente e opções de execução.
+ *
+ * Os valores podem vir de um arquivo de cenário no formato .properties (argumento "--cenario arquivo"),
+ * com as chaves iguais aos nomes dos argumentos sem os dois hífens (por exemplo, "pessoas=100000"),
+ * e de argumentos de linha de comando, que têm prioridade sobre o arquivo.
+ *
+ * As posições dos atores podem ser fixadas com "--posicoes-geradoras", "--posicoes-destruidoras" e "--posicoes-meios",
+ * no formato "x:y;x:y;...". Nesse caso, o número de atores do tipo é o número de posições informadas.
+ *
+ * No modo visual, apenas uma janela do mapa é desenhada, definida por "--janela-x", "--janela-y",
+ * "--janela-linhas" e "--janela-colunas".
+ *
+ * Com "--aceitacao-mensagem p", cada pessoa que fica mal informada encaminha a fake news aos contatos da sua agenda do
+ * Whatsapp, que a aceitam com probabilidade p depois de um atraso entre "--atraso-mensagem" e "--atraso-mensagem-max" iterações.
+ *
+ * Com "--instantaneo arquivo", o estado completo da simulação é gravado no arquivo a cada "--intervalo-instantaneo"
+ * iterações e ao final. Com "--retomar arquivo", a simulação continua a partir do instantâneo gravado, e o tamanho
+ * do mapa, as pessoas, os atores, o raio, a duração da resistência, o encaminhamento de mensagens, as estratégias de
+ * movimento, a patrulha e a semente passam a ser os do instantâneo.
+ *
+ * A cada "--intervalo-reordenacao" iterações, as pessoas são reordenadas na memória pela curva de Morton da posição no mapa,
+ * o que acelera a fase de interações sem mudar o resultado; zero desativa a reordenação.
+ *
+ * Por padrão, cada pessoa dá um passo aleatório por iteração. Com "--fracao-polos f", uma fração f das pessoas é atraída
+ * por um dos "--polos" pontos de encontro do mapa, dando o passo em direção a ele com probabilidade "--atracao-polos";
+ * com "--fracao-levy f", uma fração f das pessoas faz voos de Lévy com expoente "--expoente-levy". Com "--patrulha r",
+ * as IAs e os meios fazem uma ronda em volta do seu posto, no contorno do quadrado de raio r.
+ *
+ * Com "--verificar-alocacao", cada iteração em que nenhuma estrutura cresceu deve alocar no máximo "--limite-alocacao"
+ * bytes (padrão 1024) na thread da simulação; caso contrário, a execução é interrompida com um erro.
+ *
+ * Com "--perfil", a duração de cada fase das iterações é registrada em histogramas, resumidos ao final da execução.
+ * Com "--jmx", os contadores da simulação, as iterações por segundo e o resumo das fases ficam disponíveis em um MBean.
+ *
+ * Com "--arquivo-contatos arquivo", as tabelas das agendas de contatos, que ficam fora do heap do Java, são mapeadas a
+ * partir do arquivo em vez de ocupar a memória direta do processo, e podem passar do tamanho da memória física.
+ * Com "--arquivo-pessoas arquivo", o mesmo vale para os registros das pessoas da Populacao.
+ *
+ * Com "--rastro arquivo", todas as transições de estado das pessoas, com a sua fonte, são gravadas no arquivo por uma
+ * thread separada, com um quadro-chave do estado de todas as pessoas a cada "--intervalo-quadros" iterações (padrão
+ * 1000). O rastro é reproduzido com "java Simulacao --reproduzir arquivo".
+ *
+ * Com "--analise", cada linha de contadores vem seguida do número de reprodução efetivo, do intervalo de geração médio
+ * e dos surtos de pessoas mal informadas, calculados pela AnaliseSurto, e o resumo da floresta de infecções é impresso
+ * ao final da execução.
+ *
+ * Com "--processos n", o mapa é dividido em n faixas de linhas, cada uma simulada por um processo separado
+ * (TrabalhadorFaixa), e "--threads" passa a ser o total de threads, dividido entre os processos. A simulação
+ * distribuída roda apenas sem interface, e não aceita instantâneos, a retomada, o perfil, o JMX nem as verificações.
+ */
+class Configuracao {
+    /**
+     * Número de linhas do mapa da simulação.
+     */
+    private int linhas = 30;
+
+    /**
+     * Número de colunas do mapa da simulação.
+     */
+    private int colunas = 60;
+
+    /**
+     * Número total de pessoas na simulação.
+     */
+    private int pessoas = 100;
+
+    /**
+     * Número total de iterações que a simulação deve executar.
+     */
+    private long iteracoes = 1000;
+
+    /**
+     * Fração das pessoas que começa mal informada, entre 0 e 1.
+     */
+    private double fracaoInfectados = 0;
+
+    /**
+     * Distância máxima, em qualquer direção, para que haja contato.
+     */
+    private int raioContato = 1;
+
+    /**
+     * Número de iterações durante as quais uma pessoa permanece resistente a fake news.
+     */
+    private long duracaoResistencia = 30;
+
+    /**
+     * Probabilidade de um contato do Whatsapp aceitar a fake news encaminhada por mensagem. Zero desativa o encaminhamento.
+     */
+    private double aceitacaoMensagem = 0;
+
+    /**
+     * Atraso mínimo de entrega das mensagens, em iterações.
+     */
+    private long atrasoMensagem = 1;
+
+    /**
+     * Atraso máximo de entrega das mensagens, em iterações, ou -1 para usar o atraso mínimo.
+     */
+    private long atrasoMensagemMax = -1;
+
+    /**
+     * Número de IAs geradoras de fake news.
+     */
+    private int geradoras = 1;
+
+    /**
+     * Número de IAs destruidoras de fake news.
+     */
+    private int destruidoras = 1;
+
+    /**
+     * Número de meios de comunicação confiáveis.
+     */
+    private int meios = 1;
+
+    /**
+     * Posições fixas das IAs geradoras, intercaladas (x0, y0, x1, y1, ...), ou null para posições aleatórias.
+     */
+    private int[] posicoesGeradoras;
+
+    /**
+     * Posições fixas das IAs destruidoras, intercaladas (x0, y0, x1, y1, ...), ou null para posições aleatórias.
+     */
+    private int[] posicoesDestruidoras;
+
+    /**
+     * Posições fixas dos meios de comunicação confiáveis, intercaladas (x0, y0, x1, y1, ...), ou null para posições aleatórias.
+     */
+    private int[] posicoesMeios;
+
+    /**
+     * Semente da simulação.
+     */
+    private long semente = System.nanoTime();
+
+    /**
+     * Número de threads usadas pelo motor.
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Indica se a simulação roda sem montar nem desenhar o mapa.
+     */
+    private boolean semInterface = false;
+
+    /**
+     * Intervalo, em iterações, entre as impressões dos contadores no modo sem interface.
+     */
+    private long intervaloAmostragem = 1;
+
+    /**
+     * Pausa entre os quadros do modo visual, em milissegundos.
+     */
+    private long atrasoQuadro = 1000;
+
+    /**
+     * Indica se os contatos do índice espacial devem ser conferidos contra a varredura completa.
+     */
+    private boolean verificarIndice = false;
+
+    /**
+     * Indica se os contadores incrementais da população devem ser conferidos contra a contagem completa.
+     */
+    private boolean verificarContadores = false;
+
+    /**
+     * Indica se a alocação de memória de cada iteração deve ser conferida contra o limite.
+     */
+    private boolean verificarAlocacao = false;
+
+    /**
+     * Número máximo de bytes que a thread da simulação pode alocar em uma iteração em que nenhuma estrutura cresceu.
+     */
+    private long limiteAlocacao = 1024;
+
+    /**
+     * Indica se o resumo da duração das fases das iterações deve ser impresso ao final da execução.
+     */
+    private boolean perfil = false;
+
+    /**
+     * Indica se os indicadores epidemiológicos dos surtos devem ser calculados e impressos.
+     */
+    private boolean analise = false;
+
+    /**
+     * Indica se os contadores da simulação devem ser publicados em um MBean.
+     */
+    private boolean jmx = false;
+
+    /**
+     * Arquivo onde as métricas de cada iteração são gravadas, ou null para não gravar.
+     */
+    private String metricas;
+
+    /**
+     * Formato do arquivo de métricas ("binario", "csv" ou "jsonl"), ou null para deduzi-lo da extensão do arquivo.
+     */
+    private String formatoMetricas;
+
+    /**
+     * Arquivo mapeado em memória onde ficam as tabelas das agendas de contatos, ou null para usar a memória direta.
+     */
+    private String arquivoContatos;
+
+    /**
+     * Arquivo mapeado em memória onde ficam os registros das pessoas, ou null para usar a memória direta.
+     */
+    private String arquivoPessoas;
+
+    /**
+     * Arquivo onde o rastro das transições de estado é gravado, ou null para não gravar.
+     */
+    private String rastro;
+
+    /**
+     * Intervalo, em iterações, entre os quadros-chave do rastro.
+     */
+    private long intervaloQuadros = 1000;
+
+    /**
+     * Arquivo onde os instantâneos da simulação são gravados, ou null para não gravar.
+     */
+    private String instantaneo;
+
+    /**
+     * Intervalo, em iterações, entre os instantâneos.
+     */
+    private long intervaloInstantaneo = 1000;
+
+    /**
+     * Intervalo, em iterações, entre as reordenações da população pela curva de Morton, ou zero para não reordenar.
+     */
+    private long intervaloReordenacao = 16;
+
+    /**
+     * Fração das pessoas atraídas pelos polos.
+     */
+    private double fracaoPolos = 0;
+
+    /**
+     * Número de polos que atraem as pessoas.
+     */
+    private int polos = 4;
+
+    /**
+     * Probabilidade de uma pessoa atraída dar o passo em direção ao seu polo.
+     */
+    private double atracaoPolos = 0.5;
+
+    /**
+     * Fração das pessoas que fazem voos de Lévy.
+     */
+    private double fracaoLevy = 0;
+
+    /**
+     * Expoente da distribuição do comprimento dos voos de Lévy.
+     */
+    private double expoenteLevy = 1.5;
+
+    /**
+     * Raio da ronda das IAs e dos meios em volta do seu posto, ou zero para deixá-los fixos.
+     */
+    private int patrulha = 0;
+
+    /**
+     * Número de processos entre os quais as linhas do mapa são divididas; 1 executa a simulação em um único processo.
+     */
+    private int processos = 1;
+
+    /**
+     * Arquivo de instantâneo a partir do qual a simulação é retomada, ou null para começar do zero.
+     */
+    private String retomar;
+
+    /**
+     * Linha do mapa onde começa a janela desenhada no modo visual.
+     */
+    private int janelaX = 0;
+
+    /**
+     * Coluna do mapa onde começa a janela desenhada no modo visual.
+     */
+    private int janelaY = 0;
+
+    /**
+     * Número máximo de linhas da janela desenhada no modo visual.
+     */
+    private int janelaLinhas = 40;
+
+    /**
+     * Número máximo de colunas da janela desenhada no modo visual.
+     */
+    private int janelaColunas = 120;
+
+    /**
+     * Cria a configuração a partir dos argumentos de linha de comando e, se informado, do arquivo de cenário.
+     *
+     * @param args  Os argumentos de linha de comando.
+     * @return A configuração validada.
+     * @throws IOException Se o arquivo de cenário não puder ser lido.
+     * @throws IllegalArgumentException Se algum argumento for desconhecido ou tiver valor inválido.
+     */
+    public static Configuracao deArgumentos(String[] args) throws IOException {
+        Configuracao configuracao = new Configuracao();
+
+        /**
+         * Primeiro lê o arquivo de cenário, para que os argumentos de linha de comando possam sobrescrevê-lo.
+         */
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--cenario")) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("O argumento --cenario precisa de um valor.");
+                }
+                Properties propriedades = new Properties();
+                try (Reader leitor = new InputStreamReader(new FileInputStream(args[i + 1]), StandardCharsets.UTF_8)) {
+                    propriedades.load(leitor);
+                }
+                for (String chave : propriedades.stringPropertyNames()) {
+                    configuracao.definir(chave, propriedades.getProperty(chave).trim());
+                }
+            }
+        }
+
+        for (int i = 0; i < args.length; i++) {
+            String argumento = args[i];
+            if (!argumento.startsWith("--")) {
+                throw new IllegalArgumentException("Argumento inesperado: " + argumento);
+            }
+            String nome = argumento.substring(2);
+            if (ehOpcao(nome)) {
+                configuracao.definir(nome, "true");
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("O argumento " + argumento + " precisa de um valor.");
+            }
+            String valor = args[++i];
+            if (!nome.equals("cenario")) {
+                configuracao.definir(nome, valor);
+            }
+        }
+
+        configuracao.validar();
+        return configuracao;
+    }
+
+    /**
+     * Verifica se o parâmetro é uma opção sem valor na linha de comando. Também usado pela Varredura, para separar
+     * as opções dos argumentos com valor repassados a todas as simulações.
+     *
+     * @param nome  O nome do parâmetro, sem os hífens.
+     * @return true se o parâmetro for uma opção sem valor.
+     */
+    static boolean ehOpcao(String nome) {
+        return nome.equals("sem-interface") || nome.equals("verificar-indice") || nome.equals("verificar-contadores")
+                || nome.equals("verificar-alocacao") || nome.equals("perfil") || nome.equals("jmx")
+                || nome.equals("analise");
+    }
+
+    /**
+     * Define um parâmetro a partir do seu nome e do valor em texto.
+     *
+     * @param nome   O nome do parâmetro, sem os hífens.
+     * @param valor  O valor em texto.
+     * @throws IllegalArgumentException Se o parâmetro for desconhecido ou o valor for inválido.
+     */
+    private void definir(String nome, String valor) {
+        try {
+            switch (nome) {
+                case "linhas":
+                    linhas = Integer.parseInt(valor);
+                    break;
+                case "colunas":
+                    colunas = Integer.parseInt(valor);
+                    break;
+                case "pessoas":
+                    pessoas = Integer.parseInt(valor);
+                    break;
+                case "iteracoes":
+                    iteracoes = Long.parseLong(valor);
+                    break;
+                case "fracao-infectados":
+                    fracaoInfectados = Double.parseDouble(valor);
+                    break;
+                case "raio-contato":
+                    raioContato = Integer.parseInt(valor);
+                    break;
+                case "duracao-resistencia":
+                    duracaoResistencia = Long.parseLong(valor);
+                    break;
+                case "aceitacao-mensagem":
+                    aceitacaoMensagem = Double.parseDouble(valor);
+                    break;
+                case "atraso-mensagem":
+                    atrasoMensagem = Long.parseLong(valor);
+                    break;
+                case "atraso-mensagem-max":
+                    atrasoMensagemMax = Long.parseLong(valor);
+                    break;
+                case "geradoras":
+                    geradoras = Integer.parseInt(valor);
+                    break;
+                case "destruidoras":
+                    destruidoras = Integer.parseInt(valor);
+                    break;
+                case "meios":
+                    meios = Integer.parseInt(valor);
+                    break;
+                case "posicoes-geradoras":
+                    posicoesGeradoras = lerPosicoes(valor);
+                    break;
+                case "posicoes-destruidoras":
+                    posicoesDestruidoras = lerPosicoes(valor);
+                    break;
+                case "posicoes-meios":
+                    posicoesMeios = lerPosicoes(valor);
+                    break;
+                case "semente":
+                    semente = Long.parseLong(valor);
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(valor);
+                    break;
+                case "sem-interface":
+                    semInterface = Boolean.parseBoolean(valor);
+                    break;
+                case "intervalo-amostragem":
+                    intervaloAmostragem = Long.parseLong(valor);
+                    break;
+                case "atraso-quadro":
+                    atrasoQuadro = Long.parseLong(valor);
+                    break;
+                case "verificar-indice":
+                    verificarIndice = Boolean.parseBoolean(valor);
+                    break;
+                case "verificar-contadores":
+                    verificarContadores = Boolean.parseBoolean(valor);
+                    break;
+                case "verificar-alocacao":
+                    verificarAlocacao = Boolean.parseBoolean(valor);
+                    break;
+                case "limite-alocacao":
+                    limiteAlocacao = Long.parseLong(valor);
+                    break;
+                case "perfil":
+                    perfil = Boolean.parseBoolean(valor);
+                    break;
+                case "analise":
+                    analise = Boolean.parseBoolean(valor);
+                    break;
+                case "jmx":
+                    jmx = Boolean.parseBoolean(valor);
+                    break;
+                case "metricas":
+                    metricas = valor;
+                    break;
+                case "formato-metricas":
+                    formatoMetricas = valor;
+                    break;
+                case "arquivo-contatos":
+                    arquivoContatos = valor;
+                    break;
+                case "arquivo-pessoas":
+                    arquivoPessoas = valor;
+                    break;
+                case "rastro":
+                    rastro = valor;
+                    break;
+                case "intervalo-quadros":
+                    intervaloQuadros = Long.parseLong(valor);
+                    break;
+                case "instantaneo":
+                    instantaneo = valor;
+                    break;
+                case "intervalo-instantaneo":
+                    intervaloInstantaneo = Long.parseLong(valor);
+                    break;
+                case "retomar":
+                    retomar = valor;
+                    break;
+                case "intervalo-reordenacao":
+                    intervaloReordenacao = Long.parseLong(valor);
+                    break;
+                case "fracao-polos":
+                    fracaoPolos = Double.parseDouble(valor);
+                    break;
+                case "polos":
+                    polos = Integer.parseInt(valor);
+                    break;
+                case "atracao-polos":
+                    atracaoPolos = Double.parseDouble(valor);
+                    break;
+                case "fracao-levy":
+                    fracaoLevy = Double.parseDouble(valor);
+                    break;
+                case "expoente-levy":
+                    expoenteLevy = Double.parseDouble(valor);
+                    break;
+                case "patrulha":
+                    patrulha = Integer.parseInt(valor);
+                    break;
+                case "processos":
+                    processos = Integer.parseInt(valor);
+                    break;
+                case "janela-x":
+                    janelaX = Integer.parseInt(valor);
+                    break;
+                case "janela-y":
+                    janelaY = Integer.parseInt(valor);
+                    break;
+                case "janela-linhas":
+                    janelaLinhas = Integer.parseInt(valor);
+                    break;
+                case "janela-colunas":
+                    janelaColunas = Integer.parseInt(valor);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Parâmetro desconhecido: " + nome);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + nome + ": " + valor, e);
+        }
+    }
+
+    /**
+     * Lê uma lista de posições no formato "x:y;x:y;...".
+     *
+     * @param valor  O texto com as posições.
+     * @return As posições, intercaladas (x0, y0, x1, y1, ...).
+     * @throws NumberFormatException Se alguma coordenada não for um número inteiro.
+     * @throws IllegalArgumentException Se alguma posição não tiver exatamente duas coordenadas.
+     */
+    private static int[] lerPosicoes(String valor) {
+        if (valor.trim().isEmpty()) {
+            return new int[0];
+        }
+        String[] pares = valor.split(";");
+        int[] posicoes = new int[2 * pares.length];
+        for (int i = 0; i < pares.length; i++) {
+            String[] coordenadas = pares[i].trim().split(":");
+            if (coordenadas.length != 2) {
+                throw new IllegalArgumentException("Posição inválida: " + pares[i] + ". Use o formato x:y.");
+            }
+            posicoes[2 * i] = Integer.parseInt(coordenadas[0].trim());
+            posicoes[2 * i + 1] = Integer.parseInt(coordenadas[1].trim());
+        }
+        return posicoes;
+    }
+
+    /**
+     * Confere se as posições fixas de um tipo de ator estão dentro do mapa.
+     *
+     * @param posicoes  As posições intercaladas, ou null.
+     * @return true se não houver posições fixas ou se todas estiverem dentro do mapa.
+     */
+    private boolean dentroDoMapa(int[] posicoes) {
+        if (posicoes == null) {
+            return true;
+        }
+        for (int i = 0; i < posicoes.length; i += 2) {
+            if (posicoes[i] < 0 || posicoes[i] >= linhas || posicoes[i + 1] < 0 || posicoes[i + 1] >= colunas) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Confere se os parâmetros são coerentes entre si.
+     *
+     * @throws IllegalArgumentException Se algum parâmetro estiver fora dos limites permitidos.
+     */
+    private void validar() {
+        exigir(linhas > 0 && colunas > 0, "O mapa deve ter pelo menos uma linha e uma coluna.");
+        exigir(pessoas >= 0 && pessoas < Integer.MAX_VALUE, "O número de pessoas deve estar entre 0 e " + (Integer.MAX_VALUE - 1) + ".");
+        exigir(iteracoes >= 0, "O número de iterações não pode ser negativo.");
+        exigir(fracaoInfectados >= 0 && fracaoInfectados <= 1, "A fração de infectados deve estar entre 0 e 1.");
+        exigir(raioContato >= 0, "O raio de contato não pode ser negativo.");
+        exigir(duracaoResistencia >= 0, "A duração da resistência não pode ser negativa.");
+        exigir(aceitacaoMensagem >= 0 && aceitacaoMensagem <= 1, "A probabilidade de aceitação da mensagem deve estar entre 0 e 1.");
+        exigir(atrasoMensagem >= 1 && (atrasoMensagemMax == -1 || atrasoMensagemMax >= atrasoMensagem),
+                "O atraso das mensagens deve ser de pelo menos uma iteração, e o máximo não pode ser menor que o mínimo.");
+        exigir(geradoras >= 0 && destruidoras >= 0 && meios >= 0, "O número de IAs e de meios não pode ser negativo.");
+        exigir(dentroDoMapa(posicoesGeradoras) && dentroDoMapa(posicoesDestruidoras) && dentroDoMapa(posicoesMeios),
+                "As posições das IAs e dos meios devem estar dentro do mapa.");
+        exigir(threads > 0, "O número de threads deve ser maior que zero.");
+        exigir(intervaloAmostragem > 0, "O intervalo de amostragem deve ser maior que zero.");
+        exigir(atrasoQuadro >= 0, "O atraso entre quadros não pode ser negativo.");
+        exigir(intervaloInstantaneo > 0, "O intervalo entre instantâneos deve ser maior que zero.");
+        exigir(intervaloQuadros > 0, "O intervalo entre quadros-chave do rastro deve ser maior que zero.");
+        exigir(limiteAlocacao >= 0, "O limite de alocação não pode ser negativo.");
+        exigir(intervaloReordenacao >= 0, "O intervalo entre reordenações não pode ser negativo.");
+        exigir(fracaoPolos >= 0 && fracaoLevy >= 0 && fracaoPolos + fracaoLevy <= 1,
+                "As frações de pessoas atraídas pelos polos e em voos de Lévy devem somar no máximo 1.");
+        exigir(polos > 0, "O número de polos deve ser maior que zero.");
+        exigir(atracaoPolos >= 0 && atracaoPolos <= 1, "A atração dos polos deve estar entre 0 e 1.");
+        exigir(expoenteLevy > 0, "O expoente dos voos de Lévy deve ser maior que zero.");
+        exigir(patrulha >= 0, "O raio da patrulha não pode ser negativo.");
+        exigir(processos >= 1 && processos <= linhas, "O número de processos deve estar entre 1 e o número de linhas do mapa.");
+        exigir(processos == 1 || semInterface, "A simulação distribuída roda apenas com --sem-interface.");
+        exigir(processos == 1 || (instantaneo == null && retomar == null && !perfil && !jmx && !verificarIndice
+                        && !verificarContadores && !verificarAlocacao),
+                "A simulação distribuída não aceita instantâneos, a retomada, o perfil, o JMX nem as verificações.");
+        exigir(processos == 1 || (arquivoContatos == null && arquivoPessoas == null),
+                "A simulação distribuída não aceita o arquivo de contatos nem o arquivo de pessoas.");
+        exigir(processos == 1 || (rastro == null && !analise), "A simulação distribuída não aceita o rastro nem a análise dos surtos.");
+        exigir(janelaX >= 0 && janelaX < linhas && janelaY >= 0 && janelaY < colunas, "A janela deve começar dentro do mapa.");
+        if (metricas != null) {
+            GravadorMetricas.formatoPorNome(formatoMetricas, metricas);
+        }
+        exigir(janelaLinhas > 0 && janelaColunas > 0, "A janela deve ter pelo menos uma linha e uma coluna.");
+    }
+
+    /**
+     * Lança uma exceção com a mensagem informada se a condição for falsa.
+     *
+     * @param condicao  A condição exigida.
+     * @param mensagem  A mensagem de erro.
+     */
+    private static void exigir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalArgumentException(mensagem);
+        }
+    }
+
+    /**
+     * Retorna o número de linhas do mapa.
+     *
+     * @return O número de linhas.
+     */
+    public int getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * Retorna o número de colunas do mapa.
+     *
+     * @return O número de colunas.
+     */
+    public int getColunas() {
+        return colunas;
+    }
+
+    /**
+     * Retorna o número total de pessoas.
+     *
+     * @return O número de pessoas.
+     */
+    public int getPessoas() {
+        return pessoas;
+    }
+
+    /**
+     * Retorna o número total de iterações.
+     *
+     * @return O número de iterações.
+     */
+    public long getIteracoes() {
+        return iteracoes;
+    }
+
+    /**
+     * Retorna a fração das pessoas que começa mal informada.
+     *
+     * @return A fração inicial de mal informadas, entre 0 e 1.
+     */
+    public double getFracaoInfectados() {
+        return fracaoInfectados;
+    }
+
+    /**
+     * Retorna a distância máxima para que haja contato.
+     *
+     * @return O raio de contato.
+     */
+    public int getRaioContato() {
+        return raioContato;
+    }
+
+    /**
+     * Retorna a duração da resistência a fake news, em iterações.
+     *
+     * @return A duração da resistência.
+     */
+    public long getDuracaoResistencia() {
+        return duracaoResistencia;
+    }
+
+    /**
+     * Retorna a probabilidade de um contato aceitar a fake news encaminhada por mensagem.
+     *
+     * @return A probabilidade, entre 0 e 1.
+     */
+    public double getAceitacaoMensagem() {
+        return aceitacaoMensagem;
+    }
+
+    /**
+     * Retorna o atraso mínimo de entrega das mensagens.
+     *
+     * @return O atraso mínimo, em iterações.
+     */
+    public long getAtrasoMensagem() {
+        return atrasoMensagem;
+    }
+
+    /**
+     * Retorna o atraso máximo de entrega das mensagens.
+     *
+     * @return O atraso máximo, em iterações.
+     */
+    public long getAtrasoMensagemMax() {
+        return atrasoMensagemMax == -1 ? atrasoMensagem : atrasoMensagemMax;
+    }
+
+    /**
+     * Retorna o número de IAs geradoras de fake news.
+     *
+     * @return O número de IAs geradoras.
+     */
+    public int getGeradoras() {
+        return geradoras;
+    }
+
+    /**
+     * Retorna o número de IAs destruidoras de fake news.
+     *
+     * @return O número de IAs destruidoras.
+     */
+    public int getDestruidoras() {
+        return destruidoras;
+    }
+
+    /**
+     * Retorna o número de meios de comunicação confiáveis.
+     *
+     * @return O número de meios.
+     */
+    public int getMeios() {
+        return meios;
+    }
+
+    /**
+     * Retorna as posições fixas das IAs geradoras.
+     *
+     * @return As posições intercaladas (x0, y0, x1, y1, ...), ou null para posições aleatórias.
+     */
+    public int[] getPosicoesGeradoras() {
+        return posicoesGeradoras;
+    }
+
+    /**
+     * Retorna as posições fixas das IAs destruidoras.
+     *
+     * @return As posições intercaladas (x0, y0, x1, y1, ...), ou null para posições aleatórias.
+     */
+    public int[] getPosicoesDestruidoras() {
+        return posicoesDestruidoras;
+    }
+
+    /**
+     * Retorna as posições fixas dos meios de comunicação confiáveis.
+     *
+     * @return As posições intercaladas (x0, y0, x1, y1, ...), ou null para posições aleatórias.
+     */
+    public int[] getPosicoesMeios() {
+        return posicoesMeios;
+    }
+
+    /**
+     * Retorna a semente da simulação.
+     *
+     * @return A semente.
+     */
+    public long getSemente() {
+        return semente;
+    }
+
+    /**
+     * Retorna o número de threads usadas pelo motor.
+     *
+     * @return O número de threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Indica se a simulação roda sem montar nem desenhar o mapa.
+     *
+     * @return true no modo sem interface.
+     */
+    public boolean isSemInterface() {
+        return semInterface;
+    }
+
+    /**
+     * Retorna o intervalo, em iterações, entre as impressões dos contadores no modo sem interface.
+     *
+     * @return O intervalo de amostragem.
+     */
+    public long getIntervaloAmostragem() {
+        return intervaloAmostragem;
+    }
+
+    /**
+     * Retorna a pausa entre os quadros do modo visual.
+     *
+     * @return O atraso entre quadros, em milissegundos.
+     */
+    public long getAtrasoQuadro() {
+        return atrasoQuadro;
+    }
+
+    /**
+     * Indica se os contatos do índice espacial devem ser conferidos contra a varredura completa.
+     *
+     * @return true se a verificação estiver ativada.
+     */
+    public boolean isVerificarIndice() {
+        return verificarIndice;
+    }
+
+    /**
+     * Indica se os contadores incrementais da população devem ser conferidos contra a contagem completa.
+     *
+     * @return true se a verificação estiver ativada.
+     */
+    public boolean isVerificarContadores() {
+        return verificarContadores;
+    }
+
+    /**
+     * Indica se a alocação de memória de cada iteração deve ser conferida contra o limite.
+     *
+     * @return true se a verificação estiver ativada.
+     */
+    public boolean isVerificarAlocacao() {
+        return verificarAlocacao;
+    }
+
+    /**
+     * Retorna o número máximo de bytes que a thread da simulação pode alocar em uma iteração em que nenhuma estrutura cresceu.
+     *
+     * @return O limite, em bytes.
+     */
+    public long getLimiteAlocacao() {
+        return limiteAlocacao;
+    }
+
+    /**
+     * Indica se o resumo da duração das fases das iterações deve ser impresso ao final da execução.
+     *
+     * @return true se o perfil estiver ativado.
+     */
+    public boolean isPerfil() {
+        return perfil;
+    }
+
+    /**
+     * Indica se os indicadores epidemiológicos dos surtos devem ser calculados e impressos.
+     *
+     * @return true se a análise dos surtos estiver ativada.
+     */
+    public boolean isAnalise() {
+        return analise;
+    }
+
+    /**
+     * Indica se os contadores da simulação devem ser publicados em um MBean.
+     *
+     * @return true se o MBean estiver ativado.
+     */
+    public boolean isJmx() {
+        return jmx;
+    }
+
+    /**
+     * Retorna o arquivo onde as métricas de cada iteração são gravadas.
+     *
+     * @return O nome do arquivo, ou null se as métricas não forem gravadas.
+     */
+    public String getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Retorna o formato do arquivo de métricas.
+     *
+     * @return GravadorMetricas.FORMATO_BINARIO, FORMATO_CSV ou FORMATO_JSONL.
+     */
+    public int getFormatoMetricas() {
+        return GravadorMetricas.formatoPorNome(formatoMetricas, metricas == null ? "" : metricas);
+    }
+
+    /**
+     * Retorna o arquivo mapeado em memória onde ficam as tabelas das agendas de contatos.
+     *
+     * @return O nome do arquivo, ou null se as tabelas ficam na memória direta.
+     */
+    public String getArquivoContatos() {
+        return arquivoContatos;
+    }
+
+    /**
+     * Retorna o arquivo mapeado em memória onde ficam os registros das pessoas.
+     *
+     * @return O nome do arquivo, ou null se os registros ficam na memória direta.
+     */
+    public String getArquivoPessoas() {
+        return arquivoPessoas;
+    }
+
+    /**
+     * Retorna o arquivo onde o rastro das transições de estado é gravado.
+     *
+     * @return O nome do arquivo, ou null se o rastro não for gravado.
+     */
+    public String getRastro() {
+        return rastro;
+    }
+
+    /**
+     * Retorna o intervalo entre os quadros-chave do rastro.
+     *
+     * @return O intervalo, em iterações.
+     */
+    public long getIntervaloQuadros() {
+        return intervaloQuadros;
+    }
+
+    /**
+     * Retorna o arquivo onde os instantâneos da simulação são gravados.
+     *
+     * @return O nome do arquivo, ou null se os instantâneos não forem gravados.
+     */
+    public String getInstantaneo() {
+        return instantaneo;
+    }
+
+    /**
+     * Retorna o intervalo entre os instantâneos.
+     *
+     * @return O intervalo, em iterações.
+     */
+    public long getIntervaloInstantaneo() {
+        return intervaloInstantaneo;
+    }
+
+    /**
+     * Retorna o intervalo entre as reordenações da população pela curva de Morton.
+     *
+     * @return O intervalo, em iterações, ou zero se a reordenação está desativada.
+     */
+    public long getIntervaloReordenacao() {
+        return intervaloReordenacao;
+    }
+
+    /**
+     * Retorna a fração das pessoas atraídas pelos polos.
+     *
+     * @return A fração, entre 0 e 1.
+     */
+    public double getFracaoPolos() {
+        return fracaoPolos;
+    }
+
+    /**
+     * Retorna o número de polos que atraem as pessoas.
+     *
+     * @return O número de polos.
+     */
+    public int getPolos() {
+        return polos;
+    }
+
+    /**
+     * Retorna a probabilidade de uma pessoa atraída dar o passo em direção ao seu polo.
+     *
+     * @return A probabilidade, entre 0 e 1.
+     */
+    public double getAtracaoPolos() {
+        return atracaoPolos;
+    }
+
+    /**
+     * Retorna a fração das pessoas que fazem voos de Lévy.
+     *
+     * @return A fração, entre 0 e 1.
+     */
+    public double getFracaoLevy() {
+        return fracaoLevy;
+    }
+
+    /**
+     * Retorna o expoente da distribuição do comprimento dos voos de Lévy.
+     *
+     * @return O expoente.
+     */
+    public double getExpoenteLevy() {
+        return expoenteLevy;
+    }
+
+    /**
+     * Retorna o raio da ronda das IAs e dos meios em volta do seu posto.
+     *
+     * @return O raio, ou zero se os atores são fixos.
+     */
+    public int getPatrulha() {
+        return patrulha;
+    }
+
+    /**
+     * Retorna o número de processos entre os quais as linhas do mapa são divididas.
+     *
+     * @return O número de processos, 1 para a simulação em um único processo.
+     */
+    public int getProcessos() {
+        return processos;
+    }
+
+    /**
+     * Retorna o arquivo de instantâneo a partir do qual a simulação é retomada.
+     *
+     * @return O nome do arquivo, ou null se a simulação começar do zero.
+     */
+    public String getRetomar() {
+        return retomar;
+    }
+
+    /**
+     * Retorna a linha do mapa onde começa a janela desenhada no modo visual.
+     *
+     * @return A linha inicial da janela.
+     */
+    public int getJanelaX() {
+        return janelaX;
+    }
+
+    /**
+     * Retorna a coluna do mapa onde começa a janela desenhada no modo visual.
+     *
+     * @return A coluna inicial da janela.
+     */
+    public int getJanelaY() {
+        return janelaY;
+    }
+
+    /**
+     * Retorna o número máximo de linhas da janela desenhada no modo visual.
+     *
+     * @return O número de linhas da janela.
+     */
+    public int getJanelaLinhas() {
+        return janelaLinhas;
+    }
+
+    /**
+     * Retorna o número máximo de colunas da janela desenhada no modo visual.
+     *
+     * @return O número de colunas da janela.
+     */
+    public int getJanelaColunas() {
+        return janelaColunas;
+    }
+}
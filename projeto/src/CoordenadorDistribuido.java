@@ -0,0 +1,295 @@
+/**
+ * Importa a classe BufferedInputStream para ler dos processos em blocos.
+ */
+import java.io.BufferedInputStream;
+
+/**
+ * Importa a classe BufferedOutputStream para escrever para os processos em blocos.
+ */
+import java.io.BufferedOutputStream;
+
+/**
+ * Importa a classe DataInputStream para ler os quadros dos processos.
+ */
+import java.io.DataInputStream;
+
+/**
+ * Importa a classe DataOutputStream para repassar os quadros aos processos.
+ */
+import java.io.DataOutputStream;
+
+/**
+ * Importa a classe IOException para tratar erros de comunicação com os processos.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe ManagementFactory para repassar aos processos as opções de memória da JVM do coordenador.
+ */
+import java.lang.management.ManagementFactory;
+
+/**
+ * Importa a classe InetAddress para aceitar conexões apenas pela interface local.
+ */
+import java.net.InetAddress;
+
+/**
+ * Importa a classe ServerSocket para aceitar as conexões dos processos.
+ */
+import java.net.ServerSocket;
+
+/**
+ * Importa a classe Socket para as conexões com os processos.
+ */
+import java.net.Socket;
+
+/**
+ * Importa a classe Paths para localizar o executável java e o arquivo de métricas.
+ */
+import java.nio.file.Paths;
+
+/**
+ * Importa a classe ArrayList para montar a linha de comando dos processos.
+ */
+import java.util.ArrayList;
+
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Importa a classe List para montar a linha de comando dos processos.
+ */
+import java.util.List;
+
+/**
+ * Classe CoordenadorDistribuido representa o processo que conduz uma simulação distribuída ("--processos n").
+ * Ele inicia um TrabalhadorFaixa para cada faixa do mapa, em JVMs separadas na mesma máquina, e fica no centro de uma
+ * topologia em estrela: a cada iteração recebe de cada processo as seções destinadas aos outros, repassa a cada um as
+ * seções que recebeu e depois soma os contadores enviados por eles. A troca funciona também como a barreira entre as
+ * iterações, já que nenhum processo começa a fase de interações sem as seções de todos os outros.
+ *
+ * O coordenador lê todos os quadros antes de escrever qualquer um, então nenhum processo fica bloqueado escrevendo
+ * enquanto o coordenador espera outro. A saída é a mesma da simulação em um processo com a mesma semente.
+ */
+class CoordenadorDistribuido {
+    /**
+     * Tempo máximo de espera pela conexão de cada processo, em milissegundos.
+     */
+    private static final int ESPERA_CONEXAO_MS = 60_000;
+
+    /**
+     * Número de contadores enviados por cada processo ao final de cada iteração.
+     */
+    private static final int NUM_CONTADORES = 9;
+
+    /**
+     * Configuração da simulação.
+     */
+    private final Configuracao configuracao;
+
+    /**
+     * Argumentos de linha de comando da simulação, repassados aos processos.
+     */
+    private final String[] argumentos;
+
+    /**
+     * Construtor da classe CoordenadorDistribuido.
+     *
+     * @param configuracao  A configuração da simulação, com mais de um processo.
+     * @param argumentos    Os argumentos de linha de comando da simulação.
+     */
+    public CoordenadorDistribuido(Configuracao configuracao, String[] argumentos) {
+        this.configuracao = configuracao;
+        this.argumentos = argumentos;
+    }
+
+    /**
+     * Inicia os processos, conduz todas as iterações e espera os processos terminarem.
+     *
+     * @throws IOException Se a comunicação com algum processo falhar ou as métricas não puderem ser gravadas.
+     * @throws InterruptedException Se a thread for interrompida esperando os processos.
+     */
+    public void executar() throws IOException, InterruptedException {
+        int processos = configuracao.getProcessos();
+        long semente = configuracao.getSemente();
+        System.out.println("Semente: " + semente);
+
+        Process[] trabalhadores = new Process[processos];
+        Socket[] conexoes = new Socket[processos];
+        DataInputStream[] entradas = new DataInputStream[processos];
+        DataOutputStream[] saidas = new DataOutputStream[processos];
+        boolean concluida = false;
+        try (ServerSocket servidor = new ServerSocket(0, processos, InetAddress.getLoopbackAddress())) {
+            servidor.setSoTimeout(ESPERA_CONEXAO_MS);
+            for (int k = 0; k < processos; k++) {
+                trabalhadores[k] = new ProcessBuilder(comando(servidor.getLocalPort(), k, semente)).inheritIO().start();
+            }
+
+            /**
+             * Os processos se conectam em qualquer ordem e se identificam pelo índice.
+             */
+            for (int n = 0; n < processos; n++) {
+                Socket conexao = servidor.accept();
+                conexao.setTcpNoDelay(true);
+                DataInputStream entrada = new DataInputStream(new BufferedInputStream(conexao.getInputStream(), 1 << 16));
+                int k = entrada.readInt();
+                conexoes[k] = conexao;
+                entradas[k] = entrada;
+                saidas[k] = new DataOutputStream(new BufferedOutputStream(conexao.getOutputStream(), 1 << 16));
+            }
+
+            conduzir(entradas, saidas);
+            concluida = true;
+        } finally {
+            for (Socket conexao : conexoes) {
+                if (conexao != null) {
+                    conexao.close();
+                }
+            }
+            for (Process trabalhador : trabalhadores) {
+                if (trabalhador != null && !concluida) {
+                    trabalhador.destroy();
+                }
+            }
+            for (int k = 0; k < processos; k++) {
+                if (trabalhadores[k] != null && trabalhadores[k].waitFor() != 0 && concluida) {
+                    throw new IllegalStateException("O processo " + k + " terminou com o código " + trabalhadores[k].exitValue() + ".");
+                }
+            }
+        }
+    }
+
+    /**
+     * Monta a linha de comando de um processo: a mesma classe principal e os mesmos argumentos da simulação, com a
+     * semente já sorteada e as threads divididas entre os processos.
+     *
+     * @param porta     A porta em que o coordenador aceita as conexões.
+     * @param processo  O índice do processo.
+     * @param semente   A semente da simulação.
+     * @return Os argumentos da linha de comando.
+     */
+    private List<String> comando(int porta, int processo, long semente) {
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String opcao : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (opcao.startsWith("-Xm") || opcao.startsWith("-XX:")) {
+                comando.add(opcao);
+            }
+        }
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add("Simulacao");
+        comando.add("--trabalhador");
+        comando.add(Integer.toString(porta));
+        comando.add(Integer.toString(processo));
+        comando.addAll(Arrays.asList(argumentos));
+        comando.add("--semente");
+        comando.add(Long.toString(semente));
+        comando.add("--threads");
+        comando.add(Integer.toString(Math.max(1, configuracao.getThreads() / configuracao.getProcessos())));
+        return comando;
+    }
+
+    /**
+     * Conduz as iterações: repassa as seções entre os processos, soma os contadores e os imprime a cada
+     * "--intervalo-amostragem" iterações e na última, e os grava nas métricas, se pedido.
+     *
+     * @param entradas  Os fluxos de leitura de cada processo.
+     * @param saidas    Os fluxos de escrita de cada processo.
+     * @throws IOException Se a comunicação com algum processo falhar ou as métricas não puderem ser gravadas.
+     */
+    private void conduzir(DataInputStream[] entradas, DataOutputStream[] saidas) throws IOException {
+        int processos = entradas.length;
+        long numIteracoes = configuracao.getIteracoes();
+        long intervaloAmostragem = configuracao.getIntervaloAmostragem();
+        long numPessoas = configuracao.getPessoas();
+        GravadorMetricas gravador = configuracao.getMetricas() == null ? null
+                : new GravadorMetricas(Paths.get(configuracao.getMetricas()), configuracao.getFormatoMetricas());
+
+        // secoes[de][para] e entregas[de] vivem entre as iterações, e só crescem.
+        byte[][][] secoes = new byte[processos][processos][0];
+        int[][] tamanhos = new int[processos][processos];
+        byte[][] entregas = new byte[processos][0];
+        int[] tamanhosEntregas = new int[processos];
+        long[] contadores = new long[NUM_CONTADORES];
+        try {
+            for (long iteracao = 0; iteracao < numIteracoes; iteracao++) {
+                long inicio = System.nanoTime();
+                for (int de = 0; de < processos; de++) {
+                    for (int para = 0; para < processos; para++) {
+                        tamanhos[de][para] = ler(entradas[de], secoes[de], para);
+                    }
+                    int tamanho = entradas[de].readInt();
+                    if (entregas[de].length < tamanho) {
+                        entregas[de] = new byte[Math.max(tamanho, entregas[de].length * 2)];
+                    }
+                    entradas[de].readFully(entregas[de], 0, tamanho);
+                    tamanhosEntregas[de] = tamanho;
+                }
+
+                for (int para = 0; para < processos; para++) {
+                    DataOutputStream saida = saidas[para];
+                    for (int de = 0; de < processos; de++) {
+                        saida.writeInt(tamanhos[de][para]);
+                        saida.write(secoes[de][para], 0, tamanhos[de][para]);
+                    }
+                    for (int de = 0; de < processos; de++) {
+                        int tamanho = de == para ? 0 : tamanhosEntregas[de];
+                        saida.writeInt(tamanho);
+                        saida.write(entregas[de], 0, tamanho);
+                    }
+                    saida.flush();
+                }
+
+                Arrays.fill(contadores, 0);
+                for (int k = 0; k < processos; k++) {
+                    for (int c = 0; c < NUM_CONTADORES; c++) {
+                        contadores[c] += entradas[k].readLong();
+                    }
+                }
+                long duracao = System.nanoTime() - inicio;
+                long malInformadas = contadores[0];
+                long bemInformadas = contadores[1];
+                if (malInformadas + bemInformadas != numPessoas) {
+                    throw new IllegalStateException("Os processos somam " + (malInformadas + bemInformadas)
+                            + " pessoas na iteração " + (iteracao + 1) + ", e não " + numPessoas + ".");
+                }
+
+                if (gravador != null) {
+                    // Cada contato novo é contado nas agendas das duas pessoas, que podem estar em processos diferentes.
+                    gravador.registrar(iteracao + 1, malInformadas, bemInformadas, contadores[2], contadores[3],
+                            contadores[4], contadores[5] / 2, duracao, contadores[6], contadores[7], contadores[8]);
+                }
+                if ((iteracao + 1) % intervaloAmostragem == 0 || iteracao == numIteracoes - 1) {
+                    System.out.println("Iteração " + (iteracao + 1) + " - Mal informadas: " + malInformadas
+                            + ", Bem informadas: " + bemInformadas
+                            + ", Pessoas resistentes a fake news: " + contadores[2]);
+                }
+            }
+        } finally {
+            if (gravador != null) {
+                gravador.close();
+            }
+        }
+    }
+
+    /**
+     * Lê uma seção enviada por um processo para outro, reaproveitando o array da iteração anterior.
+     *
+     * @param entrada  O fluxo de leitura do processo que enviou a seção.
+     * @param secoes   Os arrays das seções enviadas pelo processo, um para cada destino.
+     * @param para     O índice do processo de destino.
+     * @return O tamanho da seção, em bytes.
+     * @throws IOException Se a leitura falhar.
+     */
+    private static int ler(DataInputStream entrada, byte[][] secoes, int para) throws IOException {
+        int tamanho = entrada.readInt();
+        if (secoes[para].length < tamanho) {
+            secoes[para] = new byte[Math.max(tamanho, secoes[para].length * 2)];
+        }
+        entrada.readFully(secoes[para], 0, tamanho);
+        return tamanho;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Classe DecomposicaoFaixas representa a divisão das linhas do mapa entre os processos da simulação distribuída.
+ * O processo k é dono das linhas de inicio(k) até fim(k) (exclusiva), e as faixas têm alturas que diferem em no
+ * máximo uma linha. O dono de uma pessoa é o dono da linha em que ela está.
+ *
+ * Como o contato só acontece entre pessoas a até raio linhas de distância, e o mapa não dá a volta no contato,
+ * cada processo também precisa conhecer as pessoas das linhas vizinhas à sua faixa, até raio linhas acima e abaixo,
+ * que formam a borda (halo) da faixa.
+ */
+class DecomposicaoFaixas {
+    /**
+     * Número de linhas do mapa.
+     */
+    private final int linhas;
+
+    /**
+     * Número de processos entre os quais as linhas são divididas.
+     */
+    private final int processos;
+
+    /**
+     * Construtor da classe DecomposicaoFaixas.
+     *
+     * @param linhas     O número de linhas do mapa.
+     * @param processos  O número de processos, entre 1 e o número de linhas.
+     * @throws IllegalArgumentException Se o número de processos for menor que 1 ou maior que o número de linhas.
+     */
+    public DecomposicaoFaixas(int linhas, int processos) {
+        if (processos < 1 || processos > linhas) {
+            throw new IllegalArgumentException("O número de processos deve estar entre 1 e o número de linhas do mapa.");
+        }
+        this.linhas = linhas;
+        this.processos = processos;
+    }
+
+    /**
+     * Retorna a primeira linha da faixa de um processo.
+     *
+     * @param processo  O índice do processo.
+     * @return A primeira linha da faixa.
+     */
+    public int inicio(int processo) {
+        return (int) ((long) processo * linhas / processos);
+    }
+
+    /**
+     * Retorna a linha seguinte à última da faixa de um processo.
+     *
+     * @param processo  O índice do processo.
+     * @return O fim da faixa (exclusivo).
+     */
+    public int fim(int processo) {
+        return inicio(processo + 1);
+    }
+
+    /**
+     * Retorna o processo dono de uma linha do mapa.
+     *
+     * @param x  A linha do mapa.
+     * @return O índice do processo dono da linha.
+     */
+    public int dono(int x) {
+        return (int) (((long) x + 1) * processos - 1) / linhas;
+    }
+
+    /**
+     * Retorna a primeira linha da faixa de um processo somada à borda, ou seja, a primeira linha que o índice espacial
+     * do processo precisa cobrir.
+     *
+     * @param processo  O índice do processo.
+     * @param raio      O raio de contato.
+     * @return A primeira linha da faixa com a borda.
+     */
+    public int inicioComBorda(int processo, int raio) {
+        return Math.max(0, inicio(processo) - raio);
+    }
+
+    /**
+     * Retorna a linha seguinte à última da faixa de um processo somada à borda.
+     *
+     * @param processo  O índice do processo.
+     * @param raio      O raio de contato.
+     * @return O fim da faixa com a borda (exclusivo).
+     */
+    public int fimComBorda(int processo, int raio) {
+        return (int) Math.min(linhas, (long) fim(processo) + raio);
+    }
+
+    /**
+     * Retorna o número de linhas do mapa.
+     *
+     * @return O número de linhas.
+     */
+    public int getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * Retorna o número de processos.
+     *
+     * @return O número de processos.
+     */
+    public int getProcessos() {
+        return processos;
+    }
+}
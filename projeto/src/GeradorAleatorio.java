@@ -0,0 +1,120 @@
+/**
+ * Classe GeradorAleatorio representa o gerador de números aleatórios da simulação.
+ * É um gerador baseado em contador: cada número é calculado a partir da semente da simulação,
+ * do identificador da pessoa, do número da iteração e de um fluxo (o propósito do sorteio),
+ * usando a função de mistura do SplitMix64. Não há estado mutável nem alocação, então
+ * qualquer thread pode sortear o movimento de qualquer pessoa e o resultado é sempre o mesmo
+ * para a mesma semente.
+ */
+final class GeradorAleatorio {
+    /**
+     * Fluxo usado para sortear a direção do movimento das pessoas.
+     */
+    public static final int FLUXO_MOVIMENTO = 1;
+
+    /**
+     * Fluxo usado para sortear se uma mensagem de Whatsapp encaminhada é aceita pelo destinatário.
+     */
+    public static final int FLUXO_ACEITACAO_MENSAGEM = 2;
+
+    /**
+     * Fluxo usado para sortear o atraso de entrega de uma mensagem de Whatsapp.
+     */
+    public static final int FLUXO_ATRASO_MENSAGEM = 3;
+
+    /**
+     * Fluxo usado para sortear a estratégia de movimento e o polo de cada pessoa.
+     */
+    public static final int FLUXO_ESTRATEGIA = 4;
+
+    /**
+     * Fluxo usado para sortear a posição dos polos que atraem as pessoas.
+     */
+    public static final int FLUXO_POLOS = 5;
+
+    /**
+     * Constante de Weyl (parte fracionária da razão áurea) usada para separar pessoas.
+     */
+    private static final long GAMA_PESSOA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Segunda constante ímpar usada para separar iterações.
+     */
+    private static final long GAMA_ITERACAO = 0xD1B54A32D192ED03L;
+
+    /**
+     * Semente da simulação.
+     */
+    private final long semente;
+
+    /**
+     * Construtor da classe GeradorAleatorio.
+     *
+     * @param semente  A semente da simulação.
+     */
+    public GeradorAleatorio(long semente) {
+        this.semente = semente;
+    }
+
+    /**
+     * Retorna a semente da simulação.
+     *
+     * @return A semente.
+     */
+    public long getSemente() {
+        return semente;
+    }
+
+    /**
+     * Sorteia 64 bits aleatórios para uma pessoa em uma iteração.
+     *
+     * @param pessoa    O identificador da pessoa.
+     * @param iteracao  O número da iteração.
+     * @param fluxo     O propósito do sorteio, por exemplo FLUXO_MOVIMENTO.
+     * @return Um número aleatório de 64 bits.
+     */
+    public long sortear(int pessoa, long iteracao, int fluxo) {
+        long h = misturar(semente + (pessoa + 1L) * GAMA_PESSOA);
+        return misturar(h + iteracao * GAMA_ITERACAO + fluxo);
+    }
+
+    /**
+     * Sorteia um inteiro entre 0 (inclusivo) e limite (exclusivo) para uma pessoa em uma iteração.
+     *
+     * @param pessoa    O identificador da pessoa.
+     * @param iteracao  O número da iteração.
+     * @param fluxo     O propósito do sorteio.
+     * @param limite    O limite superior (exclusivo), maior que zero.
+     * @return Um inteiro aleatório no intervalo [0, limite).
+     */
+    public int sortearInt(int pessoa, long iteracao, int fluxo, int limite) {
+        // Multiplica os 32 bits mais altos pelo limite e fica com a parte alta do produto.
+        return (int) (((sortear(pessoa, iteracao, fluxo) >>> 32) * limite) >>> 32);
+    }
+
+    /**
+     * Sorteia 64 bits aleatórios para um par de pessoas em uma iteração, por exemplo para uma mensagem
+     * enviada de uma pessoa para outra. Os pares (a, b) e (b, a) recebem números diferentes.
+     *
+     * @param pessoa    O identificador da primeira pessoa do par.
+     * @param outra     O identificador da segunda pessoa do par.
+     * @param iteracao  O número da iteração.
+     * @param fluxo     O propósito do sorteio.
+     * @return Um número aleatório de 64 bits.
+     */
+    public long sortearPar(int pessoa, int outra, long iteracao, int fluxo) {
+        return misturar(sortear(pessoa, iteracao, fluxo) + (outra + 1L) * GAMA_PESSOA);
+    }
+
+    /**
+     * Função de mistura do SplitMix64.
+     *
+     * @param z  O valor a misturar.
+     * @return O valor misturado.
+     */
+    static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,448 @@
+/**
+ * Importa a classe IOException para tratar erros de criação do arquivo das tabelas.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe ByteBuffer para acessar as tabelas de contatos fora do heap.
+ */
+import java.nio.ByteBuffer;
+
+/**
+ * Importa a classe Path para representar o arquivo das tabelas.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe AbstractList para criar listas somente leitura.
+ */
+import java.util.AbstractList;
+
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Importa a classe List para trabalhar com listas.
+ */
+import java.util.List;
+
+/**
+ * Classe GrafoContatos representa as agendas de contatos do Whatsapp de todas as pessoas.
+ * Cada pessoa possui um conjunto de inteiros com endereçamento aberto (sondagem linear) que guarda
+ * os identificadores dos seus contatos, sem repetições. Verificar se duas pessoas já são contatos
+ * custa O(1) em média, e cada contato ocupa no máximo duas posições de int na tabela da pessoa.
+ *
+ * As agendas ficam fora do heap do Java, já que eram os únicos objetos criados por pessoa e o que mais crescia ao
+ * longo da execução. Cada pessoa tem um registro de tamanho fixo, indexado pela identidade, com a posição da sua
+ * tabela, o tamanho da tabela e o número de contatos; as tabelas ficam em outra região, com tamanhos em potências de 2,
+ * e as tabelas liberadas quando uma agenda cresce são reaproveitadas por outras do mesmo tamanho. A região das tabelas
+ * pode ser mapeada a partir de um arquivo (mapear), para que as agendas passem do tamanho da memória física.
+ *
+ * Pessoas diferentes podem ser alteradas em paralelo: cada thread só escreve no registro e na tabela das suas pessoas,
+ * e apenas a reserva e a liberação de tabelas são sincronizadas.
+ */
+class GrafoContatos {
+    /**
+     * Capacidade inicial da tabela de cada pessoa. Deve ser uma potência de 2.
+     */
+    private static final int CAPACIDADE_INICIAL = 4;
+
+    /**
+     * Tamanho, em bytes, do registro de cada pessoa.
+     */
+    private static final int BYTES_REGISTRO = 16;
+
+    /**
+     * Posição, no registro, da posição da tabela na região das tabelas, em bytes.
+     */
+    private static final int REGISTRO_TABELA = 0;
+
+    /**
+     * Posição, no registro, do tamanho da tabela, em posições de int (zero se a pessoa não tem tabela).
+     */
+    private static final int REGISTRO_TAMANHO = 8;
+
+    /**
+     * Posição, no registro, do número de contatos.
+     */
+    private static final int REGISTRO_GRAU = 12;
+
+    /**
+     * Marca do fim de uma lista de tabelas livres.
+     */
+    private static final long SEM_TABELA = -1;
+
+    /**
+     * Registros das pessoas, indexados pela identidade.
+     */
+    private final MemoriaForaHeap registros = new MemoriaForaHeap();
+
+    /**
+     * Número de pessoas cobertas pelos registros.
+     */
+    private int capacidade;
+
+    /**
+     * Região das tabelas de contatos. Cada posição guarda (id + 1) do contato, ou 0 se estiver livre.
+     */
+    private MemoriaForaHeap tabelas = new MemoriaForaHeap();
+
+    /**
+     * Primeiro byte da região das tabelas ainda não usado por nenhuma tabela.
+     */
+    private long topo;
+
+    /**
+     * Primeira tabela livre de cada tamanho, indexada pelo logaritmo na base 2 do tamanho. Cada tabela livre guarda,
+     * no início, a posição da próxima tabela livre do mesmo tamanho.
+     */
+    private final long[] livres = new long[Integer.SIZE];
+
+    /**
+     * Construtor da classe GrafoContatos.
+     *
+     * @param capacidade  O número de pessoas esperado.
+     */
+    public GrafoContatos(int capacidade) {
+        Arrays.fill(livres, SEM_TABELA);
+        garantirCapacidade(capacidade);
+    }
+
+    /**
+     * Garante espaço para o identificador de pessoa informado. Os registros novos começam zerados, ou seja, sem tabela
+     * e sem contatos.
+     *
+     * @param tamanho  O número mínimo de pessoas que o grafo deve comportar.
+     */
+    public void garantirCapacidade(int tamanho) {
+        if (tamanho <= capacidade) {
+            return;
+        }
+        int novoTamanho = Math.max(tamanho, capacidade * 2);
+        registros.garantir((long) novoTamanho * BYTES_REGISTRO);
+        capacidade = novoTamanho;
+    }
+
+    /**
+     * Verifica se a pessoa b está na agenda de contatos da pessoa a.
+     *
+     * @param a  O identificador da dona da agenda.
+     * @param b  O identificador do possível contato.
+     * @return true se b já for contato de a.
+     */
+    public boolean contem(int a, int b) {
+        long registro = (long) a * BYTES_REGISTRO;
+        int tamanho = registros.getInt(registro + REGISTRO_TAMANHO);
+        if (tamanho == 0) {
+            return false;
+        }
+        long posicao = registros.getLong(registro + REGISTRO_TABELA);
+        ByteBuffer tabela = tabelas.segmento(posicao);
+        int base = MemoriaForaHeap.dentroDoSegmento(posicao);
+        int mascara = tamanho - 1;
+        int valor = b + 1;
+        for (int i = espalhar(b) & mascara; ; i = (i + 1) & mascara) {
+            int atual = tabela.getInt(base + (i << 2));
+            if (atual == valor) {
+                return true;
+            }
+            if (atual == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Adiciona b à agenda de contatos de a, se ainda não estiver lá.
+     * Apenas a agenda de a é alterada.
+     *
+     * @param a  O identificador da dona da agenda.
+     * @param b  O identificador do novo contato.
+     * @return true se o contato foi adicionado, false se já existia.
+     */
+    public boolean adicionar(int a, int b) {
+        long registro = (long) a * BYTES_REGISTRO;
+        int grau = registros.getInt(registro + REGISTRO_GRAU);
+        int tamanho = registros.getInt(registro + REGISTRO_TAMANHO);
+        // Mantém a ocupação da tabela em no máximo 50%.
+        if ((grau + 1) * 2 > tamanho) {
+            tamanho = redimensionar(registro, tamanho);
+        }
+        long posicao = registros.getLong(registro + REGISTRO_TABELA);
+        ByteBuffer tabela = tabelas.segmento(posicao);
+        int base = MemoriaForaHeap.dentroDoSegmento(posicao);
+        int mascara = tamanho - 1;
+        int valor = b + 1;
+        for (int i = espalhar(b) & mascara; ; i = (i + 1) & mascara) {
+            int atual = tabela.getInt(base + (i << 2));
+            if (atual == valor) {
+                return false;
+            }
+            if (atual == 0) {
+                tabela.putInt(base + (i << 2), valor);
+                registros.putInt(registro + REGISTRO_GRAU, grau + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Troca os números de Whatsapp entre duas pessoas, adicionando cada uma à agenda da outra.
+     *
+     * @param a  O identificador da primeira pessoa.
+     * @param b  O identificador da segunda pessoa.
+     * @return true se os contatos ainda não existiam.
+     */
+    public boolean conectar(int a, int b) {
+        boolean novo = adicionar(a, b);
+        adicionar(b, a);
+        return novo;
+    }
+
+    /**
+     * Retorna o número de contatos da pessoa.
+     *
+     * @param a  O identificador da pessoa.
+     * @return O número de contatos na agenda.
+     */
+    public int grau(int a) {
+        return registros.getInt((long) a * BYTES_REGISTRO + REGISTRO_GRAU);
+    }
+
+    /**
+     * Soma as posições reservadas para os registros e para as tabelas de contatos, incluindo as tabelas livres.
+     * É usado na verificação de alocação, para saber se alguma estrutura cresceu.
+     *
+     * @return O número total de posições de int reservadas.
+     */
+    public long getCapacidadeTabelas() {
+        return (long) capacidade * (BYTES_REGISTRO / Integer.BYTES) + topo / Integer.BYTES;
+    }
+
+    /**
+     * Retorna o tamanho da tabela de contatos da pessoa, com as posições livres.
+     *
+     * @param a  O identificador da pessoa.
+     * @return O número de posições da tabela, zero ou uma potência de 2.
+     */
+    int tamanhoTabela(int a) {
+        return registros.getInt((long) a * BYTES_REGISTRO + REGISTRO_TAMANHO);
+    }
+
+    /**
+     * Retorna uma posição da tabela de contatos da pessoa.
+     *
+     * @param a  O identificador da pessoa.
+     * @param i  A posição na tabela, menor que tamanhoTabela(a).
+     * @return O identificador do contato mais 1, ou 0 se a posição estiver livre.
+     */
+    int valorTabela(int a, int i) {
+        return tabelas.getInt(registros.getLong((long) a * BYTES_REGISTRO + REGISTRO_TABELA) + ((long) i << 2));
+    }
+
+    /**
+     * Copia a tabela de contatos da pessoa, com as posições livres, para um array; serve para copiar as agendas em um
+     * Instantaneo.
+     *
+     * @param a        O identificador da pessoa.
+     * @param destino  O array de destino.
+     * @param inicio   A posição de destino da primeira posição da tabela.
+     */
+    void copiarTabela(int a, int[] destino, int inicio) {
+        long registro = (long) a * BYTES_REGISTRO;
+        int tamanho = registros.getInt(registro + REGISTRO_TAMANHO);
+        if (tamanho == 0) {
+            return;
+        }
+        long posicao = registros.getLong(registro + REGISTRO_TABELA);
+        ByteBuffer tabela = tabelas.segmento(posicao);
+        int base = MemoriaForaHeap.dentroDoSegmento(posicao);
+        for (int i = 0; i < tamanho; i++) {
+            destino[inicio + i] = tabela.getInt(base + (i << 2));
+        }
+    }
+
+    /**
+     * Esvazia a agenda da pessoa e libera a sua tabela, como quando a pessoa passa para a faixa de outro processo da
+     * simulação distribuída, levando a tabela junto.
+     *
+     * @param a  O identificador da pessoa.
+     */
+    void remover(int a) {
+        long registro = (long) a * BYTES_REGISTRO;
+        int tamanho = registros.getInt(registro + REGISTRO_TAMANHO);
+        if (tamanho != 0) {
+            liberar(registros.getLong(registro + REGISTRO_TABELA), tamanho);
+        }
+        registros.putLong(registro + REGISTRO_TABELA, 0);
+        registros.putInt(registro + REGISTRO_TAMANHO, 0);
+        registros.putInt(registro + REGISTRO_GRAU, 0);
+    }
+
+    /**
+     * Substitui a tabela de contatos da pessoa por uma tabela lida de um Instantaneo ou recebida de outro processo.
+     *
+     * @param a        O identificador da pessoa.
+     * @param origem   O array com a tabela de contatos.
+     * @param inicio   A posição da tabela em origem.
+     * @param tamanho  O tamanho da tabela, zero ou uma potência de 2.
+     * @param grau     O número de contatos na tabela.
+     * @throws IllegalArgumentException Se o tamanho da tabela não for zero nem uma potência de 2.
+     */
+    void restaurar(int a, int[] origem, int inicio, int tamanho, int grau) {
+        if (tamanho != 0 && Integer.bitCount(tamanho) != 1) {
+            throw new IllegalArgumentException("Tabela de contatos com tamanho inválido: " + tamanho);
+        }
+        garantirCapacidade(a + 1);
+        remover(a);
+        long registro = (long) a * BYTES_REGISTRO;
+        if (tamanho != 0) {
+            long posicao = reservar(tamanho);
+            ByteBuffer tabela = tabelas.segmento(posicao);
+            int base = MemoriaForaHeap.dentroDoSegmento(posicao);
+            for (int i = 0; i < tamanho; i++) {
+                tabela.putInt(base + (i << 2), origem[inicio + i]);
+            }
+            registros.putLong(registro + REGISTRO_TABELA, posicao);
+        }
+        registros.putInt(registro + REGISTRO_TAMANHO, tamanho);
+        registros.putInt(registro + REGISTRO_GRAU, grau);
+    }
+
+    /**
+     * Passa a guardar as tabelas de contatos em um arquivo mapeado em memória, copiando as tabelas existentes.
+     * O arquivo é criado ou esvaziado.
+     *
+     * @param arquivo  O arquivo das tabelas.
+     * @throws IOException Se não for possível criar o arquivo.
+     */
+    public void mapear(Path arquivo) throws IOException {
+        MemoriaForaHeap mapeada = new MemoriaForaHeap(arquivo);
+        mapeada.copiar(tabelas, topo);
+        tabelas = mapeada;
+    }
+
+    /**
+     * Copia os identificadores dos contatos da pessoa para um array compacto.
+     *
+     * @param a  O identificador da pessoa.
+     * @return Um novo array com os identificadores dos contatos.
+     */
+    public int[] contatos(int a) {
+        int[] resultado = new int[grau(a)];
+        int n = 0;
+        for (int i = 0, tamanho = tamanhoTabela(a); i < tamanho; i++) {
+            int valor = valorTabela(a, i);
+            if (valor != 0) {
+                resultado[n++] = valor - 1;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Retorna a agenda de contatos da pessoa no formato de IDs de Whatsapp ("ID" seguido do identificador).
+     * A lista é somente leitura e reflete os contatos existentes no momento da chamada.
+     *
+     * @param a  O identificador da pessoa.
+     * @return A lista de IDs de Whatsapp dos contatos.
+     */
+    public List<String> agendaContatos(int a) {
+        final int[] ids = contatos(a);
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return "ID" + ids[index];
+            }
+
+            @Override
+            public int size() {
+                return ids.length;
+            }
+        };
+    }
+
+    /**
+     * Dobra a tabela da pessoa, reinsere os contatos existentes e libera a tabela antiga.
+     *
+     * @param registro  A posição do registro da pessoa.
+     * @param antigo    O tamanho da tabela atual.
+     * @return O tamanho da nova tabela.
+     */
+    private int redimensionar(long registro, int antigo) {
+        int tamanho = Math.max(CAPACIDADE_INICIAL, antigo * 2);
+        long posicao = reservar(tamanho);
+        ByteBuffer nova = tabelas.segmento(posicao);
+        int base = MemoriaForaHeap.dentroDoSegmento(posicao);
+        int mascara = tamanho - 1;
+        if (antigo != 0) {
+            long posicaoAntiga = registros.getLong(registro + REGISTRO_TABELA);
+            ByteBuffer antiga = tabelas.segmento(posicaoAntiga);
+            int baseAntiga = MemoriaForaHeap.dentroDoSegmento(posicaoAntiga);
+            for (int k = 0; k < antigo; k++) {
+                int valor = antiga.getInt(baseAntiga + (k << 2));
+                if (valor != 0) {
+                    int i = espalhar(valor - 1) & mascara;
+                    while (nova.getInt(base + (i << 2)) != 0) {
+                        i = (i + 1) & mascara;
+                    }
+                    nova.putInt(base + (i << 2), valor);
+                }
+            }
+            liberar(posicaoAntiga, antigo);
+        }
+        registros.putLong(registro + REGISTRO_TABELA, posicao);
+        registros.putInt(registro + REGISTRO_TAMANHO, tamanho);
+        return tamanho;
+    }
+
+    /**
+     * Reserva uma tabela zerada, reaproveitando uma tabela livre do mesmo tamanho ou, se não houver, usando o fim da
+     * região das tabelas. Uma tabela nunca atravessa o limite entre dois segmentos da memória.
+     *
+     * @param tamanho  O tamanho da tabela, uma potência de 2.
+     * @return A posição da tabela, em bytes.
+     */
+    private synchronized long reservar(int tamanho) {
+        int classe = Integer.numberOfTrailingZeros(tamanho);
+        int bytes = tamanho * Integer.BYTES;
+        long posicao = livres[classe];
+        if (posicao != SEM_TABELA) {
+            livres[classe] = tabelas.getLong(posicao);
+        } else {
+            posicao = topo;
+            while (MemoriaForaHeap.segmentoDe(posicao) != MemoriaForaHeap.segmentoDe(posicao + bytes - 1)) {
+                posicao = MemoriaForaHeap.inicioSegmento(MemoriaForaHeap.segmentoDe(posicao + bytes - 1));
+            }
+            topo = posicao + bytes;
+            tabelas.garantir(topo);
+        }
+        tabelas.zerar(posicao, bytes);
+        return posicao;
+    }
+
+    /**
+     * Devolve uma tabela à lista de tabelas livres do seu tamanho.
+     *
+     * @param posicao  A posição da tabela, em bytes.
+     * @param tamanho  O tamanho da tabela.
+     */
+    private synchronized void liberar(long posicao, int tamanho) {
+        int classe = Integer.numberOfTrailingZeros(tamanho);
+        tabelas.putLong(posicao, livres[classe]);
+        livres[classe] = posicao;
+    }
+
+    /**
+     * Espalha os bits do identificador para distribuir melhor os contatos na tabela.
+     *
+     * @param id  O identificador a espalhar.
+     * @return O valor de hash do identificador.
+     */
+    private static int espalhar(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
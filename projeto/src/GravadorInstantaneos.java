@@ -0,0 +1,127 @@
+/**
+ * Importa a interface Closeable para que o gravador possa ser encerrado como um recurso.
+ */
+import java.io.Closeable;
+
+/**
+ * Importa a classe IOException para tratar erros de gravação.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe Path para representar o arquivo dos instantâneos.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe ArrayBlockingQueue para entregar os instantâneos à thread de gravação.
+ */
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Importa a interface BlockingQueue para entregar os instantâneos à thread de gravação.
+ */
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Classe GravadorInstantaneos representa a gravação periódica de instantâneos da simulação em uma thread separada.
+ * A thread da simulação apenas copia o estado (Instantaneo.capturar) e o entrega ao gravador, que o grava no disco
+ * enquanto as próximas iterações são executadas. Cada instantâneo substitui o anterior no mesmo arquivo.
+ *
+ * No máximo um instantâneo espera na fila enquanto outro é gravado; se a gravação for mais lenta que o intervalo
+ * entre instantâneos, a simulação espera, em vez de acumular cópias do estado na memória.
+ */
+class GravadorInstantaneos implements Closeable {
+    /**
+     * Arquivo onde os instantâneos são gravados.
+     */
+    private final Path arquivo;
+
+    /**
+     * Instantâneos aguardando gravação.
+     */
+    private final BlockingQueue<Instantaneo> fila;
+
+    /**
+     * Thread que grava os instantâneos.
+     */
+    private final Thread gravacao;
+
+    /**
+     * Primeiro erro de gravação, repassado à thread da simulação na próxima chamada.
+     */
+    private volatile IOException erro;
+
+    /**
+     * Construtor da classe GravadorInstantaneos.
+     *
+     * @param arquivo  O arquivo onde os instantâneos são gravados.
+     */
+    public GravadorInstantaneos(Path arquivo) {
+        this.arquivo = arquivo;
+        this.fila = new ArrayBlockingQueue<>(1);
+        this.gravacao = new Thread(this::gravar, "gravador-instantaneos");
+        this.gravacao.setDaemon(true);
+        this.gravacao.start();
+    }
+
+    /**
+     * Entrega um instantâneo para gravação.
+     *
+     * @param instantaneo  O instantâneo.
+     * @throws IOException Se a gravação de um instantâneo anterior tiver falhado ou a espera for interrompida.
+     */
+    public void salvar(Instantaneo instantaneo) throws IOException {
+        if (erro != null) {
+            throw erro;
+        }
+        try {
+            fila.put(instantaneo);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido ao entregar instantâneo para gravação.", e);
+        }
+    }
+
+    /**
+     * Espera a gravação dos instantâneos pendentes e encerra a thread de gravação.
+     *
+     * @throws IOException Se alguma gravação tiver falhado ou a espera for interrompida.
+     */
+    public void close() throws IOException {
+        try {
+            fila.put(Instantaneo.FIM);
+            gravacao.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido ao encerrar a gravação de instantâneos.", e);
+        }
+        if (erro != null) {
+            throw erro;
+        }
+    }
+
+    /**
+     * Laço da thread de gravação: grava os instantâneos da fila até receber Instantaneo.FIM.
+     * Depois de um erro, os instantâneos seguintes são descartados.
+     */
+    private void gravar() {
+        try {
+            while (true) {
+                Instantaneo instantaneo = fila.take();
+                if (instantaneo == Instantaneo.FIM) {
+                    break;
+                }
+                if (erro == null) {
+                    try {
+                        instantaneo.gravar(arquivo);
+                    } catch (IOException e) {
+                        erro = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            erro = new IOException("Gravação de instantâneos interrompida.", e);
+        }
+    }
+}
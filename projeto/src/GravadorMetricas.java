@@ -0,0 +1,483 @@
+/**
+ * Importa a classe Closeable para que o gravador possa ser usado em try-with-resources.
+ */
+import java.io.Closeable;
+
+/**
+ * Importa a classe IOException para tratar erros de escrita.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe ByteBuffer para montar os bytes gravados no arquivo.
+ */
+import java.nio.ByteBuffer;
+
+/**
+ * Importa a classe ByteOrder para gravar os números do formato binário em little-endian.
+ */
+import java.nio.ByteOrder;
+
+/**
+ * Importa a classe FileChannel para gravar no arquivo pelo canal NIO.
+ */
+import java.nio.channels.FileChannel;
+
+/**
+ * Importa a classe StandardCharsets para converter os nomes das colunas em bytes.
+ */
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Importa a classe Path para indicar o arquivo de métricas.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe StandardOpenOption para indicar como o arquivo é aberto.
+ */
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Importa a classe ArrayBlockingQueue para trocar blocos entre a simulação e a thread de gravação.
+ */
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Importa a classe BlockingQueue para trocar blocos entre a simulação e a thread de gravação.
+ */
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Classe GravadorMetricas representa a gravação, em arquivo, dos agregados de cada iteração da simulação:
+ * contadores por estado, novas infecções, curas, contatos formados, duração da iteração, bytes alocados pela thread
+ * da simulação durante a iteração e as coletas de lixo (quantidade e tempo) desde a iteração anterior.
+ *
+ * O laço da simulação apenas copia os valores para um bloco em memória, organizado por colunas. Quando o bloco
+ * enche, ele é entregue a uma thread de gravação, que o converte para o formato escolhido e o grava por um
+ * FileChannel, usando sempre o mesmo buffer. Há um número fixo de blocos, reaproveitados entre a simulação e
+ * a thread de gravação, então a memória usada não depende da duração da execução. A simulação só espera se
+ * o disco ficar BLOCOS blocos atrasado em relação a ela.
+ *
+ * Formatos:
+ * - FORMATO_BINARIO: cabeçalho com a assinatura "FNMT", a versão (int), o número de colunas (int) e o nome de
+ *   cada coluna (short com o tamanho seguido dos bytes em UTF-8); depois, uma sequência de blocos, cada um com
+ *   o número de linhas (int) seguido dos valores de cada coluna, coluna por coluna (long). Todos os números
+ *   são gravados em little-endian.
+ * - FORMATO_CSV: uma linha de cabeçalho e uma linha por iteração.
+ * - FORMATO_JSONL: um objeto JSON por linha, um por iteração.
+ */
+class GravadorMetricas implements Closeable {
+    /**
+     * Formato binário por colunas.
+     */
+    public static final int FORMATO_BINARIO = 0;
+
+    /**
+     * Formato CSV.
+     */
+    public static final int FORMATO_CSV = 1;
+
+    /**
+     * Formato JSON lines.
+     */
+    public static final int FORMATO_JSONL = 2;
+
+    /**
+     * Nomes das colunas gravadas, na ordem dos argumentos de registrar.
+     */
+    public static final String[] COLUNAS = {
+        "iteracao", "mal_informadas", "bem_informadas", "resistentes",
+        "novas_infeccoes", "curas", "contatos_formados", "duracao_ns",
+        "bytes_alocados", "coletas_gc", "tempo_gc_ms"
+    };
+
+    /**
+     * Chaves de cada coluna no formato JSON lines, já convertidas em bytes.
+     */
+    private static final byte[][] CHAVES_JSON = chavesJson();
+
+    /**
+     * Versão do formato binário.
+     */
+    private static final int VERSAO = 2;
+
+    /**
+     * Número de iterações guardadas em cada bloco.
+     */
+    private static final int LINHAS_POR_BLOCO = 4096;
+
+    /**
+     * Número de blocos reaproveitados entre a simulação e a thread de gravação.
+     */
+    private static final int BLOCOS = 4;
+
+    /**
+     * Tamanho do buffer usado para gravar no canal.
+     */
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    /**
+     * Formato do arquivo.
+     */
+    private final int formato;
+
+    /**
+     * Canal do arquivo de métricas.
+     */
+    private final FileChannel canal;
+
+    /**
+     * Buffer reaproveitado onde os bytes são montados antes de irem para o canal.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Blocos livres, prontos para serem preenchidos pela simulação.
+     */
+    private final BlockingQueue<Bloco> livres;
+
+    /**
+     * Blocos cheios, esperando para serem gravados.
+     */
+    private final BlockingQueue<Bloco> cheios;
+
+    /**
+     * Thread que grava os blocos no arquivo.
+     */
+    private final Thread gravacao;
+
+    /**
+     * Bloco que a simulação está preenchendo.
+     */
+    private Bloco atual;
+
+    /**
+     * Erro ocorrido na thread de gravação, ou null.
+     */
+    private volatile IOException erro;
+
+    /**
+     * Construtor da classe GravadorMetricas. Cria o arquivo e inicia a thread de gravação.
+     *
+     * @param arquivo  O arquivo de métricas.
+     * @param formato  O formato do arquivo (FORMATO_BINARIO, FORMATO_CSV ou FORMATO_JSONL).
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public GravadorMetricas(Path arquivo, int formato) throws IOException {
+        if (formato < FORMATO_BINARIO || formato > FORMATO_JSONL) {
+            throw new IllegalArgumentException("Formato de métricas desconhecido: " + formato);
+        }
+        this.formato = formato;
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        this.livres = new ArrayBlockingQueue<>(BLOCOS);
+        this.cheios = new ArrayBlockingQueue<>(BLOCOS + 1);
+        for (int i = 1; i < BLOCOS; i++) {
+            livres.add(new Bloco(LINHAS_POR_BLOCO));
+        }
+        this.atual = new Bloco(LINHAS_POR_BLOCO);
+
+        escreverCabecalho();
+        this.gravacao = new Thread(this::gravar, "gravador-metricas");
+        this.gravacao.setDaemon(true);
+        this.gravacao.start();
+    }
+
+    /**
+     * Retorna o formato correspondente a um nome ou, se o nome for null, à extensão do arquivo.
+     *
+     * @param nome     O nome do formato ("binario", "csv" ou "jsonl"), ou null.
+     * @param arquivo  O nome do arquivo de métricas.
+     * @return O formato.
+     * @throws IllegalArgumentException Se o nome do formato for desconhecido.
+     */
+    public static int formatoPorNome(String nome, String arquivo) {
+        if (nome == null) {
+            String minusculo = arquivo.toLowerCase();
+            if (minusculo.endsWith(".csv")) {
+                return FORMATO_CSV;
+            }
+            if (minusculo.endsWith(".jsonl") || minusculo.endsWith(".json")) {
+                return FORMATO_JSONL;
+            }
+            return FORMATO_BINARIO;
+        }
+        switch (nome) {
+            case "binario":
+                return FORMATO_BINARIO;
+            case "csv":
+                return FORMATO_CSV;
+            case "jsonl":
+                return FORMATO_JSONL;
+            default:
+                throw new IllegalArgumentException("Formato de métricas desconhecido: " + nome + ". Use binario, csv ou jsonl.");
+        }
+    }
+
+    /**
+     * Registra os agregados de uma iteração. Não cria objetos; apenas copia os valores para o bloco atual.
+     *
+     * @param iteracao          O número da iteração.
+     * @param malInformadas     O número de pessoas mal informadas.
+     * @param bemInformadas     O número de pessoas bem informadas.
+     * @param resistentes       O número de pessoas resistentes a fake news.
+     * @param novasInfeccoes    O número de pessoas que ficaram mal informadas na iteração.
+     * @param curas             O número de pessoas que ficaram bem informadas na iteração.
+     * @param contatosFormados  O número de pares de pessoas que trocaram contatos pela primeira vez.
+     * @param duracaoNs         A duração da iteração inteira, do movimento às estatísticas, em nanossegundos.
+     * @param bytesAlocados     Os bytes alocados pela thread da simulação durante a iteração.
+     * @param coletasGc         O número de coletas de lixo desde a iteração anterior.
+     * @param tempoGcMs         O tempo gasto em coletas de lixo desde a iteração anterior, em milissegundos.
+     * @throws IOException Se a thread de gravação falhou.
+     */
+    public void registrar(long iteracao, long malInformadas, long bemInformadas, long resistentes,
+            long novasInfeccoes, long curas, long contatosFormados, long duracaoNs,
+            long bytesAlocados, long coletasGc, long tempoGcMs) throws IOException {
+        if (erro != null) {
+            throw erro;
+        }
+        Bloco bloco = atual;
+        int linha = bloco.linhas;
+        long[][] colunas = bloco.colunas;
+        colunas[0][linha] = iteracao;
+        colunas[1][linha] = malInformadas;
+        colunas[2][linha] = bemInformadas;
+        colunas[3][linha] = resistentes;
+        colunas[4][linha] = novasInfeccoes;
+        colunas[5][linha] = curas;
+        colunas[6][linha] = contatosFormados;
+        colunas[7][linha] = duracaoNs;
+        colunas[8][linha] = bytesAlocados;
+        colunas[9][linha] = coletasGc;
+        colunas[10][linha] = tempoGcMs;
+        bloco.linhas = linha + 1;
+        if (bloco.linhas == LINHAS_POR_BLOCO) {
+            entregar();
+        }
+    }
+
+    /**
+     * Grava as iterações pendentes, encerra a thread de gravação e fecha o arquivo.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    public void close() throws IOException {
+        try {
+            if (atual.linhas > 0) {
+                entregar();
+            }
+            cheios.put(Bloco.FIM);
+            gravacao.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido ao encerrar a gravação de métricas.", e);
+        } finally {
+            canal.close();
+        }
+        if (erro != null) {
+            throw erro;
+        }
+    }
+
+    /**
+     * Entrega o bloco atual à thread de gravação e pega um bloco livre para continuar.
+     *
+     * @throws IOException Se a thread atual for interrompida enquanto espera um bloco livre.
+     */
+    private void entregar() throws IOException {
+        try {
+            cheios.put(atual);
+            atual = livres.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido ao entregar métricas para gravação.", e);
+        }
+    }
+
+    /**
+     * Laço da thread de gravação: grava cada bloco cheio e o devolve à lista de livres.
+     */
+    private void gravar() {
+        try {
+            while (true) {
+                Bloco bloco = cheios.take();
+                if (bloco == Bloco.FIM) {
+                    break;
+                }
+                if (erro == null) {
+                    try {
+                        escreverBloco(bloco);
+                    } catch (IOException e) {
+                        erro = e;
+                    }
+                }
+                bloco.linhas = 0;
+                livres.put(bloco);
+            }
+            if (erro == null) {
+                esvaziarBuffer();
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            erro = e;
+        } catch (InterruptedException e) {
+            erro = new IOException("Gravação de métricas interrompida.", e);
+        }
+    }
+
+    /**
+     * Escreve o cabeçalho do arquivo de acordo com o formato.
+     *
+     * @throws IOException Se a escrita falhar.
+     */
+    private void escreverCabecalho() throws IOException {
+        if (formato == FORMATO_BINARIO) {
+            buffer.put("FNMT".getBytes(StandardCharsets.US_ASCII));
+            buffer.putInt(VERSAO);
+            buffer.putInt(COLUNAS.length);
+            for (String coluna : COLUNAS) {
+                byte[] nome = coluna.getBytes(StandardCharsets.UTF_8);
+                buffer.putShort((short) nome.length);
+                buffer.put(nome);
+            }
+        } else if (formato == FORMATO_CSV) {
+            buffer.put(String.join(",", COLUNAS).getBytes(StandardCharsets.US_ASCII));
+            buffer.put((byte) '\n');
+        }
+        esvaziarBuffer();
+    }
+
+    /**
+     * Escreve um bloco de iterações de acordo com o formato.
+     *
+     * @param bloco  O bloco a escrever.
+     * @throws IOException Se a escrita falhar.
+     */
+    private void escreverBloco(Bloco bloco) throws IOException {
+        if (formato == FORMATO_BINARIO) {
+            garantirEspaco(4);
+            buffer.putInt(bloco.linhas);
+            for (long[] coluna : bloco.colunas) {
+                for (int i = 0; i < bloco.linhas; i++) {
+                    garantirEspaco(8);
+                    buffer.putLong(coluna[i]);
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < bloco.linhas; i++) {
+            // Cada número ocupa no máximo 20 caracteres, e cada chave JSON tem menos de 24.
+            garantirEspaco(COLUNAS.length * 48 + 4);
+            if (formato == FORMATO_JSONL) {
+                buffer.put((byte) '{');
+            }
+            for (int c = 0; c < COLUNAS.length; c++) {
+                if (c > 0) {
+                    buffer.put((byte) ',');
+                }
+                if (formato == FORMATO_JSONL) {
+                    buffer.put(CHAVES_JSON[c]);
+                }
+                escreverNumero(bloco.colunas[c][i]);
+            }
+            if (formato == FORMATO_JSONL) {
+                buffer.put((byte) '}');
+            }
+            buffer.put((byte) '\n');
+        }
+    }
+
+    /**
+     * Escreve um número inteiro em decimal no buffer, sem criar strings.
+     *
+     * @param numero  O número a escrever.
+     */
+    private void escreverNumero(long numero) {
+        if (numero < 0) {
+            buffer.put((byte) '-');
+            if (numero == Long.MIN_VALUE) {
+                buffer.put("9223372036854775808".getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            numero = -numero;
+        }
+        long divisor = 1;
+        while (divisor <= numero / 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.put((byte) ('0' + (numero / divisor) % 10));
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Monta as chaves de cada coluna no formato JSON lines.
+     *
+     * @return As chaves ("nome":) de cada coluna, em bytes.
+     */
+    private static byte[][] chavesJson() {
+        byte[][] chaves = new byte[COLUNAS.length][];
+        for (int c = 0; c < COLUNAS.length; c++) {
+            chaves[c] = ("\"" + COLUNAS[c] + "\":").getBytes(StandardCharsets.US_ASCII);
+        }
+        return chaves;
+    }
+
+    /**
+     * Grava o buffer no canal se não houver espaço para mais bytes.
+     *
+     * @param bytes  O número de bytes que serão escritos em seguida.
+     * @throws IOException Se a escrita falhar.
+     */
+    private void garantirEspaco(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            esvaziarBuffer();
+        }
+    }
+
+    /**
+     * Grava no canal todos os bytes acumulados no buffer.
+     *
+     * @throws IOException Se a escrita falhar.
+     */
+    private void esvaziarBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Classe Bloco representa um conjunto de iterações guardadas por colunas.
+     */
+    private static final class Bloco {
+        /**
+         * Marcador que indica à thread de gravação que não há mais blocos.
+         */
+        static final Bloco FIM = new Bloco(0);
+
+        /**
+         * Valores de cada coluna, indexados por [coluna][linha].
+         */
+        final long[][] colunas;
+
+        /**
+         * Número de linhas preenchidas.
+         */
+        int linhas;
+
+        /**
+         * Construtor da classe Bloco.
+         *
+         * @param capacidade  O número máximo de linhas do bloco.
+         */
+        Bloco(int capacidade) {
+            this.colunas = new long[COLUNAS.length][capacidade];
+        }
+    }
+}
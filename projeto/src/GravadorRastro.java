@@ -0,0 +1,555 @@
+/**
+ * Importa a classe Closeable para que o gravador possa ser usado em try-with-resources.
+ */
+import java.io.Closeable;
+
+/**
+ * Importa a classe IOException para tratar erros de escrita.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe ByteBuffer para montar os bytes gravados no arquivo.
+ */
+import java.nio.ByteBuffer;
+
+/**
+ * Importa a classe ByteOrder para gravar o cabeçalho e o rodapé em little-endian.
+ */
+import java.nio.ByteOrder;
+
+/**
+ * Importa a classe FileChannel para gravar no arquivo pelo canal NIO.
+ */
+import java.nio.channels.FileChannel;
+
+/**
+ * Importa a classe Path para indicar o arquivo do rastro.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe StandardOpenOption para indicar como o arquivo é aberto.
+ */
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Classe GravadorRastro grava em arquivo todas as transições de estado das pessoas: as infecções por um vizinho, por
+ * uma IAGeradoraFakeNews e por mensagem, as curas por uma IADestruidoraFakeNews e o ganho e a perda da resistência dada
+ * por um MeioComunicacaoConfiavel, cada uma com a iteração, a identidade da pessoa e a fonte (o vizinho, o índice do
+ * ator ou o remetente da mensagem).
+ *
+ * A thread da simulação apenas escreve as transições em um AnelEventos e marca o fim de cada iteração; uma thread
+ * separada ordena as transições de cada iteração pela identidade e as grava em um bloco, com a distância para a
+ * iteração do bloco anterior, a diferença entre identidades seguidas e a fonte codificadas como inteiros de tamanho
+ * variável (LEB128). A thread de gravação mantém uma cópia do estado de todas as pessoas (mal informada e resistente,
+ * em 2 bits por pessoa) e, a cada intervaloQuadros iterações, grava esse estado inteiro em um quadro-chave. Ao final,
+ * grava o índice dos quadros-chave e um rodapé com a posição do índice, para que o LeitorRastro possa começar de
+ * qualquer iteração a partir do quadro-chave anterior, sem simular de novo.
+ *
+ * Formato do arquivo: cabeçalho de 32 bytes (mágico "FNTR", versão, número de pessoas, zero, iterações concluídas no
+ * início e intervalo entre quadros-chave, em little-endian); registros de bloco, de quadro-chave e de índice, cada um
+ * começando com o seu tipo em um byte; rodapé de 20 bytes (posição do índice, última iteração concluída e o mágico).
+ * As iterações são contadas como iterações concluídas, as mesmas impressas pela simulação ("Iteração n").
+ */
+class GravadorRastro implements Closeable {
+    /**
+     * Pessoa bem informada que ficou mal informada por um vizinho mal informado; a fonte é a menor identidade entre
+     * os vizinhos mal informados.
+     */
+    public static final int INFECCAO_VIZINHO = 1;
+
+    /**
+     * Pessoa bem informada que ficou mal informada por uma IAGeradoraFakeNews; a fonte é o índice do ator.
+     */
+    public static final int INFECCAO_GERADORA = 2;
+
+    /**
+     * Pessoa bem informada que ficou mal informada por uma mensagem do Whatsapp; a fonte é o remetente de menor
+     * identidade entre as mensagens entregues à pessoa na iteração.
+     */
+    public static final int INFECCAO_MENSAGEM = 3;
+
+    /**
+     * Pessoa mal informada que ficou bem informada por uma IADestruidoraFakeNews; a fonte é o índice do ator.
+     */
+    public static final int CURA_DESTRUIDORA = 4;
+
+    /**
+     * Pessoa que ficou resistente perto de um MeioComunicacaoConfiavel; a fonte é o índice do ator.
+     */
+    public static final int GANHO_RESISTENCIA = 5;
+
+    /**
+     * Pessoa cuja resistência expirou; não tem fonte.
+     */
+    public static final int PERDA_RESISTENCIA = 6;
+
+    /**
+     * Bit do estado de uma pessoa que indica que ela está mal informada.
+     */
+    static final int BIT_MAL_INFORMADA = 1;
+
+    /**
+     * Bit do estado de uma pessoa que indica que ela está resistente.
+     */
+    static final int BIT_RESISTENTE = 2;
+
+    /**
+     * Identificador do formato: os caracteres "FNTR" lidos em little-endian.
+     */
+    static final int MAGICO = 0x52544E46;
+
+    /**
+     * Versão do formato do arquivo.
+     */
+    static final int VERSAO = 1;
+
+    /**
+     * Tamanho do cabeçalho, em bytes.
+     */
+    static final int BYTES_CABECALHO = 32;
+
+    /**
+     * Tamanho do rodapé, em bytes.
+     */
+    static final int BYTES_RODAPE = 20;
+
+    /**
+     * Tipo do registro com as transições de uma iteração.
+     */
+    static final byte REGISTRO_BLOCO = 1;
+
+    /**
+     * Tipo do registro com o estado de todas as pessoas.
+     */
+    static final byte REGISTRO_QUADRO = 2;
+
+    /**
+     * Tipo do registro com o índice dos quadros-chave.
+     */
+    static final byte REGISTRO_INDICE = 3;
+
+    /**
+     * Marca, no anel, do fim de uma iteração.
+     */
+    private static final int FIM_ITERACAO = 0;
+
+    /**
+     * Número de eventos que cabem no anel.
+     */
+    private static final int EVENTOS_ANEL = 1 << 18;
+
+    /**
+     * Tamanho do buffer usado para gravar no canal.
+     */
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    /**
+     * Canal do arquivo do rastro.
+     */
+    private final FileChannel canal;
+
+    /**
+     * Buffer reaproveitado onde os bytes são montados antes de irem para o canal.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Anel por onde as transições passam da thread da simulação para a thread de gravação.
+     */
+    private final AnelEventos anel = new AnelEventos(EVENTOS_ANEL);
+
+    /**
+     * Thread que grava as transições no arquivo.
+     */
+    private final Thread gravacao;
+
+    /**
+     * Erro ocorrido na thread de gravação, ou null.
+     */
+    private volatile IOException erro;
+
+    /**
+     * Estado de cada pessoa, em 2 bits, mantido pela thread de gravação.
+     */
+    private final byte[] estados;
+
+    /**
+     * Iterações concluídas quando a gravação começou.
+     */
+    private final long primeiraIteracao;
+
+    /**
+     * Intervalo, em iterações, entre dois quadros-chave.
+     */
+    private final long intervaloQuadros;
+
+    /**
+     * Iteração do último bloco ou quadro-chave gravado, base da distância gravada no bloco seguinte.
+     */
+    private long iteracaoBase;
+
+    /**
+     * Última iteração concluída.
+     */
+    private long ultimaIteracao;
+
+    /**
+     * Chaves de ordenação das transições da iteração corrente: a identidade nos 32 bits altos e a ordem de chegada
+     * nos 32 bits baixos, para que as transições de uma mesma pessoa fiquem na ordem em que aconteceram.
+     */
+    private long[] chaves = new long[1024];
+
+    /**
+     * Tipo de cada transição da iteração corrente, na ordem de chegada.
+     */
+    private byte[] tipos = new byte[1024];
+
+    /**
+     * Fonte de cada transição da iteração corrente, na ordem de chegada.
+     */
+    private int[] fontes = new int[1024];
+
+    /**
+     * Número de transições da iteração corrente.
+     */
+    private int numTransicoes;
+
+    /**
+     * Iteração de cada quadro-chave gravado.
+     */
+    private long[] iteracoesQuadros = new long[16];
+
+    /**
+     * Posição no arquivo de cada quadro-chave gravado.
+     */
+    private long[] posicoesQuadros = new long[16];
+
+    /**
+     * Número de quadros-chave gravados.
+     */
+    private int numQuadros;
+
+    /**
+     * Número de bytes já passados do buffer para o canal.
+     */
+    private long gravados;
+
+    /**
+     * Construtor da classe GravadorRastro. Cria o arquivo, grava o cabeçalho e o quadro-chave com o estado inicial
+     * das pessoas e inicia a thread de gravação.
+     *
+     * @param arquivo           O arquivo do rastro.
+     * @param populacao         A população, com o estado antes da primeira iteração gravada.
+     * @param iteracoes         O número de iterações já concluídas.
+     * @param intervaloQuadros  O intervalo, em iterações, entre dois quadros-chave.
+     * @throws IOException Se o arquivo não puder ser criado.
+     * @throws IllegalArgumentException Se o intervalo entre quadros-chave não for positivo.
+     */
+    public GravadorRastro(Path arquivo, Populacao populacao, long iteracoes, long intervaloQuadros) throws IOException {
+        if (intervaloQuadros <= 0) {
+            throw new IllegalArgumentException("O intervalo entre quadros-chave deve ser maior que zero.");
+        }
+        int numPessoas = populacao.tamanho();
+        this.estados = new byte[(numPessoas + 3) / 4];
+        for (int id = 0; id < numPessoas; id++) {
+            int bits = 0;
+            if (populacao.isMalInformada(id)) {
+                bits |= BIT_MAL_INFORMADA;
+            }
+            if (populacao.isResistente(id)) {
+                bits |= BIT_RESISTENTE;
+            }
+            int identidade = populacao.getIdentidade(id);
+            estados[identidade >>> 2] |= (byte) (bits << ((identidade & 3) * 2));
+        }
+        this.primeiraIteracao = iteracoes;
+        this.intervaloQuadros = intervaloQuadros;
+        this.ultimaIteracao = iteracoes;
+
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGICO);
+        buffer.putInt(VERSAO);
+        buffer.putInt(numPessoas);
+        buffer.putInt(0);
+        buffer.putLong(iteracoes);
+        buffer.putLong(intervaloQuadros);
+        escreverQuadro(iteracoes);
+
+        this.gravacao = new Thread(this::gravar, "gravador-rastro");
+        this.gravacao.setDaemon(true);
+        this.gravacao.start();
+    }
+
+    /**
+     * Registra uma transição da iteração corrente. Não cria objetos nem espera a gravação; deve ser chamado sempre
+     * pela mesma thread.
+     *
+     * @param tipo        O tipo da transição (INFECCAO_VIZINHO, ..., PERDA_RESISTENCIA).
+     * @param identidade  A identidade da pessoa.
+     * @param fonte       A fonte da transição, ou -1 se não houver.
+     */
+    public void registrar(int tipo, int identidade, int fonte) {
+        anel.escrever(tipo, ((long) identidade << 32) | (fonte & 0xFFFFFFFFL));
+    }
+
+    /**
+     * Marca o fim de uma iteração e entrega à thread de gravação as transições registradas nela.
+     *
+     * @param iteracao  O número da iteração concluída, a partir de zero.
+     * @throws IOException Se a thread de gravação falhou.
+     */
+    public void fimIteracao(long iteracao) throws IOException {
+        if (erro != null) {
+            throw erro;
+        }
+        anel.escrever(FIM_ITERACAO | ((iteracao + 1) << 3), 0);
+        anel.publicar();
+    }
+
+    /**
+     * Grava as transições pendentes, o índice e o rodapé, encerra a thread de gravação e fecha o arquivo.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    @Override
+    public void close() throws IOException {
+        anel.fechar();
+        try {
+            gravacao.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido ao encerrar a gravação do rastro.", e);
+        } finally {
+            canal.close();
+        }
+        if (erro != null) {
+            throw erro;
+        }
+    }
+
+    /**
+     * Aplica uma transição ao estado de uma pessoa.
+     *
+     * @param estados    O estado de cada pessoa, em 2 bits.
+     * @param identidade A identidade da pessoa.
+     * @param tipo       O tipo da transição.
+     */
+    static void aplicar(byte[] estados, int identidade, int tipo) {
+        int deslocamento = (identidade & 3) * 2;
+        int bit;
+        boolean ligar;
+        switch (tipo) {
+            case INFECCAO_VIZINHO:
+            case INFECCAO_GERADORA:
+            case INFECCAO_MENSAGEM:
+                bit = BIT_MAL_INFORMADA;
+                ligar = true;
+                break;
+            case CURA_DESTRUIDORA:
+                bit = BIT_MAL_INFORMADA;
+                ligar = false;
+                break;
+            case GANHO_RESISTENCIA:
+                bit = BIT_RESISTENTE;
+                ligar = true;
+                break;
+            case PERDA_RESISTENCIA:
+                bit = BIT_RESISTENTE;
+                ligar = false;
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de transição desconhecido: " + tipo);
+        }
+        if (ligar) {
+            estados[identidade >>> 2] |= (byte) (bit << deslocamento);
+        } else {
+            estados[identidade >>> 2] &= (byte) ~(bit << deslocamento);
+        }
+    }
+
+    /**
+     * Laço da thread de gravação: lê as transições do anel e grava um bloco a cada fim de iteração. Depois de um
+     * erro, continua esvaziando o anel, para que a simulação nunca espere, mas não grava mais nada.
+     */
+    private void gravar() {
+        long lidos = 0;
+        long disponiveis;
+        while ((disponiveis = anel.aguardar(lidos)) >= 0) {
+            for (; lidos < disponiveis; lidos += 2) {
+                long a = anel.ler(lidos);
+                long b = anel.ler(lidos + 1);
+                int tipo = (int) (a & 7);
+                if (erro != null) {
+                    continue;
+                }
+                try {
+                    if (tipo == FIM_ITERACAO) {
+                        concluirIteracao(a >>> 3);
+                    } else {
+                        acumular(tipo, (int) (b >>> 32), (int) b);
+                    }
+                } catch (IOException e) {
+                    erro = e;
+                }
+            }
+            anel.consumir(lidos);
+        }
+        if (erro == null) {
+            try {
+                escreverIndice();
+                esvaziarBuffer();
+                canal.force(false);
+            } catch (IOException e) {
+                erro = e;
+            }
+        }
+    }
+
+    /**
+     * Guarda uma transição da iteração corrente.
+     *
+     * @param tipo        O tipo da transição.
+     * @param identidade  A identidade da pessoa.
+     * @param fonte       A fonte da transição.
+     */
+    private void acumular(int tipo, int identidade, int fonte) {
+        if (numTransicoes == chaves.length) {
+            chaves = Arrays.copyOf(chaves, numTransicoes * 2);
+            tipos = Arrays.copyOf(tipos, numTransicoes * 2);
+            fontes = Arrays.copyOf(fontes, numTransicoes * 2);
+        }
+        chaves[numTransicoes] = ((long) identidade << 32) | numTransicoes;
+        tipos[numTransicoes] = (byte) tipo;
+        fontes[numTransicoes] = fonte;
+        numTransicoes++;
+    }
+
+    /**
+     * Grava o bloco com as transições de uma iteração, se houver alguma, e o quadro-chave, se a iteração for múltipla
+     * do intervalo entre quadros-chave.
+     *
+     * @param iteracao  O número de iterações concluídas.
+     * @throws IOException Se a escrita falhar.
+     */
+    private void concluirIteracao(long iteracao) throws IOException {
+        if (numTransicoes > 0) {
+            Arrays.sort(chaves, 0, numTransicoes);
+            garantirEspaco(21);
+            buffer.put(REGISTRO_BLOCO);
+            escreverVarLong(iteracao - iteracaoBase);
+            escreverVarLong(numTransicoes);
+            long anterior = 0;
+            for (int k = 0; k < numTransicoes; k++) {
+                int identidade = (int) (chaves[k] >>> 32);
+                int ordem = (int) chaves[k];
+                garantirEspaco(20);
+                escreverVarLong(((identidade - anterior) << 3) | tipos[ordem]);
+                escreverVarLong(fontes[ordem] + 1L);
+                aplicar(estados, identidade, tipos[ordem]);
+                anterior = identidade;
+            }
+            numTransicoes = 0;
+            iteracaoBase = iteracao;
+        }
+        ultimaIteracao = iteracao;
+        if ((iteracao - primeiraIteracao) % intervaloQuadros == 0) {
+            escreverQuadro(iteracao);
+        }
+    }
+
+    /**
+     * Grava um quadro-chave com o estado de todas as pessoas e o acrescenta ao índice.
+     *
+     * @param iteracao  O número de iterações concluídas.
+     * @throws IOException Se a escrita falhar.
+     */
+    private void escreverQuadro(long iteracao) throws IOException {
+        if (numQuadros == iteracoesQuadros.length) {
+            iteracoesQuadros = Arrays.copyOf(iteracoesQuadros, numQuadros * 2);
+            posicoesQuadros = Arrays.copyOf(posicoesQuadros, numQuadros * 2);
+        }
+        iteracoesQuadros[numQuadros] = iteracao;
+        posicoesQuadros[numQuadros] = gravados + buffer.position();
+        numQuadros++;
+
+        garantirEspaco(11);
+        buffer.put(REGISTRO_QUADRO);
+        escreverVarLong(iteracao);
+        for (int feito = 0; feito < estados.length; ) {
+            garantirEspaco(1);
+            int k = Math.min(estados.length - feito, buffer.remaining());
+            buffer.put(estados, feito, k);
+            feito += k;
+        }
+        iteracaoBase = iteracao;
+    }
+
+    /**
+     * Grava o índice dos quadros-chave e o rodapé.
+     *
+     * @throws IOException Se a escrita falhar.
+     */
+    private void escreverIndice() throws IOException {
+        long posicaoIndice = gravados + buffer.position();
+        garantirEspaco(11);
+        buffer.put(REGISTRO_INDICE);
+        escreverVarLong(numQuadros);
+        for (int k = 0; k < numQuadros; k++) {
+            garantirEspaco(20);
+            escreverVarLong(iteracoesQuadros[k]);
+            escreverVarLong(posicoesQuadros[k]);
+        }
+        garantirEspaco(BYTES_RODAPE);
+        buffer.putLong(posicaoIndice);
+        buffer.putLong(ultimaIteracao);
+        buffer.putInt(MAGICO);
+    }
+
+    /**
+     * Escreve um número não negativo com 7 bits por byte, do menos para o mais significativo, com o bit mais alto de
+     * cada byte indicando que há outro byte em seguida.
+     *
+     * @param valor  O número.
+     */
+    private void escreverVarLong(long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            buffer.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        buffer.put((byte) valor);
+    }
+
+    /**
+     * Garante que o buffer tenha espaço para o número de bytes informado, esvaziando-o se preciso.
+     *
+     * @param bytes  O número de bytes necessários.
+     * @throws IOException Se a escrita falhar.
+     */
+    private void garantirEspaco(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            esvaziarBuffer();
+        }
+    }
+
+    /**
+     * Grava no canal o conteúdo do buffer.
+     *
+     * @throws IOException Se a escrita falhar.
+     */
+    private void esvaziarBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            gravados += canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Importa a classe AtomicLong para acumular a soma e o máximo sem travas.
+ */
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importa a classe AtomicLongArray para contar os valores de cada balde sem travas.
+ */
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Classe HistogramaLatencia representa um histograma de durações em nanossegundos, no estilo do HdrHistogram: os baldes
+ * têm largura crescente em escala logarítmica, com BITS_PRECISAO bits de mantissa, então cada valor é guardado com erro
+ * relativo de no máximo 1/64 (cerca de 1,6%), de 0 até Long.MAX_VALUE, em um array de tamanho fixo.
+ *
+ * O registro é apenas um incremento atômico no balde do valor, sem travas nem alocação, e pode ser feito por várias
+ * threads. A leitura (percentis, média, máximo) pode acontecer em outra thread enquanto os registros continuam,
+ * caso em que o resultado reflete um instante aproximado.
+ */
+class HistogramaLatencia {
+    /**
+     * Número de bits da mantissa de cada balde, depois do bit mais alto do valor.
+     */
+    private static final int BITS_PRECISAO = 6;
+
+    /**
+     * Número de baldes em cada potência de 2.
+     */
+    private static final int BALDES_POR_POTENCIA = 1 << BITS_PRECISAO;
+
+    /**
+     * Valores menores que este limite têm um balde exato cada um.
+     */
+    private static final int LIMITE_EXATO = 2 * BALDES_POR_POTENCIA;
+
+    /**
+     * Número total de baldes, suficiente para qualquer valor não negativo de long.
+     */
+    private static final int NUM_BALDES = LIMITE_EXATO + (63 - (BITS_PRECISAO + 1)) * BALDES_POR_POTENCIA;
+
+    /**
+     * Número de valores registrados em cada balde.
+     */
+    private final AtomicLongArray baldes = new AtomicLongArray(NUM_BALDES);
+
+    /**
+     * Soma de todos os valores registrados.
+     */
+    private final AtomicLong soma = new AtomicLong();
+
+    /**
+     * Maior valor registrado.
+     */
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra um valor. Valores negativos são registrados como zero.
+     *
+     * @param valor  A duração, em nanossegundos.
+     */
+    public void registrar(long valor) {
+        if (valor < 0) {
+            valor = 0;
+        }
+        baldes.getAndIncrement(balde(valor));
+        soma.getAndAdd(valor);
+        long atual = maximo.get();
+        while (valor > atual && !maximo.compareAndSet(atual, valor)) {
+            atual = maximo.get();
+        }
+    }
+
+    /**
+     * Retorna o número de valores registrados.
+     *
+     * @return A quantidade de valores.
+     */
+    public long getQuantidade() {
+        long total = 0;
+        for (int i = 0; i < NUM_BALDES; i++) {
+            total += baldes.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Retorna a média dos valores registrados.
+     *
+     * @return A média, em nanossegundos, ou zero se nenhum valor foi registrado.
+     */
+    public double getMedia() {
+        long quantidade = getQuantidade();
+        return quantidade == 0 ? 0 : (double) soma.get() / quantidade;
+    }
+
+    /**
+     * Retorna o maior valor registrado.
+     *
+     * @return O máximo, em nanossegundos.
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Retorna a soma de todos os valores registrados.
+     *
+     * @return A soma, em nanossegundos.
+     */
+    public long getSoma() {
+        return soma.get();
+    }
+
+    /**
+     * Calcula o percentil informado, com a precisão dos baldes: o resultado é o ponto médio do balde
+     * que contém o percentil, limitado ao máximo registrado.
+     *
+     * @param percentil  O percentil, entre 0 e 100.
+     * @return O valor do percentil, em nanossegundos, ou zero se nenhum valor foi registrado.
+     */
+    public long percentil(double percentil) {
+        long quantidade = getQuantidade();
+        if (quantidade == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(percentil / 100.0 * quantidade));
+        long acumulado = 0;
+        for (int i = 0; i < NUM_BALDES; i++) {
+            acumulado += baldes.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(maximo.get(), inicioBalde(i) + (larguraBalde(i) - 1) / 2);
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Descarta todos os valores registrados.
+     */
+    public void zerar() {
+        for (int i = 0; i < NUM_BALDES; i++) {
+            baldes.set(i, 0);
+        }
+        soma.set(0);
+        maximo.set(0);
+    }
+
+    /**
+     * Calcula o balde de um valor não negativo.
+     *
+     * @param valor  O valor.
+     * @return O índice do balde.
+     */
+    static int balde(long valor) {
+        if (valor < LIMITE_EXATO) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int mantissa = (int) (valor >>> (expoente - BITS_PRECISAO)) & (BALDES_POR_POTENCIA - 1);
+        return LIMITE_EXATO + (expoente - BITS_PRECISAO - 1) * BALDES_POR_POTENCIA + mantissa;
+    }
+
+    /**
+     * Calcula o menor valor guardado em um balde.
+     *
+     * @param balde  O índice do balde.
+     * @return O menor valor do balde.
+     */
+    static long inicioBalde(int balde) {
+        if (balde < LIMITE_EXATO) {
+            return balde;
+        }
+        int expoente = (balde - LIMITE_EXATO) / BALDES_POR_POTENCIA + BITS_PRECISAO + 1;
+        long mantissa = BALDES_POR_POTENCIA + (balde - LIMITE_EXATO) % BALDES_POR_POTENCIA;
+        return mantissa << (expoente - BITS_PRECISAO);
+    }
+
+    /**
+     * Calcula quantos valores diferentes um balde guarda.
+     *
+     * @param balde  O índice do balde.
+     * @return A largura do balde.
+     */
+    private static long larguraBalde(int balde) {
+        if (balde < LIMITE_EXATO) {
+            return 1;
+        }
+        int expoente = (balde - LIMITE_EXATO) / BALDES_POR_POTENCIA + BITS_PRECISAO + 1;
+        return 1L << (expoente - BITS_PRECISAO);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Interface IAtor representa um objeto no mapa que age sobre as pessoas próximas:
+ * as IAs geradoras e destruidoras de fake news e os meios de comunicação confiáveis.
+ * Um ator sem rota fica parado no seu posto; com uma RotaPatrulha, cada chamada a mover avança um passo na ronda.
+ */
+interface IAtor extends IMovable {
+    /**
+     * Tipo das IAs geradoras de fake news, que tornam mal informadas as pessoas próximas.
+     */
+    int GERADORA = 0;
+
+    /**
+     * Tipo das IAs destruidoras de fake news, que tornam bem informadas as pessoas próximas.
+     */
+    int DESTRUIDORA = 1;
+
+    /**
+     * Tipo dos meios de comunicação confiáveis, que dão resistência a fake news às pessoas próximas.
+     */
+    int MEIO_CONFIAVEL = 2;
+
+    /**
+     * Método para obter a coordenada X do ator.
+     *
+     * @return A coordenada X do ator.
+     */
+    int getX();
+
+    /**
+     * Método para obter a coordenada Y do ator.
+     *
+     * @return A coordenada Y do ator.
+     */
+    int getY();
+
+    /**
+     * Método para obter o tipo do ator.
+     *
+     * @return GERADORA, DESTRUIDORA ou MEIO_CONFIAVEL.
+     */
+    int getTipo();
+
+    /**
+     * Método para obter o símbolo que representa o ator no mapa.
+     *
+     * @return O símbolo do ator.
+     */
+    char getSymbol();
+
+    /**
+     * Método para obter a rota de patrulha do ator.
+     *
+     * @return A rota do ator, ou null se o ator é fixo.
+     */
+    RotaPatrulha getRota();
+
+    /**
+     * Método para definir a rota de patrulha do ator. A posição do ator passa a ser a da rota.
+     *
+     * @param rota  A rota do ator, ou null para deixá-lo fixo na posição atual.
+     */
+    void setRota(RotaPatrulha rota);
+}
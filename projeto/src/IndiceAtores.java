@@ -0,0 +1,212 @@
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Importa a classe List para receber a lista de atores.
+ */
+import java.util.List;
+
+/**
+ * Classe IndiceAtores representa um índice espacial das IAs e dos meios de comunicação confiáveis.
+ * O mapa é dividido em baldes quadrados e cada balde guarda, em um array contíguo, os atores cujo alcance
+ * (raio unidades em qualquer direção) alcança o balde. Assim, cada pessoa consulta apenas o balde em que está,
+ * e o custo da consulta não depende do número total de atores.
+ *
+ * Com atores fixos, o índice é montado uma única vez. Quando os atores se movem, reconstruir monta o índice de novo
+ * nos mesmos arrays, sem alocar memória, com custo proporcional ao número de atores e de baldes.
+ */
+class IndiceAtores {
+    /**
+     * Número de baldes que o índice pode ter independentemente do número de atores.
+     */
+    private static final long MIN_BALDES = 1 << 16;
+
+    /**
+     * Número máximo de baldes por ator.
+     */
+    private static final long BALDES_POR_ATOR = 4;
+
+    /**
+     * Distância máxima, em qualquer direção, para que um ator alcance uma pessoa.
+     */
+    private final int raio;
+
+    /**
+     * Raio limitado ao tamanho do mapa, usado para calcular os baldes alcançados por cada ator.
+     */
+    private final int alcance;
+
+    /**
+     * Lado de cada balde, em coordenadas do mapa.
+     */
+    private final int lado;
+
+    /**
+     * Número de linhas de baldes.
+     */
+    private final int linhasBaldes;
+
+    /**
+     * Número de colunas de baldes.
+     */
+    private final int colunasBaldes;
+
+    /**
+     * Número total de baldes.
+     */
+    private final int numBaldes;
+
+    /**
+     * Posição, em xs, ys e tipos, da primeira entrada de cada balde. A entrada do balde b vai de inicio[b] até inicio[b + 1].
+     */
+    private final int[] inicio;
+
+    /**
+     * Próxima entrada livre de cada balde, usada durante a montagem do índice.
+     */
+    private final int[] proximaEntrada;
+
+    /**
+     * Coordenada X do ator de cada entrada.
+     */
+    private int[] xs;
+
+    /**
+     * Coordenada Y do ator de cada entrada.
+     */
+    private int[] ys;
+
+    /**
+     * Tipo do ator de cada entrada (IAtor.GERADORA, IAtor.DESTRUIDORA ou IAtor.MEIO_CONFIAVEL).
+     */
+    private byte[] tipos;
+
+    /**
+     * Construtor da classe IndiceAtores.
+     * O lado dos baldes é pelo menos 2 * raio + 1, para que cada ator alcance no máximo 4 baldes, e cresce
+     * até que o número de baldes fique abaixo de max(MIN_BALDES, BALDES_POR_ATOR * número de atores).
+     *
+     * @param linhas   O número de linhas do mapa.
+     * @param colunas  O número de colunas do mapa.
+     * @param raio     A distância máxima para que um ator alcance uma pessoa.
+     * @param atores   Os atores do mapa.
+     */
+    public IndiceAtores(int linhas, int colunas, int raio, List<? extends IAtor> atores) {
+        this.raio = raio;
+
+        // Um raio maior que o mapa alcança o mapa inteiro; limitá-lo evita estouro nas contas abaixo.
+        this.alcance = Math.min(raio, Math.max(linhas, colunas));
+        long limite = Math.max(MIN_BALDES, BALDES_POR_ATOR * atores.size());
+        long celulas = (long) linhas * colunas;
+        int ladoBalde = (int) Math.max(2L * alcance + 1, Math.floor(Math.sqrt((double) celulas / limite)));
+        while (baldes(linhas, ladoBalde) * baldes(colunas, ladoBalde) > limite) {
+            ladoBalde++;
+        }
+        this.lado = ladoBalde;
+        this.linhasBaldes = (int) baldes(linhas, lado);
+        this.colunasBaldes = (int) baldes(colunas, lado);
+        this.numBaldes = linhasBaldes * colunasBaldes;
+
+        this.inicio = new int[numBaldes + 1];
+        this.proximaEntrada = new int[numBaldes];
+        // Como o lado é maior que o alcance, cada ator alcança no máximo 2 x 2 baldes.
+        this.xs = new int[4 * atores.size()];
+        this.ys = new int[4 * atores.size()];
+        this.tipos = new byte[4 * atores.size()];
+        reconstruir(atores);
+    }
+
+    /**
+     * Monta o índice com as posições atuais dos atores, reaproveitando os arrays do índice.
+     * Os atores são percorridos por posição na lista, sem iteradores, para que a montagem não aloque memória.
+     *
+     * @param atores  Os atores do mapa.
+     */
+    public void reconstruir(List<? extends IAtor> atores) {
+        /**
+         * Primeira passagem: conta quantos atores alcançam cada balde.
+         */
+        Arrays.fill(inicio, 0);
+        for (int i = 0; i < atores.size(); i++) {
+            IAtor ator = atores.get(i);
+            int bxMin = Math.max(0, ator.getX() - alcance) / lado;
+            int bxMax = Math.min(linhasBaldes - 1, (ator.getX() + alcance) / lado);
+            int byMin = Math.max(0, ator.getY() - alcance) / lado;
+            int byMax = Math.min(colunasBaldes - 1, (ator.getY() + alcance) / lado);
+            for (int bx = bxMin; bx <= bxMax; bx++) {
+                for (int by = byMin; by <= byMax; by++) {
+                    inicio[bx * colunasBaldes + by + 1]++;
+                }
+            }
+        }
+        for (int b = 0; b < numBaldes; b++) {
+            inicio[b + 1] += inicio[b];
+        }
+
+        /**
+         * Segunda passagem: copia a posição e o tipo de cada ator para as entradas dos baldes que ele alcança.
+         */
+        int entradas = inicio[numBaldes];
+        if (entradas > xs.length) {
+            xs = new int[entradas];
+            ys = new int[entradas];
+            tipos = new byte[entradas];
+        }
+        System.arraycopy(inicio, 0, proximaEntrada, 0, numBaldes);
+        for (int i = 0; i < atores.size(); i++) {
+            IAtor ator = atores.get(i);
+            int bxMin = Math.max(0, ator.getX() - alcance) / lado;
+            int bxMax = Math.min(linhasBaldes - 1, (ator.getX() + alcance) / lado);
+            int byMin = Math.max(0, ator.getY() - alcance) / lado;
+            int byMax = Math.min(colunasBaldes - 1, (ator.getY() + alcance) / lado);
+            for (int bx = bxMin; bx <= bxMax; bx++) {
+                for (int by = byMin; by <= byMax; by++) {
+                    int k = proximaEntrada[bx * colunasBaldes + by]++;
+                    xs[k] = ator.getX();
+                    ys[k] = ator.getY();
+                    tipos[k] = (byte) ator.getTipo();
+                }
+            }
+        }
+    }
+
+    /**
+     * Retorna os tipos de atores que alcançam a posição informada.
+     *
+     * @param x  A coordenada X da pessoa.
+     * @param y  A coordenada Y da pessoa.
+     * @return Uma máscara de bits com o bit (1 << tipo) ligado para cada tipo de ator próximo.
+     */
+    public int tiposProximos(int x, int y) {
+        int b = (x / lado) * colunasBaldes + (y / lado);
+        int mascara = 0;
+        for (int k = inicio[b]; k < inicio[b + 1]; k++) {
+            if (MotorTick.proximo(x, y, xs[k], ys[k], raio)) {
+                mascara |= 1 << tipos[k];
+            }
+        }
+        return mascara;
+    }
+
+    /**
+     * Retorna o número de entradas do índice, isto é, a soma do número de baldes alcançados por cada ator.
+     *
+     * @return O número de entradas.
+     */
+    public int getEntradas() {
+        return inicio[numBaldes];
+    }
+
+    /**
+     * Calcula quantos baldes de um lado cobrem uma dimensão do mapa.
+     *
+     * @param tamanho  O tamanho da dimensão.
+     * @param lado     O lado do balde.
+     * @return O número de baldes.
+     */
+    private static long baldes(int tamanho, int lado) {
+        return (tamanho + (long) lado - 1) / lado;
+    }
+}
@@ -0,0 +1,357 @@
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Classe IndiceEspacial representa um índice espacial em grade uniforme sobre o mapa do Mundo.
+ * O mapa é dividido em baldes quadrados de lado x lado coordenadas, e cada balde guarda uma lista
+ * encadeada com os identificadores das pessoas que estão nele. Assim, a detecção de contatos precisa
+ * olhar apenas para os baldes ao redor de cada pessoa, e não para a população inteira.
+ *
+ * Em mapas pequenos o lado é 1, e cada balde corresponde a uma coordenada (linha, coluna) do mapa.
+ * Em mapas muito maiores que a população o lado cresce, para que o número de baldes fique proporcional
+ * ao número de pessoas e não à área do mapa; quem consulta o índice deve então conferir a distância
+ * de cada pessoa encontrada.
+ *
+ * O índice também pode cobrir apenas uma faixa de linhas do mapa, como faz cada TrabalhadorFaixa da simulação
+ * distribuída: os baldes começam na primeira linha da faixa, e só pessoas dentro dela podem ser inseridas.
+ */
+class IndiceEspacial {
+    /**
+     * Valor usado para indicar o fim de uma lista encadeada ou um balde vazio.
+     */
+    public static final int VAZIO = -1;
+
+    /**
+     * Número de baldes que o índice pode ter independentemente do tamanho da população.
+     */
+    private static final long MIN_BALDES = 1 << 16;
+
+    /**
+     * Número máximo de baldes por pessoa.
+     */
+    private static final long BALDES_POR_PESSOA = 4;
+
+    /**
+     * Número de linhas do mapa indexado.
+     */
+    private final int linhas;
+
+    /**
+     * Número de colunas do mapa indexado.
+     */
+    private final int colunas;
+
+    /**
+     * Primeira linha do mapa coberta pelo índice.
+     */
+    private final int linhaInicial;
+
+    /**
+     * Lado de cada balde, em coordenadas do mapa.
+     */
+    private final int lado;
+
+    /**
+     * Número de linhas de baldes.
+     */
+    private final int linhasBaldes;
+
+    /**
+     * Número de colunas de baldes.
+     */
+    private final int colunasBaldes;
+
+    /**
+     * Primeiro identificador de cada balde, indexado por (linha do balde * colunasBaldes + coluna do balde).
+     */
+    private final int[] cabeca;
+
+    /**
+     * Próximo identificador no mesmo balde, indexado pelo identificador da pessoa.
+     */
+    private int[] proximo;
+
+    /**
+     * Identificador anterior no mesmo balde, indexado pelo identificador da pessoa.
+     */
+    private int[] anterior;
+
+    /**
+     * Balde atualmente ocupado por cada pessoa, ou VAZIO se a pessoa não foi inserida.
+     */
+    private int[] baldeAtual;
+
+    /**
+     * Construtor da classe IndiceEspacial.
+     * O lado dos baldes é o menor que mantém o número de baldes abaixo de
+     * max(MIN_BALDES, BALDES_POR_PESSOA * capacidade).
+     *
+     * @param linhas      O número de linhas do mapa.
+     * @param colunas     O número de colunas do mapa.
+     * @param capacidade  O número de pessoas esperado, usado para dimensionar os arrays internos.
+     */
+    public IndiceEspacial(int linhas, int colunas, int capacidade) {
+        this(linhas, colunas, 0, linhas, capacidade);
+    }
+
+    /**
+     * Construtor da classe IndiceEspacial que cobre apenas as linhas de linhaInicial até linhaFinal (exclusiva) do mapa.
+     * O lado dos baldes é calculado como no outro construtor, mas sobre a área da faixa.
+     *
+     * @param linhas        O número de linhas do mapa.
+     * @param colunas       O número de colunas do mapa.
+     * @param linhaInicial  A primeira linha coberta.
+     * @param linhaFinal    A linha seguinte à última coberta.
+     * @param capacidade    O número de pessoas esperado na faixa, usado para dimensionar os arrays internos.
+     */
+    public IndiceEspacial(int linhas, int colunas, int linhaInicial, int linhaFinal, int capacidade) {
+        if (linhaInicial < 0 || linhaFinal > linhas || linhaInicial >= linhaFinal) {
+            throw new IllegalArgumentException("Faixa de linhas inválida: " + linhaInicial + " a " + linhaFinal + ".");
+        }
+        this.linhas = linhas;
+        this.colunas = colunas;
+        this.linhaInicial = linhaInicial;
+
+        int linhasFaixa = linhaFinal - linhaInicial;
+        long limite = Math.max(MIN_BALDES, BALDES_POR_PESSOA * capacidade);
+        long celulas = (long) linhasFaixa * colunas;
+        int ladoBalde = (int) Math.max(1, Math.floor(Math.sqrt((double) celulas / limite)));
+        while (baldes(linhasFaixa, ladoBalde) * baldes(colunas, ladoBalde) > limite) {
+            ladoBalde++;
+        }
+        this.lado = ladoBalde;
+        this.linhasBaldes = (int) baldes(linhasFaixa, lado);
+        this.colunasBaldes = (int) baldes(colunas, lado);
+
+        this.cabeca = new int[linhasBaldes * colunasBaldes];
+        this.proximo = new int[capacidade];
+        this.anterior = new int[capacidade];
+        this.baldeAtual = new int[capacidade];
+
+        Arrays.fill(cabeca, VAZIO);
+        Arrays.fill(baldeAtual, VAZIO);
+    }
+
+    /**
+     * Insere uma pessoa no índice na posição informada.
+     *
+     * @param id  O identificador da pessoa.
+     * @param x   A posição horizontal da pessoa.
+     * @param y   A posição vertical da pessoa.
+     */
+    public void inserir(int id, int x, int y) {
+        garantirCapacidade(id + 1);
+        if (baldeAtual[id] != VAZIO) {
+            throw new IllegalStateException("Pessoa " + id + " já está no índice espacial.");
+        }
+        ligar(id, balde(x, y));
+    }
+
+    /**
+     * Atualiza a posição de uma pessoa no índice.
+     * Se a pessoa continua no mesmo balde, nada é feito.
+     *
+     * @param id  O identificador da pessoa.
+     * @param x   A nova posição horizontal da pessoa.
+     * @param y   A nova posição vertical da pessoa.
+     */
+    public void atualizar(int id, int x, int y) {
+        int novoBalde = balde(x, y);
+        if (baldeAtual[id] == novoBalde) {
+            return;
+        }
+        desligar(id);
+        ligar(id, novoBalde);
+    }
+
+    /**
+     * Remove uma pessoa do índice.
+     *
+     * @param id  O identificador da pessoa.
+     */
+    public void remover(int id) {
+        if (id < baldeAtual.length && baldeAtual[id] != VAZIO) {
+            desligar(id);
+        }
+    }
+
+    /**
+     * Retorna o primeiro identificador de pessoa no balde informado.
+     *
+     * @param bx  A linha do balde.
+     * @param by  A coluna do balde.
+     * @return O identificador da primeira pessoa do balde, ou VAZIO se o balde estiver vazio.
+     */
+    public int primeiro(int bx, int by) {
+        return cabeca[bx * colunasBaldes + by];
+    }
+
+    /**
+     * Retorna o identificador seguinte no mesmo balde da pessoa informada.
+     *
+     * @param id  O identificador da pessoa atual.
+     * @return O identificador da próxima pessoa no balde, ou VAZIO se não houver mais pessoas.
+     */
+    public int proximo(int id) {
+        return proximo[id];
+    }
+
+    /**
+     * Retorna a linha de baldes que contém a linha do mapa informada.
+     *
+     * @param x  A linha do mapa.
+     * @return A linha do balde.
+     */
+    public int baldeLinha(int x) {
+        return (x - linhaInicial) / lado;
+    }
+
+    /**
+     * Retorna a coluna de baldes que contém a coluna do mapa informada.
+     *
+     * @param y  A coluna do mapa.
+     * @return A coluna do balde.
+     */
+    public int baldeColuna(int y) {
+        return y / lado;
+    }
+
+    /**
+     * Retorna o número de linhas de baldes.
+     *
+     * @return O número de linhas de baldes.
+     */
+    public int getLinhasBaldes() {
+        return linhasBaldes;
+    }
+
+    /**
+     * Retorna o número de colunas de baldes.
+     *
+     * @return O número de colunas de baldes.
+     */
+    public int getColunasBaldes() {
+        return colunasBaldes;
+    }
+
+    /**
+     * Retorna o lado de cada balde, em coordenadas do mapa.
+     *
+     * @return O lado dos baldes.
+     */
+    public int getLado() {
+        return lado;
+    }
+
+    /**
+     * Retorna o número de linhas do mapa, mesmo que o índice cubra apenas uma faixa dele.
+     *
+     * @return O número de linhas.
+     */
+    public int getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * Retorna o número de colunas do mapa indexado.
+     *
+     * @return O número de colunas.
+     */
+    public int getColunas() {
+        return colunas;
+    }
+
+    /**
+     * Esvazia o índice e insere novamente todas as pessoas da população. Cada balde fica com as pessoas em ordem
+     * crescente de identificador, então, depois de uma reordenação da população, a lista de um balde percorre registros
+     * seguidos.
+     *
+     * @param populacao  A população, com a posição de cada pessoa.
+     */
+    public void reconstruir(Populacao populacao) {
+        int n = populacao.tamanho();
+        garantirCapacidade(n);
+        Arrays.fill(cabeca, VAZIO);
+        Arrays.fill(baldeAtual, VAZIO);
+        for (int id = n - 1; id >= 0; id--) {
+            ligar(id, balde(populacao.getX(id), populacao.getY(id)));
+        }
+    }
+
+    /**
+     * Calcula o balde que contém a posição informada.
+     *
+     * @param x  A linha do mapa.
+     * @param y  A coluna do mapa.
+     * @return O índice do balde em cabeca.
+     */
+    private int balde(int x, int y) {
+        return ((x - linhaInicial) / lado) * colunasBaldes + (y / lado);
+    }
+
+    /**
+     * Calcula quantos baldes de um lado cobrem uma dimensão do mapa.
+     *
+     * @param tamanho  O tamanho da dimensão.
+     * @param lado     O lado do balde.
+     * @return O número de baldes.
+     */
+    private static long baldes(int tamanho, int lado) {
+        return (tamanho + (long) lado - 1) / lado;
+    }
+
+    /**
+     * Encadeia a pessoa no início da lista do balde informado.
+     *
+     * @param id        O identificador da pessoa.
+     * @param novoBalde O balde de destino.
+     */
+    private void ligar(int id, int novoBalde) {
+        int primeiro = cabeca[novoBalde];
+        proximo[id] = primeiro;
+        anterior[id] = VAZIO;
+        if (primeiro != VAZIO) {
+            anterior[primeiro] = id;
+        }
+        cabeca[novoBalde] = id;
+        baldeAtual[id] = novoBalde;
+    }
+
+    /**
+     * Retira a pessoa da lista do balde que ela ocupa atualmente.
+     *
+     * @param id  O identificador da pessoa.
+     */
+    private void desligar(int id) {
+        int antes = anterior[id];
+        int depois = proximo[id];
+        if (antes != VAZIO) {
+            proximo[antes] = depois;
+        } else {
+            cabeca[baldeAtual[id]] = depois;
+        }
+        if (depois != VAZIO) {
+            anterior[depois] = antes;
+        }
+        baldeAtual[id] = VAZIO;
+    }
+
+    /**
+     * Garante que os arrays indexados por pessoa comportem o identificador informado.
+     *
+     * @param tamanho  O tamanho mínimo necessário.
+     */
+    private void garantirCapacidade(int tamanho) {
+        if (tamanho <= baldeAtual.length) {
+            return;
+        }
+        int novoTamanho = Math.max(tamanho, baldeAtual.length * 2);
+        int antigo = baldeAtual.length;
+        proximo = Arrays.copyOf(proximo, novoTamanho);
+        anterior = Arrays.copyOf(anterior, novoTamanho);
+        baldeAtual = Arrays.copyOf(baldeAtual, novoTamanho);
+        Arrays.fill(baldeAtual, antigo, novoTamanho, VAZIO);
+    }
+}
@@ -0,0 +1,921 @@
+/**
+ * Importa a classe IOException para tratar erros de leitura e gravação.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe ByteOrder para gravar os números em little-endian.
+ */
+import java.nio.ByteOrder;
+
+/**
+ * Importa a classe MappedByteBuffer para acessar o arquivo mapeado em memória.
+ */
+import java.nio.MappedByteBuffer;
+
+/**
+ * Importa a classe FileChannel para mapear o arquivo em memória.
+ */
+import java.nio.channels.FileChannel;
+
+/**
+ * Importa a classe Files para substituir o arquivo de forma atômica.
+ */
+import java.nio.file.Files;
+
+/**
+ * Importa a classe Path para representar o arquivo do instantâneo.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe StandardCopyOption para indicar a substituição atômica do arquivo.
+ */
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Importa a classe StandardOpenOption para abrir o arquivo.
+ */
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Importa a classe List para receber a lista de atores.
+ */
+import java.util.List;
+
+/**
+ * Classe Instantaneo representa uma cópia de todo o estado da simulação ao fim de uma iteração: posição, estado e
+ * resistência de cada pessoa, as tabelas das agendas de contatos, a posição e o tipo de cada ator, a semente e o relógio.
+ * Também guarda os parâmetros e as mensagens em trânsito do encaminhamento pelo Whatsapp e os parâmetros das
+ * estratégias de movimento e da patrulha dos atores. Dos atores com patrulha é gravado o posto; como todos dão um passo
+ * por iteração, a ronda é retomada a partir do número da próxima iteração.
+ * Como o gerador de números aleatórios é baseado em contador, a semente e o relógio bastam para restaurá-lo, e a
+ * simulação retomada a partir do instantâneo produz exatamente os mesmos resultados que a execução sem interrupção.
+ *
+ * O arquivo é gravado e lido por meio de mapeamentos em memória, com os arrays copiados em bloco, sem conversão
+ * elemento a elemento. Os números são gravados em little-endian, e cada seção começa em um múltiplo de 8 bytes:
+ * cabeçalho, registros das pessoas, graus, tamanhos das tabelas de contatos, tabelas de contatos (com as posições
+ * livres, para que a disposição das tabelas seja a mesma), x, y e tipo dos atores, e remetente, destinatário e
+ * iteração de entrega das mensagens em trânsito. Os registros das pessoas são os mesmos bytes da região fora do heap
+ * da Populacao, na ordem em que as pessoas estão nela, com a vaga atual do estado indicada no cabeçalho: a captura
+ * copia a região em bloco, e a leitura preenche a região que a população retomada passa a usar.
+ */
+class Instantaneo {
+    /**
+     * Instantâneo vazio usado para indicar o fim da fila de gravação.
+     */
+    static final Instantaneo FIM = new Instantaneo();
+
+    /**
+     * Identificador do formato, gravado no início do arquivo: os caracteres "FNCK" lidos em little-endian.
+     */
+    private static final int MAGICO = 0x4B434E46;
+
+    /**
+     * Versão do formato do arquivo.
+     */
+    private static final int VERSAO = 4;
+
+    /**
+     * Tamanho do cabeçalho, em bytes.
+     */
+    private static final int TAMANHO_CABECALHO = 136;
+
+    /**
+     * Tamanho máximo de cada trecho mapeado do arquivo. Um MappedByteBuffer não passa de 2 GB, então arquivos maiores
+     * são mapeados em vários trechos. É múltiplo de 8, para que nenhum número fique dividido entre dois trechos.
+     */
+    private static final long JANELA = 1L << 28;
+
+    /**
+     * Iteração que a simulação retomada deve executar primeiro.
+     */
+    private long proximaIteracao;
+
+    /**
+     * Relógio da população ao fim da iteração capturada.
+     */
+    private long relogio;
+
+    /**
+     * Semente da simulação.
+     */
+    private long semente;
+
+    /**
+     * Duração da resistência a fake news, em iterações.
+     */
+    private long duracaoResistencia;
+
+    /**
+     * Número de linhas do mapa.
+     */
+    private int linhas;
+
+    /**
+     * Número de colunas do mapa.
+     */
+    private int colunas;
+
+    /**
+     * Raio de contato.
+     */
+    private int raio;
+
+    /**
+     * Número de pessoas.
+     */
+    private int pessoas;
+
+    /**
+     * Vaga atual do estado e da resistência nos registros das pessoas (0 ou 1).
+     */
+    private int paridade;
+
+    /**
+     * Registros das pessoas, copiados sem conversão da região fora do heap da Populacao.
+     */
+    private MemoriaForaHeap registros;
+
+    /**
+     * Número de contatos de cada pessoa.
+     */
+    private int[] graus;
+
+    /**
+     * Tamanho da tabela de contatos de cada pessoa.
+     */
+    private int[] tamanhosTabelas;
+
+    /**
+     * Tabelas de contatos de todas as pessoas, uma após a outra, na ordem dos identificadores.
+     */
+    private int[] tabelas;
+
+    /**
+     * Coordenada X de cada ator fixo, ou do posto de cada ator com patrulha.
+     */
+    private int[] atoresX;
+
+    /**
+     * Coordenada Y de cada ator fixo, ou do posto de cada ator com patrulha.
+     */
+    private int[] atoresY;
+
+    /**
+     * Raio da patrulha dos atores, ou zero se os atores são fixos.
+     */
+    private int patrulha;
+
+    /**
+     * Fração das pessoas atraídas pelos polos.
+     */
+    private double fracaoPolos;
+
+    /**
+     * Número de polos.
+     */
+    private int numPolos;
+
+    /**
+     * Probabilidade de uma pessoa atraída dar o passo em direção ao seu polo.
+     */
+    private double atracaoPolos;
+
+    /**
+     * Fração das pessoas que fazem voos de Lévy.
+     */
+    private double fracaoLevy;
+
+    /**
+     * Expoente da distribuição do comprimento dos voos de Lévy.
+     */
+    private double expoenteLevy;
+
+    /**
+     * Tipo de cada ator (IAtor.GERADORA, IAtor.DESTRUIDORA ou IAtor.MEIO_CONFIAVEL).
+     */
+    private byte[] atoresTipo;
+
+    /**
+     * Probabilidade de um contato aceitar a fake news recebida por mensagem.
+     */
+    private double aceitacaoMensagem;
+
+    /**
+     * Atraso mínimo de entrega das mensagens, em iterações.
+     */
+    private long atrasoMensagem;
+
+    /**
+     * Atraso máximo de entrega das mensagens, em iterações.
+     */
+    private long atrasoMensagemMax;
+
+    /**
+     * Remetente de cada mensagem em trânsito, na ordem de AgendaMensagens.copiar.
+     */
+    private int[] mensagensRemetente;
+
+    /**
+     * Destinatário de cada mensagem em trânsito.
+     */
+    private int[] mensagensDestinatario;
+
+    /**
+     * Iteração de entrega de cada mensagem em trânsito.
+     */
+    private long[] mensagensInstante;
+
+    /**
+     * Construtor da classe Instantaneo. Os campos são preenchidos por capturar ou por ler.
+     */
+    private Instantaneo() {
+    }
+
+    /**
+     * Copia o estado da simulação ao fim de uma iteração. A cópia é feita em bloco, na thread da simulação,
+     * para que a gravação possa acontecer em outra thread enquanto a simulação continua alterando a população.
+     *
+     * @param populacao        A população da simulação.
+     * @param motor            O motor da simulação, com os atores, os parâmetros e as mensagens em trânsito.
+     * @param linhas           O número de linhas do mapa.
+     * @param colunas          O número de colunas do mapa.
+     * @param semente          A semente da simulação.
+     * @param proximaIteracao  A iteração que a simulação retomada deve executar primeiro.
+     * @return O instantâneo.
+     * @throws IllegalStateException Se as tabelas de contatos somadas não couberem em um único array.
+     */
+    public static Instantaneo capturar(Populacao populacao, MotorTick motor, int linhas, int colunas, long semente,
+            long proximaIteracao) {
+        int n = populacao.tamanho();
+        GrafoContatos contatos = populacao.contatos;
+        Instantaneo instantaneo = new Instantaneo();
+        instantaneo.proximaIteracao = proximaIteracao;
+        instantaneo.relogio = populacao.iteracao;
+        instantaneo.semente = semente;
+        instantaneo.duracaoResistencia = motor.getDuracaoResistencia();
+        instantaneo.linhas = linhas;
+        instantaneo.colunas = colunas;
+        instantaneo.raio = motor.getRaio();
+        instantaneo.pessoas = n;
+        instantaneo.paridade = populacao.getParidade();
+        instantaneo.registros = new MemoriaForaHeap();
+        populacao.copiarRegistros(instantaneo.registros);
+
+        instantaneo.graus = new int[n];
+        instantaneo.tamanhosTabelas = new int[n];
+        long total = 0;
+        for (int id = 0; id < n; id++) {
+            instantaneo.graus[id] = contatos.grau(id);
+            instantaneo.tamanhosTabelas[id] = contatos.tamanhoTabela(id);
+            total += instantaneo.tamanhosTabelas[id];
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("As agendas de contatos são grandes demais para um instantâneo: " + total + " posições.");
+        }
+        instantaneo.tabelas = new int[(int) total];
+        int inicio = 0;
+        for (int id = 0; id < n; id++) {
+            contatos.copiarTabela(id, instantaneo.tabelas, inicio);
+            inicio += instantaneo.tamanhosTabelas[id];
+        }
+
+        List<IAtor> atores = motor.getAtores();
+        instantaneo.atoresX = new int[atores.size()];
+        instantaneo.atoresY = new int[atores.size()];
+        instantaneo.atoresTipo = new byte[atores.size()];
+        for (int i = 0; i < atores.size(); i++) {
+            IAtor ator = atores.get(i);
+            RotaPatrulha rota = ator.getRota();
+            instantaneo.atoresX[i] = rota != null ? rota.getOrigemX() : ator.getX();
+            instantaneo.atoresY[i] = rota != null ? rota.getOrigemY() : ator.getY();
+            instantaneo.atoresTipo[i] = (byte) ator.getTipo();
+            if (rota != null) {
+                instantaneo.patrulha = Math.max(instantaneo.patrulha, rota.getRaio());
+            }
+        }
+
+        MovimentoPessoas movimento = populacao.getMovimento();
+        instantaneo.fracaoPolos = movimento.getFracaoPolos();
+        instantaneo.numPolos = movimento.getNumPolos();
+        instantaneo.atracaoPolos = movimento.getAtracaoPolos();
+        instantaneo.fracaoLevy = movimento.getFracaoLevy();
+        instantaneo.expoenteLevy = movimento.getExpoenteLevy();
+
+        AgendaMensagens agenda = motor.getAgendaMensagens();
+        instantaneo.aceitacaoMensagem = motor.getAceitacaoMensagem();
+        instantaneo.atrasoMensagem = motor.getAtrasoMensagem();
+        instantaneo.atrasoMensagemMax = motor.getAtrasoMensagemMax();
+        instantaneo.mensagensRemetente = new int[agenda.getPendentes()];
+        instantaneo.mensagensDestinatario = new int[agenda.getPendentes()];
+        instantaneo.mensagensInstante = new long[agenda.getPendentes()];
+        agenda.copiar(instantaneo.mensagensRemetente, instantaneo.mensagensDestinatario, instantaneo.mensagensInstante);
+        return instantaneo;
+    }
+
+    /**
+     * Grava o instantâneo no arquivo informado. O conteúdo é gravado primeiro em um arquivo temporário ao lado do
+     * destino, que só então substitui o destino de forma atômica; assim, uma interrupção durante a gravação
+     * não corrompe o instantâneo anterior.
+     *
+     * @param arquivo  O arquivo de destino.
+     * @throws IOException Se ocorrer um erro de gravação.
+     */
+    public void gravar(Path arquivo) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Mapeamento saida = new Mapeamento(canal, FileChannel.MapMode.READ_WRITE, tamanhoArquivo());
+            saida.escreverInt(MAGICO);
+            saida.escreverInt(VERSAO);
+            saida.escreverLong(proximaIteracao);
+            saida.escreverLong(relogio);
+            saida.escreverLong(semente);
+            saida.escreverLong(duracaoResistencia);
+            saida.escreverLong(Double.doubleToLongBits(aceitacaoMensagem));
+            saida.escreverLong(atrasoMensagem);
+            saida.escreverLong(atrasoMensagemMax);
+            saida.escreverLong(Double.doubleToLongBits(fracaoPolos));
+            saida.escreverLong(Double.doubleToLongBits(atracaoPolos));
+            saida.escreverLong(Double.doubleToLongBits(fracaoLevy));
+            saida.escreverLong(Double.doubleToLongBits(expoenteLevy));
+            saida.escreverInt(linhas);
+            saida.escreverInt(colunas);
+            saida.escreverInt(raio);
+            saida.escreverInt(pessoas);
+            saida.escreverInt(tabelas.length);
+            saida.escreverInt(atoresX.length);
+            saida.escreverInt(mensagensRemetente.length);
+            saida.escreverInt(numPolos);
+            saida.escreverInt(patrulha);
+            saida.escreverInt(paridade);
+            saida.escrever(registros, (long) pessoas * Populacao.BYTES_REGISTRO);
+            saida.escrever(graus);
+            saida.escrever(tamanhosTabelas);
+            saida.escrever(tabelas);
+            saida.escrever(atoresX);
+            saida.escrever(atoresY);
+            saida.escrever(atoresTipo);
+            saida.escrever(mensagensRemetente);
+            saida.escrever(mensagensDestinatario);
+            saida.escrever(mensagensInstante);
+            saida.encerrar();
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lê um instantâneo gravado por gravar.
+     *
+     * @param arquivo  O arquivo do instantâneo.
+     * @return O instantâneo lido.
+     * @throws IOException Se o arquivo não puder ser lido, não for um instantâneo ou estiver incompleto.
+     */
+    public static Instantaneo ler(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho < TAMANHO_CABECALHO) {
+                throw new IOException("Arquivo de instantâneo incompleto: " + arquivo);
+            }
+            Mapeamento entrada = new Mapeamento(canal, FileChannel.MapMode.READ_ONLY, tamanho);
+            if (entrada.lerInt() != MAGICO) {
+                throw new IOException("O arquivo não é um instantâneo da simulação: " + arquivo);
+            }
+            int versao = entrada.lerInt();
+            if (versao != VERSAO) {
+                throw new IOException("Versão de instantâneo não suportada: " + versao);
+            }
+            Instantaneo instantaneo = new Instantaneo();
+            instantaneo.proximaIteracao = entrada.lerLong();
+            instantaneo.relogio = entrada.lerLong();
+            instantaneo.semente = entrada.lerLong();
+            instantaneo.duracaoResistencia = entrada.lerLong();
+            instantaneo.aceitacaoMensagem = Double.longBitsToDouble(entrada.lerLong());
+            instantaneo.atrasoMensagem = entrada.lerLong();
+            instantaneo.atrasoMensagemMax = entrada.lerLong();
+            instantaneo.fracaoPolos = Double.longBitsToDouble(entrada.lerLong());
+            instantaneo.atracaoPolos = Double.longBitsToDouble(entrada.lerLong());
+            instantaneo.fracaoLevy = Double.longBitsToDouble(entrada.lerLong());
+            instantaneo.expoenteLevy = Double.longBitsToDouble(entrada.lerLong());
+            instantaneo.linhas = entrada.lerInt();
+            instantaneo.colunas = entrada.lerInt();
+            instantaneo.raio = entrada.lerInt();
+            int pessoas = entrada.lerInt();
+            int posicoesTabelas = entrada.lerInt();
+            int numAtores = entrada.lerInt();
+            int numMensagens = entrada.lerInt();
+            instantaneo.numPolos = entrada.lerInt();
+            instantaneo.patrulha = entrada.lerInt();
+            instantaneo.paridade = entrada.lerInt();
+            if (pessoas < 0 || posicoesTabelas < 0 || numAtores < 0 || numMensagens < 0
+                    || (instantaneo.paridade != 0 && instantaneo.paridade != 1)
+                    || tamanho != tamanhoArquivo(pessoas, posicoesTabelas, numAtores, numMensagens)) {
+                throw new IOException("Arquivo de instantâneo incompleto ou corrompido: " + arquivo);
+            }
+
+            instantaneo.pessoas = pessoas;
+            instantaneo.registros = new MemoriaForaHeap();
+            instantaneo.graus = new int[pessoas];
+            instantaneo.tamanhosTabelas = new int[pessoas];
+            instantaneo.tabelas = new int[posicoesTabelas];
+            instantaneo.atoresX = new int[numAtores];
+            instantaneo.atoresY = new int[numAtores];
+            instantaneo.atoresTipo = new byte[numAtores];
+            instantaneo.mensagensRemetente = new int[numMensagens];
+            instantaneo.mensagensDestinatario = new int[numMensagens];
+            instantaneo.mensagensInstante = new long[numMensagens];
+            entrada.ler(instantaneo.registros, (long) pessoas * Populacao.BYTES_REGISTRO);
+            entrada.ler(instantaneo.graus);
+            entrada.ler(instantaneo.tamanhosTabelas);
+            entrada.ler(instantaneo.tabelas);
+            entrada.ler(instantaneo.atoresX);
+            entrada.ler(instantaneo.atoresY);
+            entrada.ler(instantaneo.atoresTipo);
+            entrada.ler(instantaneo.mensagensRemetente);
+            entrada.ler(instantaneo.mensagensDestinatario);
+            entrada.ler(instantaneo.mensagensInstante);
+            return instantaneo;
+        }
+    }
+
+    /**
+     * Cria a população descrita pelo instantâneo, com as agendas de contatos, o relógio, os contadores e as estratégias
+     * de movimento restaurados.
+     *
+     * @param gerador  O gerador de números aleatórios da simulação, criado com a semente do instantâneo.
+     * @return A população restaurada.
+     * @throws IllegalStateException Se as tabelas de contatos não somarem o número de posições gravado.
+     */
+    public Populacao criarPopulacao(GeradorAleatorio gerador) {
+        Populacao populacao = new Populacao(registros, new MemoriaForaHeap(), pessoas, gerador);
+        int inicio = 0;
+        for (int id = 0; id < pessoas; id++) {
+            int fim = inicio + tamanhosTabelas[id];
+            if (fim > tabelas.length) {
+                throw new IllegalStateException("As tabelas de contatos do instantâneo estão corrompidas.");
+            }
+            populacao.contatos.restaurar(id, tabelas, inicio, tamanhosTabelas[id], graus[id]);
+            inicio = fim;
+        }
+        populacao.restaurar(pessoas, paridade, relogio);
+        populacao.getMovimento().configurar(linhas, colunas, fracaoPolos, numPolos, atracaoPolos, fracaoLevy, expoenteLevy);
+        return populacao;
+    }
+
+    /**
+     * Aplica ao motor da simulação retomada a duração da resistência, o raio de contato e os parâmetros das mensagens
+     * do instantâneo, e agenda as mensagens em trânsito, na ordem em que foram copiadas, na agenda vazia do motor.
+     *
+     * @param motor  O motor da simulação retomada.
+     */
+    public void restaurarMotor(MotorTick motor) {
+        motor.setDuracaoResistencia(duracaoResistencia);
+        motor.setRaio(raio);
+        motor.setMensagens(aceitacaoMensagem, atrasoMensagem, atrasoMensagemMax);
+        AgendaMensagens agenda = motor.getAgendaMensagens();
+        for (int i = 0; i < mensagensRemetente.length; i++) {
+            agenda.agendar(mensagensRemetente[i], mensagensDestinatario[i], mensagensInstante[i]);
+        }
+    }
+
+    /**
+     * Retorna a probabilidade de um contato aceitar a fake news recebida por mensagem.
+     *
+     * @return A probabilidade de aceitação.
+     */
+    public double getAceitacaoMensagem() {
+        return aceitacaoMensagem;
+    }
+
+    /**
+     * Retorna o atraso mínimo de entrega das mensagens.
+     *
+     * @return O atraso mínimo, em iterações.
+     */
+    public long getAtrasoMensagem() {
+        return atrasoMensagem;
+    }
+
+    /**
+     * Retorna o atraso máximo de entrega das mensagens.
+     *
+     * @return O atraso máximo, em iterações.
+     */
+    public long getAtrasoMensagemMax() {
+        return atrasoMensagemMax;
+    }
+
+    /**
+     * Retorna a iteração que a simulação retomada deve executar primeiro.
+     *
+     * @return A próxima iteração.
+     */
+    public long getProximaIteracao() {
+        return proximaIteracao;
+    }
+
+    /**
+     * Retorna a semente da simulação.
+     *
+     * @return A semente.
+     */
+    public long getSemente() {
+        return semente;
+    }
+
+    /**
+     * Retorna a duração da resistência a fake news.
+     *
+     * @return A duração, em iterações.
+     */
+    public long getDuracaoResistencia() {
+        return duracaoResistencia;
+    }
+
+    /**
+     * Retorna o número de linhas do mapa.
+     *
+     * @return O número de linhas.
+     */
+    public int getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * Retorna o número de colunas do mapa.
+     *
+     * @return O número de colunas.
+     */
+    public int getColunas() {
+        return colunas;
+    }
+
+    /**
+     * Retorna o raio de contato.
+     *
+     * @return O raio.
+     */
+    public int getRaio() {
+        return raio;
+    }
+
+    /**
+     * Retorna o número de pessoas.
+     *
+     * @return O número de pessoas.
+     */
+    public int getPessoas() {
+        return pessoas;
+    }
+
+    /**
+     * Retorna o número de atores.
+     *
+     * @return O número de atores.
+     */
+    public int getNumAtores() {
+        return atoresX.length;
+    }
+
+    /**
+     * Retorna a coordenada X de um ator, ou a do seu posto, se o ator patrulha.
+     *
+     * @param i  O índice do ator.
+     * @return A coordenada X.
+     */
+    public int getAtorX(int i) {
+        return atoresX[i];
+    }
+
+    /**
+     * Retorna a coordenada Y de um ator, ou a do seu posto, se o ator patrulha.
+     *
+     * @param i  O índice do ator.
+     * @return A coordenada Y.
+     */
+    public int getAtorY(int i) {
+        return atoresY[i];
+    }
+
+    /**
+     * Retorna o raio da patrulha dos atores.
+     *
+     * @return O raio, ou zero se os atores são fixos.
+     */
+    public int getPatrulha() {
+        return patrulha;
+    }
+
+    /**
+     * Retorna o tipo de um ator.
+     *
+     * @param i  O índice do ator.
+     * @return IAtor.GERADORA, IAtor.DESTRUIDORA ou IAtor.MEIO_CONFIAVEL.
+     */
+    public int getTipoAtor(int i) {
+        return atoresTipo[i];
+    }
+
+    /**
+     * Calcula o tamanho do arquivo deste instantâneo.
+     *
+     * @return O tamanho, em bytes.
+     */
+    private long tamanhoArquivo() {
+        return tamanhoArquivo(pessoas, tabelas.length, atoresX.length, mensagensRemetente.length);
+    }
+
+    /**
+     * Calcula o tamanho do arquivo de um instantâneo.
+     *
+     * @param pessoas          O número de pessoas.
+     * @param posicoesTabelas  O número total de posições das tabelas de contatos.
+     * @param atores           O número de atores.
+     * @param mensagens        O número de mensagens em trânsito.
+     * @return O tamanho, em bytes.
+     */
+    private static long tamanhoArquivo(long pessoas, long posicoesTabelas, long atores, long mensagens) {
+        return TAMANHO_CABECALHO
+                + Populacao.BYTES_REGISTRO * pessoas + 2 * alinhado(4 * pessoas)
+                + alinhado(4 * posicoesTabelas)
+                + 2 * alinhado(4 * atores) + alinhado(atores)
+                + 2 * alinhado(4 * mensagens) + 8 * mensagens;
+    }
+
+    /**
+     * Arredonda um tamanho para o múltiplo de 8 seguinte.
+     *
+     * @param bytes  O tamanho, em bytes.
+     * @return O tamanho arredondado.
+     */
+    private static long alinhado(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Classe Mapeamento representa a leitura ou a escrita sequencial de um arquivo mapeado em memória, em trechos de
+     * até JANELA bytes. Cada seção de array termina alinhada em 8 bytes, e os trechos também, então um número nunca
+     * fica dividido entre dois trechos.
+     */
+    private static final class Mapeamento {
+        /**
+         * Canal do arquivo.
+         */
+        private final FileChannel canal;
+
+        /**
+         * Modo do mapeamento (leitura ou leitura e escrita).
+         */
+        private final FileChannel.MapMode modo;
+
+        /**
+         * Tamanho total do arquivo.
+         */
+        private final long tamanho;
+
+        /**
+         * Posição do arquivo onde começa o próximo trecho a mapear.
+         */
+        private long proximoTrecho;
+
+        /**
+         * Trecho mapeado atualmente.
+         */
+        private MappedByteBuffer trecho;
+
+        /**
+         * Construtor da classe Mapeamento.
+         *
+         * @param canal    O canal do arquivo.
+         * @param modo     O modo do mapeamento.
+         * @param tamanho  O tamanho total do arquivo.
+         */
+        Mapeamento(FileChannel canal, FileChannel.MapMode modo, long tamanho) {
+            this.canal = canal;
+            this.modo = modo;
+            this.tamanho = tamanho;
+        }
+
+        /**
+         * Garante que o trecho mapeado tenha bytes disponíveis, mapeando o trecho seguinte se preciso.
+         *
+         * @throws IOException Se o mapeamento falhar ou o arquivo tiver acabado.
+         */
+        private void garantirTrecho() throws IOException {
+            if (trecho != null && trecho.hasRemaining()) {
+                return;
+            }
+            if (trecho != null && modo == FileChannel.MapMode.READ_WRITE) {
+                trecho.force();
+            }
+            if (proximoTrecho >= tamanho) {
+                throw new IOException("Fim inesperado do arquivo de instantâneo.");
+            }
+            long bytes = Math.min(JANELA, tamanho - proximoTrecho);
+            trecho = canal.map(modo, proximoTrecho, bytes);
+            trecho.order(ByteOrder.LITTLE_ENDIAN);
+            proximoTrecho += bytes;
+        }
+
+        /**
+         * Avança até o próximo múltiplo de 8 bytes.
+         */
+        private void alinhar() {
+            int resto = trecho == null ? 0 : trecho.position() & 7;
+            if (resto != 0) {
+                trecho.position(trecho.position() + 8 - resto);
+            }
+        }
+
+        /**
+         * Grava um número inteiro.
+         *
+         * @param valor  O número.
+         * @throws IOException Se o mapeamento falhar.
+         */
+        void escreverInt(int valor) throws IOException {
+            garantirTrecho();
+            trecho.putInt(valor);
+        }
+
+        /**
+         * Grava um número inteiro longo.
+         *
+         * @param valor  O número.
+         * @throws IOException Se o mapeamento falhar.
+         */
+        void escreverLong(long valor) throws IOException {
+            garantirTrecho();
+            trecho.putLong(valor);
+        }
+
+        /**
+         * Grava um array de bytes e alinha a posição em 8 bytes.
+         *
+         * @param valores  Os bytes.
+         * @throws IOException Se o mapeamento falhar.
+         */
+        void escrever(byte[] valores) throws IOException {
+            for (int feito = 0; feito < valores.length; ) {
+                garantirTrecho();
+                int k = Math.min(valores.length - feito, trecho.remaining());
+                trecho.put(valores, feito, k);
+                feito += k;
+            }
+            alinhar();
+        }
+
+        /**
+         * Grava um array de inteiros e alinha a posição em 8 bytes.
+         *
+         * @param valores  Os números.
+         * @throws IOException Se o mapeamento falhar.
+         */
+        void escrever(int[] valores) throws IOException {
+            for (int feito = 0; feito < valores.length; ) {
+                garantirTrecho();
+                int k = Math.min(valores.length - feito, trecho.remaining() / 4);
+                trecho.asIntBuffer().put(valores, feito, k);
+                trecho.position(trecho.position() + 4 * k);
+                feito += k;
+            }
+            alinhar();
+        }
+
+        /**
+         * Grava um array de inteiros longos.
+         *
+         * @param valores  Os números.
+         * @throws IOException Se o mapeamento falhar.
+         */
+        void escrever(long[] valores) throws IOException {
+            for (int feito = 0; feito < valores.length; ) {
+                garantirTrecho();
+                int k = Math.min(valores.length - feito, trecho.remaining() / 8);
+                trecho.asLongBuffer().put(valores, feito, k);
+                trecho.position(trecho.position() + 8 * k);
+                feito += k;
+            }
+        }
+
+        /**
+         * Grava os primeiros bytes de uma região fora do heap, segmento a segmento, sem conversão.
+         *
+         * @param memoria  A região.
+         * @param bytes    O número de bytes gravados, múltiplo de 8.
+         * @throws IOException Se o mapeamento falhar.
+         */
+        void escrever(MemoriaForaHeap memoria, long bytes) throws IOException {
+            for (long feito = 0; feito < bytes; ) {
+                garantirTrecho();
+                int k = (int) Math.min(bytes - feito, trecho.remaining());
+                int segmento = MemoriaForaHeap.segmentoDe(feito);
+                k = (int) Math.min(k, MemoriaForaHeap.inicioSegmento(segmento + 1) - feito);
+                trecho.put(trecho.position(), memoria.segmento(feito), MemoriaForaHeap.dentroDoSegmento(feito), k);
+                trecho.position(trecho.position() + k);
+                feito += k;
+            }
+        }
+
+        /**
+         * Descarrega no disco o último trecho gravado.
+         */
+        void encerrar() {
+            if (trecho != null) {
+                trecho.force();
+            }
+        }
+
+        /**
+         * Lê um número inteiro.
+         *
+         * @return O número.
+         * @throws IOException Se o arquivo tiver acabado.
+         */
+        int lerInt() throws IOException {
+            garantirTrecho();
+            return trecho.getInt();
+        }
+
+        /**
+         * Lê um número inteiro longo.
+         *
+         * @return O número.
+         * @throws IOException Se o arquivo tiver acabado.
+         */
+        long lerLong() throws IOException {
+            garantirTrecho();
+            return trecho.getLong();
+        }
+
+        /**
+         * Lê um array de bytes e alinha a posição em 8 bytes.
+         *
+         * @param valores  O array a preencher.
+         * @throws IOException Se o arquivo tiver acabado.
+         */
+        void ler(byte[] valores) throws IOException {
+            for (int feito = 0; feito < valores.length; ) {
+                garantirTrecho();
+                int k = Math.min(valores.length - feito, trecho.remaining());
+                trecho.get(valores, feito, k);
+                feito += k;
+            }
+            alinhar();
+        }
+
+        /**
+         * Lê um array de inteiros e alinha a posição em 8 bytes.
+         *
+         * @param valores  O array a preencher.
+         * @throws IOException Se o arquivo tiver acabado.
+         */
+        void ler(int[] valores) throws IOException {
+            for (int feito = 0; feito < valores.length; ) {
+                garantirTrecho();
+                int k = Math.min(valores.length - feito, trecho.remaining() / 4);
+                trecho.asIntBuffer().get(valores, feito, k);
+                trecho.position(trecho.position() + 4 * k);
+                feito += k;
+            }
+            alinhar();
+        }
+
+        /**
+         * Lê bytes para o início de uma região fora do heap, segmento a segmento, sem conversão.
+         *
+         * @param memoria  A região, que cresce se preciso.
+         * @param bytes    O número de bytes lidos, múltiplo de 8.
+         * @throws IOException Se o arquivo tiver acabado.
+         */
+        void ler(MemoriaForaHeap memoria, long bytes) throws IOException {
+            memoria.garantir(bytes);
+            for (long feito = 0; feito < bytes; ) {
+                garantirTrecho();
+                int k = (int) Math.min(bytes - feito, trecho.remaining());
+                int segmento = MemoriaForaHeap.segmentoDe(feito);
+                k = (int) Math.min(k, MemoriaForaHeap.inicioSegmento(segmento + 1) - feito);
+                memoria.segmento(feito).put(MemoriaForaHeap.dentroDoSegmento(feito), trecho, trecho.position(), k);
+                trecho.position(trecho.position() + k);
+                feito += k;
+            }
+        }
+
+        /**
+         * Lê um array de inteiros longos.
+         *
+         * @param valores  O array a preencher.
+         * @throws IOException Se o arquivo tiver acabado.
+         */
+        void ler(long[] valores) throws IOException {
+            for (int feito = 0; feito < valores.length; ) {
+                garantirTrecho();
+                int k = Math.min(valores.length - feito, trecho.remaining() / 8);
+                trecho.asLongBuffer().get(valores, feito, k);
+                trecho.position(trecho.position() + 8 * k);
+                feito += k;
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/**
+ * Importa a classe Locale para formatar o resumo com ponto decimal.
+ */
+import java.util.Locale;
+
+/**
+ * Importa a classe Category para agrupar os eventos da simulação no Flight Recorder.
+ */
+import jdk.jfr.Category;
+
+/**
+ * Importa a classe Description para descrever os eventos e seus campos no Flight Recorder.
+ */
+import jdk.jfr.Description;
+
+/**
+ * Importa a classe Event, base dos eventos do Flight Recorder.
+ */
+import jdk.jfr.Event;
+
+/**
+ * Importa a classe EventType para consultar, sem criar um evento, se o Flight Recorder está gravando o tipo de evento.
+ */
+import jdk.jfr.EventType;
+
+/**
+ * Importa a classe Label para nomear os eventos e seus campos no Flight Recorder.
+ */
+import jdk.jfr.Label;
+
+/**
+ * Importa a classe Name para dar aos eventos um nome estável no Flight Recorder.
+ */
+import jdk.jfr.Name;
+
+/**
+ * Importa a classe StackTrace para desativar a pilha de chamadas dos eventos, que não acrescenta nada a eles.
+ */
+import jdk.jfr.StackTrace;
+
+/**
+ * Importa a classe Timespan para indicar que um campo dos eventos é uma duração em nanossegundos.
+ */
+import jdk.jfr.Timespan;
+
+/**
+ * Classe Instrumentacao representa a medição da duração das fases de cada iteração da simulação. Cada fase tem um
+ * HistogramaLatencia, e registrar uma duração custa uma leitura de System.nanoTime e alguns incrementos atômicos,
+ * sem alocação, então a instrumentação pode ficar sempre ligada.
+ *
+ * Cada duração também é publicada como um evento "simulacao.Fase" do JDK Flight Recorder, e cada iteração como um evento
+ * "simulacao.Iteracao", mas apenas quando uma gravação do Flight Recorder estiver ativa e com esses eventos habilitados
+ * (por exemplo, com -XX:StartFlightRecording). Fora disso, o custo é o de consultar se o tipo de evento está habilitado.
+ */
+class Instrumentacao {
+    /**
+     * Fase em que as pessoas se movem.
+     */
+    public static final int MOVIMENTO = 0;
+
+    /**
+     * Fase em que o índice espacial é atualizado ou a população é reordenada.
+     */
+    public static final int INDICE = 1;
+
+    /**
+     * Fase em que as faixas do mapa são processadas: troca de contatos, propagação entre pessoas e contato com os atores.
+     */
+    public static final int INTERACOES = 2;
+
+    /**
+     * Fase em que as variações das faixas são somadas e os buffers de estado são trocados.
+     */
+    public static final int CONSOLIDACAO = 3;
+
+    /**
+     * Fase em que as mensagens são entregues e enviadas.
+     */
+    public static final int MENSAGENS = 4;
+
+    /**
+     * Fase em que as métricas da iteração são entregues ao gravador.
+     */
+    public static final int METRICAS = 5;
+
+    /**
+     * Fase em que o instantâneo da simulação é copiado.
+     */
+    public static final int INSTANTANEO = 6;
+
+    /**
+     * Fase em que o mapa é montado e desenhado, no modo visual.
+     */
+    public static final int DESENHO = 7;
+
+    /**
+     * Fase em que os contadores são conferidos e impressos.
+     */
+    public static final int ESTATISTICAS = 8;
+
+    /**
+     * A iteração inteira, de ponta a ponta, sem a pausa entre os quadros do modo visual.
+     */
+    public static final int ITERACAO = 9;
+
+    /**
+     * Nomes das fases, indexados pelo número da fase.
+     */
+    private static final String[] NOMES = {
+            "movimento", "indice", "interacoes", "consolidacao", "mensagens",
+            "metricas", "instantaneo", "desenho", "estatisticas", "iteracao"
+    };
+
+    /**
+     * Tipo do evento de fase, usado para saber se o Flight Recorder está gravando esse evento.
+     */
+    private static final EventType TIPO_EVENTO_FASE = EventType.getEventType(EventoFase.class);
+
+    /**
+     * Tipo do evento de iteração, usado para saber se o Flight Recorder está gravando esse evento.
+     */
+    private static final EventType TIPO_EVENTO_ITERACAO = EventType.getEventType(EventoIteracao.class);
+
+    /**
+     * Histograma da duração de cada fase, indexado pelo número da fase.
+     */
+    private final HistogramaLatencia[] histogramas = new HistogramaLatencia[NOMES.length];
+
+    /**
+     * Iteração em andamento, informada nos eventos do Flight Recorder.
+     */
+    private long iteracao;
+
+    /**
+     * Construtor da classe Instrumentacao.
+     */
+    public Instrumentacao() {
+        for (int fase = 0; fase < histogramas.length; fase++) {
+            histogramas[fase] = new HistogramaLatencia();
+        }
+    }
+
+    /**
+     * Registra o fim de uma fase iniciada no instante informado.
+     *
+     * @param fase       O número da fase.
+     * @param inicioNs   O instante em que a fase começou, em nanossegundos.
+     * @return O instante atual, que pode ser usado como início da fase seguinte.
+     */
+    public long registrar(int fase, long inicioNs) {
+        long agora = System.nanoTime();
+        long duracao = agora - inicioNs;
+        histogramas[fase].registrar(duracao);
+        if (TIPO_EVENTO_FASE.isEnabled()) {
+            EventoFase evento = new EventoFase();
+            evento.fase = NOMES[fase];
+            evento.iteracao = iteracao;
+            evento.duracao = duracao;
+            evento.commit();
+        }
+        return agora;
+    }
+
+    /**
+     * Registra o fim de uma iteração iniciada no instante informado, com os contadores da população ao final dela.
+     *
+     * @param inicioNs        O instante em que a iteração começou, em nanossegundos.
+     * @param malInformadas   O número de pessoas mal informadas.
+     * @param bemInformadas   O número de pessoas bem informadas.
+     * @param resistentes     O número de pessoas bem informadas resistentes.
+     * @param novasInfeccoes  O número de pessoas que ficaram mal informadas na iteração.
+     * @param curas           O número de pessoas que ficaram bem informadas na iteração.
+     * @return O instante atual, em nanossegundos.
+     */
+    public long registrarIteracao(long inicioNs, long malInformadas, long bemInformadas, long resistentes,
+                                  long novasInfeccoes, long curas) {
+        long agora = registrar(ITERACAO, inicioNs);
+        if (TIPO_EVENTO_ITERACAO.isEnabled()) {
+            EventoIteracao evento = new EventoIteracao();
+            evento.iteracao = iteracao;
+            evento.duracao = agora - inicioNs;
+            evento.malInformadas = malInformadas;
+            evento.bemInformadas = bemInformadas;
+            evento.resistentes = resistentes;
+            evento.novasInfeccoes = novasInfeccoes;
+            evento.curas = curas;
+            evento.commit();
+        }
+        return agora;
+    }
+
+    /**
+     * Define a iteração em andamento, informada nos eventos do Flight Recorder.
+     *
+     * @param iteracao  O número da iteração, a partir de 1.
+     */
+    public void setIteracao(long iteracao) {
+        this.iteracao = iteracao;
+    }
+
+    /**
+     * Retorna o histograma da duração de uma fase.
+     *
+     * @param fase  O número da fase.
+     * @return O histograma da fase.
+     */
+    public HistogramaLatencia getHistograma(int fase) {
+        return histogramas[fase];
+    }
+
+    /**
+     * Descarta as durações registradas em todas as fases.
+     */
+    public void zerar() {
+        for (HistogramaLatencia histograma : histogramas) {
+            histograma.zerar();
+        }
+    }
+
+    /**
+     * Monta uma tabela com o número de medidas, a média, os percentis 50, 90, 99 e 99,9, o máximo e o total de
+     * cada fase que foi medida ao menos uma vez, com as durações em microssegundos.
+     *
+     * @return O resumo das fases.
+     */
+    public String resumo() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "%-14s %10s %11s %11s %11s %11s %11s %11s %12s%n",
+                "fase", "medidas", "media_us", "p50_us", "p90_us", "p99_us", "p999_us", "max_us", "total_ms"));
+        for (int fase = 0; fase < histogramas.length; fase++) {
+            HistogramaLatencia histograma = histogramas[fase];
+            long quantidade = histograma.getQuantidade();
+            if (quantidade == 0) {
+                continue;
+            }
+            texto.append(String.format(Locale.ROOT, "%-14s %10d %11.1f %11.1f %11.1f %11.1f %11.1f %11.1f %12.1f%n",
+                    NOMES[fase], quantidade, histograma.getMedia() / 1e3, histograma.percentil(50) / 1e3,
+                    histograma.percentil(90) / 1e3, histograma.percentil(99) / 1e3, histograma.percentil(99.9) / 1e3,
+                    histograma.getMaximo() / 1e3, histograma.getSoma() / 1e6));
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Evento do Flight Recorder com a duração de uma fase de uma iteração.
+     */
+    @Name("simulacao.Fase")
+    @Label("Fase da iteração")
+    @Category("Simulação")
+    @Description("Duração de uma fase de uma iteração da simulação.")
+    @StackTrace(false)
+    static class EventoFase extends Event {
+        /**
+         * Nome da fase.
+         */
+        @Label("Fase")
+        String fase;
+
+        /**
+         * Número da iteração.
+         */
+        @Label("Iteração")
+        long iteracao;
+
+        /**
+         * Duração da fase.
+         */
+        @Label("Duração")
+        @Timespan(Timespan.NANOSECONDS)
+        long duracao;
+    }
+
+    /**
+     * Evento do Flight Recorder com a duração e os contadores de uma iteração.
+     */
+    @Name("simulacao.Iteracao")
+    @Label("Iteração")
+    @Category("Simulação")
+    @Description("Duração e contadores da população ao final de uma iteração da simulação.")
+    @StackTrace(false)
+    static class EventoIteracao extends Event {
+        /**
+         * Número da iteração.
+         */
+        @Label("Iteração")
+        long iteracao;
+
+        /**
+         * Duração da iteração.
+         */
+        @Label("Duração")
+        @Timespan(Timespan.NANOSECONDS)
+        long duracao;
+
+        /**
+         * Número de pessoas mal informadas.
+         */
+        @Label("Mal informadas")
+        long malInformadas;
+
+        /**
+         * Número de pessoas bem informadas.
+         */
+        @Label("Bem informadas")
+        long bemInformadas;
+
+        /**
+         * Número de pessoas bem informadas resistentes.
+         */
+        @Label("Resistentes")
+        long resistentes;
+
+        /**
+         * Número de pessoas que ficaram mal informadas na iteração.
+         */
+        @Label("Novas infecções")
+        long novasInfeccoes;
+
+        /**
+         * Número de pessoas que ficaram bem informadas na iteração.
+         */
+        @Label("Curas")
+        long curas;
+    }
+}
@@ -0,0 +1,535 @@
+/**
+ * Importa a classe BufferedInputStream para ler os registros do rastro em blocos.
+ */
+import java.io.BufferedInputStream;
+
+/**
+ * Importa a classe Closeable para que o leitor possa ser usado em try-with-resources.
+ */
+import java.io.Closeable;
+
+/**
+ * Importa a classe EOFException para relatar um rastro truncado.
+ */
+import java.io.EOFException;
+
+/**
+ * Importa a classe IOException para tratar erros de leitura.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe InputStream para ler os registros a partir de uma posição do arquivo.
+ */
+import java.io.InputStream;
+
+/**
+ * Importa a classe ByteBuffer para ler o cabeçalho e o rodapé.
+ */
+import java.nio.ByteBuffer;
+
+/**
+ * Importa a classe ByteOrder para ler o cabeçalho e o rodapé em little-endian.
+ */
+import java.nio.ByteOrder;
+
+/**
+ * Importa a classe Channels para ler o canal como um fluxo.
+ */
+import java.nio.channels.Channels;
+
+/**
+ * Importa a classe FileChannel para posicionar a leitura no arquivo.
+ */
+import java.nio.channels.FileChannel;
+
+/**
+ * Importa a classe Path para indicar o arquivo do rastro.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe Paths para converter o nome do arquivo em Path.
+ */
+import java.nio.file.Paths;
+
+/**
+ * Importa a classe StandardOpenOption para abrir o arquivo para leitura.
+ */
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Classe LeitorRastro lê um rastro gravado pelo GravadorRastro e reconstrói o estado de todas as pessoas em qualquer
+ * iteração gravada: posiciona a leitura no último quadro-chave até a iteração pedida, pelo índice do final do arquivo,
+ * e aplica as transições dos blocos seguintes. Assim, chegar a uma iteração custa no máximo um quadro-chave e
+ * "--intervalo-quadros" iterações de transições, e não a simulação desde o início.
+ *
+ * Com "java Simulacao --reproduzir arquivo", imprime os contadores a cada "--intervalo-amostragem" iterações entre
+ * "--de" e "--ate", incluídas as duas pontas, nas mesmas linhas impressas pela simulação sem interface. Por padrão, a
+ * reprodução cobre todo o rastro, sem o estado inicial, que a simulação também não imprime.
+ */
+class LeitorRastro implements Closeable {
+    /**
+     * Canal do arquivo do rastro.
+     */
+    private final FileChannel canal;
+
+    /**
+     * Número de pessoas da simulação.
+     */
+    private final int numPessoas;
+
+    /**
+     * Iterações concluídas quando a gravação começou.
+     */
+    private final long primeiraIteracao;
+
+    /**
+     * Última iteração concluída gravada.
+     */
+    private final long ultimaIteracao;
+
+    /**
+     * Iteração de cada quadro-chave, em ordem crescente.
+     */
+    private final long[] iteracoesQuadros;
+
+    /**
+     * Posição no arquivo de cada quadro-chave.
+     */
+    private final long[] posicoesQuadros;
+
+    /**
+     * Estado de cada pessoa, em 2 bits, na iteração corrente.
+     */
+    private final byte[] estados;
+
+    /**
+     * Fluxo de leitura dos registros, a partir do último posicionamento.
+     */
+    private InputStream entrada;
+
+    /**
+     * Iteração do estado em estados.
+     */
+    private long iteracao;
+
+    /**
+     * Iteração do último bloco ou quadro-chave lido, base da distância do bloco seguinte.
+     */
+    private long iteracaoBase;
+
+    /**
+     * Iteração do próximo bloco, já lida da entrada, ou Long.MAX_VALUE se não há mais blocos.
+     */
+    private long proximoBloco;
+
+    /**
+     * Número de transições do próximo bloco.
+     */
+    private int transicoesProximoBloco;
+
+    /**
+     * Número de pessoas mal informadas na iteração corrente.
+     */
+    private long malInformadas;
+
+    /**
+     * Número de pessoas bem informadas e resistentes na iteração corrente.
+     */
+    private long resistentes;
+
+    /**
+     * Construtor da classe LeitorRastro. Lê o cabeçalho, o rodapé e o índice dos quadros-chave e posiciona a leitura
+     * na primeira iteração gravada.
+     *
+     * @param arquivo  O arquivo do rastro.
+     * @throws IOException Se o arquivo não puder ser lido ou não for um rastro completo.
+     */
+    public LeitorRastro(Path arquivo) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        try {
+            long tamanho = canal.size();
+            if (tamanho < GravadorRastro.BYTES_CABECALHO + GravadorRastro.BYTES_RODAPE) {
+                throw new IOException("O arquivo " + arquivo + " não é um rastro completo.");
+            }
+            ByteBuffer cabecalho = lerBytes(0, GravadorRastro.BYTES_CABECALHO);
+            if (cabecalho.getInt() != GravadorRastro.MAGICO || cabecalho.getInt() != GravadorRastro.VERSAO) {
+                throw new IOException("O arquivo " + arquivo + " não é um rastro desta versão.");
+            }
+            this.numPessoas = cabecalho.getInt();
+            cabecalho.getInt();
+            this.primeiraIteracao = cabecalho.getLong();
+
+            ByteBuffer rodape = lerBytes(tamanho - GravadorRastro.BYTES_RODAPE, GravadorRastro.BYTES_RODAPE);
+            long posicaoIndice = rodape.getLong();
+            this.ultimaIteracao = rodape.getLong();
+            if (rodape.getInt() != GravadorRastro.MAGICO) {
+                throw new IOException("O rastro " + arquivo + " não foi encerrado: falta o índice dos quadros-chave.");
+            }
+
+            entrada = abrir(posicaoIndice);
+            if (entrada.read() != GravadorRastro.REGISTRO_INDICE) {
+                throw new IOException("O índice do rastro " + arquivo + " está corrompido.");
+            }
+            int numQuadros = (int) lerVarLong();
+            this.iteracoesQuadros = new long[numQuadros];
+            this.posicoesQuadros = new long[numQuadros];
+            for (int k = 0; k < numQuadros; k++) {
+                iteracoesQuadros[k] = lerVarLong();
+                posicoesQuadros[k] = lerVarLong();
+            }
+            this.estados = new byte[(numPessoas + 3) / 4];
+            posicionar(primeiraIteracao);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reconstrói o estado das pessoas em uma iteração qualquer do rastro, a partir do último quadro-chave até ela.
+     *
+     * @param alvo  O número de iterações concluídas.
+     * @throws IOException Se a leitura falhar.
+     * @throws IllegalArgumentException Se a iteração estiver fora do rastro.
+     */
+    public void posicionar(long alvo) throws IOException {
+        if (alvo < primeiraIteracao || alvo > ultimaIteracao) {
+            throw new IllegalArgumentException("O rastro vai da iteração " + primeiraIteracao + " à "
+                    + ultimaIteracao + ", e não contém a iteração " + alvo + ".");
+        }
+        int quadro = 0;
+        while (quadro + 1 < iteracoesQuadros.length && iteracoesQuadros[quadro + 1] <= alvo) {
+            quadro++;
+        }
+        entrada = abrir(posicoesQuadros[quadro]);
+        if (entrada.read() != GravadorRastro.REGISTRO_QUADRO) {
+            throw new IOException("O quadro-chave da iteração " + iteracoesQuadros[quadro] + " está corrompido.");
+        }
+        iteracao = lerVarLong();
+        lerTudo(estados);
+        malInformadas = 0;
+        resistentes = 0;
+        for (int identidade = 0; identidade < numPessoas; identidade++) {
+            int bits = estado(identidade);
+            if ((bits & GravadorRastro.BIT_MAL_INFORMADA) != 0) {
+                malInformadas++;
+            } else if ((bits & GravadorRastro.BIT_RESISTENTE) != 0) {
+                resistentes++;
+            }
+        }
+        iteracaoBase = iteracao;
+        lerProximoBloco();
+        avancarAte(alvo);
+    }
+
+    /**
+     * Aplica as transições dos blocos seguintes até a iteração informada.
+     *
+     * @param alvo  O número de iterações concluídas, entre a iteração corrente e a última do rastro.
+     * @throws IOException Se a leitura falhar.
+     * @throws IllegalArgumentException Se a iteração for anterior à corrente ou posterior à última do rastro.
+     */
+    public void avancarAte(long alvo) throws IOException {
+        if (alvo < iteracao || alvo > ultimaIteracao) {
+            throw new IllegalArgumentException("Não é possível avançar da iteração " + iteracao + " para a " + alvo + ".");
+        }
+        while (proximoBloco <= alvo) {
+            int identidade = 0;
+            for (int k = 0; k < transicoesProximoBloco; k++) {
+                long chave = lerVarLong();
+                identidade += (int) (chave >>> 3);
+                int tipo = (int) (chave & 7);
+                lerVarLong();
+                aplicar(identidade, tipo);
+            }
+            iteracaoBase = proximoBloco;
+            lerProximoBloco();
+        }
+        iteracao = alvo;
+    }
+
+    /**
+     * Aplica uma transição ao estado de uma pessoa e atualiza os contadores.
+     *
+     * @param identidade  A identidade da pessoa.
+     * @param tipo        O tipo da transição.
+     */
+    private void aplicar(int identidade, int tipo) {
+        int antes = estado(identidade);
+        GravadorRastro.aplicar(estados, identidade, tipo);
+        int depois = estado(identidade);
+        malInformadas += (depois & GravadorRastro.BIT_MAL_INFORMADA) - (antes & GravadorRastro.BIT_MAL_INFORMADA);
+        resistentes += (depois == GravadorRastro.BIT_RESISTENTE ? 1 : 0) - (antes == GravadorRastro.BIT_RESISTENTE ? 1 : 0);
+    }
+
+    /**
+     * Lê o início do próximo bloco de transições, pulando os quadros-chave, que repetem o estado já reconstruído.
+     *
+     * @throws IOException Se a leitura falhar.
+     */
+    private void lerProximoBloco() throws IOException {
+        while (true) {
+            int registro = entrada.read();
+            if (registro == GravadorRastro.REGISTRO_BLOCO) {
+                proximoBloco = iteracaoBase + lerVarLong();
+                transicoesProximoBloco = (int) lerVarLong();
+                return;
+            }
+            if (registro == GravadorRastro.REGISTRO_QUADRO) {
+                iteracaoBase = lerVarLong();
+                pular(estados.length);
+                continue;
+            }
+            if (registro == GravadorRastro.REGISTRO_INDICE) {
+                proximoBloco = Long.MAX_VALUE;
+                transicoesProximoBloco = 0;
+                return;
+            }
+            throw new IOException("Registro desconhecido no rastro: " + registro + ".");
+        }
+    }
+
+    /**
+     * Retorna o estado de uma pessoa na iteração corrente.
+     *
+     * @param identidade  A identidade da pessoa.
+     * @return Os bits GravadorRastro.BIT_MAL_INFORMADA e GravadorRastro.BIT_RESISTENTE da pessoa.
+     */
+    public int estado(int identidade) {
+        return (estados[identidade >>> 2] >>> ((identidade & 3) * 2)) & 3;
+    }
+
+    /**
+     * Retorna a iteração do estado reconstruído.
+     *
+     * @return O número de iterações concluídas.
+     */
+    public long getIteracao() {
+        return iteracao;
+    }
+
+    /**
+     * Retorna a primeira iteração do rastro.
+     *
+     * @return O número de iterações concluídas quando a gravação começou.
+     */
+    public long getPrimeiraIteracao() {
+        return primeiraIteracao;
+    }
+
+    /**
+     * Retorna a última iteração do rastro.
+     *
+     * @return O número de iterações concluídas ao final da gravação.
+     */
+    public long getUltimaIteracao() {
+        return ultimaIteracao;
+    }
+
+    /**
+     * Retorna o número de pessoas da simulação.
+     *
+     * @return O número de pessoas.
+     */
+    public int getNumPessoas() {
+        return numPessoas;
+    }
+
+    /**
+     * Retorna o número de pessoas mal informadas na iteração corrente.
+     *
+     * @return O número de pessoas mal informadas.
+     */
+    public long getMalInformadas() {
+        return malInformadas;
+    }
+
+    /**
+     * Retorna o número de pessoas bem informadas na iteração corrente.
+     *
+     * @return O número de pessoas bem informadas.
+     */
+    public long getBemInformadas() {
+        return numPessoas - malInformadas;
+    }
+
+    /**
+     * Retorna o número de pessoas bem informadas e resistentes na iteração corrente.
+     *
+     * @return O número de pessoas resistentes.
+     */
+    public long getResistentes() {
+        return resistentes;
+    }
+
+    /**
+     * Fecha o arquivo do rastro.
+     *
+     * @throws IOException Se o arquivo não puder ser fechado.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Lê um trecho do arquivo em um buffer little-endian.
+     *
+     * @param posicao  A posição do trecho.
+     * @param bytes    O tamanho do trecho.
+     * @return O buffer, pronto para leitura.
+     * @throws IOException Se a leitura falhar.
+     */
+    private ByteBuffer lerBytes(long posicao, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicao + buffer.position()) < 0) {
+                throw new EOFException("O rastro terminou antes do esperado.");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Abre um fluxo de leitura a partir de uma posição do arquivo.
+     *
+     * @param posicao  A posição do primeiro byte lido.
+     * @return O fluxo.
+     * @throws IOException Se o canal não puder ser posicionado.
+     */
+    private InputStream abrir(long posicao) throws IOException {
+        canal.position(posicao);
+        return new BufferedInputStream(Channels.newInputStream(canal), 1 << 16);
+    }
+
+    /**
+     * Lê um número gravado com 7 bits por byte por GravadorRastro.
+     *
+     * @return O número.
+     * @throws IOException Se a leitura falhar ou o rastro terminar no meio do número.
+     */
+    private long lerVarLong() throws IOException {
+        long valor = 0;
+        for (int deslocamento = 0; ; deslocamento += 7) {
+            int b = entrada.read();
+            if (b < 0) {
+                throw new EOFException("O rastro terminou antes do esperado.");
+            }
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+    }
+
+    /**
+     * Lê da entrada bytes suficientes para preencher o array.
+     *
+     * @param destino  O array preenchido.
+     * @throws IOException Se a leitura falhar ou o rastro terminar antes.
+     */
+    private void lerTudo(byte[] destino) throws IOException {
+        for (int lidos = 0; lidos < destino.length; ) {
+            int n = entrada.read(destino, lidos, destino.length - lidos);
+            if (n < 0) {
+                throw new EOFException("O rastro terminou antes do esperado.");
+            }
+            lidos += n;
+        }
+    }
+
+    /**
+     * Pula bytes da entrada.
+     *
+     * @param bytes  O número de bytes pulados.
+     * @throws IOException Se a leitura falhar ou o rastro terminar antes.
+     */
+    private void pular(long bytes) throws IOException {
+        while (bytes > 0) {
+            long n = entrada.skip(bytes);
+            if (n <= 0) {
+                if (entrada.read() < 0) {
+                    throw new EOFException("O rastro terminou antes do esperado.");
+                }
+                n = 1;
+            }
+            bytes -= n;
+        }
+    }
+
+    /**
+     * Imprime os contadores de um rastro a cada "--intervalo-amostragem" iterações entre "--de" e "--ate", inclusive.
+     *
+     * @param args  O arquivo do rastro, seguido das opções.
+     * @throws IOException Se o rastro não puder ser lido.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Informe o arquivo do rastro: --reproduzir arquivo [--de n] [--ate n] [--intervalo-amostragem n].");
+        }
+        long de = -1;
+        long ate = -1;
+        long intervaloAmostragem = 1;
+        for (int i = 1; i < args.length; i++) {
+            String argumento = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("O argumento " + argumento + " precisa de um valor.");
+            }
+            String valor = args[++i];
+            try {
+                switch (argumento) {
+                    case "--de":
+                        de = Long.parseLong(valor);
+                        break;
+                    case "--ate":
+                        ate = Long.parseLong(valor);
+                        break;
+                    case "--intervalo-amostragem":
+                        intervaloAmostragem = Long.parseLong(valor);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Argumento desconhecido: " + argumento);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido para " + argumento + ": " + valor, e);
+            }
+        }
+        if (intervaloAmostragem <= 0) {
+            throw new IllegalArgumentException("O intervalo de amostragem deve ser maior que zero.");
+        }
+
+        try (LeitorRastro leitor = new LeitorRastro(Paths.get(args[0]))) {
+            long primeiraAmostra = de;
+            if (de < 0) {
+                de = leitor.getPrimeiraIteracao();
+                primeiraAmostra = (de / intervaloAmostragem + 1) * intervaloAmostragem;
+            }
+            if (ate < 0) {
+                ate = leitor.getUltimaIteracao();
+            }
+            if (de > ate) {
+                throw new IllegalArgumentException("A iteração de --de não pode ser posterior à de --ate.");
+            }
+            leitor.posicionar(de);
+
+            /**
+             * A primeira linha é a da iteração --de, e as seguintes, as dos múltiplos do intervalo de amostragem, até
+             * a iteração --ate, que sempre é impressa. Sem --de, a primeira linha é o primeiro múltiplo do intervalo
+             * depois do início do rastro, como na simulação, que não imprime o estado inicial.
+             */
+            for (long amostra = primeiraAmostra; ; amostra = (amostra / intervaloAmostragem + 1) * intervaloAmostragem) {
+                long alvo = Math.min(amostra, ate);
+                leitor.avancarAte(alvo);
+                System.out.println("Iteração " + alvo + " - Mal informadas: " + leitor.getMalInformadas()
+                        + ", Bem informadas: " + leitor.getBemInformadas()
+                        + ", Pessoas resistentes a fake news: " + leitor.getResistentes());
+                if (alvo == ate) {
+                    break;
+                }
+            }
+        }
+    }
+}
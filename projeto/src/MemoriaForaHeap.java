@@ -0,0 +1,313 @@
+/**
+ * Importa a classe IOException para tratar erros de criação e mapeamento do arquivo.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe UncheckedIOException para relatar erros de mapeamento durante o crescimento da memória.
+ */
+import java.io.UncheckedIOException;
+
+/**
+ * Importa a classe ByteBuffer para os segmentos de memória.
+ */
+import java.nio.ByteBuffer;
+
+/**
+ * Importa a classe ByteOrder para acessar os segmentos em little-endian.
+ */
+import java.nio.ByteOrder;
+
+/**
+ * Importa a classe FileChannel para mapear o arquivo em memória.
+ */
+import java.nio.channels.FileChannel;
+
+/**
+ * Importa a classe Path para representar o arquivo mapeado.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe StandardOpenOption para abrir o arquivo.
+ */
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Classe MemoriaForaHeap representa uma região de memória fora do heap do Java, endereçada por posições long em bytes
+ * e que cresce sob demanda. A memória é formada por segmentos de memória direta ou, se informado um arquivo, de
+ * trechos do arquivo mapeados em memória, que o sistema operacional pode levar ao disco quando a memória física acaba.
+ * Como o coletor de lixo não percorre o conteúdo dos segmentos, o tempo das coletas não cresce com o que é guardado
+ * neles.
+ *
+ * Os segmentos nunca mudam de lugar: o segmento 0 cobre os primeiros 64 KiB, cada segmento seguinte dobra de tamanho
+ * até 1 GiB, e a partir daí todos têm 1 GiB. Assim, uma thread pode ler um segmento enquanto outra acrescenta
+ * segmentos novos, e quem guarda blocos na memória só precisa garantir que nenhum bloco atravesse o limite entre dois
+ * segmentos (segmentoDe(inicio) == segmentoDe(fim - 1)).
+ */
+class MemoriaForaHeap {
+    /**
+     * Logaritmo na base 2 do tamanho do primeiro segmento.
+     */
+    private static final int BITS_INICIAL = 16;
+
+    /**
+     * Logaritmo na base 2 do tamanho máximo de um segmento.
+     */
+    private static final int BITS_MAXIMO = 30;
+
+    /**
+     * Número de segmentos que cobrem o primeiro GiB: o primeiro e os que dobram de tamanho até 1 GiB.
+     */
+    private static final int SEGMENTOS_CRESCENTES = BITS_MAXIMO - BITS_INICIAL + 1;
+
+    /**
+     * Arquivo mapeado, ou null para usar memória direta.
+     */
+    private final Path arquivo;
+
+    /**
+     * Segmentos alocados até agora. O array é trocado quando um segmento é acrescentado, mas os segmentos
+     * já alocados continuam os mesmos. O campo é volatile porque as threads do motor leem os segmentos sem
+     * sincronização enquanto outra thread pode estar acrescentando um: a escrita do array novo publica o segmento
+     * acrescentado, e cada acesso lê o campo uma única vez, para usar um só array do início ao fim.
+     */
+    private volatile ByteBuffer[] segmentos = new ByteBuffer[0];
+
+    /**
+     * Número de bytes cobertos pelos segmentos alocados.
+     */
+    private long capacidade;
+
+    /**
+     * Construtor da classe MemoriaForaHeap, com os segmentos em memória direta.
+     */
+    public MemoriaForaHeap() {
+        this.arquivo = null;
+    }
+
+    /**
+     * Construtor da classe MemoriaForaHeap, com os segmentos mapeados a partir do arquivo informado. O arquivo é criado
+     * ou esvaziado, e cresce junto com a memória.
+     *
+     * @param arquivo  O arquivo mapeado.
+     * @throws IOException Se não for possível criar o arquivo.
+     */
+    public MemoriaForaHeap(Path arquivo) throws IOException {
+        this.arquivo = arquivo;
+        FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING).close();
+    }
+
+    /**
+     * Retorna o segmento que contém a posição informada.
+     *
+     * @param posicao  A posição, em bytes.
+     * @return O índice do segmento.
+     */
+    static int segmentoDe(long posicao) {
+        if (posicao < (1L << BITS_INICIAL)) {
+            return 0;
+        }
+        if (posicao < (1L << BITS_MAXIMO)) {
+            return 63 - Long.numberOfLeadingZeros(posicao) - BITS_INICIAL + 1;
+        }
+        return SEGMENTOS_CRESCENTES - 1 + (int) (posicao >>> BITS_MAXIMO);
+    }
+
+    /**
+     * Retorna a posição em que começa um segmento.
+     *
+     * @param segmento  O índice do segmento.
+     * @return A posição do primeiro byte do segmento.
+     */
+    static long inicioSegmento(int segmento) {
+        if (segmento == 0) {
+            return 0;
+        }
+        if (segmento < SEGMENTOS_CRESCENTES) {
+            return 1L << (segmento + BITS_INICIAL - 1);
+        }
+        return (long) (segmento - SEGMENTOS_CRESCENTES + 1) << BITS_MAXIMO;
+    }
+
+    /**
+     * Garante que a memória cubra as posições de 0 até fim (exclusivo), acrescentando segmentos se preciso.
+     *
+     * @param fim  O número de bytes que a memória deve cobrir.
+     * @throws UncheckedIOException Se não for possível mapear o arquivo.
+     */
+    public void garantir(long fim) {
+        ByteBuffer[] atuais = segmentos;
+        while (capacidade < fim) {
+            int segmento = atuais.length;
+            long inicio = inicioSegmento(segmento);
+            int tamanho = (int) (inicioSegmento(segmento + 1) - inicio);
+            ByteBuffer novo;
+            if (arquivo == null) {
+                novo = ByteBuffer.allocateDirect(tamanho);
+            } else {
+                try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    novo = canal.map(FileChannel.MapMode.READ_WRITE, inicio, tamanho);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Não foi possível mapear o arquivo " + arquivo + ".", e);
+                }
+            }
+            novo.order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer[] maiores = Arrays.copyOf(atuais, segmento + 1);
+            maiores[segmento] = novo;
+            atuais = maiores;
+            capacidade = inicio + tamanho;
+        }
+        if (atuais != segmentos) {
+            segmentos = atuais;
+        }
+    }
+
+    /**
+     * Retorna o segmento que contém a posição informada, para acesso direto a um bloco que não atravessa segmentos.
+     *
+     * @param posicao  A posição, em bytes.
+     * @return O segmento.
+     */
+    public ByteBuffer segmento(long posicao) {
+        ByteBuffer[] atuais = segmentos;
+        return atuais[segmentoDe(posicao)];
+    }
+
+    /**
+     * Retorna a posição dentro do seu segmento de uma posição da memória.
+     *
+     * @param posicao  A posição, em bytes.
+     * @return A posição dentro do segmento.
+     */
+    public static int dentroDoSegmento(long posicao) {
+        return (int) (posicao - inicioSegmento(segmentoDe(posicao)));
+    }
+
+    /**
+     * Lê um byte.
+     *
+     * @param posicao  A posição, em bytes.
+     * @return O byte.
+     */
+    public byte getByte(long posicao) {
+        ByteBuffer[] atuais = segmentos;
+        int segmento = segmentoDe(posicao);
+        return atuais[segmento].get((int) (posicao - inicioSegmento(segmento)));
+    }
+
+    /**
+     * Grava um byte.
+     *
+     * @param posicao  A posição, em bytes.
+     * @param valor    O byte.
+     */
+    public void putByte(long posicao, byte valor) {
+        ByteBuffer[] atuais = segmentos;
+        int segmento = segmentoDe(posicao);
+        atuais[segmento].put((int) (posicao - inicioSegmento(segmento)), valor);
+    }
+
+    /**
+     * Lê um inteiro.
+     *
+     * @param posicao  A posição, em bytes.
+     * @return O inteiro.
+     */
+    public int getInt(long posicao) {
+        ByteBuffer[] atuais = segmentos;
+        int segmento = segmentoDe(posicao);
+        return atuais[segmento].getInt((int) (posicao - inicioSegmento(segmento)));
+    }
+
+    /**
+     * Grava um inteiro.
+     *
+     * @param posicao  A posição, em bytes.
+     * @param valor    O inteiro.
+     */
+    public void putInt(long posicao, int valor) {
+        ByteBuffer[] atuais = segmentos;
+        int segmento = segmentoDe(posicao);
+        atuais[segmento].putInt((int) (posicao - inicioSegmento(segmento)), valor);
+    }
+
+    /**
+     * Lê um inteiro longo.
+     *
+     * @param posicao  A posição, em bytes.
+     * @return O inteiro longo.
+     */
+    public long getLong(long posicao) {
+        ByteBuffer[] atuais = segmentos;
+        int segmento = segmentoDe(posicao);
+        return atuais[segmento].getLong((int) (posicao - inicioSegmento(segmento)));
+    }
+
+    /**
+     * Grava um inteiro longo.
+     *
+     * @param posicao  A posição, em bytes.
+     * @param valor    O inteiro longo.
+     */
+    public void putLong(long posicao, long valor) {
+        ByteBuffer[] atuais = segmentos;
+        int segmento = segmentoDe(posicao);
+        atuais[segmento].putLong((int) (posicao - inicioSegmento(segmento)), valor);
+    }
+
+    /**
+     * Zera um bloco que não atravessa segmentos.
+     *
+     * @param posicao  A posição do início do bloco, em bytes.
+     * @param bytes    O tamanho do bloco, múltiplo de 8.
+     */
+    public void zerar(long posicao, int bytes) {
+        ByteBuffer segmento = segmento(posicao);
+        int inicio = dentroDoSegmento(posicao);
+        for (int k = 0; k < bytes; k += 8) {
+            segmento.putLong(inicio + k, 0);
+        }
+    }
+
+    /**
+     * Copia os primeiros bytes de outra memória para esta, que cresce se preciso.
+     *
+     * @param origem  A memória de origem.
+     * @param bytes   O número de bytes copiados.
+     */
+    public void copiar(MemoriaForaHeap origem, long bytes) {
+        garantir(bytes);
+        ByteBuffer[] atuais = segmentos;
+        ByteBuffer[] daOrigem = origem.segmentos;
+        for (int segmento = 0; inicioSegmento(segmento) < bytes; segmento++) {
+            long inicio = inicioSegmento(segmento);
+            int tamanho = (int) (Math.min(bytes, inicioSegmento(segmento + 1)) - inicio);
+            atuais[segmento].put(0, daOrigem[segmento], 0, tamanho);
+        }
+    }
+
+    /**
+     * Retorna o número de bytes cobertos pelos segmentos alocados.
+     *
+     * @return A capacidade, em bytes.
+     */
+    public long getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Retorna o arquivo mapeado.
+     *
+     * @return O arquivo, ou null se a memória é direta.
+     */
+    public Path getArquivo() {
+        return arquivo;
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Importa a classe ManagementFactory para obter o servidor de MBeans da JVM.
+ */
+import java.lang.management.ManagementFactory;
+
+/**
+ * Importa a classe JMException para tratar erros de publicação do MBean.
+ */
+import javax.management.JMException;
+
+/**
+ * Importa a classe MBeanServer para publicar o MBean.
+ */
+import javax.management.MBeanServer;
+
+/**
+ * Importa a classe ObjectName para dar nome ao MBean.
+ */
+import javax.management.ObjectName;
+
+/**
+ * Importa a classe StandardMBean para publicar o monitor pela interface MonitorSimulacaoMBean.
+ */
+import javax.management.StandardMBean;
+
+/**
+ * Classe MonitorSimulacao representa o MBean com os contadores de uma execução em andamento. A thread da simulação
+ * copia os contadores para campos voláteis ao final de cada iteração, e o servidor de MBeans os lê em outra thread,
+ * sem travas e sem interferir na iteração seguinte.
+ *
+ * As iterações por segundo são calculadas a partir da média móvel exponencial do intervalo entre o fim de duas
+ * iterações seguidas, que inclui a pausa entre os quadros do modo visual.
+ */
+class MonitorSimulacao implements MonitorSimulacaoMBean {
+    /**
+     * Nome com que o MBean é publicado.
+     */
+    public static final String NOME = "Simulacao:type=Monitor";
+
+    /**
+     * Peso do último intervalo na média móvel exponencial do intervalo entre iterações.
+     */
+    private static final double PESO_MEDIA = 0.1;
+
+    /**
+     * Instrumentação de onde vem o resumo das fases.
+     */
+    private final Instrumentacao instrumentacao;
+
+    /**
+     * Número total de iterações da execução.
+     */
+    private final long iteracoes;
+
+    /**
+     * Nome com que o MBean foi publicado, ou null se ele não foi publicado.
+     */
+    private ObjectName nome;
+
+    /**
+     * Instante em que a última iteração terminou, em nanossegundos, ou zero antes da primeira.
+     */
+    private long fimAnterior;
+
+    /**
+     * Número da última iteração concluída.
+     */
+    private volatile long iteracao;
+
+    /**
+     * Média móvel exponencial do intervalo entre o fim de duas iterações, em nanossegundos.
+     */
+    private volatile double intervaloMedioNs;
+
+    /**
+     * Número de pessoas mal informadas ao final da última iteração.
+     */
+    private volatile long malInformadas;
+
+    /**
+     * Número de pessoas bem informadas ao final da última iteração.
+     */
+    private volatile long bemInformadas;
+
+    /**
+     * Número de pessoas resistentes ao final da última iteração.
+     */
+    private volatile long resistentes;
+
+    /**
+     * Número de novas infecções na última iteração.
+     */
+    private volatile long novasInfeccoes;
+
+    /**
+     * Número de curas na última iteração.
+     */
+    private volatile long curas;
+
+    /**
+     * Número de contatos formados na última iteração.
+     */
+    private volatile long contatosFormados;
+
+    /**
+     * Número de mensagens em trânsito ao final da última iteração.
+     */
+    private volatile long mensagensPendentes;
+
+    /**
+     * Construtor da classe MonitorSimulacao.
+     *
+     * @param instrumentacao  A instrumentação de onde vem o resumo das fases.
+     * @param iteracoes       O número total de iterações da execução.
+     */
+    public MonitorSimulacao(Instrumentacao instrumentacao, long iteracoes) {
+        this.instrumentacao = instrumentacao;
+        this.iteracoes = iteracoes;
+    }
+
+    /**
+     * Publica o monitor no servidor de MBeans da JVM, com o nome NOME.
+     *
+     * @throws JMException Se o MBean não puder ser publicado, por exemplo se já houver outro com o mesmo nome.
+     */
+    public void publicar() throws JMException {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objeto = new ObjectName(NOME);
+        servidor.registerMBean(new StandardMBean(this, MonitorSimulacaoMBean.class), objeto);
+        this.nome = objeto;
+    }
+
+    /**
+     * Retira o monitor do servidor de MBeans, se ele foi publicado.
+     *
+     * @throws JMException Se o MBean não puder ser retirado.
+     */
+    public void retirar() throws JMException {
+        if (nome != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(nome);
+            nome = null;
+        }
+    }
+
+    /**
+     * Copia os contadores ao final de uma iteração e atualiza a média do intervalo entre iterações.
+     * Deve ser chamado sempre pela mesma thread.
+     *
+     * @param iteracao   O número da iteração concluída, a partir de 1.
+     * @param populacao  A população da simulação.
+     * @param motor      O motor da simulação.
+     * @param agoraNs    O instante em que a iteração terminou, em nanossegundos.
+     */
+    public void registrarIteracao(long iteracao, Populacao populacao, MotorTick motor, long agoraNs) {
+        if (fimAnterior != 0) {
+            long intervalo = agoraNs - fimAnterior;
+            double media = intervaloMedioNs;
+            intervaloMedioNs = media == 0 ? intervalo : media + PESO_MEDIA * (intervalo - media);
+        }
+        fimAnterior = agoraNs;
+        malInformadas = populacao.getMalInformadas();
+        bemInformadas = populacao.getBemInformadas();
+        resistentes = populacao.getResistentes();
+        novasInfeccoes = motor.getNovasInfeccoes();
+        curas = motor.getCuras();
+        contatosFormados = motor.getContatosFormados();
+        mensagensPendentes = motor.getAgendaMensagens().getPendentes();
+        this.iteracao = iteracao;
+    }
+
+    /**
+     * Retorna o número da última iteração concluída.
+     *
+     * @return O número da iteração, a partir de 1, ou zero se nenhuma iteração terminou.
+     */
+    public long getIteracao() {
+        return iteracao;
+    }
+
+    /**
+     * Retorna o número total de iterações da execução.
+     *
+     * @return O número de iterações.
+     */
+    public long getIteracoes() {
+        return iteracoes;
+    }
+
+    /**
+     * Retorna o inverso da média móvel do intervalo entre iterações.
+     *
+     * @return As iterações por segundo, ou zero antes da segunda iteração.
+     */
+    public double getIteracoesPorSegundo() {
+        double media = intervaloMedioNs;
+        return media <= 0 ? 0 : 1e9 / media;
+    }
+
+    /**
+     * Retorna o número de pessoas mal informadas ao final da última iteração.
+     *
+     * @return O número de pessoas mal informadas.
+     */
+    public long getMalInformadas() {
+        return malInformadas;
+    }
+
+    /**
+     * Retorna o número de pessoas bem informadas ao final da última iteração.
+     *
+     * @return O número de pessoas bem informadas.
+     */
+    public long getBemInformadas() {
+        return bemInformadas;
+    }
+
+    /**
+     * Retorna o número de pessoas bem informadas resistentes ao final da última iteração.
+     *
+     * @return O número de pessoas resistentes.
+     */
+    public long getResistentes() {
+        return resistentes;
+    }
+
+    /**
+     * Retorna o número de pessoas que ficaram mal informadas na última iteração.
+     *
+     * @return O número de novas infecções.
+     */
+    public long getNovasInfeccoes() {
+        return novasInfeccoes;
+    }
+
+    /**
+     * Retorna o número de pessoas que ficaram bem informadas na última iteração.
+     *
+     * @return O número de curas.
+     */
+    public long getCuras() {
+        return curas;
+    }
+
+    /**
+     * Retorna o número de contatos formados na última iteração.
+     *
+     * @return O número de contatos formados.
+     */
+    public long getContatosFormados() {
+        return contatosFormados;
+    }
+
+    /**
+     * Retorna o número de mensagens em trânsito ao final da última iteração.
+     *
+     * @return O número de mensagens agendadas.
+     */
+    public long getMensagensPendentes() {
+        return mensagensPendentes;
+    }
+
+    /**
+     * Monta o resumo da duração de cada fase das iterações.
+     *
+     * @return A tabela com as durações das fases.
+     */
+    public String getResumoFases() {
+        return instrumentacao.resumo();
+    }
+
+    /**
+     * Calcula o percentil 99 da duração das iterações.
+     *
+     * @return A duração, em microssegundos.
+     */
+    public double getIteracaoP99Micros() {
+        return instrumentacao.getHistograma(Instrumentacao.ITERACAO).percentil(99) / 1e3;
+    }
+
+    /**
+     * Descarta as durações registradas nos histogramas das fases.
+     */
+    public void zerarHistogramas() {
+        instrumentacao.zerar();
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Interface MonitorSimulacaoMBean define os atributos e as operações que a simulação publica por JMX, com o nome
+ * MonitorSimulacao.NOME, para acompanhar uma execução em andamento com o jconsole ou outro cliente JMX.
+ * É pública porque o servidor de MBeans só publica interfaces públicas.
+ */
+public interface MonitorSimulacaoMBean {
+    /**
+     * Retorna o número da última iteração concluída.
+     *
+     * @return O número da iteração, a partir de 1, ou zero se nenhuma iteração terminou.
+     */
+    long getIteracao();
+
+    /**
+     * Retorna o número total de iterações da execução.
+     *
+     * @return O número de iterações.
+     */
+    long getIteracoes();
+
+    /**
+     * Retorna o número de iterações concluídas por segundo, em média móvel exponencial.
+     *
+     * @return As iterações por segundo, ou zero antes da segunda iteração.
+     */
+    double getIteracoesPorSegundo();
+
+    /**
+     * Retorna o número de pessoas mal informadas ao final da última iteração.
+     *
+     * @return O número de pessoas mal informadas.
+     */
+    long getMalInformadas();
+
+    /**
+     * Retorna o número de pessoas bem informadas ao final da última iteração.
+     *
+     * @return O número de pessoas bem informadas.
+     */
+    long getBemInformadas();
+
+    /**
+     * Retorna o número de pessoas bem informadas resistentes ao final da última iteração.
+     *
+     * @return O número de pessoas resistentes.
+     */
+    long getResistentes();
+
+    /**
+     * Retorna o número de pessoas que ficaram mal informadas na última iteração.
+     *
+     * @return O número de novas infecções.
+     */
+    long getNovasInfeccoes();
+
+    /**
+     * Retorna o número de pessoas que ficaram bem informadas na última iteração.
+     *
+     * @return O número de curas.
+     */
+    long getCuras();
+
+    /**
+     * Retorna o número de pares de pessoas que trocaram números de Whatsapp pela primeira vez na última iteração.
+     *
+     * @return O número de contatos formados.
+     */
+    long getContatosFormados();
+
+    /**
+     * Retorna o número de mensagens em trânsito ao final da última iteração.
+     *
+     * @return O número de mensagens agendadas.
+     */
+    long getMensagensPendentes();
+
+    /**
+     * Retorna o resumo da duração de cada fase das iterações, no formato de Instrumentacao.resumo.
+     *
+     * @return A tabela com as durações das fases.
+     */
+    String getResumoFases();
+
+    /**
+     * Retorna o percentil 99 da duração das iterações.
+     *
+     * @return A duração, em microssegundos.
+     */
+    double getIteracaoP99Micros();
+
+    /**
+     * Descarta as durações registradas nos histogramas das fases.
+     */
+    void zerarHistogramas();
+}
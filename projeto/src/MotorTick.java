@@ -0,0 +1,1231 @@
+/**
+ * Importa a classe ArrayList para guardar a lista de atores.
+ */
+import java.util.ArrayList;
+
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Importa a classe List para receber a lista de atores.
+ */
+import java.util.List;
+
+/**
+ * Importa a classe ForkJoinPool para executar tarefas em paralelo.
+ */
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Importa a classe RecursiveAction para dividir o trabalho em tarefas menores.
+ */
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Classe MotorTick representa o motor que executa as fases de movimento e de interações de cada iteração da simulação.
+ * O movimento é feito em paralelo por blocos de pessoas, pois cada pessoa sorteia sua direção de forma
+ * independente. Na fase de interações, o mapa do Mundo é dividido em faixas de linhas, processadas em paralelo em um ForkJoinPool.
+ * Cada pessoa é avaliada a partir do estado da iteração anterior (a vaga atual do seu registro na Populacao) e o
+ * resultado é escrito na vaga seguinte do mesmo registro (Populacao.definirProximo); ao final da fase, as vagas são
+ * trocadas (Populacao.trocarEstados). Como nenhuma tarefa lê o que outra escreve, o resultado é o mesmo para qualquer
+ * número de threads, e as fases leem e escrevem diretamente nos registros fora do heap.
+ *
+ * Cada faixa também acumula, em posições próprias de arrays compartilhados (uma "listra" por faixa),
+ * a variação dos contadores da população e a lista das pessoas cuja resistência mudou. Ao final da fase,
+ * essas listras são somadas em uma única thread, e as estatísticas da iteração custam O(mudanças).
+ *
+ * Quando o encaminhamento de mensagens está ativo (setMensagens), cada pessoa que fica mal informada envia a fake news
+ * aos contatos da sua agenda do Whatsapp. As mensagens ficam em uma AgendaMensagens e, na iteração da entrega, tornam
+ * mal informado o destinatário bem informado e sem resistência. A entrega e o envio são feitos em uma única thread,
+ * depois das faixas, e só tocam as pessoas com mensagens, então o custo é proporcional à atividade.
+ *
+ * Com setIntervaloReordenacao, a cada tantas iterações as pessoas são reordenadas nos registros pela curva de Morton dos
+ * baldes (ReordenadorMorton), depois do movimento. As agendas de contatos e as mensagens usam a identidade das pessoas,
+ * que não muda com a reordenação, então o resultado da simulação é o mesmo com ou sem reordenação.
+ *
+ * Com setInstrumentacao, a duração de cada fase (movimento, índice, interações, consolidação e mensagens) é registrada
+ * na Instrumentacao informada.
+ *
+ * Na simulação distribuída, o TrabalhadorFaixa chama as partes da iteração separadamente: executarDeslocamento, a troca
+ * de pessoas com os outros processos, a reconstrução do índice e executarInteracoes com as mensagens a entregar. Com
+ * setPessoasProprias, apenas as primeiras posições da população são processadas; as demais são cópias das pessoas
+ * vizinhas de outros processos, que só são lidas.
+ */
+class MotorTick {
+    /**
+     * Número de faixas criadas para cada thread, para equilibrar a carga entre as threads.
+     */
+    private static final int FAIXAS_POR_THREAD = 4;
+
+    /**
+     * Número de pessoas movidas por cada tarefa da fase de movimento.
+     */
+    private static final int PESSOAS_POR_BLOCO = 4096;
+
+    /**
+     * Distância, em posições de long, entre as listras de contadores de duas faixas. Com 8 longs (64 bytes),
+     * as listras de faixas diferentes ficam em linhas de cache diferentes.
+     */
+    private static final int ESPACAMENTO_LISTRA = 8;
+
+    /**
+     * Posição, dentro da listra, do número de pessoas bem informadas que ficaram mal informadas.
+     */
+    private static final int LISTRA_INFECCOES = 0;
+
+    /**
+     * Posição, dentro da listra, do número de pessoas mal informadas que ficaram bem informadas.
+     */
+    private static final int LISTRA_CURAS = 1;
+
+    /**
+     * Posição, dentro da listra, da variação do número de pessoas bem informadas resistentes.
+     */
+    private static final int LISTRA_RESISTENTES = 2;
+
+    /**
+     * Posição, dentro da listra, do número de entradas novas nas agendas de contatos.
+     */
+    private static final int LISTRA_CONTATOS = 3;
+
+    /**
+     * População cujo estado é atualizado pelo motor.
+     */
+    private final Populacao populacao;
+
+    /**
+     * Índice espacial usado para encontrar as pessoas de cada célula.
+     */
+    private final IndiceEspacial indice;
+
+    /**
+     * Pool de threads usado nas fases de movimento e de interações, ou null se o motor usa uma única thread.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Número de linhas do mapa em cada faixa.
+     */
+    private final int alturaFaixa;
+
+    /**
+     * Número de faixas em que o mapa é dividido.
+     */
+    private final int numFaixas;
+
+    /**
+     * Contadores acumulados por cada faixa na iteração, a partir da posição faixa * ESPACAMENTO_LISTRA.
+     */
+    private final long[] listras;
+
+    /**
+     * Pessoas de cada faixa cuja resistência mudou na iteração, reaproveitadas entre as iterações.
+     */
+    private final int[][] resistenciaAlterada;
+
+    /**
+     * Número de pessoas de cada faixa cuja resistência mudou na iteração.
+     */
+    private final int[] numResistenciaAlterada;
+
+    /**
+     * Número de pessoas que ficaram mal informadas na última iteração.
+     */
+    private long novasInfeccoes;
+
+    /**
+     * Número de pessoas que ficaram bem informadas na última iteração.
+     */
+    private long curas;
+
+    /**
+     * Número de pares de pessoas que trocaram números de Whatsapp pela primeira vez na última iteração.
+     */
+    private long contatosFormados;
+
+    /**
+     * Número de entradas novas nas agendas de contatos na última iteração, o dobro dos contatos formados.
+     */
+    private long entradasContatos;
+
+    /**
+     * Número de posições da população processadas na fase de interações; as seguintes são cópias de pessoas de outros
+     * processos da simulação distribuída.
+     */
+    private int pessoasProprias = Integer.MAX_VALUE;
+
+    /**
+     * IAs e meios de comunicação confiáveis da simulação.
+     */
+    private List<IAtor> atores = new ArrayList<>();
+
+    /**
+     * Índice espacial dos atores, montado com o raio de contato atual e reconstruído quando os atores se movem.
+     */
+    private IndiceAtores indiceAtores;
+
+    /**
+     * Indica se algum ator tem rota de patrulha, caso em que os atores se movem a cada iteração.
+     */
+    private boolean atoresMoveis;
+
+    /**
+     * Distância máxima, em qualquer direção, para que haja contato entre pessoas ou com as IAs e os meios.
+     */
+    private int raio = 1;
+
+    /**
+     * Número de iterações durante as quais uma pessoa permanece resistente a fake news.
+     */
+    private long duracaoResistencia;
+
+    /**
+     * Pessoas que ficaram mal informadas na iteração, por faixa. Só são registradas com o encaminhamento de mensagens ativo.
+     */
+    private final int[][] infectadas;
+
+    /**
+     * Número de pessoas registradas em infectadas, por faixa.
+     */
+    private final int[] numInfectadas;
+
+    /**
+     * Identidades das pessoas que ficaram mal informadas na iteração ao receber uma mensagem.
+     */
+    private int[] infectadasPorMensagem = new int[16];
+
+    /**
+     * Mensagens de Whatsapp em trânsito.
+     */
+    private final AgendaMensagens mensagens = new AgendaMensagens();
+
+    /**
+     * Probabilidade de um contato aceitar a fake news recebida por mensagem. Zero desativa o encaminhamento.
+     */
+    private double aceitacaoMensagem;
+
+    /**
+     * A mensagem é aceita se os 53 bits mais altos do sorteio forem menores que este limite (aceitacaoMensagem * 2^53).
+     */
+    private long limiteAceitacao;
+
+    /**
+     * Atraso mínimo de entrega das mensagens, em iterações.
+     */
+    private long atrasoMensagem = 1;
+
+    /**
+     * Atraso máximo de entrega das mensagens, em iterações.
+     */
+    private long atrasoMensagemMax = 1;
+
+    /**
+     * Número de iterações entre duas reordenações da população pela curva de Morton. Zero desativa a reordenação.
+     */
+    private long intervaloReordenacao;
+
+    /**
+     * Reordenador da população, criado quando a reordenação é ativada.
+     */
+    private ReordenadorMorton reordenador;
+
+    /**
+     * Árvore de tarefas da fase de interações, montada uma vez e reaproveitada em todas as iterações, ou null sem pool.
+     */
+    private final TarefaFaixas tarefaFaixas;
+
+    /**
+     * Árvore de tarefas da fase de movimento, remontada apenas quando o tamanho da população muda, ou null sem pool.
+     */
+    private TarefaMovimento tarefaMovimento;
+
+    /**
+     * Instrumentação onde a duração de cada fase é registrada, ou null para não medir as fases.
+     */
+    private Instrumentacao instrumentacao;
+
+    /**
+     * Gravador do rastro de transições, ou null para não gravar o rastro.
+     */
+    private GravadorRastro rastro;
+
+    /**
+     * Análise dos surtos que recebe as transições de estado, ou null para não analisar.
+     */
+    private AnaliseSurto analise;
+
+    /**
+     * Buffer com a fonte da infecção de cada pessoa na iteração: a menor identidade entre os vizinhos mal informados,
+     * ou -1 se uma IAGeradoraFakeNews alcança a pessoa. Só é alocado com o rastro ou a análise dos surtos ativos.
+     */
+    private int[] fontesProximas;
+
+    /**
+     * Buffer com o remetente de menor identidade entre as mensagens que infectaram cada pessoa na iteração, ou -1 para
+     * as pessoas não infectadas por mensagem. Assim a fonte não depende da ordem de entrega, que segue a ordem das
+     * pessoas na memória. Só é alocado com o rastro ou a análise dos surtos ativos.
+     */
+    private int[] fontesMensagem;
+
+    /**
+     * Transições de cada faixa na iteração, em trios (identidade, tipo, fonte), reaproveitadas entre as iterações.
+     * Só são registradas com o rastro ou a análise dos surtos ativos.
+     */
+    private int[][] transicoes;
+
+    /**
+     * Número de posições usadas em transicoes, por faixa.
+     */
+    private int[] numTransicoes;
+
+    /**
+     * Construtor da classe MotorTick. Com uma única thread, as fases são executadas diretamente na thread que chama o
+     * motor, sem ForkJoinPool.
+     *
+     * @param populacao  A população a ser atualizada.
+     * @param indice     O índice espacial com as posições atuais das pessoas.
+     * @param threads    O número de threads usadas na fase de interações.
+     */
+    public MotorTick(Populacao populacao, IndiceEspacial indice, int threads) {
+        this.populacao = populacao;
+        this.indice = indice;
+        this.pool = threads == 1 ? null : new ForkJoinPool(threads);
+        int linhas = indice.getLinhasBaldes();
+        this.alturaFaixa = Math.max(1, (linhas + threads * FAIXAS_POR_THREAD - 1) / (threads * FAIXAS_POR_THREAD));
+        this.numFaixas = (linhas + alturaFaixa - 1) / alturaFaixa;
+        this.listras = new long[numFaixas * ESPACAMENTO_LISTRA];
+        this.resistenciaAlterada = new int[numFaixas][16];
+        this.numResistenciaAlterada = new int[numFaixas];
+        this.infectadas = new int[numFaixas][16];
+        this.numInfectadas = new int[numFaixas];
+        this.indiceAtores = new IndiceAtores(indice.getLinhas(), indice.getColunas(), raio, atores);
+        this.tarefaFaixas = pool == null ? null : new TarefaFaixas(0, numFaixas);
+    }
+
+    /**
+     * Define por quantas iterações uma pessoa permanece resistente a fake news depois de
+     * passar perto do meio de comunicação confiável.
+     *
+     * @param duracaoResistencia  A duração da resistência, em iterações.
+     */
+    public void setDuracaoResistencia(long duracaoResistencia) {
+        if (duracaoResistencia < 0) {
+            throw new IllegalArgumentException("A duração da resistência não pode ser negativa.");
+        }
+        this.duracaoResistencia = duracaoResistencia;
+    }
+
+    /**
+     * Define a distância máxima, em qualquer direção, para que haja contato.
+     *
+     * @param raio  O raio de contato.
+     */
+    public void setRaio(int raio) {
+        if (raio < 0) {
+            throw new IllegalArgumentException("O raio de contato não pode ser negativo.");
+        }
+        this.raio = raio;
+        this.indiceAtores = new IndiceAtores(indice.getLinhas(), indice.getColunas(), raio, atores);
+    }
+
+    /**
+     * Ativa o encaminhamento da fake news pelas agendas de contatos do Whatsapp. O atraso de cada mensagem é sorteado
+     * entre atrasoMin e atrasoMax iterações; com aceitacao igual a zero, o encaminhamento fica desativado.
+     *
+     * @param aceitacao  A probabilidade de o contato aceitar a fake news, entre 0 e 1.
+     * @param atrasoMin  O atraso mínimo de entrega, em iterações, pelo menos 1.
+     * @param atrasoMax  O atraso máximo de entrega, em iterações, pelo menos atrasoMin.
+     */
+    public void setMensagens(double aceitacao, long atrasoMin, long atrasoMax) {
+        if (!(aceitacao >= 0 && aceitacao <= 1)) {
+            throw new IllegalArgumentException("A probabilidade de aceitação da mensagem deve estar entre 0 e 1.");
+        }
+        if (atrasoMin < 1 || atrasoMax < atrasoMin) {
+            throw new IllegalArgumentException("O atraso das mensagens deve ser de pelo menos uma iteração, e o máximo não pode ser menor que o mínimo.");
+        }
+        this.aceitacaoMensagem = aceitacao;
+        this.limiteAceitacao = (long) (aceitacao * 0x1p53);
+        this.atrasoMensagem = atrasoMin;
+        this.atrasoMensagemMax = atrasoMax;
+    }
+
+    /**
+     * Define a cada quantas iterações as pessoas são reordenadas nos arrays pela curva de Morton dos baldes do índice
+     * espacial. A reordenação é feita depois do movimento das iterações múltiplas do intervalo.
+     *
+     * @param intervalo  O número de iterações entre duas reordenações, ou zero para desativar a reordenação.
+     */
+    public void setIntervaloReordenacao(long intervalo) {
+        if (intervalo < 0) {
+            throw new IllegalArgumentException("O intervalo entre reordenações não pode ser negativo.");
+        }
+        this.intervaloReordenacao = intervalo;
+        if (intervalo > 0 && reordenador == null) {
+            reordenador = new ReordenadorMorton(populacao, indice, pool);
+        }
+    }
+
+    /**
+     * Retorna o número de iterações entre duas reordenações da população.
+     *
+     * @return O intervalo entre reordenações, ou zero se a reordenação está desativada.
+     */
+    public long getIntervaloReordenacao() {
+        return intervaloReordenacao;
+    }
+
+    /**
+     * Define a instrumentação onde a duração de cada fase do motor é registrada.
+     *
+     * @param instrumentacao  A instrumentação, ou null para não medir as fases.
+     */
+    public void setInstrumentacao(Instrumentacao instrumentacao) {
+        this.instrumentacao = instrumentacao;
+    }
+
+    /**
+     * Define o gravador que recebe as transições de estado de cada pessoa. As transições são calculadas pelas faixas
+     * e entregues ao gravador pela thread que chama o motor, na ordem das faixas, seguidas das infecções por mensagem.
+     *
+     * @param rastro  O gravador do rastro, ou null para não gravar.
+     */
+    public void setRastro(GravadorRastro rastro) {
+        this.rastro = rastro;
+        prepararTransicoes();
+    }
+
+    /**
+     * Define a análise dos surtos que recebe as transições de estado de cada pessoa, na mesma ordem do rastro.
+     *
+     * @param analise  A análise dos surtos, ou null para não analisar.
+     */
+    public void setAnalise(AnaliseSurto analise) {
+        this.analise = analise;
+        prepararTransicoes();
+    }
+
+    /**
+     * Aloca os buffers das transições se o rastro ou a análise dos surtos estiverem ativos, ou os libera.
+     */
+    private void prepararTransicoes() {
+        if (rastro == null && analise == null) {
+            this.fontesProximas = null;
+            this.fontesMensagem = null;
+            this.transicoes = null;
+            this.numTransicoes = null;
+        } else if (transicoes == null) {
+            this.fontesProximas = new int[populacao.getCapacidade()];
+            this.fontesMensagem = new int[populacao.getCapacidade()];
+            Arrays.fill(fontesMensagem, -1);
+            this.transicoes = new int[numFaixas][48];
+            this.numTransicoes = new int[numFaixas];
+        }
+    }
+
+    /**
+     * Define as IAs e os meios de comunicação confiáveis da simulação e monta o índice espacial deles.
+     *
+     * @param atores  Os atores da simulação.
+     */
+    public void definirAtores(List<? extends IAtor> atores) {
+        this.atores = new ArrayList<>(atores);
+        this.indiceAtores = new IndiceAtores(indice.getLinhas(), indice.getColunas(), raio, this.atores);
+        this.atoresMoveis = false;
+        for (IAtor ator : this.atores) {
+            atoresMoveis |= ator.getRota() != null;
+        }
+    }
+
+    /**
+     * Define quantas posições da população são processadas na fase de interações. As posições seguintes guardam cópias
+     * de pessoas de outros processos: servem de vizinhas, mas o seu estado passa inalterado para a próxima iteração.
+     *
+     * @param pessoasProprias  O número de pessoas processadas, ou Integer.MAX_VALUE para processar todas.
+     */
+    public void setPessoasProprias(int pessoasProprias) {
+        this.pessoasProprias = pessoasProprias;
+    }
+
+    /**
+     * Executa a fase de movimento de uma iteração: move todas as pessoas em paralelo, em blocos movidos pelo núcleo
+     * em lote de MovimentoPessoas, e os atores com rota de patrulha; em seguida, atualiza os índices espaciais com as
+     * novas posições. Nas iterações de reordenação, a população é reordenada e o índice é reconstruído.
+     *
+     * @param iteracao  O número da iteração, usado para sortear o movimento de cada pessoa.
+     */
+    public void executarMovimento(long iteracao) {
+        executarDeslocamento(iteracao);
+        long inicio = instante();
+        if (intervaloReordenacao > 0 && iteracao % intervaloReordenacao == 0) {
+            reordenador.reordenar();
+        } else {
+            for (int i = 0; i < populacao.tamanho(); i++) {
+                long posicao = populacao.getPosicao(i);
+                indice.atualizar(i, (int) posicao, (int) (posicao >>> 32));
+            }
+        }
+        registrarFase(Instrumentacao.INDICE, inicio);
+    }
+
+    /**
+     * Avança o relógio e move as pessoas e os atores com rota de patrulha, sem atualizar o índice espacial das pessoas.
+     *
+     * @param iteracao  O número da iteração, usado para sortear o movimento de cada pessoa.
+     */
+    public void executarDeslocamento(long iteracao) {
+        long inicio = instante();
+        populacao.avancarRelogio(iteracao);
+        if (pool == null) {
+            moverPessoas(0, populacao.tamanho());
+        } else {
+            if (tarefaMovimento == null || tarefaMovimento.fim != populacao.tamanho()) {
+                tarefaMovimento = new TarefaMovimento(0, populacao.tamanho());
+            }
+            tarefaMovimento.reinitialize();
+            pool.invoke(tarefaMovimento);
+        }
+        if (atoresMoveis) {
+            for (int k = 0; k < atores.size(); k++) {
+                atores.get(k).mover(indice.getLinhas(), indice.getColunas());
+            }
+            indiceAtores.reconstruir(atores);
+        }
+        registrarFase(Instrumentacao.MOVIMENTO, inicio);
+    }
+
+    /**
+     * Executa a fase de interações de uma iteração: troca de contatos entre vizinhos, propagação de fake news
+     * entre pessoas e contato com as IAs e o meio de comunicação confiável.
+     * Ao final, o novo estado substitui o anterior na população, e as variações acumuladas pelas faixas
+     * atualizam os contadores e a roda de expiração da população.
+     *
+     * A iteração corrente é a do relógio da população, definida por executarMovimento.
+     */
+    public void executarInteracoes() {
+        executarInteracoes(null, 0);
+    }
+
+    /**
+     * Executa a fase de interações de uma iteração, como executarInteracoes(), mas com as mensagens entregues na
+     * iteração informadas por quem chama, e não retiradas da agenda. É usado pelo TrabalhadorFaixa, que retira as
+     * mensagens da agenda antes da troca com os outros processos e recebe deles as mensagens para as suas pessoas.
+     *
+     * @param destinatarios  As identidades dos destinatários das mensagens entregues, ou null para retirá-las da agenda.
+     * @param entregues      O número de mensagens em destinatarios.
+     */
+    public void executarInteracoes(int[] destinatarios, int entregues) {
+        if (fontesProximas != null && fontesProximas.length < populacao.getCapacidade()) {
+            fontesProximas = new int[populacao.getCapacidade()];
+            fontesMensagem = new int[populacao.getCapacidade()];
+            Arrays.fill(fontesMensagem, -1);
+        }
+
+        long inicio = instante();
+        if (pool == null) {
+            for (int faixa = 0; faixa < numFaixas; faixa++) {
+                processarFaixa(faixa);
+            }
+        } else {
+            tarefaFaixas.reinitialize();
+            pool.invoke(tarefaFaixas);
+        }
+        inicio = registrarFase(Instrumentacao.INTERACOES, inicio);
+
+        /**
+         * Soma as listras de todas as faixas e agenda as novas expirações de resistência.
+         */
+        long totalInfeccoes = 0;
+        long totalCuras = 0;
+        long totalResistentes = 0;
+        long totalContatos = 0;
+        for (int faixa = 0; faixa < numFaixas; faixa++) {
+            int listra = faixa * ESPACAMENTO_LISTRA;
+            totalInfeccoes += listras[listra + LISTRA_INFECCOES];
+            totalCuras += listras[listra + LISTRA_CURAS];
+            totalResistentes += listras[listra + LISTRA_RESISTENTES];
+            totalContatos += listras[listra + LISTRA_CONTATOS];
+            int[] alteradas = resistenciaAlterada[faixa];
+            for (int k = 0; k < numResistenciaAlterada[faixa]; k++) {
+                populacao.agendarExpiracao(alteradas[k], populacao.getResistenciaProxima(alteradas[k]));
+            }
+        }
+        populacao.acumularContadores(totalInfeccoes - totalCuras, totalResistentes);
+        if (transicoes != null) {
+            for (int faixa = 0; faixa < numFaixas; faixa++) {
+                int[] eventos = transicoes[faixa];
+                for (int k = 0; k < numTransicoes[faixa]; k += 3) {
+                    entregarTransicao(eventos[k + 1], eventos[k], eventos[k + 2]);
+                }
+            }
+        }
+        novasInfeccoes = totalInfeccoes;
+        curas = totalCuras;
+        // Cada par novo aparece uma vez na agenda de cada uma das duas pessoas.
+        entradasContatos = totalContatos;
+        contatosFormados = totalContatos / 2;
+
+        /**
+         * Troca as vagas dos registros: o estado calculado passa a ser o estado atual,
+         * e a vaga do estado anterior é reaproveitada na próxima iteração.
+         */
+        populacao.trocarEstados();
+        inicio = registrarFase(Instrumentacao.CONSOLIDACAO, inicio);
+
+        if (limiteAceitacao > 0) {
+            int[] remetentes = null;
+            if (destinatarios == null) {
+                entregues = mensagens.retirar(populacao.iteracao);
+                destinatarios = mensagens.getDestinatariosRetirados();
+                remetentes = mensagens.getRemetentesRetirados();
+            }
+            encaminharMensagens(destinatarios, remetentes, entregues);
+            registrarFase(Instrumentacao.MENSAGENS, inicio);
+        }
+    }
+
+    /**
+     * Entrega as mensagens da iteração corrente e envia as mensagens das pessoas que ficaram mal informadas nela.
+     * As pessoas infectadas por mensagem também encaminham a fake news, com entrega a partir da próxima iteração.
+     *
+     * @param destinatarios  As identidades dos destinatários das mensagens entregues na iteração.
+     * @param remetentes     As identidades dos remetentes das mensagens, ou null se não forem conhecidos.
+     * @param entregues      O número de mensagens entregues.
+     */
+    private void encaminharMensagens(int[] destinatarios, int[] remetentes, int entregues) {
+        long iteracao = populacao.iteracao;
+        int numPorMensagem = 0;
+        int[] fontes = transicoes == null || remetentes == null ? null : fontesMensagem;
+        for (int k = 0; k < entregues; k++) {
+            int j = populacao.getLugar(destinatarios[k]);
+            if (!populacao.isMalInformada(j) && iteracao >= populacao.getResistenciaAte(j)) {
+                populacao.setEstado(j, Populacao.MAL_INFORMADA);
+                novasInfeccoes++;
+                if (numPorMensagem == infectadasPorMensagem.length) {
+                    infectadasPorMensagem = Arrays.copyOf(infectadasPorMensagem, numPorMensagem * 2);
+                }
+                infectadasPorMensagem[numPorMensagem++] = destinatarios[k];
+                if (fontes != null) {
+                    fontes[j] = remetentes[k];
+                }
+            } else if (fontes != null && fontes[j] >= 0 && remetentes[k] < fontes[j]) {
+                fontes[j] = remetentes[k];
+            }
+        }
+
+        /**
+         * A fonte de cada infecção por mensagem é o remetente de menor identidade entre as mensagens entregues à pessoa
+         * na iteração, como o vizinho de menor identidade nas infecções por vizinho.
+         */
+        if (transicoes != null) {
+            for (int k = 0; k < numPorMensagem; k++) {
+                int fonte = -1;
+                if (fontes != null) {
+                    int j = populacao.getLugar(infectadasPorMensagem[k]);
+                    fonte = fontes[j];
+                    fontes[j] = -1;
+                }
+                entregarTransicao(GravadorRastro.INFECCAO_MENSAGEM, infectadasPorMensagem[k], fonte);
+            }
+        }
+
+        for (int faixa = 0; faixa < numFaixas; faixa++) {
+            int[] lista = infectadas[faixa];
+            for (int k = 0; k < numInfectadas[faixa]; k++) {
+                enviarMensagens(populacao.getIdentidade(lista[k]), iteracao);
+            }
+        }
+        for (int k = 0; k < numPorMensagem; k++) {
+            enviarMensagens(infectadasPorMensagem[k], iteracao);
+        }
+    }
+
+    /**
+     * Envia a fake news de uma pessoa a todos os contatos da sua agenda. A aceitação e o atraso de cada mensagem são
+     * sorteados no envio, a partir do remetente, do destinatário e da iteração; as mensagens recusadas não entram na agenda.
+     *
+     * @param remetente  A identidade da pessoa que ficou mal informada.
+     * @param iteracao   A iteração corrente.
+     */
+    private void enviarMensagens(int remetente, long iteracao) {
+        GeradorAleatorio gerador = populacao.getGerador();
+        long variacao = atrasoMensagemMax - atrasoMensagem + 1;
+        GrafoContatos contatos = populacao.contatos;
+        for (int i = 0, tamanho = contatos.tamanhoTabela(remetente); i < tamanho; i++) {
+            int valor = contatos.valorTabela(remetente, i);
+            if (valor == 0) {
+                continue;
+            }
+            int contato = valor - 1;
+            if ((gerador.sortearPar(remetente, contato, iteracao, GeradorAleatorio.FLUXO_ACEITACAO_MENSAGEM) >>> 11) >= limiteAceitacao) {
+                continue;
+            }
+            long atraso = atrasoMensagem;
+            if (variacao > 1) {
+                atraso += (gerador.sortearPar(remetente, contato, iteracao, GeradorAleatorio.FLUXO_ATRASO_MENSAGEM) >>> 1) % variacao;
+            }
+            mensagens.agendar(remetente, contato, iteracao + atraso);
+        }
+    }
+
+    /**
+     * Retorna o número de pessoas que ficaram mal informadas na última iteração.
+     *
+     * @return O número de novas infecções.
+     */
+    public long getNovasInfeccoes() {
+        return novasInfeccoes;
+    }
+
+    /**
+     * Retorna o número de pessoas que ficaram bem informadas na última iteração.
+     *
+     * @return O número de curas.
+     */
+    public long getCuras() {
+        return curas;
+    }
+
+    /**
+     * Retorna o número de pares de pessoas que trocaram números de Whatsapp pela primeira vez na última iteração.
+     *
+     * @return O número de contatos formados.
+     */
+    public long getContatosFormados() {
+        return contatosFormados;
+    }
+
+    /**
+     * Retorna o número de entradas novas nas agendas de contatos na última iteração, o dobro dos contatos formados.
+     * Na simulação distribuída, as duas entradas de um par podem ser feitas por processos diferentes, então o
+     * coordenador soma as entradas de todos os processos antes de dividir por dois.
+     *
+     * @return O número de entradas novas.
+     */
+    public long getEntradasContatos() {
+        return entradasContatos;
+    }
+
+    /**
+     * Retorna o raio de contato.
+     *
+     * @return O raio.
+     */
+    public int getRaio() {
+        return raio;
+    }
+
+    /**
+     * Retorna a duração da resistência a fake news.
+     *
+     * @return A duração, em iterações.
+     */
+    public long getDuracaoResistencia() {
+        return duracaoResistencia;
+    }
+
+    /**
+     * Retorna os atores da simulação.
+     *
+     * @return A lista de atores, que não deve ser alterada.
+     */
+    public List<IAtor> getAtores() {
+        return atores;
+    }
+
+    /**
+     * Retorna a probabilidade de um contato aceitar a fake news recebida por mensagem.
+     *
+     * @return A probabilidade de aceitação.
+     */
+    public double getAceitacaoMensagem() {
+        return aceitacaoMensagem;
+    }
+
+    /**
+     * Retorna o atraso mínimo de entrega das mensagens.
+     *
+     * @return O atraso mínimo, em iterações.
+     */
+    public long getAtrasoMensagem() {
+        return atrasoMensagem;
+    }
+
+    /**
+     * Retorna o atraso máximo de entrega das mensagens.
+     *
+     * @return O atraso máximo, em iterações.
+     */
+    public long getAtrasoMensagemMax() {
+        return atrasoMensagemMax;
+    }
+
+    /**
+     * Retorna o índice espacial com as posições atuais das pessoas.
+     *
+     * @return O índice espacial do motor.
+     */
+    public IndiceEspacial getIndice() {
+        return indice;
+    }
+
+    /**
+     * Retorna a agenda das mensagens em trânsito.
+     *
+     * @return A agenda de mensagens.
+     */
+    public AgendaMensagens getAgendaMensagens() {
+        return mensagens;
+    }
+
+    /**
+     * Soma o tamanho das estruturas que o motor e a população fazem crescer sob demanda durante as iterações:
+     * as tabelas de contatos, os registros das pessoas, a agenda de mensagens e as listas de cada faixa. Se a soma não
+     * mudou em uma iteração, nenhuma estrutura cresceu, e a iteração não deveria ter alocado memória.
+     * Percorre todas as tabelas de contatos, então é usado apenas na verificação de alocação.
+     *
+     * @return O número total de posições reservadas.
+     */
+    public long getCapacidadeEstruturas() {
+        long total = populacao.contatos.getCapacidadeTabelas() + mensagens.getCapacidade() + infectadasPorMensagem.length
+                + populacao.getCapacidade();
+        for (int faixa = 0; faixa < numFaixas; faixa++) {
+            total += resistenciaAlterada[faixa].length + infectadas[faixa].length;
+            if (transicoes != null) {
+                total += transicoes[faixa].length;
+            }
+        }
+        if (fontesProximas != null) {
+            total += fontesProximas.length + fontesMensagem.length;
+        }
+        return total;
+    }
+
+    /**
+     * Encerra as threads do motor. Depois desta chamada, o motor não pode mais ser usado.
+     */
+    public void encerrar() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Retorna o instante atual, se as fases estiverem sendo medidas.
+     *
+     * @return O instante atual, em nanossegundos, ou zero sem instrumentação.
+     */
+    private long instante() {
+        return instrumentacao == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Registra na instrumentação o fim de uma fase, se as fases estiverem sendo medidas.
+     *
+     * @param fase      O número da fase.
+     * @param inicioNs  O instante em que a fase começou.
+     * @return O instante atual, em nanossegundos, ou zero sem instrumentação.
+     */
+    private long registrarFase(int fase, long inicioNs) {
+        return instrumentacao == null ? 0 : instrumentacao.registrar(fase, inicioNs);
+    }
+
+    /**
+     * Move as pessoas de um intervalo de identificadores.
+     *
+     * @param inicio  A primeira pessoa do intervalo.
+     * @param fim     A pessoa seguinte à última do intervalo.
+     */
+    private void moverPessoas(int inicio, int fim) {
+        populacao.getMovimento().moverLote(inicio, fim, indice.getLinhas(), indice.getColunas());
+    }
+
+    /**
+     * Processa todas as pessoas dos baldes de uma faixa do índice espacial.
+     *
+     * @param faixa  O número da faixa.
+     */
+    private void processarFaixa(int faixa) {
+        int linhaInicial = faixa * alturaFaixa;
+        int linhaFinal = Math.min(indice.getLinhasBaldes(), linhaInicial + alturaFaixa);
+        int colunas = indice.getColunasBaldes();
+        long iteracao = populacao.iteracao;
+        long infeccoes = 0;
+        long curasFaixa = 0;
+        long variacaoResistentes = 0;
+        long contatos = 0;
+        int[] alteradas = resistenciaAlterada[faixa];
+        int numAlteradas = 0;
+        boolean registrarInfectadas = limiteAceitacao > 0;
+        int[] novasInfectadas = infectadas[faixa];
+        int numNovasInfectadas = 0;
+        if (transicoes != null) {
+            numTransicoes[faixa] = 0;
+        }
+        for (int cx = linhaInicial; cx < linhaFinal; cx++) {
+            for (int cy = 0; cy < colunas; cy++) {
+                for (int i = indice.primeiro(cx, cy); i != IndiceEspacial.VAZIO; i = indice.proximo(i)) {
+                    if (i >= pessoasProprias) {
+                        // Cópia de uma pessoa de outro processo: só é lida pelas vizinhas.
+                        populacao.definirProximo(i, populacao.getEstado(i), populacao.getResistenciaAte(i));
+                        continue;
+                    }
+                    byte antes = populacao.getEstado(i);
+                    long resistenciaAntes = populacao.getResistenciaAte(i);
+                    contatos += processarPessoa(i, antes, resistenciaAntes);
+
+                    // Compara o estado novo com o anterior para atualizar os contadores sem varrer a população.
+                    byte depois = populacao.getEstadoProximo(i);
+                    long resistenciaDepois = populacao.getResistenciaProxima(i);
+                    if (antes != depois) {
+                        if (depois == Populacao.MAL_INFORMADA) {
+                            infeccoes++;
+                            if (registrarInfectadas) {
+                                if (numNovasInfectadas == novasInfectadas.length) {
+                                    novasInfectadas = Arrays.copyOf(novasInfectadas, novasInfectadas.length * 2);
+                                    infectadas[faixa] = novasInfectadas;
+                                }
+                                novasInfectadas[numNovasInfectadas++] = i;
+                            }
+                        } else {
+                            curasFaixa++;
+                        }
+                        if (transicoes != null) {
+                            registrarTransicao(faixa, i, depois);
+                        }
+                    }
+                    if (transicoes != null && resistenciaAntes <= iteracao && resistenciaDepois > iteracao) {
+                        registrarTransicao(faixa, populacao.getIdentidade(i), GravadorRastro.GANHO_RESISTENCIA,
+                                atorProximo(IAtor.MEIO_CONFIAVEL, populacao.getX(i), populacao.getY(i)));
+                    }
+                    if (resistenciaAntes != resistenciaDepois) {
+                        if (numAlteradas == alteradas.length) {
+                            alteradas = Arrays.copyOf(alteradas, alteradas.length * 2);
+                            resistenciaAlterada[faixa] = alteradas;
+                        }
+                        alteradas[numAlteradas++] = i;
+                    }
+                    variacaoResistentes += resistente(depois, resistenciaDepois, iteracao) - resistente(antes, resistenciaAntes, iteracao);
+                }
+            }
+        }
+        int listra = faixa * ESPACAMENTO_LISTRA;
+        listras[listra + LISTRA_INFECCOES] = infeccoes;
+        listras[listra + LISTRA_CURAS] = curasFaixa;
+        listras[listra + LISTRA_RESISTENTES] = variacaoResistentes;
+        listras[listra + LISTRA_CONTATOS] = contatos;
+        numResistenciaAlterada[faixa] = numAlteradas;
+        numInfectadas[faixa] = numNovasInfectadas;
+    }
+
+    /**
+     * Registra a mudança de estado de informação de uma pessoa, com o tipo e a fonte da transição.
+     *
+     * @param faixa   O número da faixa.
+     * @param i       O identificador da pessoa.
+     * @param depois  O novo estado da pessoa.
+     */
+    private void registrarTransicao(int faixa, int i, byte depois) {
+        int x = populacao.getX(i);
+        int y = populacao.getY(i);
+        int identidade = populacao.getIdentidade(i);
+        if (depois == Populacao.BEM_INFORMADA) {
+            registrarTransicao(faixa, identidade, GravadorRastro.CURA_DESTRUIDORA, atorProximo(IAtor.DESTRUIDORA, x, y));
+        } else if (fontesProximas[i] >= 0) {
+            registrarTransicao(faixa, identidade, GravadorRastro.INFECCAO_VIZINHO, fontesProximas[i]);
+        } else {
+            registrarTransicao(faixa, identidade, GravadorRastro.INFECCAO_GERADORA, atorProximo(IAtor.GERADORA, x, y));
+        }
+    }
+
+    /**
+     * Acrescenta uma transição à lista da faixa.
+     *
+     * @param faixa       O número da faixa.
+     * @param identidade  A identidade da pessoa.
+     * @param tipo        O tipo da transição.
+     * @param fonte       A fonte da transição.
+     */
+    private void registrarTransicao(int faixa, int identidade, int tipo, int fonte) {
+        int n = numTransicoes[faixa];
+        int[] eventos = transicoes[faixa];
+        if (n + 3 > eventos.length) {
+            eventos = Arrays.copyOf(eventos, eventos.length * 2);
+            transicoes[faixa] = eventos;
+        }
+        eventos[n] = identidade;
+        eventos[n + 1] = tipo;
+        eventos[n + 2] = fonte;
+        numTransicoes[faixa] = n + 3;
+    }
+
+    /**
+     * Entrega uma transição ao rastro e à análise dos surtos, os que estiverem ativos.
+     *
+     * @param tipo        O tipo da transição.
+     * @param identidade  A identidade da pessoa.
+     * @param fonte       A fonte da transição.
+     */
+    private void entregarTransicao(int tipo, int identidade, int fonte) {
+        if (rastro != null) {
+            rastro.registrar(tipo, identidade, fonte);
+        }
+        if (analise != null) {
+            analise.registrar(tipo, identidade, fonte);
+        }
+    }
+
+    /**
+     * Procura o primeiro ator do tipo informado que alcança uma posição.
+     *
+     * @param tipo  O tipo do ator.
+     * @param x     A coordenada X da posição.
+     * @param y     A coordenada Y da posição.
+     * @return O índice do ator em getAtores(), ou -1 se nenhum alcança a posição.
+     */
+    private int atorProximo(int tipo, int x, int y) {
+        for (int k = 0; k < atores.size(); k++) {
+            IAtor ator = atores.get(k);
+            if (ator.getTipo() == tipo && proximo(x, y, ator.getX(), ator.getY(), raio)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Indica se uma pessoa com o estado e a resistência informados conta como bem informada resistente.
+     *
+     * @param estado          O estado de informação da pessoa.
+     * @param resistenciaAte  A iteração até a qual a pessoa é resistente (exclusiva).
+     * @param iteracao        A iteração corrente.
+     * @return 1 se a pessoa for bem informada e resistente, ou 0 caso contrário.
+     */
+    private static int resistente(byte estado, long resistenciaAte, long iteracao) {
+        return estado == Populacao.BEM_INFORMADA && iteracao < resistenciaAte ? 1 : 0;
+    }
+
+    /**
+     * Calcula o estado da pessoa na próxima iteração a partir do estado atual dela e dos vizinhos.
+     * Apenas a agenda de contatos da própria pessoa e a vaga seguinte do seu registro são escritas.
+     *
+     * @param i            O identificador da pessoa.
+     * @param estado       O estado atual da pessoa, já lido do registro por processarFaixa.
+     * @param resistencia  A resistência atual da pessoa, já lida do registro por processarFaixa.
+     * @return O número de vizinhos adicionados pela primeira vez à agenda de contatos da pessoa.
+     */
+    private int processarPessoa(int i, byte estado, long resistencia) {
+        long posicaoI = populacao.getPosicao(i);
+        int x = (int) posicaoI;
+        int y = (int) (posicaoI >>> 32);
+        boolean malInformada = estado == Populacao.MAL_INFORMADA;
+        long iteracao = populacao.iteracao;
+        int identidadeI = populacao.getIdentidade(i);
+
+        /**
+         * Percorre apenas os baldes que cobrem a vizinhança (distância de até raio unidades em qualquer direção),
+         * respeitando as bordas do mapa, e confere a distância de cada pessoa encontrada.
+         */
+        boolean vizinhoMalInformado = false;
+        int[] fontes = fontesProximas;
+        int fonte = Integer.MAX_VALUE;
+        int novosContatos = 0;
+        int bxMin = indice.baldeLinha(Math.max(0, x - raio));
+        int bxMax = indice.baldeLinha(Math.min(indice.getLinhas() - 1, x + raio));
+        int byMin = indice.baldeColuna(Math.max(0, y - raio));
+        int byMax = indice.baldeColuna(Math.min(indice.getColunas() - 1, y + raio));
+        for (int cx = bxMin; cx <= bxMax; cx++) {
+            for (int cy = byMin; cy <= byMax; cy++) {
+                for (int j = indice.primeiro(cx, cy); j != IndiceEspacial.VAZIO; j = indice.proximo(j)) {
+                    long posicao = populacao.getPosicao(j);
+                    if (j == i || !proximo(x, y, (int) posicao, (int) (posicao >>> 32), raio)) {
+                        continue;
+                    }
+                    // Troca números de Whatsapp; o vizinho adiciona esta pessoa quando for processado.
+                    int identidadeJ = populacao.getIdentidade(j);
+                    if (populacao.contatos.adicionar(identidadeI, identidadeJ)) {
+                        novosContatos++;
+                    }
+                    if (populacao.isMalInformada(j)) {
+                        vizinhoMalInformado = true;
+                        if (fontes != null) {
+                            fonte = Math.min(fonte, identidadeJ);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Consulta de uma vez quais tipos de atores alcançam a pessoa.
+        int atoresProximos = indiceAtores.tiposProximos(x, y);
+
+        byte novoEstado = estado;
+        if (malInformada) {
+            // A IADestruidoraFakeNews transforma uma pessoa mal informada próxima em bem informada.
+            if ((atoresProximos & (1 << IAtor.DESTRUIDORA)) != 0) {
+                novoEstado = Populacao.BEM_INFORMADA;
+            }
+        } else {
+            // Um vizinho mal informado espalha a fake news se a resistência da pessoa expirou.
+            if (vizinhoMalInformado && iteracao >= resistencia) {
+                novoEstado = Populacao.MAL_INFORMADA;
+            }
+            // A IAGeradoraFakeNews transforma uma pessoa bem informada próxima em mal informada.
+            if ((atoresProximos & (1 << IAtor.GERADORA)) != 0) {
+                novoEstado = Populacao.MAL_INFORMADA;
+            }
+        }
+
+        // O MeioComunicacaoConfiavel dá resistência à fake news a quem estiver próximo.
+        if ((atoresProximos & (1 << IAtor.MEIO_CONFIAVEL)) != 0) {
+            resistencia = iteracao + duracaoResistencia;
+        }
+
+        populacao.definirProximo(i, novoEstado, resistencia);
+        if (fontes != null) {
+            fontes[i] = (atoresProximos & (1 << IAtor.GERADORA)) != 0 ? -1 : fonte;
+        }
+        return novosContatos;
+    }
+
+    /**
+     * Verifica se duas posições estão a uma distância de no máximo raio unidades em qualquer direção.
+     *
+     * @param x     A coordenada X da primeira posição.
+     * @param y     A coordenada Y da primeira posição.
+     * @param ax    A coordenada X da segunda posição.
+     * @param ay    A coordenada Y da segunda posição.
+     * @param raio  A distância máxima.
+     * @return true se as posições estiverem próximas.
+     */
+    static boolean proximo(int x, int y, int ax, int ay, int raio) {
+        return Math.abs(x - ax) <= raio && Math.abs(y - ay) <= raio;
+    }
+
+    /**
+     * Classe TarefaFaixas representa um intervalo de faixas do mapa a ser processado.
+     * O intervalo é dividido ao meio até restar uma única faixa por tarefa. As subtarefas são criadas junto com a
+     * tarefa e reiniciadas a cada execução, para que as iterações não aloquem novas tarefas.
+     */
+    private final class TarefaFaixas extends RecursiveAction {
+        /**
+         * Versão de serialização da tarefa.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Primeira faixa do intervalo (inclusiva).
+         */
+        private final int inicio;
+
+        /**
+         * Última faixa do intervalo (exclusiva).
+         */
+        private final int fim;
+
+        /**
+         * Subtarefa com a primeira metade do intervalo, ou null se a tarefa processa uma única faixa.
+         */
+        private final TarefaFaixas primeiraMetade;
+
+        /**
+         * Subtarefa com a segunda metade do intervalo, ou null se a tarefa processa uma única faixa.
+         */
+        private final TarefaFaixas segundaMetade;
+
+        /**
+         * Construtor da classe TarefaFaixas.
+         *
+         * @param inicio  A primeira faixa do intervalo.
+         * @param fim     A faixa seguinte à última do intervalo.
+         */
+        TarefaFaixas(int inicio, int fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+            if (fim - inicio <= 1) {
+                this.primeiraMetade = null;
+                this.segundaMetade = null;
+            } else {
+                int meio = (inicio + fim) >>> 1;
+                this.primeiraMetade = new TarefaFaixas(inicio, meio);
+                this.segundaMetade = new TarefaFaixas(meio, fim);
+            }
+        }
+
+        @Override
+        protected void compute() {
+            if (primeiraMetade == null) {
+                if (fim > inicio) {
+                    processarFaixa(inicio);
+                }
+                return;
+            }
+            primeiraMetade.reinitialize();
+            segundaMetade.reinitialize();
+            invokeAll(primeiraMetade, segundaMetade);
+        }
+    }
+
+    /**
+     * Classe TarefaMovimento representa um intervalo de pessoas a serem movidas.
+     * O intervalo é dividido ao meio até ficar com no máximo PESSOAS_POR_BLOCO pessoas. Como em TarefaFaixas,
+     * as subtarefas são criadas junto com a tarefa e reiniciadas a cada execução.
+     */
+    private final class TarefaMovimento extends RecursiveAction {
+        /**
+         * Versão de serialização da tarefa.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Primeira pessoa do intervalo (inclusiva).
+         */
+        private final int inicio;
+
+        /**
+         * Última pessoa do intervalo (exclusiva).
+         */
+        private final int fim;
+
+        /**
+         * Subtarefa com a primeira metade do intervalo, ou null se a tarefa move as pessoas diretamente.
+         */
+        private final TarefaMovimento primeiraMetade;
+
+        /**
+         * Subtarefa com a segunda metade do intervalo, ou null se a tarefa move as pessoas diretamente.
+         */
+        private final TarefaMovimento segundaMetade;
+
+        /**
+         * Construtor da classe TarefaMovimento.
+         *
+         * @param inicio  A primeira pessoa do intervalo.
+         * @param fim     A pessoa seguinte à última do intervalo.
+         */
+        TarefaMovimento(int inicio, int fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+            if (fim - inicio <= PESSOAS_POR_BLOCO) {
+                this.primeiraMetade = null;
+                this.segundaMetade = null;
+            } else {
+                int meio = (inicio + fim) >>> 1;
+                this.primeiraMetade = new TarefaMovimento(inicio, meio);
+                this.segundaMetade = new TarefaMovimento(meio, fim);
+            }
+        }
+
+        @Override
+        protected void compute() {
+            if (primeiraMetade == null) {
+                moverPessoas(inicio, fim);
+                return;
+            }
+            primeiraMetade.reinitialize();
+            segundaMetade.reinitialize();
+            invokeAll(primeiraMetade, segundaMetade);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+/**
+ * Classe MovimentoPessoas representa as estratégias de movimento das pessoas e o núcleo que move um bloco de pessoas
+ * de uma vez. Cada pessoa segue uma de três estratégias, sorteada uma única vez a partir da sua identidade:
+ *
+ * - PASSEIO: um passo aleatório para cima, para baixo, para a esquerda ou para a direita (o movimento original);
+ * - POLOS: com probabilidade "atração", um passo em direção ao polo da pessoa (um ponto de encontro do mapa, como um
+ *   centro comercial), pelo caminho mais curto no mapa toroidal; caso contrário, um passo aleatório;
+ * - LEVY: um voo de Lévy, com direção uniforme e comprimento L sorteado com P(L >= k) = k^(-expoente), limitado à
+ *   metade do mapa, de modo que a maioria dos passos é curta e alguns poucos são saltos longos.
+ *
+ * O núcleo em lote (moverLote) percorre um bloco de registros seguidos da população, sorteia o deslocamento de cada
+ * pessoa e o aplica diretamente ao registro, com a volta nas bordas do mapa feita por aritmética sem desvios. Quando
+ * todas as pessoas passeiam, o sorteio também não tem desvios. Nenhum array auxiliar por pessoa é usado, então o heap
+ * não cresce com a população. A versão por pessoa (mover) é usada pela interface IMovable.
+ *
+ * Como no movimento original, o sorteio depende apenas da semente, da identidade da pessoa e da iteração, então
+ * pessoas diferentes podem ser movidas em paralelo e em qualquer ordem.
+ */
+class MovimentoPessoas {
+    /**
+     * Estratégia do passeio aleatório.
+     */
+    public static final int PASSEIO = 0;
+
+    /**
+     * Estratégia da atração pelos polos.
+     */
+    public static final int POLOS = 1;
+
+    /**
+     * Estratégia dos voos de Lévy.
+     */
+    public static final int LEVY = 2;
+
+    /**
+     * Número de bits do sorteio usados na direção de um voo de Lévy.
+     */
+    private static final int BITS_DIRECAO = 11;
+
+    /**
+     * Número de direções possíveis de um voo de Lévy.
+     */
+    private static final int DIRECOES = 1 << BITS_DIRECAO;
+
+    /**
+     * Escala dos limiares sorteados com 32 bits.
+     */
+    private static final double ESCALA_32 = 0x1p32;
+
+    /**
+     * Escala dos limiares sorteados com 53 bits.
+     */
+    private static final double ESCALA_53 = 0x1p53;
+
+    /**
+     * População cujas pessoas são movidas.
+     */
+    private final Populacao populacao;
+
+    /**
+     * Indica se todas as pessoas passeiam, caso em que a estratégia de cada uma não precisa ser consultada.
+     */
+    private boolean apenasPasseio = true;
+
+    /**
+     * Fração das pessoas atraídas pelos polos.
+     */
+    private double fracaoPolos;
+
+    /**
+     * Probabilidade de uma pessoa atraída pelos polos dar o passo em direção ao seu polo.
+     */
+    private double atracaoPolos;
+
+    /**
+     * Fração das pessoas que fazem voos de Lévy.
+     */
+    private double fracaoLevy;
+
+    /**
+     * Expoente da distribuição do comprimento dos voos de Lévy.
+     */
+    private double expoenteLevy;
+
+    /**
+     * Limiar, na escala de 32 bits, abaixo do qual o sorteio da estratégia resulta em POLOS.
+     */
+    private long limitePolos;
+
+    /**
+     * Limiar, na escala de 32 bits, abaixo do qual o sorteio da estratégia resulta em POLOS ou LEVY.
+     */
+    private long limiteLevy;
+
+    /**
+     * Limiar, na escala de 32 bits, abaixo do qual uma pessoa atraída pelos polos dá o passo em direção ao polo.
+     */
+    private long limiteAtracao;
+
+    /**
+     * Linha de cada polo.
+     */
+    private int[] polosX = new int[0];
+
+    /**
+     * Coluna de cada polo.
+     */
+    private int[] polosY = new int[0];
+
+    /**
+     * P(L >= k + 1) de um voo de Lévy, na escala de 53 bits, para k de 0 até o comprimento máximo menos 1.
+     */
+    private long[] limiaresLevy = new long[0];
+
+    /**
+     * Cosseno de cada direção dos voos de Lévy.
+     */
+    private double[] cossenos = new double[0];
+
+    /**
+     * Seno de cada direção dos voos de Lévy.
+     */
+    private double[] senos = new double[0];
+
+    /**
+     * Construtor da classe MovimentoPessoas. Todas as pessoas começam passeando.
+     *
+     * @param populacao  A população cujas pessoas são movidas.
+     */
+    public MovimentoPessoas(Populacao populacao) {
+        this.populacao = populacao;
+    }
+
+    /**
+     * Define as estratégias de movimento. Os polos são sorteados a partir da semente da simulação, então a mesma
+     * semente e o mesmo mapa produzem sempre os mesmos polos.
+     *
+     * @param linhas        O número de linhas do mapa.
+     * @param colunas       O número de colunas do mapa.
+     * @param fracaoPolos   A fração das pessoas atraídas pelos polos.
+     * @param numPolos      O número de polos, maior que zero se fracaoPolos for maior que zero.
+     * @param atracaoPolos  A probabilidade de uma pessoa atraída dar o passo em direção ao seu polo.
+     * @param fracaoLevy    A fração das pessoas que fazem voos de Lévy.
+     * @param expoenteLevy  O expoente da distribuição do comprimento dos voos, maior que zero.
+     * @throws IllegalArgumentException Se algum parâmetro estiver fora do intervalo permitido.
+     */
+    public void configurar(int linhas, int colunas, double fracaoPolos, int numPolos, double atracaoPolos,
+                           double fracaoLevy, double expoenteLevy) {
+        if (fracaoPolos < 0 || fracaoLevy < 0 || fracaoPolos + fracaoLevy > 1) {
+            throw new IllegalArgumentException("As frações de pessoas atraídas pelos polos e em voos de Lévy devem somar no máximo 1.");
+        }
+        if (atracaoPolos < 0 || atracaoPolos > 1) {
+            throw new IllegalArgumentException("A atração dos polos deve estar entre 0 e 1.");
+        }
+        if (fracaoPolos > 0 && numPolos <= 0) {
+            throw new IllegalArgumentException("O número de polos deve ser maior que zero.");
+        }
+        if (fracaoLevy > 0 && !(expoenteLevy > 0)) {
+            throw new IllegalArgumentException("O expoente dos voos de Lévy deve ser maior que zero.");
+        }
+        this.fracaoPolos = fracaoPolos;
+        this.atracaoPolos = atracaoPolos;
+        this.fracaoLevy = fracaoLevy;
+        this.expoenteLevy = expoenteLevy;
+        this.limitePolos = (long) (fracaoPolos * ESCALA_32);
+        this.limiteLevy = limitePolos + (long) (fracaoLevy * ESCALA_32);
+        this.limiteAtracao = (long) (atracaoPolos * ESCALA_32);
+        this.apenasPasseio = limiteLevy == 0;
+
+        GeradorAleatorio gerador = populacao.getGerador();
+        int polos = fracaoPolos > 0 ? numPolos : 0;
+        polosX = new int[polos];
+        polosY = new int[polos];
+        for (int k = 0; k < polos; k++) {
+            long sorteio = gerador.sortear(k, 0, GeradorAleatorio.FLUXO_POLOS);
+            polosX[k] = (int) (((sorteio >>> 32) * linhas) >>> 32);
+            polosY[k] = (int) (((sorteio & 0xFFFFFFFFL) * colunas) >>> 32);
+        }
+
+        if (fracaoLevy > 0) {
+            // As tabelas usam StrictMath para que os voos sejam os mesmos em qualquer JVM.
+            int comprimentoMaximo = Math.max(1, Math.max(linhas, colunas) / 2);
+            limiaresLevy = new long[comprimentoMaximo];
+            for (int k = 0; k < comprimentoMaximo; k++) {
+                limiaresLevy[k] = (long) (StrictMath.pow(k + 1, -expoenteLevy) * ESCALA_53);
+            }
+            cossenos = new double[DIRECOES];
+            senos = new double[DIRECOES];
+            for (int d = 0; d < DIRECOES; d++) {
+                double angulo = 2 * StrictMath.PI * d / DIRECOES;
+                cossenos[d] = StrictMath.cos(angulo);
+                senos[d] = StrictMath.sin(angulo);
+            }
+        }
+    }
+
+    /**
+     * Move as pessoas de um intervalo de posições dos registros: sorteia o deslocamento de cada uma e o aplica à sua
+     * posição. Intervalos disjuntos podem ser movidos em paralelo.
+     *
+     * @param inicio  A primeira pessoa do intervalo.
+     * @param fim     A pessoa seguinte à última do intervalo.
+     * @param maxX    O número de linhas do mapa.
+     * @param maxY    O número de colunas do mapa.
+     */
+    public void moverLote(int inicio, int fim, int maxX, int maxY) {
+        GeradorAleatorio gerador = populacao.getGerador();
+        long iteracao = populacao.iteracao;
+        if (apenasPasseio) {
+            for (int i = inicio; i < fim; i++) {
+                int direcao = (int) (gerador.sortear(populacao.getIdentidade(i), iteracao, GeradorAleatorio.FLUXO_MOVIMENTO) >>> 62);
+                int sinal = 1 - (direcao & 2);
+                long posicao = populacao.getPosicao(i);
+                populacao.setPosicao(i, voltar((int) posicao + (direcao & 1) * sinal, maxX),
+                        voltar((int) (posicao >>> 32) + (1 - (direcao & 1)) * sinal, maxY));
+            }
+        } else {
+            for (int i = inicio; i < fim; i++) {
+                mover(i, maxX, maxY);
+            }
+        }
+    }
+
+    /**
+     * Move uma única pessoa, com o mesmo sorteio de moverLote.
+     *
+     * @param id    A posição da pessoa nos registros da população.
+     * @param maxX  O número de linhas do mapa.
+     * @param maxY  O número de colunas do mapa.
+     */
+    public void mover(int id, int maxX, int maxY) {
+        long deslocamento = deslocamento(id, maxX, maxY);
+        long posicao = populacao.getPosicao(id);
+        populacao.setPosicao(id, voltar((int) posicao + (int) (deslocamento >> 32), maxX),
+                voltar((int) (posicao >>> 32) + (int) deslocamento, maxY));
+    }
+
+    /**
+     * Retorna a estratégia de movimento de uma pessoa.
+     *
+     * @param identidade  A identidade da pessoa.
+     * @return PASSEIO, POLOS ou LEVY.
+     */
+    public int estrategia(int identidade) {
+        if (apenasPasseio) {
+            return PASSEIO;
+        }
+        long faixa = populacao.getGerador().sortear(identidade, 0, GeradorAleatorio.FLUXO_ESTRATEGIA) >>> 32;
+        if (faixa < limitePolos) {
+            return POLOS;
+        }
+        return faixa < limiteLevy ? LEVY : PASSEIO;
+    }
+
+    /**
+     * Sorteia o deslocamento de uma pessoa na iteração corrente, de acordo com a sua estratégia.
+     * Cada componente fica estritamente entre -max e max, como exige voltar.
+     *
+     * @param id    A posição da pessoa nos registros da população.
+     * @param maxX  O número de linhas do mapa.
+     * @param maxY  O número de colunas do mapa.
+     * @return O deslocamento horizontal nos 32 bits altos e o vertical nos 32 bits baixos.
+     */
+    private long deslocamento(int id, int maxX, int maxY) {
+        GeradorAleatorio gerador = populacao.getGerador();
+        int identidade = populacao.getIdentidade(id);
+        long sorteio = gerador.sortear(identidade, populacao.iteracao, GeradorAleatorio.FLUXO_MOVIMENTO);
+        if (!apenasPasseio) {
+            long perfil = gerador.sortear(identidade, 0, GeradorAleatorio.FLUXO_ESTRATEGIA);
+            long faixa = perfil >>> 32;
+            if (faixa < limitePolos) {
+                if ((sorteio & 0xFFFFFFFFL) < limiteAtracao) {
+                    int polo = (int) (((perfil & 0xFFFFFFFFL) * polosX.length) >>> 32);
+                    int distanciaX = menorDistancia(polosX[polo] - populacao.getX(id), maxX);
+                    int distanciaY = menorDistancia(polosY[polo] - populacao.getY(id), maxY);
+                    if (distanciaX != 0 || distanciaY != 0) {
+                        if (Math.abs(distanciaX) >= Math.abs(distanciaY)) {
+                            return juntar(Integer.signum(distanciaX), 0);
+                        }
+                        return juntar(0, Integer.signum(distanciaY));
+                    }
+                }
+            } else if (faixa < limiteLevy) {
+                int comprimento = comprimentoLevy(sorteio >>> BITS_DIRECAO);
+                int direcao = (int) (sorteio & (DIRECOES - 1));
+                int dx = (int) (Math.round(comprimento * cossenos[direcao]) % maxX);
+                int dy = (int) (Math.round(comprimento * senos[direcao]) % maxY);
+                return juntar(dx, dy);
+            }
+        }
+        // Passeio: 0 move para cima, 1 para a direita, 2 para baixo e 3 para a esquerda.
+        int direcao = (int) (sorteio >>> 62);
+        int sinal = 1 - (direcao & 2);
+        return juntar((direcao & 1) * sinal, (1 - (direcao & 1)) * sinal);
+    }
+
+    /**
+     * Calcula o comprimento de um voo de Lévy: o maior k com P(L >= k) acima do sorteio, por busca binária nos limiares.
+     *
+     * @param sorteio  Um número aleatório de 53 bits.
+     * @return O comprimento do voo, entre 1 e o comprimento máximo.
+     */
+    private int comprimentoLevy(long sorteio) {
+        int baixo = 0;
+        int alto = limiaresLevy.length - 1;
+        while (baixo < alto) {
+            int meio = (baixo + alto + 1) >>> 1;
+            if (sorteio < limiaresLevy[meio]) {
+                baixo = meio;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return baixo + 1;
+    }
+
+    /**
+     * Traz de volta ao mapa uma coordenada que saiu dele por no máximo uma volta.
+     *
+     * @param v    A coordenada, estritamente entre -max e 2 * max.
+     * @param max  O tamanho do mapa nesta coordenada.
+     * @return A coordenada entre 0 e max - 1.
+     */
+    private static int voltar(int v, int max) {
+        v += (v >> 31) & max;
+        v -= ((max - 1 - v) >> 31) & max;
+        return v;
+    }
+
+    /**
+     * Calcula a diferença entre duas coordenadas pelo caminho mais curto no mapa toroidal.
+     *
+     * @param diferenca  A diferença direta, estritamente entre -max e max.
+     * @param max        O tamanho do mapa nesta coordenada.
+     * @return A diferença equivalente entre -max / 2 e max / 2.
+     */
+    private static int menorDistancia(int diferenca, int max) {
+        if (diferenca > max / 2) {
+            return diferenca - max;
+        }
+        if (diferenca < -max / 2) {
+            return diferenca + max;
+        }
+        return diferenca;
+    }
+
+    /**
+     * Junta os dois componentes de um deslocamento em um único long.
+     *
+     * @param dx  O deslocamento horizontal.
+     * @param dy  O deslocamento vertical.
+     * @return O deslocamento horizontal nos 32 bits altos e o vertical nos 32 bits baixos.
+     */
+    private static long juntar(int dx, int dy) {
+        return ((long) dx << 32) | (dy & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Retorna a fração das pessoas atraídas pelos polos.
+     *
+     * @return A fração, entre 0 e 1.
+     */
+    public double getFracaoPolos() {
+        return fracaoPolos;
+    }
+
+    /**
+     * Retorna o número de polos.
+     *
+     * @return O número de polos, ou zero se nenhuma pessoa é atraída por eles.
+     */
+    public int getNumPolos() {
+        return polosX.length;
+    }
+
+    /**
+     * Retorna a probabilidade de uma pessoa atraída dar o passo em direção ao seu polo.
+     *
+     * @return A probabilidade, entre 0 e 1.
+     */
+    public double getAtracaoPolos() {
+        return atracaoPolos;
+    }
+
+    /**
+     * Retorna a fração das pessoas que fazem voos de Lévy.
+     *
+     * @return A fração, entre 0 e 1.
+     */
+    public double getFracaoLevy() {
+        return fracaoLevy;
+    }
+
+    /**
+     * Retorna o expoente da distribuição do comprimento dos voos de Lévy.
+     *
+     * @return O expoente.
+     */
+    public double getExpoenteLevy() {
+        return expoenteLevy;
+    }
+
+    /**
+     * Retorna a linha de um polo.
+     *
+     * @param k  O índice do polo.
+     * @return A linha do polo.
+     */
+    public int getPoloX(int k) {
+        return polosX[k];
+    }
+
+    /**
+     * Retorna a coluna de um polo.
+     *
+     * @param k  O índice do polo.
+     * @return A coluna do polo.
+     */
+    public int getPoloY(int k) {
+        return polosY[k];
+    }
+}
@@ -0,0 +1,859 @@
+/**
+ * Importa a classe IOException para tratar erros de criação do arquivo dos registros.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe ByteBuffer para escrever vários campos de um registro no mesmo segmento da memória.
+ */
+import java.nio.ByteBuffer;
+
+/**
+ * Importa a classe Path para representar o arquivo dos registros.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe List para trabalhar com listas.
+ */
+import java.util.List;
+
+/**
+ * Classe Populacao representa o armazenamento de todas as pessoas da simulação.
+ * O estado de cada pessoa é guardado fora do heap do Java, em um registro de tamanho fixo (BYTES_REGISTRO bytes) de uma
+ * MemoriaForaHeap: posição, identidade, estado de informação e resistência a fake news. Uma mudança de estado é apenas
+ * uma escrita no registro, sem criar novos objetos nem procurar a pessoa em uma lista, e o heap não cresce com o número
+ * de pessoas. Os registros podem ser mapeados a partir de um arquivo (mapear), para que a população passe do tamanho
+ * da memória física, e são gravados sem conversão nos instantâneos (copiarRegistros).
+ * As classes Pessoa, PessoaBemInformada e PessoaMalInformada são visões sobre este armazenamento,
+ * obtidas por meio de Pessoa.visao.
+ *
+ * Cada registro tem duas vagas para o estado e duas para a resistência: a vaga atual, lida por todos, e a próxima,
+ * escrita pelo MotorTick durante a fase de interações (definirProximo). Ao fim da fase, trocarEstados inverte a
+ * paridade que escolhe a vaga atual, e o estado calculado passa a valer sem nenhuma cópia.
+ *
+ * Os contadores de pessoas mal informadas e de bem informadas resistentes são mantidos a cada mudança de estado,
+ * e as expirações de resistência ficam agendadas em uma RodaExpiracao. Assim, as estatísticas de cada iteração
+ * custam O(mudanças), e não O(pessoas).
+ *
+ * As pessoas podem ser reordenadas nos registros (permutar), para que pessoas próximas no mapa fiquem próximas na
+ * memória. Por isso, cada pessoa tem uma posição nos registros e uma identidade, guardada no registro, que não muda com
+ * a reordenação. A identidade é a usada nos sorteios, nas agendas de contatos e nas mensagens; enquanto a população não
+ * é reordenada, as duas coincidem. A posição de cada identidade (lugar) fica em outra região fora do heap.
+ *
+ * Na simulação distribuída, cada TrabalhadorFaixa guarda apenas as pessoas da sua faixa do mapa, com as identidades
+ * da simulação inteira: as pessoas chegam e saem da faixa por adicionar(identidade, ...) e remover, e as estruturas
+ * indexadas pela identidade (lugar e as agendas de contatos) cobrem todas as identidades.
+ *
+ * Continuam no heap, com uma posição por pessoa, apenas as estruturas auxiliares do índice espacial, da roda de
+ * expiração, da reordenação e da análise dos surtos.
+ */
+class Populacao {
+    /**
+     * Estado de uma pessoa bem informada.
+     */
+    public static final byte BEM_INFORMADA = 0;
+
+    /**
+     * Estado de uma pessoa mal informada.
+     */
+    public static final byte MAL_INFORMADA = 1;
+
+    /**
+     * Tamanho, em bytes, do registro de cada pessoa. É uma potência de 2, para que nenhum registro atravesse o limite
+     * entre dois segmentos da MemoriaForaHeap.
+     */
+    static final int BYTES_REGISTRO = 32;
+
+    /**
+     * Posição, no registro, da posição horizontal da pessoa.
+     */
+    private static final int REGISTRO_X = 0;
+
+    /**
+     * Posição, no registro, da posição vertical da pessoa.
+     */
+    private static final int REGISTRO_Y = 4;
+
+    /**
+     * Posição, no registro, da identidade da pessoa.
+     */
+    private static final int REGISTRO_IDENTIDADE = 8;
+
+    /**
+     * Posição, no registro, das duas vagas do estado de informação (BEM_INFORMADA ou MAL_INFORMADA), de um byte cada.
+     */
+    private static final int REGISTRO_ESTADO = 12;
+
+    /**
+     * Posição, no registro, das duas vagas da iteração até a qual a pessoa permanece resistente a notícias falsas
+     * (exclusiva), de oito bytes cada. A pessoa é resistente enquanto a iteração corrente for menor que este valor.
+     */
+    private static final int REGISTRO_RESISTENCIA = 16;
+
+    /**
+     * Registros das pessoas, indexados pela posição.
+     */
+    private MemoriaForaHeap registros;
+
+    /**
+     * Número de pessoas cobertas pelos registros.
+     */
+    private int capacidade;
+
+    /**
+     * Vaga atual do estado e da resistência em cada registro (0 ou 1).
+     */
+    private int paridade;
+
+    /**
+     * Posição nos registros da pessoa de cada identidade, um int por identidade.
+     */
+    private final MemoriaForaHeap lugares;
+
+    /**
+     * Número de identidades cobertas por lugares.
+     */
+    private int capacidadeLugares;
+
+    /**
+     * Região onde permutar monta os registros na nova ordem, ou null enquanto a população não foi reordenada.
+     */
+    private MemoriaForaHeap rascunho;
+
+    /**
+     * Agendas de contatos do Whatsapp de todas as pessoas, indexadas pela identidade.
+     */
+    final GrafoContatos contatos;
+
+    /**
+     * Gerador de números aleatórios usado para sortear o movimento das pessoas.
+     */
+    private final GeradorAleatorio gerador;
+
+    /**
+     * Relógio da simulação: número da iteração em execução. É usado junto com o identificador da pessoa
+     * para sortear o movimento e para saber até quando a resistência a fake news vale.
+     */
+    long iteracao;
+
+    /**
+     * Número de pessoas armazenadas.
+     */
+    private int tamanho;
+
+    /**
+     * Número de pessoas mal informadas.
+     */
+    private long malInformadas;
+
+    /**
+     * Número de pessoas bem informadas cuja resistência a fake news ainda não expirou na iteração corrente.
+     */
+    private long resistentes;
+
+    /**
+     * Roda com as iterações em que a resistência de cada pessoa resistente expira.
+     */
+    private final RodaExpiracao roda;
+
+    /**
+     * Estratégias de movimento das pessoas e núcleo que move um bloco de pessoas de uma vez.
+     */
+    private final MovimentoPessoas movimento;
+
+    /**
+     * Gravador do rastro de transições, que recebe as perdas de resistência, ou null.
+     */
+    private GravadorRastro rastro;
+
+    /**
+     * Construtor da classe Populacao.
+     *
+     * @param capacidade  O número de pessoas esperado, usado para dimensionar os registros.
+     * @param gerador     O gerador de números aleatórios da simulação.
+     */
+    public Populacao(int capacidade, GeradorAleatorio gerador) {
+        this(new MemoriaForaHeap(), new MemoriaForaHeap(), capacidade, gerador);
+    }
+
+    /**
+     * Construtor da classe Populacao com as regiões dos registros e dos lugares obtidas de um reservatório.
+     * As regiões podem ter conteúdo de uma simulação anterior, pois cada registro é escrito por adicionar antes de ser
+     * lido.
+     *
+     * @param capacidade    O número de pessoas esperado, usado para dimensionar os registros.
+     * @param gerador       O gerador de números aleatórios da simulação.
+     * @param reservatorio  O reservatório de onde as regiões são obtidas.
+     */
+    public Populacao(int capacidade, GeradorAleatorio gerador, ReservatorioMemoria reservatorio) {
+        this(reservatorio.obter((long) capacidade * BYTES_REGISTRO), reservatorio.obter((long) capacidade * Integer.BYTES),
+                capacidade, gerador);
+    }
+
+    /**
+     * Construtor da classe Populacao sobre regiões já existentes. Os registros de um instantâneo são usados
+     * diretamente por este construtor, seguido de restaurar.
+     *
+     * @param registros   A região dos registros das pessoas.
+     * @param lugares     A região dos lugares das identidades.
+     * @param capacidade  O número de pessoas esperado, usado para dimensionar os registros.
+     * @param gerador     O gerador de números aleatórios da simulação.
+     */
+    Populacao(MemoriaForaHeap registros, MemoriaForaHeap lugares, int capacidade, GeradorAleatorio gerador) {
+        this.gerador = gerador;
+        this.registros = registros;
+        this.lugares = lugares;
+        garantirRegistros(capacidade);
+        garantirLugares(capacidade);
+        this.contatos = new GrafoContatos(capacidade);
+        this.roda = new RodaExpiracao(capacidade);
+        this.movimento = new MovimentoPessoas(this);
+        this.tamanho = 0;
+    }
+
+    /**
+     * Devolve as regiões dos registros e dos lugares a um reservatório, para que sejam reaproveitadas por outra
+     * simulação. Depois desta chamada, a população não pode mais ser usada.
+     *
+     * @param reservatorio  O reservatório que recebe as regiões.
+     */
+    public void devolverMemoria(ReservatorioMemoria reservatorio) {
+        reservatorio.devolver(registros);
+        reservatorio.devolver(lugares);
+        if (rascunho != null) {
+            reservatorio.devolver(rascunho);
+        }
+        registros = null;
+        rascunho = null;
+        capacidade = 0;
+        capacidadeLugares = 0;
+        tamanho = 0;
+    }
+
+    /**
+     * Passa a guardar os registros das pessoas em um arquivo mapeado em memória, copiando os registros existentes.
+     * O arquivo é criado ou esvaziado.
+     *
+     * @param arquivo  O arquivo dos registros.
+     * @throws IOException Se não for possível criar o arquivo.
+     */
+    public void mapear(Path arquivo) throws IOException {
+        MemoriaForaHeap mapeada = new MemoriaForaHeap(arquivo);
+        mapeada.copiar(registros, (long) capacidade * BYTES_REGISTRO);
+        registros = mapeada;
+    }
+
+    /**
+     * Adiciona uma nova pessoa à população, com a identidade igual à posição que ela ocupa.
+     *
+     * @param x       A posição horizontal inicial da pessoa.
+     * @param y       A posição vertical inicial da pessoa.
+     * @param estado  O estado de informação inicial da pessoa.
+     * @return O identificador atribuído à pessoa.
+     */
+    public int adicionar(int x, int y, byte estado) {
+        int id = reservar();
+        escreverRegistro(id, id, x, y, estado, 0);
+        garantirLugares(id + 1);
+        lugares.putInt((long) id * Integer.BYTES, id);
+        this.contatos.garantirCapacidade(tamanho);
+        if (estado == MAL_INFORMADA) {
+            malInformadas++;
+        }
+        return id;
+    }
+
+    /**
+     * Adiciona uma pessoa com identidade, estado e resistência já definidos, vinda da faixa de outro processo da
+     * simulação distribuída. Os contadores e a roda de expiração são atualizados; a agenda de contatos, indexada pela
+     * identidade, deve ser restaurada à parte.
+     *
+     * @param identidade      A identidade da pessoa na simulação inteira.
+     * @param x               A posição horizontal da pessoa.
+     * @param y               A posição vertical da pessoa.
+     * @param estado          O estado de informação da pessoa.
+     * @param resistenciaAte  A iteração até a qual a pessoa é resistente (exclusiva).
+     * @return A posição da pessoa nos registros.
+     */
+    int adicionar(int identidade, int x, int y, byte estado, long resistenciaAte) {
+        int id = reservar();
+        escreverRegistro(id, identidade, x, y, estado, resistenciaAte);
+        garantirLugares(identidade + 1);
+        lugares.putInt((long) identidade * Integer.BYTES, id);
+        this.contatos.garantirCapacidade(identidade + 1);
+        if (estado == MAL_INFORMADA) {
+            malInformadas++;
+        } else if (isResistente(id)) {
+            resistentes++;
+        }
+        agendarExpiracao(id, resistenciaAte);
+        return id;
+    }
+
+    /**
+     * Retira uma pessoa da população e coloca o registro da última pessoa na posição que ela ocupava. Os contadores e a
+     * roda de expiração são atualizados; a agenda de contatos da pessoa não é alterada.
+     *
+     * @param id  A posição da pessoa nos registros.
+     */
+    void remover(int id) {
+        if (isMalInformada(id)) {
+            malInformadas--;
+        } else if (isResistente(id)) {
+            resistentes--;
+        }
+        roda.remover(id);
+        int ultima = --tamanho;
+        if (id != ultima) {
+            roda.remover(ultima);
+            copiarRegistro(registros, ultima, registros, id);
+            lugares.putInt((long) getIdentidade(id) * Integer.BYTES, id);
+            agendarExpiracao(id, getResistenciaAte(id));
+        }
+    }
+
+    /**
+     * Procura a pessoa com a identidade informada entre as pessoas armazenadas.
+     *
+     * @param identidade  A identidade da pessoa.
+     * @return A posição da pessoa nos registros, ou -1 se ela não está nesta população.
+     */
+    int procurar(int identidade) {
+        if (identidade < 0 || identidade >= capacidadeLugares) {
+            return -1;
+        }
+        int id = getLugar(identidade);
+        return id >= 0 && id < tamanho && getIdentidade(id) == identidade ? id : -1;
+    }
+
+    /**
+     * Reserva a próxima posição dos registros, aumentando a região se estiver cheia. Os segmentos da região nunca
+     * mudam de lugar, então os registros existentes não são copiados.
+     *
+     * @return A posição reservada.
+     */
+    private int reservar() {
+        if (tamanho == capacidade) {
+            garantirRegistros(Math.max(16, tamanho * 2));
+        }
+        return tamanho++;
+    }
+
+    /**
+     * Garante que a região dos registros comporte o número de pessoas informado.
+     *
+     * @param pessoas  O número mínimo de pessoas.
+     */
+    private void garantirRegistros(int pessoas) {
+        if (pessoas <= capacidade) {
+            return;
+        }
+        registros.garantir((long) pessoas * BYTES_REGISTRO);
+        capacidade = (int) Math.min(Integer.MAX_VALUE, registros.getCapacidade() / BYTES_REGISTRO);
+    }
+
+    /**
+     * Garante que a região dos lugares comporte o número de identidades informado.
+     *
+     * @param identidades  O número mínimo de identidades.
+     */
+    private void garantirLugares(int identidades) {
+        if (identidades <= capacidadeLugares) {
+            return;
+        }
+        lugares.garantir(Math.max(identidades, capacidadeLugares * 2L) * Integer.BYTES);
+        capacidadeLugares = (int) Math.min(Integer.MAX_VALUE, lugares.getCapacidade() / Integer.BYTES);
+    }
+
+    /**
+     * Escreve todos os campos de um registro, com o estado e a resistência na vaga atual.
+     *
+     * @param id              A posição do registro.
+     * @param identidade      A identidade da pessoa.
+     * @param x               A posição horizontal da pessoa.
+     * @param y               A posição vertical da pessoa.
+     * @param estado          O estado de informação da pessoa.
+     * @param resistenciaAte  A iteração até a qual a pessoa é resistente (exclusiva).
+     */
+    private void escreverRegistro(int id, int identidade, int x, int y, byte estado, long resistenciaAte) {
+        long registro = (long) id * BYTES_REGISTRO;
+        registros.putInt(registro + REGISTRO_X, x);
+        registros.putInt(registro + REGISTRO_Y, y);
+        registros.putInt(registro + REGISTRO_IDENTIDADE, identidade);
+        registros.putByte(registro + REGISTRO_ESTADO + paridade, estado);
+        registros.putLong(registro + REGISTRO_RESISTENCIA + 8 * paridade, resistenciaAte);
+    }
+
+    /**
+     * Copia um registro inteiro, com as duas vagas, de uma região para outra (ou para outra posição da mesma região).
+     *
+     * @param origem   A região de origem.
+     * @param de       A posição do registro na origem.
+     * @param destino  A região de destino.
+     * @param para     A posição do registro no destino.
+     */
+    private static void copiarRegistro(MemoriaForaHeap origem, int de, MemoriaForaHeap destino, int para) {
+        long registroOrigem = (long) de * BYTES_REGISTRO;
+        long registroDestino = (long) para * BYTES_REGISTRO;
+        for (int k = 0; k < BYTES_REGISTRO; k += 8) {
+            destino.putLong(registroDestino + k, origem.getLong(registroOrigem + k));
+        }
+    }
+
+    /**
+     * Retorna o gerador de números aleatórios da simulação.
+     *
+     * @return O gerador.
+     */
+    GeradorAleatorio getGerador() {
+        return gerador;
+    }
+
+    /**
+     * Retorna o número de pessoas armazenadas.
+     *
+     * @return O número de pessoas.
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Avança o relógio da simulação para a iteração informada e encerra a resistência das pessoas
+     * cuja resistência expirou, percorrendo apenas as posições da roda das iterações que passaram.
+     * Se o relógio voltar no tempo, os contadores são recalculados do zero.
+     *
+     * @param novaIteracao  A nova iteração corrente.
+     */
+    public void avancarRelogio(long novaIteracao) {
+        if (novaIteracao < iteracao) {
+            iteracao = novaIteracao;
+            recalcularContadores();
+            return;
+        }
+        long ultima = Math.min(novaIteracao, iteracao + RodaExpiracao.TAMANHO);
+        for (long t = iteracao + 1; t <= ultima; t++) {
+            int id = roda.primeiro(t);
+            while (id != RodaExpiracao.VAZIO) {
+                int seguinte = roda.proximo(id);
+                if (getResistenciaAte(id) <= novaIteracao) {
+                    roda.remover(id);
+                    if (!isMalInformada(id)) {
+                        resistentes--;
+                    }
+                    if (rastro != null) {
+                        rastro.registrar(GravadorRastro.PERDA_RESISTENCIA, getIdentidade(id), -1);
+                    }
+                }
+                id = seguinte;
+            }
+        }
+        iteracao = novaIteracao;
+    }
+
+    /**
+     * Define o gravador que recebe as perdas de resistência encontradas ao avançar o relógio.
+     *
+     * @param rastro  O gravador do rastro, ou null para não gravar.
+     */
+    public void setRastro(GravadorRastro rastro) {
+        this.rastro = rastro;
+    }
+
+    /**
+     * Recalcula os contadores e a roda de expiração percorrendo toda a população.
+     * É usado quando o estado é alterado diretamente nos registros, sem passar pelos métodos desta classe.
+     */
+    public void recalcularContadores() {
+        malInformadas = 0;
+        resistentes = 0;
+        for (int id = 0; id < tamanho; id++) {
+            if (isMalInformada(id)) {
+                malInformadas++;
+            } else if (isResistente(id)) {
+                resistentes++;
+            }
+            agendarExpiracao(id, getResistenciaAte(id));
+        }
+    }
+
+    /**
+     * Passa a usar as primeiras pessoas dos registros recebidos no construtor, lidos de um Instantaneo, remonta os
+     * lugares das identidades e recalcula os contadores e a roda de expiração.
+     *
+     * @param tamanho   O número de pessoas dos registros.
+     * @param paridade  A vaga atual do estado e da resistência nos registros (0 ou 1).
+     * @param iteracao  O relógio da simulação ao fim da iteração capturada.
+     * @throws IllegalStateException Se algum registro tiver uma identidade fora do intervalo de 0 a tamanho - 1.
+     */
+    void restaurar(int tamanho, int paridade, long iteracao) {
+        garantirRegistros(tamanho);
+        garantirLugares(tamanho);
+        this.tamanho = tamanho;
+        this.paridade = paridade;
+        for (int id = 0; id < tamanho; id++) {
+            int identidade = getIdentidade(id);
+            if (identidade < 0 || identidade >= tamanho) {
+                throw new IllegalStateException("Os registros das pessoas do instantâneo estão corrompidos.");
+            }
+            lugares.putInt((long) identidade * Integer.BYTES, id);
+        }
+        this.contatos.garantirCapacidade(tamanho);
+        this.iteracao = iteracao;
+        recalcularContadores();
+    }
+
+    /**
+     * Copia os registros de todas as pessoas para outra região, sem conversão, para um instantâneo.
+     *
+     * @param destino  A região que recebe os registros, que cresce se preciso.
+     * @return O número de bytes copiados.
+     */
+    long copiarRegistros(MemoriaForaHeap destino) {
+        long bytes = (long) tamanho * BYTES_REGISTRO;
+        destino.copiar(registros, bytes);
+        return bytes;
+    }
+
+    /**
+     * Retorna a vaga atual do estado e da resistência nos registros.
+     *
+     * @return 0 ou 1.
+     */
+    int getParidade() {
+        return paridade;
+    }
+
+    /**
+     * Reordena as pessoas nos registros. A pessoa que estava na posição ordem[k] passa para a posição k; as
+     * identidades, os contadores e as agendas de contatos não mudam, e a roda de expiração é remontada com as novas
+     * posições. Os registros são montados na nova ordem em uma região de rascunho e copiados de volta em bloco, para
+     * que a região dos registros, que pode estar mapeada em um arquivo, continue a mesma.
+     *
+     * @param ordem  A posição antiga de cada nova posição, uma permutação de 0 até tamanho() - 1.
+     */
+    void permutar(int[] ordem) {
+        int n = tamanho;
+        long bytes = (long) n * BYTES_REGISTRO;
+        if (rascunho == null) {
+            rascunho = new MemoriaForaHeap();
+        }
+        rascunho.garantir(bytes);
+        for (int k = 0; k < n; k++) {
+            copiarRegistro(registros, ordem[k], rascunho, k);
+        }
+        registros.copiar(rascunho, bytes);
+
+        roda.limpar();
+        for (int k = 0; k < n; k++) {
+            lugares.putInt((long) getIdentidade(k) * Integer.BYTES, k);
+            agendarExpiracao(k, getResistenciaAte(k));
+        }
+    }
+
+    /**
+     * Retorna a identidade da pessoa que ocupa uma posição dos registros.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @return A identidade da pessoa.
+     */
+    public int getIdentidade(int id) {
+        return registros.getInt((long) id * BYTES_REGISTRO + REGISTRO_IDENTIDADE);
+    }
+
+    /**
+     * Retorna a posição nos registros da pessoa com a identidade informada.
+     *
+     * @param identidade  A identidade da pessoa.
+     * @return A posição da pessoa nos registros.
+     */
+    public int getLugar(int identidade) {
+        return lugares.getInt((long) identidade * Integer.BYTES);
+    }
+
+    /**
+     * Retorna a posição horizontal da pessoa.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @return A linha do mapa.
+     */
+    public int getX(int id) {
+        return registros.getInt((long) id * BYTES_REGISTRO + REGISTRO_X);
+    }
+
+    /**
+     * Retorna a posição vertical da pessoa.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @return A coluna do mapa.
+     */
+    public int getY(int id) {
+        return registros.getInt((long) id * BYTES_REGISTRO + REGISTRO_Y);
+    }
+
+    /**
+     * Retorna as duas coordenadas da pessoa, lidas do registro de uma só vez.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @return A linha do mapa nos 32 bits baixos e a coluna nos 32 bits altos.
+     */
+    public long getPosicao(int id) {
+        return registros.getLong((long) id * BYTES_REGISTRO + REGISTRO_X);
+    }
+
+    /**
+     * Define as duas coordenadas da pessoa, escritas no registro de uma só vez.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @param x   A nova linha do mapa.
+     * @param y   A nova coluna do mapa.
+     */
+    public void setPosicao(int id, int x, int y) {
+        registros.putLong((long) id * BYTES_REGISTRO + REGISTRO_X, (x & 0xFFFFFFFFL) | ((long) y << 32));
+    }
+
+    /**
+     * Define a posição horizontal da pessoa.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @param x   A nova linha do mapa.
+     */
+    public void setX(int id, int x) {
+        registros.putInt((long) id * BYTES_REGISTRO + REGISTRO_X, x);
+    }
+
+    /**
+     * Define a posição vertical da pessoa.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @param y   A nova coluna do mapa.
+     */
+    public void setY(int id, int y) {
+        registros.putInt((long) id * BYTES_REGISTRO + REGISTRO_Y, y);
+    }
+
+    /**
+     * Retorna o estado de informação da pessoa.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @return BEM_INFORMADA ou MAL_INFORMADA.
+     */
+    public byte getEstado(int id) {
+        return registros.getByte((long) id * BYTES_REGISTRO + REGISTRO_ESTADO + paridade);
+    }
+
+    /**
+     * Retorna a iteração até a qual a pessoa permanece resistente a fake news (exclusiva).
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @return A iteração em que a resistência expira.
+     */
+    public long getResistenciaAte(int id) {
+        return registros.getLong((long) id * BYTES_REGISTRO + REGISTRO_RESISTENCIA + 8 * paridade);
+    }
+
+    /**
+     * Escreve na vaga seguinte do registro o estado e a resistência da pessoa na próxima iteração, sem alterar os
+     * contadores. Usado pelo MotorTick na fase de interações; cada thread escreve apenas nos registros das suas
+     * pessoas, e as outras continuam lendo a vaga atual.
+     *
+     * @param id              A posição da pessoa nos registros.
+     * @param estado          O estado na próxima iteração.
+     * @param resistenciaAte  A iteração até a qual a pessoa será resistente (exclusiva).
+     */
+    void definirProximo(int id, byte estado, long resistenciaAte) {
+        // Um registro nunca atravessa segmentos: o segmento é procurado uma só vez para os dois campos.
+        long posicao = (long) id * BYTES_REGISTRO;
+        ByteBuffer segmento = registros.segmento(posicao);
+        int registro = MemoriaForaHeap.dentroDoSegmento(posicao);
+        int vaga = paridade ^ 1;
+        segmento.put(registro + REGISTRO_ESTADO + vaga, estado);
+        segmento.putLong(registro + REGISTRO_RESISTENCIA + 8 * vaga, resistenciaAte);
+    }
+
+    /**
+     * Retorna o estado da pessoa na próxima iteração, escrito por definirProximo.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @return BEM_INFORMADA ou MAL_INFORMADA.
+     */
+    byte getEstadoProximo(int id) {
+        return registros.getByte((long) id * BYTES_REGISTRO + REGISTRO_ESTADO + (paridade ^ 1));
+    }
+
+    /**
+     * Retorna a resistência da pessoa na próxima iteração, escrita por definirProximo.
+     *
+     * @param id  A posição da pessoa nos registros.
+     * @return A iteração em que a resistência expira.
+     */
+    long getResistenciaProxima(int id) {
+        return registros.getLong((long) id * BYTES_REGISTRO + REGISTRO_RESISTENCIA + 8 * (paridade ^ 1));
+    }
+
+    /**
+     * Faz da vaga seguinte de cada registro a vaga atual, ao fim da fase de interações. Todas as pessoas devem ter
+     * recebido o estado da próxima iteração por definirProximo.
+     */
+    void trocarEstados() {
+        paridade ^= 1;
+    }
+
+    /**
+     * Retorna o número de pessoas que os registros comportam sem crescer.
+     *
+     * @return A capacidade dos registros.
+     */
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Soma aos contadores as variações acumuladas durante uma iteração pelo MotorTick.
+     *
+     * @param deltaMalInformadas  A variação do número de pessoas mal informadas.
+     * @param deltaResistentes    A variação do número de pessoas bem informadas resistentes.
+     */
+    void acumularContadores(long deltaMalInformadas, long deltaResistentes) {
+        malInformadas += deltaMalInformadas;
+        resistentes += deltaResistentes;
+    }
+
+    /**
+     * Agenda na roda a expiração da resistência da pessoa ou, se a resistência já expirou, retira a pessoa da roda.
+     * Não altera os contadores.
+     *
+     * @param id              O identificador da pessoa.
+     * @param resistenciaAte  A iteração até a qual a pessoa é resistente (exclusiva).
+     */
+    void agendarExpiracao(int id, long resistenciaAte) {
+        if (resistenciaAte > iteracao) {
+            roda.agendar(id, resistenciaAte);
+        } else {
+            roda.remover(id);
+        }
+    }
+
+    /**
+     * Retorna o número de pessoas mal informadas.
+     *
+     * @return O número de pessoas mal informadas.
+     */
+    public long getMalInformadas() {
+        return malInformadas;
+    }
+
+    /**
+     * Retorna o número de pessoas bem informadas.
+     *
+     * @return O número de pessoas bem informadas.
+     */
+    public long getBemInformadas() {
+        return tamanho - malInformadas;
+    }
+
+    /**
+     * Retorna o número de pessoas bem informadas resistentes a fake news na iteração corrente.
+     *
+     * @return O número de pessoas resistentes.
+     */
+    public long getResistentes() {
+        return resistentes;
+    }
+
+    /**
+     * Move a pessoa de acordo com a sua estratégia de movimento (por padrão, um passo em uma direção aleatória).
+     * O deslocamento depende apenas da semente, da identidade da pessoa e da iteração corrente,
+     * então pessoas diferentes podem ser movidas em paralelo e em qualquer ordem, e a reordenação não muda o sorteio.
+     *
+     * @param id    O identificador da pessoa.
+     * @param maxX  O limite horizontal do espaço de movimentação.
+     * @param maxY  O limite vertical do espaço de movimentação.
+     */
+    public void mover(int id, int maxX, int maxY) {
+        movimento.mover(id, maxX, maxY);
+    }
+
+    /**
+     * Retorna as estratégias de movimento das pessoas.
+     *
+     * @return O movimento da população.
+     */
+    public MovimentoPessoas getMovimento() {
+        return movimento;
+    }
+
+    /**
+     * Verifica se a pessoa está mal informada.
+     *
+     * @param id  O identificador da pessoa.
+     * @return true se a pessoa estiver mal informada.
+     */
+    public boolean isMalInformada(int id) {
+        return getEstado(id) == MAL_INFORMADA;
+    }
+
+    /**
+     * Verifica se a pessoa está resistente a fake news na iteração corrente.
+     *
+     * @param id  O identificador da pessoa.
+     * @return true se a resistência da pessoa ainda não expirou.
+     */
+    public boolean isResistente(int id) {
+        return iteracao < getResistenciaAte(id);
+    }
+
+    /**
+     * Define o estado de informação da pessoa.
+     *
+     * @param id      O identificador da pessoa.
+     * @param estado  O novo estado (BEM_INFORMADA ou MAL_INFORMADA).
+     */
+    public void setEstado(int id, byte estado) {
+        if (getEstado(id) == estado) {
+            return;
+        }
+        registros.putByte((long) id * BYTES_REGISTRO + REGISTRO_ESTADO + paridade, estado);
+        malInformadas += estado == MAL_INFORMADA ? 1 : -1;
+        if (isResistente(id)) {
+            resistentes += estado == BEM_INFORMADA ? 1 : -1;
+        }
+    }
+
+    /**
+     * Define até qual iteração a pessoa permanece resistente a fake news.
+     *
+     * @param id              O identificador da pessoa.
+     * @param resistenciaAte  A iteração até a qual a pessoa é resistente (exclusiva).
+     */
+    public void setResistenciaAte(int id, long resistenciaAte) {
+        if (!isMalInformada(id)) {
+            resistentes -= isResistente(id) ? 1 : 0;
+            resistentes += iteracao < resistenciaAte ? 1 : 0;
+        }
+        registros.putLong((long) id * BYTES_REGISTRO + REGISTRO_RESISTENCIA + 8 * paridade, resistenciaAte);
+        agendarExpiracao(id, resistenciaAte);
+    }
+
+    /**
+     * Retorna a agenda de contatos do Whatsapp da pessoa.
+     * A lista é somente leitura e reflete os contatos existentes no momento da chamada.
+     *
+     * @param id  O identificador da pessoa.
+     * @return A lista de contatos da pessoa.
+     */
+    public List<String> getAgendaContatos(int id) {
+        return contatos.agendaContatos(getIdentidade(id));
+    }
+
+    /**
+     * Retorna a identificação única da pessoa no Whatsapp.
+     *
+     * @param id  A identidade da pessoa.
+     * @return A identificação no formato "ID" seguido da identidade.
+     */
+    public static String whatsappID(int id) {
+        return "ID" + id;
+    }
+}
@@ -0,0 +1,389 @@
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Importa a classe ForkJoinPool para executar tarefas em paralelo.
+ */
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Importa a classe RecursiveAction para dividir o trabalho em tarefas menores.
+ */
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Classe ReordenadorMorton representa a reordenação periódica das pessoas da população pela curva de Morton (ordem Z)
+ * dos baldes do índice espacial. A chave de cada pessoa intercala os bits da linha e da coluna do balde que ela ocupa,
+ * então pessoas do mesmo balde ficam em registros seguidos da população, e baldes vizinhos no mapa ficam, em geral,
+ * próximos na memória. Na fase de interações, os vizinhos de uma pessoa passam a ser lidos de poucas linhas de cache,
+ * em vez de posições espalhadas por toda a população.
+ *
+ * As chaves são ordenadas por radix sort (LSD, 8 bits por passada), estável e sem comparações. Cada passada é dividida
+ * em blocos de pessoas: os blocos contam os dígitos em paralelo, os deslocamentos são somados em uma única thread, e os
+ * blocos distribuem as pessoas em paralelo, cada um em posições próprias. Passadas em que todas as chaves têm o mesmo
+ * dígito são puladas. O resultado não depende do número de threads.
+ */
+class ReordenadorMorton {
+    /**
+     * Número de bits do dígito ordenado em cada passada.
+     */
+    private static final int BITS_DIGITO = 8;
+
+    /**
+     * Número de valores possíveis de um dígito.
+     */
+    private static final int DIGITOS = 1 << BITS_DIGITO;
+
+    /**
+     * Número mínimo de pessoas em cada bloco, para que a contagem de cada bloco compense o custo da tarefa.
+     */
+    private static final int MIN_PESSOAS_POR_BLOCO = 1 << 16;
+
+    /**
+     * Número de blocos criados para cada thread, para equilibrar a carga entre as threads.
+     */
+    private static final int BLOCOS_POR_THREAD = 4;
+
+    /**
+     * Fase de cálculo das chaves de Morton.
+     */
+    private static final int FASE_CHAVES = 0;
+
+    /**
+     * Fase de contagem dos dígitos de cada bloco.
+     */
+    private static final int FASE_CONTAGEM = 1;
+
+    /**
+     * Fase de distribuição das pessoas de cada bloco nas posições ordenadas.
+     */
+    private static final int FASE_DISTRIBUICAO = 2;
+
+    /**
+     * População reordenada.
+     */
+    private final Populacao populacao;
+
+    /**
+     * Índice espacial que define os baldes e que é reconstruído depois de cada reordenação.
+     */
+    private final IndiceEspacial indice;
+
+    /**
+     * Pool de threads usado na ordenação, ou null para ordenar na thread que chama o reordenador.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Número de threads do pool.
+     */
+    private final int threads;
+
+    /**
+     * Chave de Morton de cada pessoa, na ordem da última passada.
+     */
+    private long[] chaves = new long[0];
+
+    /**
+     * Destino das chaves em cada passada, trocado com chaves ao fim da passada.
+     */
+    private long[] chavesAuxiliar = new long[0];
+
+    /**
+     * Posição antiga de cada pessoa, na ordem da última passada.
+     */
+    private int[] ordem = new int[0];
+
+    /**
+     * Destino das posições antigas em cada passada, trocado com ordem ao fim da passada.
+     */
+    private int[] ordemAuxiliar = new int[0];
+
+    /**
+     * Contagem de cada dígito em cada bloco e, depois da soma, a próxima posição de destino de cada dígito em cada bloco.
+     */
+    private int[] contagens = new int[0];
+
+    /**
+     * Número de pessoas sendo ordenadas.
+     */
+    private int n;
+
+    /**
+     * Número de pessoas em cada bloco (o último pode ter menos).
+     */
+    private int tamanhoBloco;
+
+    /**
+     * Número de blocos da ordenação.
+     */
+    private int numBlocos;
+
+    /**
+     * Deslocamento, em bits, do dígito da passada corrente.
+     */
+    private int deslocamento;
+
+    /**
+     * Fase executada pelas tarefas (FASE_CHAVES, FASE_CONTAGEM ou FASE_DISTRIBUICAO).
+     */
+    private int fase;
+
+    /**
+     * Árvore de tarefas sobre os blocos, remontada apenas quando o número de blocos muda, ou null sem pool.
+     */
+    private TarefaBlocos tarefaBlocos;
+
+    /**
+     * Número de reordenações feitas.
+     */
+    private long reordenacoes;
+
+    /**
+     * Construtor da classe ReordenadorMorton.
+     *
+     * @param populacao  A população a ser reordenada.
+     * @param indice     O índice espacial com os baldes da população.
+     * @param pool       O pool de threads usado na ordenação, ou null para usar uma única thread.
+     */
+    public ReordenadorMorton(Populacao populacao, IndiceEspacial indice, ForkJoinPool pool) {
+        this.populacao = populacao;
+        this.indice = indice;
+        this.pool = pool;
+        this.threads = pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * Reordena as pessoas pela chave de Morton do balde que ocupam e reconstrói o índice espacial com as novas posições.
+     * Pessoas do mesmo balde mantêm a ordem relativa anterior.
+     */
+    public void reordenar() {
+        n = populacao.tamanho();
+        if (chaves.length < n) {
+            chaves = new long[n];
+            chavesAuxiliar = new long[n];
+            ordem = new int[n];
+            ordemAuxiliar = new int[n];
+        }
+        numBlocos = (int) Math.max(1, Math.min((long) threads * BLOCOS_POR_THREAD,
+                ((long) n + MIN_PESSOAS_POR_BLOCO - 1) / MIN_PESSOAS_POR_BLOCO));
+        tamanhoBloco = Math.max(1, (n + numBlocos - 1) / numBlocos);
+        if (contagens.length < numBlocos * DIGITOS) {
+            contagens = new int[numBlocos * DIGITOS];
+        }
+        if (pool != null && (tarefaBlocos == null || tarefaBlocos.fim != numBlocos)) {
+            tarefaBlocos = new TarefaBlocos(0, numBlocos);
+        }
+
+        executar(FASE_CHAVES);
+        long maiorChave = 0;
+        for (int k = 0; k < n; k++) {
+            maiorChave |= chaves[k];
+        }
+
+        for (deslocamento = 0; deslocamento < Long.SIZE && (maiorChave >>> deslocamento) != 0; deslocamento += BITS_DIGITO) {
+            executar(FASE_CONTAGEM);
+            if (somarContagens()) {
+                executar(FASE_DISTRIBUICAO);
+                long[] chavesTroca = chaves;
+                chaves = chavesAuxiliar;
+                chavesAuxiliar = chavesTroca;
+                int[] ordemTroca = ordem;
+                ordem = ordemAuxiliar;
+                ordemAuxiliar = ordemTroca;
+            }
+        }
+
+        populacao.permutar(ordem);
+        indice.reconstruir(populacao);
+        reordenacoes++;
+    }
+
+    /**
+     * Retorna o número de reordenações feitas.
+     *
+     * @return O número de reordenações.
+     */
+    public long getReordenacoes() {
+        return reordenacoes;
+    }
+
+    /**
+     * Intercala os bits da linha e da coluna de um balde: o bit k da linha vai para o bit 2k + 1 da chave,
+     * e o bit k da coluna, para o bit 2k.
+     *
+     * @param linha   A linha do balde.
+     * @param coluna  A coluna do balde.
+     * @return A chave de Morton do balde.
+     */
+    static long chaveMorton(int linha, int coluna) {
+        return (espalhar(linha) << 1) | espalhar(coluna);
+    }
+
+    /**
+     * Separa os 32 bits de um valor não negativo, deixando um bit zero entre cada dois bits.
+     *
+     * @param valor  O valor.
+     * @return O valor com os bits nas posições pares.
+     */
+    private static long espalhar(int valor) {
+        long v = valor & 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+    /**
+     * Executa uma fase em todos os blocos, em paralelo se houver um pool e mais de um bloco.
+     *
+     * @param fase  A fase (FASE_CHAVES, FASE_CONTAGEM ou FASE_DISTRIBUICAO).
+     */
+    private void executar(int fase) {
+        this.fase = fase;
+        if (pool == null || numBlocos == 1) {
+            for (int bloco = 0; bloco < numBlocos; bloco++) {
+                executarBloco(bloco);
+            }
+        } else {
+            tarefaBlocos.reinitialize();
+            pool.invoke(tarefaBlocos);
+        }
+    }
+
+    /**
+     * Executa a fase corrente em um bloco de pessoas.
+     *
+     * @param bloco  O número do bloco.
+     */
+    private void executarBloco(int bloco) {
+        int inicio = Math.min(n, bloco * tamanhoBloco);
+        int fim = Math.min(n, inicio + tamanhoBloco);
+        int base = bloco * DIGITOS;
+        switch (fase) {
+            case FASE_CHAVES:
+                for (int k = inicio; k < fim; k++) {
+                    chaves[k] = chaveMorton(indice.baldeLinha(populacao.getX(k)), indice.baldeColuna(populacao.getY(k)));
+                    ordem[k] = k;
+                }
+                break;
+            case FASE_CONTAGEM:
+                Arrays.fill(contagens, base, base + DIGITOS, 0);
+                for (int k = inicio; k < fim; k++) {
+                    contagens[base + digito(chaves[k])]++;
+                }
+                break;
+            case FASE_DISTRIBUICAO:
+                for (int k = inicio; k < fim; k++) {
+                    long chave = chaves[k];
+                    int destino = contagens[base + digito(chave)]++;
+                    chavesAuxiliar[destino] = chave;
+                    ordemAuxiliar[destino] = ordem[k];
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Fase desconhecida: " + fase);
+        }
+    }
+
+    /**
+     * Transforma as contagens de cada bloco nas primeiras posições de destino de cada dígito em cada bloco:
+     * os dígitos menores vêm antes e, para o mesmo dígito, os blocos anteriores vêm antes, o que mantém a ordenação estável.
+     *
+     * @return false se todas as pessoas tiverem o mesmo dígito, caso em que a passada não muda a ordem.
+     */
+    private boolean somarContagens() {
+        int posicao = 0;
+        for (int d = 0; d < DIGITOS; d++) {
+            int inicioDigito = posicao;
+            for (int bloco = 0; bloco < numBlocos; bloco++) {
+                int i = bloco * DIGITOS + d;
+                int contagem = contagens[i];
+                contagens[i] = posicao;
+                posicao += contagem;
+            }
+            if (posicao - inicioDigito == n) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extrai o dígito da passada corrente de uma chave.
+     *
+     * @param chave  A chave.
+     * @return O dígito, entre 0 e DIGITOS - 1.
+     */
+    private int digito(long chave) {
+        return (int) (chave >>> deslocamento) & (DIGITOS - 1);
+    }
+
+    /**
+     * Classe TarefaBlocos representa um intervalo de blocos em que a fase corrente da ordenação é executada.
+     * O intervalo é dividido ao meio até restar um único bloco por tarefa. As subtarefas são criadas junto com a
+     * tarefa e reiniciadas a cada execução.
+     */
+    private final class TarefaBlocos extends RecursiveAction {
+        /**
+         * Versão de serialização da tarefa.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Primeiro bloco do intervalo (inclusivo).
+         */
+        private final int inicio;
+
+        /**
+         * Último bloco do intervalo (exclusivo).
+         */
+        private final int fim;
+
+        /**
+         * Subtarefa com a primeira metade do intervalo, ou null se a tarefa executa um único bloco.
+         */
+        private final TarefaBlocos primeiraMetade;
+
+        /**
+         * Subtarefa com a segunda metade do intervalo, ou null se a tarefa executa um único bloco.
+         */
+        private final TarefaBlocos segundaMetade;
+
+        /**
+         * Construtor da classe TarefaBlocos.
+         *
+         * @param inicio  O primeiro bloco do intervalo.
+         * @param fim     O bloco seguinte ao último do intervalo.
+         */
+        TarefaBlocos(int inicio, int fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+            if (fim - inicio <= 1) {
+                this.primeiraMetade = null;
+                this.segundaMetade = null;
+            } else {
+                int meio = (inicio + fim) >>> 1;
+                this.primeiraMetade = new TarefaBlocos(inicio, meio);
+                this.segundaMetade = new TarefaBlocos(meio, fim);
+            }
+        }
+
+        @Override
+        protected void compute() {
+            if (primeiraMetade == null) {
+                if (fim > inicio) {
+                    executarBloco(inicio);
+                }
+                return;
+            }
+            primeiraMetade.reinitialize();
+            segundaMetade.reinitialize();
+            invokeAll(primeiraMetade, segundaMetade);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Importa a classe ArrayList para guardar as regiões livres.
+ */
+import java.util.ArrayList;
+
+/**
+ * Importa a classe List para guardar as regiões livres.
+ */
+import java.util.List;
+
+/**
+ * Classe ReservatorioMemoria representa um reservatório de regiões de memória fora do heap reaproveitadas entre
+ * simulações. Em uma varredura de parâmetros, cada simulação precisa de regiões do tamanho da população para os
+ * registros das pessoas; em vez de alocar e zerar novas regiões a cada execução, a simulação obtém as regiões
+ * devolvidas pelas execuções anteriores.
+ *
+ * Um pedido é atendido pela menor região livre com pelo menos o tamanho pedido. O conteúdo da região obtida
+ * não é zerado, então só deve ser usada por quem escreve cada posição antes de lê-la. Os métodos são
+ * sincronizados, pois as simulações de uma varredura rodam em paralelo.
+ */
+class ReservatorioMemoria {
+    /**
+     * Número máximo de regiões livres guardadas. Regiões devolvidas além desse limite são descartadas.
+     */
+    private static final int MAX_LIVRES = 64;
+
+    /**
+     * Regiões livres.
+     */
+    private final List<MemoriaForaHeap> livres = new ArrayList<>();
+
+    /**
+     * Número de pedidos atendidos com uma região reaproveitada.
+     */
+    private long reaproveitados;
+
+    /**
+     * Número de pedidos atendidos com uma nova região.
+     */
+    private long criados;
+
+    /**
+     * Obtém uma região com pelo menos o tamanho informado.
+     *
+     * @param bytes  O tamanho mínimo, em bytes.
+     * @return A região, com conteúdo indefinido.
+     */
+    public synchronized MemoriaForaHeap obter(long bytes) {
+        int melhor = -1;
+        for (int i = 0; i < livres.size(); i++) {
+            long capacidade = livres.get(i).getCapacidade();
+            if (capacidade >= bytes && (melhor < 0 || capacidade < livres.get(melhor).getCapacidade())) {
+                melhor = i;
+            }
+        }
+        if (melhor < 0) {
+            criados++;
+            MemoriaForaHeap memoria = new MemoriaForaHeap();
+            memoria.garantir(bytes);
+            return memoria;
+        }
+        reaproveitados++;
+        return livres.remove(melhor);
+    }
+
+    /**
+     * Devolve uma região ao reservatório. Regiões mapeadas em arquivo não são guardadas.
+     *
+     * @param memoria  A região, que não deve mais ser usada por quem a devolveu.
+     */
+    public synchronized void devolver(MemoriaForaHeap memoria) {
+        if (memoria.getArquivo() == null && livres.size() < MAX_LIVRES) {
+            livres.add(memoria);
+        }
+    }
+
+    /**
+     * Retorna o número de pedidos atendidos com uma região reaproveitada.
+     *
+     * @return O número de regiões reaproveitadas.
+     */
+    public synchronized long getReaproveitados() {
+        return reaproveitados;
+    }
+
+    /**
+     * Retorna o número de pedidos atendidos com uma nova região.
+     *
+     * @return O número de regiões criadas.
+     */
+    public synchronized long getCriados() {
+        return criados;
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Classe RodaExpiracao representa uma roda de temporização (hashed timing wheel) com os instantes em que a
+ * resistência a fake news de cada pessoa expira. A roda tem TAMANHO posições, e a pessoa cuja resistência
+ * expira na iteração t fica na lista encadeada da posição (t mod TAMANHO). Ao avançar o relógio, basta
+ * percorrer as posições das iterações que passaram, e o custo é proporcional ao número de expirações,
+ * e não ao tamanho da população. Expirações mais distantes que TAMANHO iterações dão mais de uma volta
+ * na roda e são simplesmente ignoradas nas voltas anteriores.
+ *
+ * Como no IndiceEspacial, as listas são guardadas em arrays de inteiros indexados pelo identificador da pessoa.
+ */
+class RodaExpiracao {
+    /**
+     * Valor usado para indicar o fim de uma lista encadeada ou uma pessoa fora da roda.
+     */
+    public static final int VAZIO = -1;
+
+    /**
+     * Número de posições da roda. É uma potência de 2, para que a posição seja calculada com uma máscara.
+     */
+    public static final int TAMANHO = 1024;
+
+    /**
+     * Primeira pessoa de cada posição da roda.
+     */
+    private final int[] cabeca;
+
+    /**
+     * Próxima pessoa na mesma posição, indexada pelo identificador da pessoa.
+     */
+    private int[] proximo;
+
+    /**
+     * Pessoa anterior na mesma posição, indexada pelo identificador da pessoa.
+     */
+    private int[] anterior;
+
+    /**
+     * Posição da roda ocupada por cada pessoa, ou VAZIO se a pessoa não está na roda.
+     */
+    private int[] posicaoAtual;
+
+    /**
+     * Construtor da classe RodaExpiracao.
+     *
+     * @param capacidade  O número de pessoas esperado, usado para dimensionar os arrays internos.
+     */
+    public RodaExpiracao(int capacidade) {
+        this.cabeca = new int[TAMANHO];
+        this.proximo = new int[capacidade];
+        this.anterior = new int[capacidade];
+        this.posicaoAtual = new int[capacidade];
+        Arrays.fill(cabeca, VAZIO);
+        Arrays.fill(posicaoAtual, VAZIO);
+    }
+
+    /**
+     * Agenda a expiração da pessoa para a iteração informada, retirando-a da posição em que estava, se for o caso.
+     *
+     * @param id        O identificador da pessoa.
+     * @param expiraEm  A iteração em que a resistência da pessoa expira.
+     */
+    public void agendar(int id, long expiraEm) {
+        garantirCapacidade(id + 1);
+        int posicao = posicao(expiraEm);
+        if (posicaoAtual[id] == posicao) {
+            return;
+        }
+        remover(id);
+        int primeiro = cabeca[posicao];
+        proximo[id] = primeiro;
+        anterior[id] = VAZIO;
+        if (primeiro != VAZIO) {
+            anterior[primeiro] = id;
+        }
+        cabeca[posicao] = id;
+        posicaoAtual[id] = posicao;
+    }
+
+    /**
+     * Retira a pessoa da roda, se ela estiver nela.
+     *
+     * @param id  O identificador da pessoa.
+     */
+    public void remover(int id) {
+        if (id >= posicaoAtual.length || posicaoAtual[id] == VAZIO) {
+            return;
+        }
+        int antes = anterior[id];
+        int depois = proximo[id];
+        if (antes != VAZIO) {
+            proximo[antes] = depois;
+        } else {
+            cabeca[posicaoAtual[id]] = depois;
+        }
+        if (depois != VAZIO) {
+            anterior[depois] = antes;
+        }
+        posicaoAtual[id] = VAZIO;
+    }
+
+    /**
+     * Retira todas as pessoas da roda.
+     */
+    public void limpar() {
+        Arrays.fill(cabeca, VAZIO);
+        Arrays.fill(posicaoAtual, VAZIO);
+    }
+
+    /**
+     * Retorna a primeira pessoa da posição da roda correspondente à iteração informada.
+     *
+     * @param iteracao  A iteração.
+     * @return O identificador da primeira pessoa da posição, ou VAZIO se a posição estiver vazia.
+     */
+    public int primeiro(long iteracao) {
+        return cabeca[posicao(iteracao)];
+    }
+
+    /**
+     * Retorna a pessoa seguinte na mesma posição da roda.
+     *
+     * @param id  O identificador da pessoa atual.
+     * @return O identificador da próxima pessoa, ou VAZIO se não houver mais pessoas.
+     */
+    public int proximo(int id) {
+        return proximo[id];
+    }
+
+    /**
+     * Calcula a posição da roda correspondente a uma iteração.
+     *
+     * @param iteracao  A iteração.
+     * @return A posição da roda.
+     */
+    private static int posicao(long iteracao) {
+        return (int) (iteracao & (TAMANHO - 1));
+    }
+
+    /**
+     * Garante que os arrays indexados por pessoa comportem o identificador informado.
+     *
+     * @param tamanho  O tamanho mínimo necessário.
+     */
+    private void garantirCapacidade(int tamanho) {
+        if (tamanho <= posicaoAtual.length) {
+            return;
+        }
+        int novoTamanho = Math.max(tamanho, posicaoAtual.length * 2);
+        int antigo = posicaoAtual.length;
+        proximo = Arrays.copyOf(proximo, novoTamanho);
+        anterior = Arrays.copyOf(anterior, novoTamanho);
+        posicaoAtual = Arrays.copyOf(posicaoAtual, novoTamanho);
+        Arrays.fill(posicaoAtual, antigo, novoTamanho, VAZIO);
+    }
+}
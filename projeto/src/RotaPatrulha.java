@@ -0,0 +1,146 @@
+/**
+ * Classe RotaPatrulha representa a ronda de um ator móvel: o contorno de um quadrado de lado 2 * raio + 1 centrado
+ * no posto do ator, percorrido uma coordenada por iteração, no sentido horário. O mapa é toroidal, como no movimento
+ * das pessoas, então um trecho da ronda que sai por uma borda continua pela borda oposta.
+ *
+ * A posição depende apenas do posto, do raio e do número de passos dados, então a ronda de um ator restaurado de um
+ * instantâneo continua exatamente de onde parou, bastando informar o número de passos já dados.
+ */
+class RotaPatrulha {
+    /**
+     * Linha do posto do ator, no centro da ronda.
+     */
+    private final int origemX;
+
+    /**
+     * Coluna do posto do ator, no centro da ronda.
+     */
+    private final int origemY;
+
+    /**
+     * Distância entre o posto e o contorno da ronda.
+     */
+    private final int raio;
+
+    /**
+     * Número de passos dados desde o início da simulação.
+     */
+    private long passos;
+
+    /**
+     * Linha atual do ator.
+     */
+    private int x;
+
+    /**
+     * Coluna atual do ator.
+     */
+    private int y;
+
+    /**
+     * Construtor da classe RotaPatrulha. O ator fica no posto até dar o primeiro passo.
+     *
+     * @param origemX  A linha do posto.
+     * @param origemY  A coluna do posto.
+     * @param raio     A distância entre o posto e o contorno da ronda, maior que zero.
+     * @param passos   O número de passos já dados, zero no início da simulação.
+     * @throws IllegalArgumentException Se o raio não for positivo ou o número de passos for negativo.
+     */
+    public RotaPatrulha(int origemX, int origemY, int raio, long passos) {
+        if (raio <= 0) {
+            throw new IllegalArgumentException("O raio da patrulha deve ser maior que zero.");
+        }
+        if (passos < 0) {
+            throw new IllegalArgumentException("O número de passos da patrulha não pode ser negativo.");
+        }
+        this.origemX = origemX;
+        this.origemY = origemY;
+        this.raio = raio;
+        this.passos = passos;
+        this.x = origemX;
+        this.y = origemY;
+    }
+
+    /**
+     * Avança um passo na ronda e calcula a nova posição.
+     *
+     * @param maxX  O número de linhas do mapa.
+     * @param maxY  O número de colunas do mapa.
+     */
+    public void avancar(int maxX, int maxY) {
+        long lado = 2L * raio;
+        long k = passos % (4 * lado);
+        long px;
+        long py;
+        if (k < lado) {
+            px = origemX - raio;
+            py = origemY - raio + k;
+        } else if (k < 2 * lado) {
+            px = origemX - raio + (k - lado);
+            py = origemY + raio;
+        } else if (k < 3 * lado) {
+            px = origemX + raio;
+            py = origemY + raio - (k - 2 * lado);
+        } else {
+            px = origemX + raio - (k - 3 * lado);
+            py = origemY - raio;
+        }
+        x = (int) Math.floorMod(px, (long) maxX);
+        y = (int) Math.floorMod(py, (long) maxY);
+        passos++;
+    }
+
+    /**
+     * Retorna a linha do posto do ator.
+     *
+     * @return A linha do posto.
+     */
+    public int getOrigemX() {
+        return origemX;
+    }
+
+    /**
+     * Retorna a coluna do posto do ator.
+     *
+     * @return A coluna do posto.
+     */
+    public int getOrigemY() {
+        return origemY;
+    }
+
+    /**
+     * Retorna a distância entre o posto e o contorno da ronda.
+     *
+     * @return O raio da patrulha.
+     */
+    public int getRaio() {
+        return raio;
+    }
+
+    /**
+     * Retorna o número de passos dados.
+     *
+     * @return O número de passos.
+     */
+    public long getPassos() {
+        return passos;
+    }
+
+    /**
+     * Retorna a linha atual do ator.
+     *
+     * @return A linha atual.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Retorna a coluna atual do ator.
+     *
+     * @return A coluna atual.
+     */
+    public int getY() {
+        return y;
+    }
+}
@@ -1,5 +1,26 @@
+
+/**
+ * Importa a classe IOException para tratar erros de leitura do arquivo de cenário.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe PrintStream para escrever no console.
+ */
+import java.io.PrintStream;
+
+/**
+ * Importa a classe StandardCharsets para converter textos em bytes.
+ */
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Importa a classe Paths para localizar o arquivo de métricas.
+ */
+import java.nio.file.Paths;
+
 /**
- * Importa a classe ArrayList para criar listas dinâmicas.
+ * Importa a classe ArrayList para guardar as IAs e os meios de comunicação.
  */
 import java.util.ArrayList;
 
@@ -14,9 +35,14 @@ import java.util.Arrays;
 import java.util.List;
 
 /**
- * Importa a classe Random para gerar números aleatórios.
+ * Importa a classe SplittableRandom para gerar números aleatórios a partir de uma semente.
+ */
+import java.util.SplittableRandom;
+
+/**
+ * Importa a classe JMException para tratar erros de publicação do MBean de monitoramento.
  */
-import java.util.Random;
+import javax.management.JMException;
 
 /**
  * Feito por Guilherme de Abreu Guimarães
@@ -27,48 +53,55 @@ import java.util.Random;
 /**
  * Classe Pessoa representa uma pessoa abstrata que pode se mover.
  * Esta classe implementa a interface IMovable.
+ * Uma Pessoa é uma visão sobre os arrays da Populacao: ela guarda apenas a identidade da pessoa, e todas as leituras e
+ * escritas são feitas diretamente no armazenamento compartilhado, na posição em que a pessoa está no momento do acesso.
+ * Como a reordenação muda as posições das pessoas nos arrays, a posição é obtida de Populacao.getLugar a cada acesso.
  */
 abstract class Pessoa implements IMovable {
-    
-    /**
-     * Posição horizontal da Pessoa no espaço bidimensional.
-     */
-    protected int x;
 
     /**
-     * Posição vertical da Pessoa no espaço bidimensional.
+     * População que armazena o estado desta Pessoa.
      */
-    protected int y;
+    protected final Populacao populacao;
 
     /**
-     * Identificação única da Pessoa no aplicativo Whatsapp.
+     * Identidade da Pessoa, que não muda quando a população é reordenada.
      */
-    protected String whatsappID;
+    protected final int identidade;
 
     /**
-     * Lista que representa a agenda de contatos da Pessoa no Whatsapp.
+     * Construtor da classe Pessoa.
+     *
+     * @param populacao   A população que armazena o estado da Pessoa.
+     * @param identidade  A identidade da Pessoa.
      */
-    protected ArrayList<String> agendaContatos;
+    Pessoa(Populacao populacao, int identidade) {
+        this.populacao = populacao;
+        this.identidade = identidade;
+    }
 
     /**
-     * Horário da última vez em que a Pessoa resistiu a uma notícia falsa.
-     * Este atributo é medido em milissegundos desde a época UNIX (1 de janeiro de 1970).
+     * Retorna uma visão da pessoa com o tipo correspondente ao seu estado atual.
+     * A visão não copia dados: leituras e escritas vão direto para os registros da população.
+     *
+     * @param populacao   A população que armazena o estado da Pessoa.
+     * @param identidade  A identidade da Pessoa.
+     * @return Uma PessoaMalInformada ou PessoaBemInformada para a identidade informada.
      */
-    protected long fakeNewsResistanceTimestamp;
+    public static Pessoa visao(Populacao populacao, int identidade) {
+        if (populacao.isMalInformada(populacao.getLugar(identidade))) {
+            return new PessoaMalInformada(populacao, identidade);
+        }
+        return new PessoaBemInformada(populacao, identidade);
+    }
 
     /**
-     * Construtor da classe Pessoa.
+     * Retorna a posição atual da Pessoa nos registros da população.
      *
-     * @param x         A posição horizontal inicial da Pessoa.
-     * @param y         A posição vertical inicial da Pessoa.
-     * @param whatsappID  A identificação única da Pessoa no Whatsapp.
+     * @return A posição da Pessoa nos arrays.
      */
-    public Pessoa(int x, int y, String whatsappID) {
-        this.x = x;
-        this.y = y;
-        this.whatsappID = whatsappID;
-        this.agendaContatos = new ArrayList<>();
-        this.fakeNewsResistanceTimestamp = 0;
+    private int lugar() {
+        return populacao.getLugar(identidade);
     }
 
     /**
@@ -78,31 +111,16 @@ abstract class Pessoa implements IMovable {
      * @param maxY  O limite vertical do espaço de movimentação.
      */
     public void mover(int maxX, int maxY) {
-        // Cria um objeto Random para gerar números aleatórios.
-        Random random = new Random();
-
-        // Gera um número aleatório entre 0 e 3 que representa uma direção no espaço.
-        int direction = random.nextInt(4);
-
-        // Move a pessoa na direção escolhida.
-        switch (direction) {
-            case 0:
-                // Move para cima.
-                y = (y + 1) % maxY;
-                break;
-            case 1:
-                // Move para a direita.
-                x = (x + 1) % maxX;
-                break;
-            case 2:
-                // Move para baixo.
-                y = (y - 1 + maxY) % maxY;
-                break;
-            case 3:
-                // Move para a esquerda.
-                x = (x - 1 + maxX) % maxX;
-                break;
-        }
+        populacao.mover(lugar(), maxX, maxY);
+    }
+
+    /**
+     * Retorna a identidade da Pessoa.
+     *
+     * @return A identidade da Pessoa.
+     */
+    public int getId() {
+        return identidade;
     }
 
     /**
@@ -111,7 +129,7 @@ abstract class Pessoa implements IMovable {
      * @return A posição horizontal atual da Pessoa.
      */
     public int getX() {
-        return x;
+        return populacao.getX(lugar());
     }
 
     /**
@@ -120,7 +138,7 @@ abstract class Pessoa implements IMovable {
      * @return A posição vertical atual da Pessoa.
      */
     public int getY() {
-        return y;
+        return populacao.getY(lugar());
     }
 
     /**
@@ -129,7 +147,7 @@ abstract class Pessoa implements IMovable {
      * @param x  A nova posição horizontal da Pessoa.
      */
     public void setX(int x) {
-        this.x = x;
+        populacao.setX(lugar(), x);
     }
 
     /**
@@ -138,7 +156,7 @@ abstract class Pessoa implements IMovable {
      * @param y  A nova posição vertical da Pessoa.
      */
     public void setY(int y) {
-        this.y = y;
+        populacao.setY(lugar(), y);
     }
 
     /**
@@ -147,34 +165,35 @@ abstract class Pessoa implements IMovable {
      * @return A identificação única da Pessoa no Whatsapp.
      */
     public String getWhatsappID() {
-        return whatsappID;
+        return Populacao.whatsappID(identidade);
     }
 
     /**
      * Retorna a lista de contatos da Pessoa no Whatsapp.
+     * A lista é somente leitura e reflete os contatos existentes no momento da chamada.
      *
      * @return A lista de contatos da Pessoa.
      */
-    public ArrayList<String> getAgendaContatos() {
-        return agendaContatos;
+    public List<String> getAgendaContatos() {
+        return populacao.getAgendaContatos(lugar());
     }
 
     /**
-     * Retorna o horário da última vez em que a Pessoa resistiu a uma notícia falsa.
+     * Retorna a iteração até a qual a Pessoa permanece resistente a notícias falsas (exclusiva).
      *
-     * @return O timestamp de resistência a notícias falsas.
+     * @return A iteração em que a resistência a notícias falsas expira.
      */
-    public long getFakeNewsResistanceTimestamp() {
-        return fakeNewsResistanceTimestamp;
+    public long getResistenciaAte() {
+        return populacao.getResistenciaAte(lugar());
     }
 
     /**
-     * Define o horário da última vez em que a Pessoa resistiu a uma notícia falsa.
+     * Define a iteração até a qual a Pessoa permanece resistente a notícias falsas (exclusiva).
      *
-     * @param fakeNewsResistanceTimestamp  O novo timestamp de resistência a notícias falsas.
+     * @param resistenciaAte  A iteração em que a resistência a notícias falsas expira.
      */
-    public void setFakeNewsResistanceTimestamp(long fakeNewsResistanceTimestamp) {
-        this.fakeNewsResistanceTimestamp = fakeNewsResistanceTimestamp;
+    public void setResistenciaAte(long resistenciaAte) {
+        populacao.setResistenciaAte(lugar(), resistenciaAte);
     }
 }
 
@@ -185,13 +204,13 @@ abstract class Pessoa implements IMovable {
 class PessoaBemInformada extends Pessoa {
     /**
      * Construtor da classe PessoaBemInformada.
+     * Instâncias são obtidas por meio de Pessoa.visao.
      *
-     * @param x         A posição horizontal inicial da Pessoa.
-     * @param y         A posição vertical inicial da Pessoa.
-     * @param whatsappID  A identificação única da Pessoa no Whatsapp.
+     * @param populacao   A população que armazena o estado da Pessoa.
+     * @param identidade  A identidade da Pessoa.
      */
-    public PessoaBemInformada(int x, int y, String whatsappID) {
-        super(x, y, whatsappID);
+    PessoaBemInformada(Populacao populacao, int identidade) {
+        super(populacao, identidade);
     }
 }
 
@@ -202,13 +221,13 @@ class PessoaBemInformada extends Pessoa {
 class PessoaMalInformada extends Pessoa {
     /**
      * Construtor da classe PessoaMalInformada.
+     * Instâncias são obtidas por meio de Pessoa.visao.
      *
-     * @param x         A posição horizontal inicial da Pessoa.
-     * @param y         A posição vertical inicial da Pessoa.
-     * @param whatsappID  A identificação única da Pessoa no Whatsapp.
+     * @param populacao   A população que armazena o estado da Pessoa.
+     * @param identidade  A identidade da Pessoa.
      */
-    public PessoaMalInformada(int x, int y, String whatsappID) {
-        super(x, y, whatsappID);
+    PessoaMalInformada(Populacao populacao, int identidade) {
+        super(populacao, identidade);
     }
 }
 
@@ -266,184 +285,531 @@ class ANSIColors {
 /**
  * Classe Mundo representa o ambiente da simulação.
  * Esta classe contém um mapa bidimensional onde os objetos podem ser posicionados e movidos.
+ *
+ * O mapa é esparso: ele é dividido em ladrilhos quadrados de LADO_LADRILHO x LADO_LADRILHO células, e um ladrilho
+ * só existe enquanto alguma célula dele estiver ocupada. Os ladrilhos são encontrados por uma tabela hash de
+ * endereçamento aberto, e as células escritas desde a última limpeza são registradas para que limpar() apague
+ * apenas elas. Assim, a memória e o custo de cada iteração dependem do número de objetos no mapa, e não da área.
+ * Apenas uma janela do mapa é desenhada no console.
  */
 class Mundo {
     /**
-     * Mapa bidimensional que representa o ambiente da simulação.
+     * Número de bits da coordenada usados para a posição dentro do ladrilho.
      */
-    public char[][] mapa;
+    private static final int BITS_LADRILHO = 4;
 
     /**
-     * Número de linhas do mapa.
+     * Lado de cada ladrilho, em células.
      */
-    private int linhas;
+    public static final int LADO_LADRILHO = 1 << BITS_LADRILHO;
 
     /**
-     * Número de colunas do mapa.
+     * Máscara que extrai a posição dentro do ladrilho a partir de uma coordenada.
      */
-    private int colunas;
+    private static final int MASCARA_LADRILHO = LADO_LADRILHO - 1;
 
     /**
-     * Construtor da classe Mundo.
+     * Caractere de uma célula vazia.
+     */
+    public static final char VAZIA = ' ';
+
+    /**
+     * Número de colunas de ladrilhos.
+     */
+    private final long colunasLadrilhos;
+
+    /**
+     * Tabela hash de endereçamento aberto com a chave de cada ladrilho em uso mais 1 (0 indica posição livre).
+     */
+    private long[] chaves;
+
+    /**
+     * Índice, em ladrilhos, do ladrilho guardado em cada posição da tabela hash.
+     */
+    private int[] indices;
+
+    /**
+     * Ladrilhos alocados. Os primeiros ladrilhosEmUso estão no mapa; os demais estão livres para reaproveitamento.
+     */
+    private char[][] ladrilhos;
+
+    /**
+     * Posição na tabela hash de cada ladrilho em uso, para liberar a tabela sem percorrê-la inteira.
+     */
+    private int[] posicaoNaTabela;
+
+    /**
+     * Número de ladrilhos em uso.
+     */
+    private int ladrilhosEmUso;
+
+    /**
+     * Células escritas desde a última limpeza, codificadas como (índice do ladrilho << 2 * BITS_LADRILHO) | posição.
+     */
+    private long[] celulasSujas;
+
+    /**
+     * Número de células escritas desde a última limpeza.
+     */
+    private int numCelulasSujas;
+
+    /**
+     * Linha do mapa onde começa a janela desenhada.
+     */
+    private final int janelaX;
+
+    /**
+     * Coluna do mapa onde começa a janela desenhada.
+     */
+    private final int janelaY;
+
+    /**
+     * Número de linhas da janela desenhada.
+     */
+    private final int janelaLinhas;
+
+    /**
+     * Número de colunas da janela desenhada.
+     */
+    private final int janelaColunas;
+
+    /**
+     * Renderizador que desenha a janela do mapa no console.
+     */
+    private final RenderizadorTerminal renderizador;
+
+    /**
+     * Construtor da classe Mundo. A janela desenhada cobre o mapa inteiro.
      *
      * @param linhas  O número de linhas do mapa.
      * @param colunas  O número de colunas do mapa.
      */
     public Mundo(int linhas, int colunas) {
-        this.linhas = linhas;
-        this.colunas = colunas;
+        this(linhas, colunas, 0, 0, linhas, colunas);
+    }
+
+    /**
+     * Construtor da classe Mundo.
+     * A janela é ajustada para não ultrapassar as bordas do mapa.
+     *
+     * @param linhas         O número de linhas do mapa.
+     * @param colunas        O número de colunas do mapa.
+     * @param janelaX        A linha do mapa onde começa a janela desenhada.
+     * @param janelaY        A coluna do mapa onde começa a janela desenhada.
+     * @param janelaLinhas   O número de linhas da janela desenhada.
+     * @param janelaColunas  O número de colunas da janela desenhada.
+     */
+    public Mundo(int linhas, int colunas, int janelaX, int janelaY, int janelaLinhas, int janelaColunas) {
+        this.colunasLadrilhos = (colunas + (long) LADO_LADRILHO - 1) >> BITS_LADRILHO;
+
+        // Cria a tabela de ladrilhos vazia; os ladrilhos são alocados quando alguma célula deles é ocupada
+        this.chaves = new long[16];
+        this.indices = new int[16];
+        this.ladrilhos = new char[8][];
+        this.posicaoNaTabela = new int[8];
+        this.celulasSujas = new long[64];
+
+        this.janelaX = Math.max(0, Math.min(janelaX, linhas - 1));
+        this.janelaY = Math.max(0, Math.min(janelaY, colunas - 1));
+        this.janelaLinhas = Math.min(janelaLinhas, linhas - this.janelaX);
+        this.janelaColunas = Math.min(janelaColunas, colunas - this.janelaY);
+
+        renderizador = new RenderizadorTerminal(this.janelaLinhas, this.janelaColunas, System.out);
+    }
 
-        // Cria um mapa 2D com base nas linhas e colunas fornecidas
-        mapa = new char[linhas][colunas];
+    /**
+     * Coloca um símbolo em uma célula do mapa, criando o ladrilho da célula se ele ainda não existir.
+     *
+     * @param x       A linha da célula.
+     * @param y       A coluna da célula.
+     * @param symbol  O símbolo a colocar.
+     */
+    public void colocar(int x, int y, char symbol) {
+        int indice = ladrilho(x, y, true);
+        int posicao = ((x & MASCARA_LADRILHO) << BITS_LADRILHO) | (y & MASCARA_LADRILHO);
+        char[] ladrilho = ladrilhos[indice];
+        if (ladrilho[posicao] == VAZIA) {
+            if (numCelulasSujas == celulasSujas.length) {
+                celulasSujas = Arrays.copyOf(celulasSujas, celulasSujas.length * 2);
+            }
+            celulasSujas[numCelulasSujas++] = ((long) indice << (2 * BITS_LADRILHO)) | posicao;
+        }
+        ladrilho[posicao] = symbol;
+    }
 
-        // Preenche o mapa com o caractere '.'
-        for (int i = 0; i < linhas; i++) {
-            Arrays.fill(mapa[i], '.');
+    /**
+     * Retorna o símbolo de uma célula do mapa.
+     *
+     * @param x  A linha da célula.
+     * @param y  A coluna da célula.
+     * @return O símbolo da célula, ou VAZIA se ela não estiver ocupada.
+     */
+    public char getCelula(int x, int y) {
+        int indice = ladrilho(x, y, false);
+        if (indice < 0) {
+            return VAZIA;
+        }
+        return ladrilhos[indice][((x & MASCARA_LADRILHO) << BITS_LADRILHO) | (y & MASCARA_LADRILHO)];
+    }
+
+    /**
+     * Copia um trecho de uma linha do mapa, buscando cada ladrilho apenas uma vez.
+     *
+     * @param x           A linha do mapa.
+     * @param y           A coluna onde o trecho começa.
+     * @param destino     O array que recebe os símbolos.
+     * @param quantidade  O número de células a copiar.
+     */
+    public void copiarLinha(int x, int y, char[] destino, int quantidade) {
+        int j = 0;
+        while (j < quantidade) {
+            int coluna = y + j;
+            int noLadrilho = Math.min(quantidade - j, LADO_LADRILHO - (coluna & MASCARA_LADRILHO));
+            int indice = ladrilho(x, coluna, false);
+            if (indice < 0) {
+                Arrays.fill(destino, j, j + noLadrilho, VAZIA);
+            } else {
+                int posicao = ((x & MASCARA_LADRILHO) << BITS_LADRILHO) | (coluna & MASCARA_LADRILHO);
+                System.arraycopy(ladrilhos[indice], posicao, destino, j, noLadrilho);
+            }
+            j += noLadrilho;
+        }
+    }
+
+    /**
+     * Esvazia o mapa. Apenas as células escritas desde a última limpeza são apagadas, e todos os ladrilhos
+     * voltam a ficar livres para reaproveitamento.
+     */
+    public void limpar() {
+        for (int i = 0; i < numCelulasSujas; i++) {
+            long celula = celulasSujas[i];
+            ladrilhos[(int) (celula >>> (2 * BITS_LADRILHO))][(int) celula & ((1 << (2 * BITS_LADRILHO)) - 1)] = VAZIA;
+        }
+        numCelulasSujas = 0;
+        for (int i = 0; i < ladrilhosEmUso; i++) {
+            chaves[posicaoNaTabela[i]] = 0;
         }
+        ladrilhosEmUso = 0;
+    }
+
+    /**
+     * Retorna o número de ladrilhos em uso no mapa.
+     *
+     * @return O número de ladrilhos em uso.
+     */
+    public int getLadrilhosEmUso() {
+        return ladrilhosEmUso;
     }
 
     /**
      * Método para desenhar o mapa no console.
-     * Este método exibe o estado atual do mapa, com cada objeto representado por um caractere de cor diferente.
+     * Este método exibe o estado atual da janela do mapa, com cada objeto representado por um caractere de cor diferente.
+     * Apenas as células que mudaram desde o último desenho são reescritas, e o quadro é enviado ao console
+     * de uma só vez. Ao final, o cursor fica na linha logo abaixo do mapa.
      */
     public void desenhaMundo() {
-        // Percorre as linhas do mapa
-        for (int i = 0; i < linhas; i++) {
-            // Percorre as colunas do mapa
-            for (int j = 0; j < colunas; j++) {
-                // Obtém o caractere na posição atual do mapa
-                char symbol = mapa[i][j];
-
-                // Exibe o caractere com a cor ANSI correspondente
-                switch (symbol) {
-                    case 'B':
-                        System.out.print(ANSIColors.ANSI_GREEN + symbol + ANSIColors.ANSI_RESET);
-                        break;
-                    case 'M':
-                        System.out.print(ANSIColors.ANSI_RED + symbol + ANSIColors.ANSI_RESET);
-                        break;
-                    case 'F':
-                        System.out.print(ANSIColors.ANSI_YELLOW + symbol + ANSIColors.ANSI_RESET);
-                        break;
-                    case 'D':
-                        System.out.print(ANSIColors.ANSI_BLUE + symbol + ANSIColors.ANSI_RESET);
-                        break;
-                    case 'C':
-                        System.out.print(ANSIColors.ANSI_PURPLE + symbol + ANSIColors.ANSI_RESET);
-                        break;
-                    default:
-                        System.out.print(symbol);
-                        break;
-                }
+        renderizador.desenhar(this, janelaX, janelaY);
+    }
+
+    /**
+     * Procura o ladrilho que contém a célula informada na tabela hash.
+     *
+     * @param x      A linha da célula.
+     * @param y      A coluna da célula.
+     * @param criar  Indica se o ladrilho deve ser criado caso ainda não exista.
+     * @return O índice do ladrilho em ladrilhos, ou -1 se ele não existir e criar for false.
+     */
+    private int ladrilho(int x, int y, boolean criar) {
+        long chave = (x >> BITS_LADRILHO) * colunasLadrilhos + (y >> BITS_LADRILHO) + 1;
+        int mascara = chaves.length - 1;
+        int posicao = (int) GeradorAleatorio.misturar(chave) & mascara;
+        while (chaves[posicao] != 0) {
+            if (chaves[posicao] == chave) {
+                return indices[posicao];
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        if (!criar) {
+            return -1;
+        }
+
+        // Mantém a tabela com no máximo metade das posições ocupadas
+        if (2 * (ladrilhosEmUso + 1) > chaves.length) {
+            crescerTabela();
+            return ladrilho(x, y, true);
+        }
+        if (ladrilhosEmUso == ladrilhos.length) {
+            ladrilhos = Arrays.copyOf(ladrilhos, ladrilhos.length * 2);
+            posicaoNaTabela = Arrays.copyOf(posicaoNaTabela, posicaoNaTabela.length * 2);
+        }
+        int indice = ladrilhosEmUso++;
+        if (ladrilhos[indice] == null) {
+            ladrilhos[indice] = new char[LADO_LADRILHO * LADO_LADRILHO];
+            Arrays.fill(ladrilhos[indice], VAZIA);
+        }
+        chaves[posicao] = chave;
+        indices[posicao] = indice;
+        posicaoNaTabela[indice] = posicao;
+        return indice;
+    }
+
+    /**
+     * Dobra o tamanho da tabela hash e reinsere os ladrilhos em uso.
+     */
+    private void crescerTabela() {
+        long[] chavesAntigas = chaves;
+        int[] indicesAntigos = indices;
+        chaves = new long[chavesAntigas.length * 2];
+        indices = new int[chavesAntigas.length * 2];
+        int mascara = chaves.length - 1;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            long chave = chavesAntigas[i];
+            if (chave == 0) {
+                continue;
             }
-            // Move para a próxima linha no console
-            System.out.println();
+            int posicao = (int) GeradorAleatorio.misturar(chave) & mascara;
+            while (chaves[posicao] != 0) {
+                posicao = (posicao + 1) & mascara;
+            }
+            chaves[posicao] = chave;
+            indices[posicao] = indicesAntigos[i];
+            posicaoNaTabela[indicesAntigos[i]] = posicao;
         }
     }
 }
 
+/**
+ * Classe RenderizadorTerminal representa o desenho de uma janela do mapa do Mundo em um terminal com suporte a códigos ANSI.
+ * Cada quadro é montado em um único buffer de bytes reaproveitado entre os quadros e enviado ao console com
+ * uma única escrita. Apenas as células que mudaram desde o quadro anterior são reescritas, posicionando o cursor
+ * com códigos de endereçamento, e os códigos de cor só são emitidos quando a cor realmente muda.
+ */
+class RenderizadorTerminal {
+    /**
+     * Código ANSI que limpa a tela e posiciona o cursor no canto superior esquerdo.
+     */
+    private static final byte[] LIMPAR_TELA = "\033[H\033[2J".getBytes(StandardCharsets.US_ASCII);
 
+    /**
+     * Código ANSI que apaga da posição do cursor até o fim da tela.
+     */
+    private static final byte[] LIMPAR_ATE_FIM = "\033[J".getBytes(StandardCharsets.US_ASCII);
 
+    /**
+     * Códigos ANSI de cada cor usada no mapa, na ordem: padrão, verde, vermelho, amarelo, azul e roxo.
+     */
+    private static final byte[][] CORES = {
+        ANSIColors.ANSI_RESET.getBytes(StandardCharsets.US_ASCII),
+        ANSIColors.ANSI_GREEN.getBytes(StandardCharsets.US_ASCII),
+        ANSIColors.ANSI_RED.getBytes(StandardCharsets.US_ASCII),
+        ANSIColors.ANSI_YELLOW.getBytes(StandardCharsets.US_ASCII),
+        ANSIColors.ANSI_BLUE.getBytes(StandardCharsets.US_ASCII),
+        ANSIColors.ANSI_PURPLE.getBytes(StandardCharsets.US_ASCII)
+    };
 
-/**
- * Classe MeioComunicacaoConfiavel representa um meio de comunicação confiável dentro da simulação.
- * Esta classe possui um posicionamento específico no mapa.
- */
-class MeioComunicacaoConfiavel {
     /**
-     * Coordenada X do meio de comunicação confiável.
+     * Console para onde os quadros são enviados.
      */
-    public int x;
+    private final PrintStream saida;
 
     /**
-     * Coordenada Y do meio de comunicação confiável.
+     * Número de linhas da janela desenhada.
      */
-    public int y;
+    private final int linhas;
 
     /**
-     * Símbolo que representa o meio de comunicação confiável no mapa.
+     * Número de colunas da janela desenhada.
      */
-    public char symbol = 'C';
+    private final int colunas;
 
     /**
-     * Construtor da classe MeioComunicacaoConfiavel.
-     *
-     * @param x A coordenada X inicial do meio de comunicação confiável.
-     * @param y A coordenada Y inicial do meio de comunicação confiável.
+     * Linha da janela copiada do mapa, reaproveitada entre as linhas e os quadros.
      */
-    public MeioComunicacaoConfiavel(int x, int y) {
-        this.x = x;
-        this.y = y;
-    }
+    private final char[] linha;
 
     /**
-     * Método para obter a coordenada X do meio de comunicação confiável.
+     * Conteúdo de cada célula no último quadro desenhado, indexado por (linha * colunas + coluna).
+     */
+    private final char[] quadroAnterior;
+
+    /**
+     * Indica se nenhum quadro foi desenhado ainda. O primeiro quadro limpa a tela e desenha todas as células.
+     */
+    private boolean primeiroQuadro;
+
+    /**
+     * Buffer reaproveitado onde cada quadro é montado.
+     */
+    private byte[] buffer;
+
+    /**
+     * Número de bytes ocupados no buffer.
+     */
+    private int tamanho;
+
+    /**
+     * Construtor da classe RenderizadorTerminal.
      *
-     * @return A coordenada X do meio de comunicação confiável.
+     * @param linhas   O número de linhas da janela desenhada.
+     * @param colunas  O número de colunas da janela desenhada.
+     * @param saida    O console para onde os quadros são enviados.
      */
-    public int getX() {
-        return x;
+    public RenderizadorTerminal(int linhas, int colunas, PrintStream saida) {
+        this.linhas = linhas;
+        this.colunas = colunas;
+        this.saida = saida;
+        this.linha = new char[colunas];
+        this.quadroAnterior = new char[linhas * colunas];
+        this.primeiroQuadro = true;
+        this.buffer = new byte[Math.max(256, linhas * (colunas + 8))];
     }
 
     /**
-     * Método para obter a coordenada Y do meio de comunicação confiável.
+     * Desenha a janela do mapa, reescrevendo apenas as células que mudaram desde o quadro anterior.
+     * Ao final, o cursor é posicionado na linha logo abaixo da janela e o restante da tela é apagado,
+     * para que textos impressos em seguida não deixem restos de quadros anteriores.
      *
-     * @return A coordenada Y do meio de comunicação confiável.
+     * @param mundo    O mundo cujo mapa será desenhado.
+     * @param origemX  A linha do mapa onde começa a janela.
+     * @param origemY  A coluna do mapa onde começa a janela.
      */
-    public int getY() {
-        return y;
-    }
-}
+    public void desenhar(Mundo mundo, int origemX, int origemY) {
+        tamanho = 0;
+
+        // Linha e coluna onde o próximo caractere será escrito pelo terminal, ou -1 se for desconhecido.
+        int cursorLinha = -1;
+        int cursorColuna = -1;
+        int corAtual = -1;
+
+        if (primeiroQuadro) {
+            escrever(LIMPAR_TELA);
+            cursorLinha = 0;
+            cursorColuna = 0;
+        }
+
+        for (int i = 0; i < linhas; i++) {
+            mundo.copiarLinha(origemX + i, origemY, linha, colunas);
+            int base = i * colunas;
+            for (int j = 0; j < colunas; j++) {
+                char symbol = linha[j];
+                if (!primeiroQuadro && quadroAnterior[base + j] == symbol) {
+                    continue;
+                }
+                quadroAnterior[base + j] = symbol;
 
+                // Só posiciona o cursor se ele não estiver exatamente nesta célula.
+                if (cursorLinha != i || cursorColuna != j) {
+                    escreverPosicao(i, j);
+                }
 
+                // Só troca a cor se ela for diferente da última emitida.
+                int cor = cor(symbol);
+                if (cor != corAtual) {
+                    escrever(CORES[cor]);
+                    corAtual = cor;
+                }
+
+                escrever((byte) symbol);
+                cursorLinha = i;
+                cursorColuna = j + 1;
+            }
+        }
+
+        if (corAtual > 0) {
+            escrever(CORES[0]);
+        }
+        escreverPosicao(linhas, 0);
+        escrever(LIMPAR_ATE_FIM);
+
+        saida.write(buffer, 0, tamanho);
+        saida.flush();
+        primeiroQuadro = false;
+    }
 
-/**
- * Classe IADestruidoraFakeNews representa uma inteligência artificial que destrói fake news dentro da simulação.
- * Esta classe possui um posicionamento específico no mapa.
- */
-class IADestruidoraFakeNews {
     /**
-     * Coordenada X da IA destruidora de fake news.
+     * Retorna o índice da cor usada para desenhar o símbolo.
+     *
+     * @param symbol  O símbolo da célula.
+     * @return O índice da cor em CORES.
      */
-    public int x;
+    private static int cor(char symbol) {
+        switch (symbol) {
+            case 'B':
+                return 1;
+            case 'M':
+                return 2;
+            case 'F':
+                return 3;
+            case 'D':
+                return 4;
+            case 'C':
+                return 5;
+            default:
+                return 0;
+        }
+    }
 
     /**
-     * Coordenada Y da IA destruidora de fake news.
+     * Escreve o código ANSI que posiciona o cursor na linha e coluna informadas (começando em 0).
+     *
+     * @param linha   A linha de destino.
+     * @param coluna  A coluna de destino.
      */
-    public int y;
+    private void escreverPosicao(int linha, int coluna) {
+        escrever((byte) 27);
+        escrever((byte) '[');
+        escreverNumero(linha + 1);
+        escrever((byte) ';');
+        escreverNumero(coluna + 1);
+        escrever((byte) 'H');
+    }
 
     /**
-     * Símbolo que representa a IA destruidora de fake news no mapa.
+     * Escreve um número inteiro positivo em decimal, sem criar strings.
+     *
+     * @param numero  O número a escrever.
      */
-    public char symbol = 'D';
+    private void escreverNumero(int numero) {
+        int divisor = 1;
+        while (divisor <= numero / 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            escrever((byte) ('0' + (numero / divisor) % 10));
+            divisor /= 10;
+        }
+    }
 
     /**
-     * Construtor da classe IADestruidoraFakeNews.
+     * Acrescenta uma sequência de bytes ao buffer do quadro.
      *
-     * @param x A coordenada X inicial da IA destruidora de fake news.
-     * @param y A coordenada Y inicial da IA destruidora de fake news.
+     * @param bytes  Os bytes a acrescentar.
      */
-    public IADestruidoraFakeNews(int x, int y) {
-        this.x = x;
-        this.y = y;
+    private void escrever(byte[] bytes) {
+        garantirEspaco(bytes.length);
+        System.arraycopy(bytes, 0, buffer, tamanho, bytes.length);
+        tamanho += bytes.length;
     }
 
     /**
-     * Método para obter a coordenada X da IA destruidora de fake news.
+     * Acrescenta um byte ao buffer do quadro.
      *
-     * @return A coordenada X da IA destruidora de fake news.
+     * @param b  O byte a acrescentar.
      */
-    public int getX() {
-        return x;
+    private void escrever(byte b) {
+        garantirEspaco(1);
+        buffer[tamanho++] = b;
     }
 
     /**
-     * Método para obter a coordenada Y da IA destruidora de fake news.
+     * Aumenta o buffer, se necessário, para caber mais bytes.
      *
-     * @return A coordenada Y da IA destruidora de fake news.
+     * @param adicional  O número de bytes que serão acrescentados.
      */
-    public int getY() {
-        return y;
+    private void garantirEspaco(int adicional) {
+        if (tamanho + adicional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(tamanho + adicional, buffer.length * 2));
+        }
     }
 }
 
@@ -451,314 +817,893 @@ class IADestruidoraFakeNews {
 
 
 /**
- * Classe IAGeradoraFakeNews representa uma inteligência artificial que gera fake news dentro da simulação.
- * Esta classe possui um posicionamento específico no mapa.
+ * Classe Ator representa um ator do mapa, com a sua posição e a rota de patrulha opcional.
+ * Esta classe implementa a interface IAtor; as subclasses definem apenas o tipo e o símbolo do ator.
  */
-class IAGeradoraFakeNews {
+abstract class Ator implements IAtor {
     /**
-     * Coordenada X da IA geradora de fake news.
+     * Coordenada X do ator.
      */
     public int x;
 
     /**
-     * Coordenada Y da IA geradora de fake news.
+     * Coordenada Y do ator.
      */
     public int y;
 
     /**
-     * Símbolo que representa a IA geradora de fake news no mapa.
+     * Rota de patrulha do ator, ou null se ele é fixo.
      */
-    public char symbol = 'F';
+    private RotaPatrulha rota;
 
     /**
-     * Construtor da classe IAGeradoraFakeNews.
+     * Construtor da classe Ator.
      *
-     * @param x A coordenada X inicial da IA geradora de fake news.
-     * @param y A coordenada Y inicial da IA geradora de fake news.
+     * @param x A coordenada X inicial do ator.
+     * @param y A coordenada Y inicial do ator.
      */
-    public IAGeradoraFakeNews(int x, int y) {
+    Ator(int x, int y) {
         this.x = x;
         this.y = y;
     }
 
     /**
-     * Método para obter a coordenada X da IA geradora de fake news.
+     * Método para obter a coordenada X do ator.
      *
-     * @return A coordenada X da IA geradora de fake news.
+     * @return A coordenada X do ator.
      */
     public int getX() {
         return x;
     }
 
     /**
-     * Método para obter a coordenada Y da IA geradora de fake news.
+     * Método para obter a coordenada Y do ator.
      *
-     * @return A coordenada Y da IA geradora de fake news.
+     * @return A coordenada Y do ator.
      */
     public int getY() {
         return y;
     }
-}
-
 
-
-/**
- * A classe Simulacao representa a simulação como um todo. Nela são definidos os parâmetros
- * e a lógica principal da simulação.
- */
-public class Simulacao {
     /**
-     * Constante que representa o número de linhas no mapa da simulação.
+     * Método para obter a rota de patrulha do ator.
+     *
+     * @return A rota, ou null se o ator é fixo.
      */
-    private static final int LINHAS = 30;
+    public RotaPatrulha getRota() {
+        return rota;
+    }
 
     /**
-     * Constante que representa o número de colunas no mapa da simulação.
+     * Método para definir a rota de patrulha do ator.
+     *
+     * @param rota  A rota, ou null para deixá-lo fixo na posição atual.
      */
-    private static final int COLUNAS = 60;
+    public void setRota(RotaPatrulha rota) {
+        this.rota = rota;
+        if (rota != null) {
+            x = rota.getX();
+            y = rota.getY();
+        }
+    }
 
     /**
-     * Constante que representa o número total de pessoas na simulação.
+     * Método para mover o ator um passo na sua rota de patrulha.
+     * Sem rota, o ator fica parado.
+     *
+     * @param maxX  O limite horizontal do espaço de movimentação.
+     * @param maxY  O limite vertical do espaço de movimentação.
      */
-    private static final int NUM_PESSOAS = 100;
+    public void mover(int maxX, int maxY) {
+        if (rota != null) {
+            rota.avancar(maxX, maxY);
+            x = rota.getX();
+            y = rota.getY();
+        }
+    }
+}
 
+/**
+ * Classe MeioComunicacaoConfiavel representa um meio de comunicação confiável dentro da simulação.
+ * Esta classe possui um posicionamento específico no mapa e estende a classe Ator.
+ */
+class MeioComunicacaoConfiavel extends Ator {
     /**
-     * Constante que representa o número total de iterações que a simulação deve executar.
+     * Símbolo que representa o meio de comunicação confiável no mapa.
      */
-    private static final int NUM_ITERACOES = 1000;
+    public char symbol = 'C';
 
     /**
-     * O método principal da classe Simulacao.
-     * Ele configura e inicia a simulação com base nas constantes definidas.
+     * Construtor da classe MeioComunicacaoConfiavel.
      *
-     * @param args Uma array de strings que pode conter argumentos de linha de comando.
-     * @throws InterruptedException Se a thread principal for interrompida durante a simulação.
-     */
+     * @param x A coordenada X inicial do meio de comunicação confiável.
+     * @param y A coordenada Y inicial do meio de comunicação confiável.
+     */
+    public MeioComunicacaoConfiavel(int x, int y) {
+        super(x, y);
+    }
+
+    /**
+     * Método para obter o tipo do meio de comunicação confiável.
+     *
+     * @return IAtor.MEIO_CONFIAVEL.
+     */
+    public int getTipo() {
+        return IAtor.MEIO_CONFIAVEL;
+    }
+
+    /**
+     * Método para obter o símbolo que representa o meio de comunicação confiável no mapa.
+     *
+     * @return O símbolo do meio de comunicação confiável.
+     */
+    public char getSymbol() {
+        return symbol;
+    }
+}
+
+
+
+/**
+ * Classe IADestruidoraFakeNews representa uma inteligência artificial que destrói fake news dentro da simulação.
+ * Esta classe possui um posicionamento específico no mapa e estende a classe Ator.
+ */
+class IADestruidoraFakeNews extends Ator {
+    /**
+     * Símbolo que representa a IA destruidora de fake news no mapa.
+     */
+    public char symbol = 'D';
+
+    /**
+     * Construtor da classe IADestruidoraFakeNews.
+     *
+     * @param x A coordenada X inicial da IA destruidora de fake news.
+     * @param y A coordenada Y inicial da IA destruidora de fake news.
+     */
+    public IADestruidoraFakeNews(int x, int y) {
+        super(x, y);
+    }
+
+    /**
+     * Método para obter o tipo da IA destruidora de fake news.
+     *
+     * @return IAtor.DESTRUIDORA.
+     */
+    public int getTipo() {
+        return IAtor.DESTRUIDORA;
+    }
+
+    /**
+     * Método para obter o símbolo que representa a IA destruidora de fake news no mapa.
+     *
+     * @return O símbolo da IA destruidora de fake news.
+     */
+    public char getSymbol() {
+        return symbol;
+    }
+}
+
+
+
+
+/**
+ * Classe IAGeradoraFakeNews representa uma inteligência artificial que gera fake news dentro da simulação.
+ * Esta classe possui um posicionamento específico no mapa e estende a classe Ator.
+ */
+class IAGeradoraFakeNews extends Ator {
+    /**
+     * Símbolo que representa a IA geradora de fake news no mapa.
+     */
+    public char symbol = 'F';
+
+    /**
+     * Construtor da classe IAGeradoraFakeNews.
+     *
+     * @param x A coordenada X inicial da IA geradora de fake news.
+     * @param y A coordenada Y inicial da IA geradora de fake news.
+     */
+    public IAGeradoraFakeNews(int x, int y) {
+        super(x, y);
+    }
+
+    /**
+     * Método para obter o tipo da IA geradora de fake news.
+     *
+     * @return IAtor.GERADORA.
+     */
+    public int getTipo() {
+        return IAtor.GERADORA;
+    }
+
+    /**
+     * Método para obter o símbolo que representa a IA geradora de fake news no mapa.
+     *
+     * @return O símbolo da IA geradora de fake news.
+     */
+    public char getSymbol() {
+        return symbol;
+    }
+}
+
+
+
+/**
+ * A classe Simulacao representa a simulação como um todo. Nela é montado o cenário descrito pela
+ * Configuracao e executada a lógica principal da simulação.
+ */
+public class Simulacao {
+    /**
+     * O método principal da classe Simulacao.
+     * Ele configura e inicia a simulação com base nos argumentos de linha de comando e no arquivo de cenário.
+     *
+     * @param args Uma array de strings que pode conter argumentos de linha de comando.
+     * @throws IOException Se o arquivo de cenário não puder ser lido ou as métricas não puderem ser gravadas.
+     * @throws InterruptedException Se a thread principal for interrompida durante a simulação.
+     * @throws JMException Se o MBean de monitoramento não puder ser publicado.
+     */
 
     // Método principal
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) throws IOException, InterruptedException, JMException {
         /**
-         * Representa o mundo em que a simulação ocorrerá.
+         * Com "--varredura" como primeiro argumento, executa uma varredura de parâmetros em vez de uma única simulação.
          */
-        Mundo mundo = new Mundo(LINHAS, COLUNAS);
+        if (args.length > 0 && args[0].equals("--varredura")) {
+            Varredura.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
         /**
-         * Uma lista para armazenar todas as pessoas que serão parte da simulação.
+         * Com "--trabalhador" como primeiro argumento, executa um processo da simulação distribuída, iniciado pelo
+         * CoordenadorDistribuido.
          */
-        List<Pessoa> pessoas = new ArrayList<>();
+        if (args.length > 0 && args[0].equals("--trabalhador")) {
+            TrabalhadorFaixa.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
         /**
-         * Um objeto Random usado para gerar números aleatórios ao longo da simulação.
+         * Com "--reproduzir" como primeiro argumento, imprime os contadores de um rastro gravado com "--rastro", sem
+         * simular de novo.
          */
-        Random random = new Random();
-        
-     
+        if (args.length > 0 && args[0].equals("--reproduzir")) {
+            LeitorRastro.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         /**
-         * Este loop é usado para criar pessoas e adicionar à lista 'pessoas'.
-         * Cada pessoa é inicializada com coordenadas aleatórias e um ID de WhatsApp único.
+         * Parâmetros da execução. Com "--sem-interface", a simulação roda o mais rápido possível, sem montar nem
+         * desenhar o mapa e sem pausas, imprimindo apenas os contadores a cada "--intervalo-amostragem" iterações.
+         * No modo visual, "--atraso-quadro" define a pausa entre os quadros, em milissegundos.
          */
-        for (int i = 0; i < NUM_PESSOAS; i++) {
-            /**
-             * Coordenada X aleatória para a pessoa.
-             */
-            int x = random.nextInt(LINHAS);
+        Configuracao configuracao = Configuracao.deArgumentos(args);
+        long numIteracoes = configuracao.getIteracoes();
+        boolean semInterface = configuracao.isSemInterface();
+        long intervaloAmostragem = configuracao.getIntervaloAmostragem();
+        long atrasoQuadro = configuracao.getAtrasoQuadro();
 
-            /**
-             * Coordenada Y aleatória para a pessoa.
-             */
-            int y = random.nextInt(COLUNAS);
+        /**
+         * Com "--processos n", o mapa é dividido em n faixas de linhas, cada uma simulada por um processo separado,
+         * e este processo apenas coordena a troca entre eles e imprime os contadores.
+         */
+        if (configuracao.getProcessos() > 1) {
+            new CoordenadorDistribuido(configuracao, args).executar();
+            return;
+        }
 
-            /**
-             * ID de WhatsApp para a pessoa, que é uma string única 'ID' concatenada com o índice atual do loop.
-             */
-            String whatsappID = "ID" + i;
+        /**
+         * Quando informado o argumento "--retomar arquivo", a simulação continua a partir do instantâneo gravado no arquivo,
+         * com o mapa, as pessoas, os atores, o raio, a duração da resistência, as mensagens e a semente do instantâneo.
+         */
+        Instantaneo retomado = configuracao.getRetomar() == null ? null : Instantaneo.ler(Paths.get(configuracao.getRetomar()));
+        int linhas = retomado != null ? retomado.getLinhas() : configuracao.getLinhas();
+        int colunas = retomado != null ? retomado.getColunas() : configuracao.getColunas();
+        int raioContato = retomado != null ? retomado.getRaio() : configuracao.getRaioContato();
+
+        /**
+         * Representa o mundo em que a simulação ocorrerá. Não é criado no modo sem interface.
+         */
+        Mundo mundo = semInterface ? null : new Mundo(linhas, colunas, configuracao.getJanelaX(), configuracao.getJanelaY(),
+                configuracao.getJanelaLinhas(), configuracao.getJanelaColunas());
+
+        /**
+         * Semente da simulação, informada pelo argumento "--semente". Duas execuções com a mesma semente
+         * produzem as mesmas posições iniciais e as mesmas trajetórias, com qualquer número de threads.
+         */
+        long semente = retomado != null ? retomado.getSemente() : configuracao.getSemente();
+        System.out.println("Semente: " + semente);
+
+        /**
+         * Gerador de números aleatórios baseado em contador, usado para sortear o movimento de cada pessoa em cada iteração.
+         */
+        GeradorAleatorio gerador = new GeradorAleatorio(semente);
 
+        /**
+         * Armazena o estado de todas as pessoas que serão parte da simulação em arrays primitivos.
+         */
+        Populacao populacao;
+
+        /**
+         * As IAs geradoras, as IAs destruidoras e os meios de comunicação confiáveis.
+         */
+        List<IAtor> atores = new ArrayList<>();
+
+        /**
+         * Primeira iteração a executar: zero, ou a seguinte à do instantâneo retomado.
+         */
+        long primeiraIteracao = 0;
+
+        if (retomado != null) {
+            populacao = retomado.criarPopulacao(gerador);
+            primeiraIteracao = retomado.getProximaIteracao();
+            for (int i = 0; i < retomado.getNumAtores(); i++) {
+                IAtor ator = criarAtor(retomado.getTipoAtor(i), retomado.getAtorX(i), retomado.getAtorY(i));
+                if (retomado.getPatrulha() > 0) {
+                    ator.setRota(new RotaPatrulha(ator.getX(), ator.getY(), retomado.getPatrulha(), primeiraIteracao));
+                }
+                atores.add(ator);
+            }
+            System.out.println("Retomando da iteração " + (primeiraIteracao + 1));
+        } else {
             /**
-             * Cria uma pessoa bem informada com as coordenadas e ID de WhatsApp definidos acima e a adiciona à lista de pessoas.
+             * Um objeto SplittableRandom, derivado da semente, usado para sortear as posições iniciais.
              */
-            Pessoa pessoa = new PessoaBemInformada(x, y, whatsappID);
-            pessoas.add(pessoa);
+            SplittableRandom random = new SplittableRandom(semente);
+            populacao = criarPopulacao(configuracao, gerador, random, null);
+            atores.addAll(criarAtores(configuracao, random));
+        }
+
+        /**
+         * Quando informado o argumento "--arquivo-contatos arquivo", as tabelas das agendas de contatos passam a ser
+         * mapeadas a partir do arquivo, e não da memória direta do processo.
+         */
+        if (configuracao.getArquivoContatos() != null) {
+            populacao.contatos.mapear(Paths.get(configuracao.getArquivoContatos()));
+        }
+
+        /**
+         * Quando informado o argumento "--arquivo-pessoas arquivo", os registros das pessoas passam a ser mapeados a
+         * partir do arquivo.
+         */
+        if (configuracao.getArquivoPessoas() != null) {
+            populacao.mapear(Paths.get(configuracao.getArquivoPessoas()));
+        }
+
+        /**
+         * Índice espacial em grade uniforme que permite encontrar os vizinhos de cada pessoa
+         * olhando apenas para os baldes ao redor dela.
+         */
+        IndiceEspacial indice = criarIndice(populacao, linhas, colunas);
+
+        /**
+         * Quando ativado pelo argumento "--verificar-indice", compara a cada iteração os contatos
+         * encontrados pelo índice espacial com a varredura completa entre todos os pares de pessoas.
+         */
+        boolean verificarIndice = configuracao.isVerificarIndice();
+
+        /**
+         * Motor que executa as fases de movimento e de interações em paralelo, com o número de threads
+         * informado pelo argumento "--threads" (por padrão, o número de processadores disponíveis), a duração da
+         * resistência ("--duracao-resistencia"), o encaminhamento pelas agendas de contatos ("--aceitacao-mensagem")
+         * e a reordenação pela curva de Morton ("--intervalo-reordenacao"). Ao retomar, a duração da resistência, o
+         * raio de contato e as mensagens, com as que estavam em trânsito, vêm do instantâneo.
+         */
+        MotorTick motor = criarMotor(configuracao, populacao, indice, atores);
+        if (retomado != null) {
+            retomado.restaurarMotor(motor);
         }
 
         /**
-         * Cria uma IA geradora de fake news e a inicializa com coordenadas aleatórias.
+         * Quando informado o argumento "--metricas arquivo", os agregados de cada iteração são gravados no arquivo
+         * por uma thread separada, no formato binário, CSV ou JSON lines ("--formato-metricas").
+         */
+        GravadorMetricas gravador = configuracao.getMetricas() == null ? null
+                : new GravadorMetricas(Paths.get(configuracao.getMetricas()), configuracao.getFormatoMetricas());
+
+        /**
+         * Quando informado o argumento "--instantaneo arquivo", o estado completo da simulação é copiado a cada
+         * "--intervalo-instantaneo" iterações e ao final, e gravado no arquivo por uma thread separada.
+         */
+        GravadorInstantaneos gravadorInstantaneos = configuracao.getInstantaneo() == null ? null
+                : new GravadorInstantaneos(Paths.get(configuracao.getInstantaneo()));
+        long intervaloInstantaneo = configuracao.getIntervaloInstantaneo();
+
+        /**
+         * Quando informado o argumento "--rastro arquivo", as transições de estado de cada pessoa são gravadas no
+         * arquivo por uma thread separada, a partir do estado da população antes da primeira iteração.
+         */
+        GravadorRastro rastro = configuracao.getRastro() == null ? null
+                : new GravadorRastro(Paths.get(configuracao.getRastro()), populacao, primeiraIteracao,
+                        configuracao.getIntervaloQuadros());
+        populacao.setRastro(rastro);
+        motor.setRastro(rastro);
+
+        /**
+         * Com "--analise", a floresta de infecções, o número de reprodução efetivo e os surtos são atualizados a cada
+         * iteração a partir das transições de estado, com custo proporcional ao número de transições.
+         */
+        AnaliseSurto analise = configuracao.isAnalise()
+                ? new AnaliseSurto(populacao, indice, raioContato, primeiraIteracao) : null;
+        motor.setAnalise(analise);
+
+        /**
+         * Leitura dos bytes alocados pela thread da simulação e das coletas de lixo, usada nas métricas de cada iteração
+         * e, com o argumento "--verificar-alocacao", para conferir que as iterações não alocam memória.
          */
-        IAGeradoraFakeNews iaGeradoraFakeNews = new IAGeradoraFakeNews(random.nextInt(LINHAS), random.nextInt(COLUNAS));
+        TelemetriaMemoria telemetria = new TelemetriaMemoria();
+        boolean medirMemoria = gravador != null || configuracao.isVerificarAlocacao();
+        long coletasAnteriores = telemetria.coletas();
+        long tempoGcAnterior = telemetria.tempoColetasMs();
 
         /**
-         * Cria uma IA destruidora de fake news e a inicializa com coordenadas aleatórias.
+         * Histogramas da duração de cada fase das iterações, também publicados como eventos do Flight Recorder quando
+         * houver uma gravação ativa. Com "--perfil", o resumo dos histogramas é impresso ao final da execução.
          */
-        IADestruidoraFakeNews iaDestruidoraFakeNews = new IADestruidoraFakeNews(random.nextInt(LINHAS), random.nextInt(COLUNAS));
+        Instrumentacao instrumentacao = new Instrumentacao();
+        motor.setInstrumentacao(instrumentacao);
 
         /**
-         * Cria um meio de comunicação confiável e o inicializa com coordenadas aleatórias.
+         * Quando informado o argumento "--jmx", os contadores, as iterações por segundo e o resumo das fases
+         * são publicados no MBean MonitorSimulacao, para acompanhar a execução com o jconsole.
          */
-        MeioComunicacaoConfiavel meioComunicacaoConfiavel = new MeioComunicacaoConfiavel(random.nextInt(LINHAS), random.nextInt(COLUNAS));
-        
-        
+        MonitorSimulacao monitor = null;
+        if (configuracao.isJmx()) {
+            monitor = new MonitorSimulacao(instrumentacao, numIteracoes);
+            monitor.publicar();
+        }
+
         /**
-         * Este loop executa a simulação para o número de iterações especificado pela constante NUM_ITERACOES.
+         * Este loop executa a simulação para o número de iterações definido na configuração.
          */
-        for (int iteracao = 0; iteracao < NUM_ITERACOES; iteracao++) {
+        for (long iteracao = primeiraIteracao; iteracao < numIteracoes; iteracao++) {
+            boolean ultimaIteracao = iteracao == numIteracoes - 1;
+            long inicioTick = System.nanoTime();
+            instrumentacao.setIteracao(iteracao + 1);
+
             /**
-             * Este loop percorre todas as pessoas da simulação e as move usando o método 'mover'.
+             * Move todas as pessoas da simulação dentro dos limites do mundo, em paralelo,
+             * e atualiza o índice espacial com as novas posições.
              */
-            for (Pessoa pessoa : pessoas) {
-                /**
-                 * Atualiza o estado da pessoa e suas interações, movendo-a dentro dos limites do mundo da simulação.
-                 */
-                pessoa.mover(LINHAS, COLUNAS);
+            long capacidadeAntes = configuracao.isVerificarAlocacao() ? motor.getCapacidadeEstruturas() : 0;
+            long alocacaoInicio = medirMemoria ? telemetria.bytesAlocados() : 0;
+            motor.executarMovimento(iteracao);
+            long bytesAlocados = medirMemoria ? telemetria.bytesAlocados() - alocacaoInicio : 0;
+
+            if (verificarIndice) {
+                verificarIndice(populacao, indice, raioContato);
             }
 
             /**
              * Este bloco atualiza o estado do mundo e as interações entre as pessoas.
+             * O motor lê o estado da iteração anterior e escreve o da próxima em buffers separados,
+             * processando faixas do mapa em paralelo.
              */
-            for (Pessoa pessoa : pessoas) {
-                for (Pessoa outraPessoa : pessoas) {
-                    /**
-                     * Evita que a pessoa interaja consigo mesma.
-                     */
-                    if (pessoa != outraPessoa) {
-                        /**
-                         * Checa se a pessoa e a outra pessoa estão próximas o suficiente (distância de 1 unidade em qualquer direção).
-                         */
-                        if (Math.abs(pessoa.getX() - outraPessoa.getX()) <= 1 && Math.abs(pessoa.getY() - outraPessoa.getY()) <= 1) {
-                            /**
-                             * Troca números de WhatsApp se eles ainda não estiverem na lista de contatos um do outro.
-                             */
-                            if (!pessoa.getAgendaContatos().contains(outraPessoa.getWhatsappID())) {
-                                pessoa.getAgendaContatos().add(outraPessoa.getWhatsappID());
-                                outraPessoa.getAgendaContatos().add(pessoa.getWhatsappID());
-                            }
+            alocacaoInicio = medirMemoria ? telemetria.bytesAlocados() : 0;
+            motor.executarInteracoes();
+            bytesAlocados += medirMemoria ? telemetria.bytesAlocados() - alocacaoInicio : 0;
 
-                            /**
-                             * Se a pessoa é uma PessoaMalInformada e a outra pessoa é uma PessoaBemInformada, a fake news é espalhada.
-                             * A PessoaBemInformada se torna uma PessoaMalInformada se a resistência à fake news dela expirou.
-                             */
-                            if (pessoa instanceof PessoaMalInformada && outraPessoa instanceof PessoaBemInformada) {
-                                if (System.currentTimeMillis() - outraPessoa.getFakeNewsResistanceTimestamp() >= 30000) {
-                                    int index = pessoas.indexOf(outraPessoa);
-                                    pessoas.set(index, new PessoaMalInformada(outraPessoa.getX(), outraPessoa.getY(), outraPessoa.getWhatsappID()));
-                    }
-                }
+            if (rastro != null) {
+                rastro.fimIteracao(iteracao);
+            }
+            if (analise != null) {
+                analise.concluirIteracao();
             }
-        }
-    }
 
-        /**
-        * Checa o contato da pessoa com a IAGeradoraFakeNews.
-        * Se a pessoa está próxima (distância de 1 unidade em qualquer direção) da IAGeradoraFakeNews, e é uma PessoaBemInformada,
-        * ela se torna uma PessoaMalInformada.
-        */
-       if (Math.abs(pessoa.getX() - iaGeradoraFakeNews.getX()) <= 1 && Math.abs(pessoa.getY() - iaGeradoraFakeNews.getY()) <= 1) {
-           if (pessoa instanceof PessoaBemInformada) {
-               int index = pessoas.indexOf(pessoa);
-               pessoas.set(index, new PessoaMalInformada(pessoa.getX(), pessoa.getY(), pessoa.getWhatsappID()));
-           }
-       }
-
-       /**
-        * Checa o contato da pessoa com a IADestruidoraFakeNews.
-        * Se a pessoa está próxima (distância de 1 unidade em qualquer direção) da IADestruidoraFakeNews, e é uma PessoaMalInformada,
-        * ela se torna uma PessoaBemInformada.
-        */
-       if (Math.abs(pessoa.getX() - iaDestruidoraFakeNews.getX()) <= 1 && Math.abs(pessoa.getY() - iaDestruidoraFakeNews.getY()) <= 1) {
-           if (pessoa instanceof PessoaMalInformada) {
-               int index = pessoas.indexOf(pessoa);
-               pessoas.set(index, new PessoaBemInformada(pessoa.getX(), pessoa.getY(), pessoa.getWhatsappID()));
-           }
-       }
-
-       /**
-        * Checa o contato da pessoa com o MeioComunicacaoConfiavel.
-        * Se a pessoa está próxima (distância de 1 unidade em qualquer direção) do MeioComunicacaoConfiavel,
-        * ela ganha resistência à fake news, marcada pelo timestamp corrente.
-        */
-       if (Math.abs(pessoa.getX() - meioComunicacaoConfiavel.getX()) <= 1 && Math.abs(pessoa.getY() - meioComunicacaoConfiavel.getY()) <= 1) {
-           pessoa.setFakeNewsResistanceTimestamp(System.currentTimeMillis());
-       }
-   }
+            if (configuracao.isVerificarAlocacao()) {
+                verificarAlocacao(iteracao + 1, bytesAlocados, configuracao.getLimiteAlocacao(),
+                        capacidadeAntes != motor.getCapacidadeEstruturas());
+            }
+
+            if (gravadorInstantaneos != null && ((iteracao + 1) % intervaloInstantaneo == 0 || ultimaIteracao)) {
+                long inicioFase = System.nanoTime();
+                gravadorInstantaneos.salvar(Instantaneo.capturar(populacao, motor, linhas, colunas, semente, iteracao + 1));
+                instrumentacao.registrar(Instrumentacao.INSTANTANEO, inicioFase);
+            }
 
+            /**
+             * No modo visual, monta e desenha o mapa do mundo a cada iteração.
+             */
+            if (!semInterface) {
+                long inicioFase = System.nanoTime();
 
                 /**
-                * Inicializa o mapa do mundo com espaços vazios.
-                * O tamanho do mapa é definido pelas constantes LINHAS e COLUNAS.
-                */
-                for (int i = 0; i < LINHAS; i++) {
-                    for (int j = 0; j < COLUNAS; j++) {
-                        mundo.mapa[i][j] = ' ';
-                    }
-                }
+                 * Esvazia o mapa do mundo, apagando apenas as células ocupadas na iteração anterior.
+                 */
+                mundo.limpar();
 
                 /**
-                 * Para cada pessoa na lista de pessoas, determina seu tipo (PessoaBemInformada ou PessoaMalInformada)
-                 * e representa-a no mapa com um 'B' ou 'M', respectivamente.
+                 * Para cada pessoa da população, determina seu estado (bem informada ou mal informada)
+                 * e representa-a no mapa com um 'B' ou 'M', respectivamente. As pessoas são desenhadas na ordem das
+                 * identidades, para que a célula ocupada por várias pessoas não dependa da reordenação da população.
                  */
-                for (Pessoa pessoa : pessoas) {
-                    if (pessoa instanceof PessoaBemInformada) {
-                        mundo.mapa[pessoa.getX()][pessoa.getY()] = 'B';
-                    } else if (pessoa instanceof PessoaMalInformada) {
-                        mundo.mapa[pessoa.getX()][pessoa.getY()] = 'M';
-                    }
+                for (int id = 0; id < populacao.tamanho(); id++) {
+                    int i = populacao.getLugar(id);
+                    mundo.colocar(populacao.getX(i), populacao.getY(i), populacao.isMalInformada(i) ? 'M' : 'B');
                 }
 
                 /**
-                 * Representa a IAGeradoraFakeNews, IADestruidoraFakeNews e MeioComunicacaoConfiavel no mapa com seus respectivos símbolos.
+                 * Representa as IAs geradoras, as IAs destruidoras e os meios de comunicação confiáveis no mapa com seus respectivos símbolos.
                  */
-                mundo.mapa[iaGeradoraFakeNews.getX()][iaGeradoraFakeNews.getY()] = iaGeradoraFakeNews.symbol;
-                mundo.mapa[iaDestruidoraFakeNews.getX()][iaDestruidoraFakeNews.getY()] = iaDestruidoraFakeNews.symbol;
-                mundo.mapa[meioComunicacaoConfiavel.getX()][meioComunicacaoConfiavel.getY()] = meioComunicacaoConfiavel.symbol;
+                for (IAtor ator : atores) {
+                    mundo.colocar(ator.getX(), ator.getY(), ator.getSymbol());
+                }
 
                 /**
-                 * Imprime uma linha de divisão e limpa a tela.
+                 * Desenha a janela do mapa do mundo atualizado. A tela é limpa apenas no primeiro quadro;
+                 * nos seguintes, só as células que mudaram são reescritas.
                  */
-                System.out.println("============================================================");
-                System.out.println("\033[H\033[2J");
+                mundo.desenhaMundo();
+                instrumentacao.registrar(Instrumentacao.DESENHO, inicioFase);
+            }
 
+            long inicioEstatisticas = System.nanoTime();
+            if (configuracao.isVerificarContadores()) {
+                verificarContadores(populacao);
+            }
+
+            /**
+             * No modo sem interface, os contadores só são impressos a cada
+             * intervaloAmostragem iterações e na última iteração.
+             */
+            if (!semInterface || (iteracao + 1) % intervaloAmostragem == 0 || ultimaIteracao) {
                 /**
-                 * Desenha o mapa do mundo atualizado.
+                 * Lê os contadores de pessoas com fake news, sem fake news e resistentes a fake news,
+                 * mantidos pela população a cada infecção, cura e concessão ou expiração de resistência.
                  */
-                mundo.desenhaMundo();
+                long pessoasComFakeNews = populacao.getMalInformadas();
+                long pessoasSemFakeNews = populacao.getBemInformadas();
+                long pessoasResistentesFakeNews = populacao.getResistentes();
 
-            
                 /**
-                * Inicializa contadores para acompanhar o número de pessoas com fake news,
-                * sem fake news e resistentes a fake news.
-                */
-               int pessoasComFakeNews = 0;
-               int pessoasSemFakeNews = 0;
-               int pessoasResistentesFakeNews = 0;
-
-               /**
-                * Para cada pessoa na lista de pessoas, verifica se é uma PessoaMalInformada ou PessoaBemInformada.
-                * Se for uma PessoaMalInformada, incrementa o contador de pessoas com fake news.
-                * Se for uma PessoaBemInformada, incrementa o contador de pessoas sem fake news.
-                * Se a PessoaBemInformada é resistente a fake news (ou seja, se passaram menos de 30000 milissegundos desde a última resistência a fake news),
-                * incrementa o contador de pessoas resistentes a fake news.
-                */
-               for (Pessoa pessoa : pessoas) {
-                   if (pessoa instanceof PessoaMalInformada) {
-                       pessoasComFakeNews++;
-                   } else if (pessoa instanceof PessoaBemInformada) {
-                       pessoasSemFakeNews++;
-                       if (System.currentTimeMillis() - pessoa.getFakeNewsResistanceTimestamp() < 30000) {
-                           pessoasResistentesFakeNews++;
-                       }
-                   }
-               }
-
-               /**
-                * Imprime o número atual de pessoas mal informadas, bem informadas e resistentes a fake news.
-                */
-               System.out.println("Mal informadas: " + pessoasComFakeNews);
-               System.out.println("Bem informadas: " + pessoasSemFakeNews);
-               System.out.println("Pessoas resistentes a fake news: " + pessoasResistentesFakeNews);
-
-               /**
-                * Pausa a execução por 1000 milissegundos (1 segundo) antes de passar para a próxima iteração da simulação.
-                */
-               Thread.sleep(1000);
+                 * Imprime o número atual de pessoas mal informadas, bem informadas e resistentes a fake news.
+                 * No modo sem interface, os três contadores saem em uma única linha, precedidos pelo número da iteração.
+                 */
+                if (semInterface) {
+                    System.out.println("Iteração " + (iteracao + 1) + " - Mal informadas: " + pessoasComFakeNews
+                            + ", Bem informadas: " + pessoasSemFakeNews
+                            + ", Pessoas resistentes a fake news: " + pessoasResistentesFakeNews);
+                } else {
+                    System.out.println("Mal informadas: " + pessoasComFakeNews);
+                    System.out.println("Bem informadas: " + pessoasSemFakeNews);
+                    System.out.println("Pessoas resistentes a fake news: " + pessoasResistentesFakeNews);
+                }
+                if (analise != null) {
+                    System.out.println(analise.linha(iteracao + 1));
+                }
+            }
+            instrumentacao.registrar(Instrumentacao.ESTATISTICAS, inicioEstatisticas);
+
+            long fimTick = instrumentacao.registrarIteracao(inicioTick, populacao.getMalInformadas(),
+                    populacao.getBemInformadas(), populacao.getResistentes(), motor.getNovasInfeccoes(), motor.getCuras());
+            if (monitor != null) {
+                monitor.registrarIteracao(iteracao + 1, populacao, motor, fimTick);
+            }
 
+            /**
+             * As métricas são registradas depois do fim da iteração, para que a duração gravada seja a da iteração
+             * inteira, do movimento às estatísticas, a mesma dos eventos do Flight Recorder e do MBean.
+             */
+            if (gravador != null) {
+                long inicioFase = System.nanoTime();
+                long coletas = telemetria.coletas();
+                long tempoGc = telemetria.tempoColetasMs();
+                gravador.registrar(iteracao + 1, populacao.getMalInformadas(), populacao.getBemInformadas(),
+                        populacao.getResistentes(), motor.getNovasInfeccoes(), motor.getCuras(),
+                        motor.getContatosFormados(), fimTick - inicioTick, bytesAlocados,
+                        coletas - coletasAnteriores, tempoGc - tempoGcAnterior);
+                coletasAnteriores = coletas;
+                tempoGcAnterior = tempoGc;
+                instrumentacao.registrar(Instrumentacao.METRICAS, inicioFase);
+            }
+
+            /**
+             * No modo visual, pausa a execução por atrasoQuadro milissegundos (1 segundo, por padrão)
+             * antes de passar para a próxima iteração da simulação.
+             */
+            if (!semInterface && atrasoQuadro > 0) {
+                Thread.sleep(atrasoQuadro);
+            }
+        }
+
+        if (gravador != null) {
+            gravador.close();
+        }
+        if (gravadorInstantaneos != null) {
+            gravadorInstantaneos.close();
+        }
+        if (rastro != null) {
+            rastro.close();
+        }
+        if (analise != null) {
+            System.out.print(analise.resumo());
+        }
+        if (configuracao.isPerfil()) {
+            System.out.print(instrumentacao.resumo());
+        }
+        if (monitor != null) {
+            monitor.retirar();
+        }
+        motor.encerrar();
+    }
+
+    /**
+     * Cria a população inicial da configuração, com cada pessoa em coordenadas aleatórias. Cada pessoa recebe
+     * como ID de WhatsApp a string 'ID' concatenada com o seu identificador, e as primeiras
+     * round(fração de infectados * pessoas) começam mal informadas.
+     *
+     * @param configuracao  A configuração da simulação.
+     * @param gerador       O gerador de números aleatórios usado no movimento das pessoas.
+     * @param random        O gerador usado para sortear as posições iniciais.
+     * @param reservatorio  O reservatório de onde as regiões da população são obtidas, ou null para alocá-las.
+     * @return A população criada.
+     */
+    static Populacao criarPopulacao(Configuracao configuracao, GeradorAleatorio gerador, SplittableRandom random,
+            ReservatorioMemoria reservatorio) {
+        int numPessoas = configuracao.getPessoas();
+        int linhas = configuracao.getLinhas();
+        int colunas = configuracao.getColunas();
+        Populacao populacao = reservatorio == null ? new Populacao(numPessoas, gerador)
+                : new Populacao(numPessoas, gerador, reservatorio);
+
+        /**
+         * Número de pessoas que começam mal informadas, de acordo com "--fracao-infectados".
+         */
+        long numInfectados = Math.round(configuracao.getFracaoInfectados() * numPessoas);
+
+        for (int i = 0; i < numPessoas; i++) {
+            /**
+             * Coordenada X aleatória para a pessoa.
+             */
+            int x = random.nextInt(linhas);
+
+            /**
+             * Coordenada Y aleatória para a pessoa.
+             */
+            int y = random.nextInt(colunas);
+
+            /**
+             * Cria uma pessoa com as coordenadas definidas acima.
+             */
+            populacao.adicionar(x, y, i < numInfectados ? Populacao.MAL_INFORMADA : Populacao.BEM_INFORMADA);
+        }
+
+        /**
+         * Estratégias de movimento: passeio aleatório, atração pelos polos e voos de Lévy.
+         */
+        populacao.getMovimento().configurar(linhas, colunas, configuracao.getFracaoPolos(), configuracao.getPolos(),
+                configuracao.getAtracaoPolos(), configuracao.getFracaoLevy(), configuracao.getExpoenteLevy());
+        return populacao;
+    }
+
+    /**
+     * Cria as IAs geradoras, as IAs destruidoras e os meios de comunicação confiáveis da configuração, nas posições
+     * informadas ou, se nenhuma posição foi informada, em coordenadas aleatórias.
+     *
+     * @param configuracao  A configuração da simulação.
+     * @param random        O gerador usado para sortear as posições aleatórias.
+     * @return Os atores criados.
+     */
+    static List<IAtor> criarAtores(Configuracao configuracao, SplittableRandom random) {
+        int linhas = configuracao.getLinhas();
+        int colunas = configuracao.getColunas();
+        List<IAtor> atores = new ArrayList<>();
+        int[] posicoes = posicoesAtores(configuracao.getGeradoras(), configuracao.getPosicoesGeradoras(), random, linhas, colunas);
+        for (int i = 0; i < posicoes.length; i += 2) {
+            atores.add(new IAGeradoraFakeNews(posicoes[i], posicoes[i + 1]));
+        }
+        posicoes = posicoesAtores(configuracao.getDestruidoras(), configuracao.getPosicoesDestruidoras(), random, linhas, colunas);
+        for (int i = 0; i < posicoes.length; i += 2) {
+            atores.add(new IADestruidoraFakeNews(posicoes[i], posicoes[i + 1]));
+        }
+        posicoes = posicoesAtores(configuracao.getMeios(), configuracao.getPosicoesMeios(), random, linhas, colunas);
+        for (int i = 0; i < posicoes.length; i += 2) {
+            atores.add(new MeioComunicacaoConfiavel(posicoes[i], posicoes[i + 1]));
+        }
+
+        /**
+         * Com "--patrulha", cada ator faz uma ronda em volta da posição em que foi criado.
+         */
+        if (configuracao.getPatrulha() > 0) {
+            for (IAtor ator : atores) {
+                ator.setRota(new RotaPatrulha(ator.getX(), ator.getY(), configuracao.getPatrulha(), 0));
+            }
+        }
+        return atores;
+    }
+
+    /**
+     * Cria o índice espacial do mapa inteiro com as posições atuais das pessoas da população.
+     *
+     * @param populacao  A população cujas pessoas são inseridas no índice.
+     * @param linhas     O número de linhas do mapa.
+     * @param colunas    O número de colunas do mapa.
+     * @return O índice espacial criado.
+     */
+    static IndiceEspacial criarIndice(Populacao populacao, int linhas, int colunas) {
+        IndiceEspacial indice = new IndiceEspacial(linhas, colunas, populacao.tamanho());
+        for (int i = 0; i < populacao.tamanho(); i++) {
+            indice.inserir(i, populacao.getX(i), populacao.getY(i));
+        }
+        return indice;
+    }
+
+    /**
+     * Cria o motor da simulação da configuração, com o índice espacial do mapa inteiro montado a partir da população.
+     *
+     * @param configuracao  A configuração da simulação.
+     * @param populacao     A população a ser atualizada.
+     * @param atores        Os atores da simulação.
+     * @return O motor configurado; o índice espacial é obtido por MotorTick.getIndice.
+     */
+    static MotorTick criarMotor(Configuracao configuracao, Populacao populacao, List<? extends IAtor> atores) {
+        return criarMotor(configuracao, populacao, criarIndice(populacao, configuracao.getLinhas(), configuracao.getColunas()),
+                atores);
+    }
+
+    /**
+     * Cria o motor da simulação com a duração da resistência, o raio de contato, os atores, as mensagens e o intervalo
+     * de reordenação da configuração. Se algum valor for recusado pelo motor, o motor é encerrado antes de a exceção
+     * ser propagada, para não deixar as threads do motor ativas.
+     *
+     * @param configuracao  A configuração da simulação.
+     * @param populacao     A população a ser atualizada.
+     * @param indice        O índice espacial com as posições atuais das pessoas.
+     * @param atores        Os atores da simulação.
+     * @return O motor configurado.
+     */
+    static MotorTick criarMotor(Configuracao configuracao, Populacao populacao, IndiceEspacial indice,
+            List<? extends IAtor> atores) {
+        MotorTick motor = new MotorTick(populacao, indice, configuracao.getThreads());
+        try {
+            motor.setDuracaoResistencia(configuracao.getDuracaoResistencia());
+            motor.setRaio(configuracao.getRaioContato());
+            motor.definirAtores(atores);
+            motor.setMensagens(configuracao.getAceitacaoMensagem(), configuracao.getAtrasoMensagem(),
+                    configuracao.getAtrasoMensagemMax());
+            motor.setIntervaloReordenacao(configuracao.getIntervaloReordenacao());
+        } catch (RuntimeException e) {
+            motor.encerrar();
+            throw e;
+        }
+        return motor;
+    }
+
+    /**
+     * Cria um ator do tipo informado, usado para restaurar os atores de um instantâneo.
+     *
+     * @param tipo  O tipo do ator (IAtor.GERADORA, IAtor.DESTRUIDORA ou IAtor.MEIO_CONFIAVEL).
+     * @param x     A coordenada X do ator.
+     * @param y     A coordenada Y do ator.
+     * @return O ator.
+     * @throws IllegalArgumentException Se o tipo for desconhecido.
+     */
+    private static IAtor criarAtor(int tipo, int x, int y) {
+        switch (tipo) {
+            case IAtor.GERADORA:
+                return new IAGeradoraFakeNews(x, y);
+            case IAtor.DESTRUIDORA:
+                return new IADestruidoraFakeNews(x, y);
+            case IAtor.MEIO_CONFIAVEL:
+                return new MeioComunicacaoConfiavel(x, y);
+            default:
+                throw new IllegalArgumentException("Tipo de ator desconhecido: " + tipo);
+        }
+    }
+
+    /**
+     * Retorna as posições de um tipo de ator, intercaladas (x0, y0, x1, y1, ...).
+     *
+     * @param quantidade  O número de atores com posição aleatória, usado se nenhuma posição fixa foi informada.
+     * @param fixas       As posições fixas informadas na configuração, ou null.
+     * @param random      O gerador usado para sortear as posições aleatórias.
+     * @param linhas      O número de linhas do mapa.
+     * @param colunas     O número de colunas do mapa.
+     * @return As posições dos atores.
+     */
+    private static int[] posicoesAtores(int quantidade, int[] fixas, SplittableRandom random, int linhas, int colunas) {
+        if (fixas != null) {
+            return fixas;
+        }
+        int[] posicoes = new int[2 * quantidade];
+        for (int i = 0; i < posicoes.length; i += 2) {
+            posicoes[i] = random.nextInt(linhas);
+            posicoes[i + 1] = random.nextInt(colunas);
+        }
+        return posicoes;
+    }
+
+    /**
+     * Confere se uma iteração em que nenhuma estrutura cresceu alocou no máximo o limite de bytes na thread da simulação.
+     * Com mais de uma thread, as faixas processadas pelas threads do pool não entram na medida.
+     *
+     * @param iteracao       O número da iteração, a partir de 1.
+     * @param bytesAlocados  Os bytes alocados pela thread da simulação nas fases de movimento e de interações.
+     * @param limite         O número máximo de bytes.
+     * @param cresceu        true se alguma estrutura da população ou do motor cresceu na iteração.
+     * @throws IllegalStateException Se a iteração alocou mais que o limite sem que nenhuma estrutura tenha crescido.
+     */
+    private static void verificarAlocacao(long iteracao, long bytesAlocados, long limite, boolean cresceu) {
+        if (!cresceu && bytesAlocados > limite) {
+            throw new IllegalStateException("A iteração " + iteracao + " alocou " + bytesAlocados
+                    + " bytes sem que nenhuma estrutura tenha crescido (limite de " + limite + " bytes).");
+        }
+    }
+
+    /**
+     * Confere se os contadores mantidos pela população são iguais aos obtidos percorrendo todas as pessoas.
+     *
+     * @param populacao  A população da simulação.
+     * @throws IllegalStateException Se algum contador divergir da contagem completa.
+     */
+    private static void verificarContadores(Populacao populacao) {
+        long malInformadas = 0;
+        long resistentes = 0;
+        for (int i = 0; i < populacao.tamanho(); i++) {
+            if (populacao.isMalInformada(i)) {
+                malInformadas++;
+            } else if (populacao.isResistente(i)) {
+                resistentes++;
+            }
+        }
+        if (malInformadas != populacao.getMalInformadas() || resistentes != populacao.getResistentes()) {
+            throw new IllegalStateException("Contadores incrementais divergem da contagem completa na iteração " + populacao.iteracao
+                    + ": mal informadas " + populacao.getMalInformadas() + " (esperado " + malInformadas + "), resistentes "
+                    + populacao.getResistentes() + " (esperado " + resistentes + ").");
+        }
+    }
+
+    /**
+     * Confere se o índice espacial encontra exatamente os mesmos contatos que a varredura completa
+     * entre todos os pares de pessoas (distância de até raio unidades em qualquer direção).
+     *
+     * @param populacao  A população da simulação.
+     * @param indice     O índice espacial atualizado com as posições atuais das pessoas.
+     * @param raio       O raio de contato.
+     * @throws IllegalStateException Se os contatos de alguma pessoa divergirem entre os dois métodos.
+     */
+    private static void verificarIndice(Populacao populacao, IndiceEspacial indice, int raio) {
+        boolean[] encontrado = new boolean[populacao.tamanho()];
+        for (int i = 0; i < populacao.tamanho(); i++) {
+            int x = populacao.getX(i);
+            int y = populacao.getY(i);
+
+            /**
+             * Marca os vizinhos encontrados pelo índice espacial nos baldes que cobrem a vizinhança.
+             */
+            int vizinhosIndice = 0;
+            int bxMax = indice.baldeLinha(Math.min(indice.getLinhas() - 1, x + raio));
+            int byMax = indice.baldeColuna(Math.min(indice.getColunas() - 1, y + raio));
+            for (int cx = indice.baldeLinha(Math.max(0, x - raio)); cx <= bxMax; cx++) {
+                for (int cy = indice.baldeColuna(Math.max(0, y - raio)); cy <= byMax; cy++) {
+                    for (int j = indice.primeiro(cx, cy); j != IndiceEspacial.VAZIO; j = indice.proximo(j)) {
+                        if (j != i && MotorTick.proximo(x, y, populacao.getX(j), populacao.getY(j), raio)) {
+                            if (encontrado[j]) {
+                                throw new IllegalStateException("Índice espacial retornou a pessoa " + j + " duas vezes como vizinha de " + i + ".");
+                            }
+                            encontrado[j] = true;
+                            vizinhosIndice++;
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Confere cada par pela varredura completa e desmarca os vizinhos encontrados.
+             */
+            int vizinhosForcaBruta = 0;
+            for (int j = 0; j < populacao.tamanho(); j++) {
+                if (j != i && Math.abs(x - populacao.getX(j)) <= raio && Math.abs(y - populacao.getY(j)) <= raio) {
+                    if (!encontrado[j]) {
+                        throw new IllegalStateException("Índice espacial não encontrou o contato entre as pessoas " + i + " e " + j + ".");
+                    }
+                    vizinhosForcaBruta++;
+                }
+                encontrado[j] = false;
+            }
+
+            if (vizinhosIndice != vizinhosForcaBruta) {
+                throw new IllegalStateException("Índice espacial encontrou " + vizinhosIndice + " contatos para a pessoa " + i
+                        + ", mas a varredura completa encontrou " + vizinhosForcaBruta + ".");
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+/**
+ * Importa a interface ThreadMXBean da JVM HotSpot para medir os bytes alocados pela thread corrente.
+ */
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Importa a classe GarbageCollectorMXBean para medir as coletas de lixo.
+ */
+import java.lang.management.GarbageCollectorMXBean;
+
+/**
+ * Importa a classe ManagementFactory para obter os MXBeans da JVM.
+ */
+import java.lang.management.ManagementFactory;
+
+/**
+ * Classe TelemetriaMemoria representa a leitura dos contadores de memória da JVM usados nas métricas de cada iteração:
+ * os bytes alocados pela thread corrente (ThreadMXBean) e o número e o tempo acumulado das coletas de lixo
+ * (GarbageCollectorMXBean). Os coletores são obtidos uma única vez, e as leituras não alocam objetos, para que a
+ * própria medição não apareça nas iterações medidas.
+ */
+class TelemetriaMemoria {
+    /**
+     * MXBean das threads, ou null se a JVM não medir a alocação por thread.
+     */
+    private final ThreadMXBean threads;
+
+    /**
+     * Coletores de lixo da JVM.
+     */
+    private final GarbageCollectorMXBean[] coletores;
+
+    /**
+     * Construtor da classe TelemetriaMemoria. Ativa a medição da alocação por thread, se a JVM oferecer essa medida.
+     */
+    public TelemetriaMemoria() {
+        java.lang.management.ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        if (mxBean instanceof ThreadMXBean && ((ThreadMXBean) mxBean).isThreadAllocatedMemorySupported()) {
+            this.threads = (ThreadMXBean) mxBean;
+            this.threads.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.threads = null;
+        }
+        this.coletores = ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+    }
+
+    /**
+     * Indica se a JVM mede os bytes alocados por thread.
+     *
+     * @return true se bytesAlocados retornar a medida real.
+     */
+    public boolean isAlocacaoDisponivel() {
+        return threads != null;
+    }
+
+    /**
+     * Retorna o total de bytes alocados pela thread corrente desde que ela foi criada.
+     *
+     * @return O total de bytes alocados, ou 0 se a JVM não oferecer essa medida.
+     */
+    public long bytesAlocados() {
+        return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Retorna o número de coletas de lixo feitas por todos os coletores desde o início da JVM.
+     *
+     * @return O número total de coletas.
+     */
+    public long coletas() {
+        long total = 0;
+        for (int i = 0; i < coletores.length; i++) {
+            total += Math.max(0, coletores[i].getCollectionCount());
+        }
+        return total;
+    }
+
+    /**
+     * Retorna o tempo acumulado das coletas de lixo de todos os coletores desde o início da JVM.
+     *
+     * @return O tempo total de coleta, em milissegundos.
+     */
+    public long tempoColetasMs() {
+        long total = 0;
+        for (int i = 0; i < coletores.length; i++) {
+            total += Math.max(0, coletores[i].getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,587 @@
+/**
+ * Importa a classe BufferedInputStream para ler do coordenador em blocos.
+ */
+import java.io.BufferedInputStream;
+
+/**
+ * Importa a classe BufferedOutputStream para escrever para o coordenador em blocos.
+ */
+import java.io.BufferedOutputStream;
+
+/**
+ * Importa a classe ByteArrayOutputStream, base dos buffers em que as seções de cada iteração são montadas.
+ */
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Importa a classe DataInputStream para ler os quadros do coordenador.
+ */
+import java.io.DataInputStream;
+
+/**
+ * Importa a classe DataOutputStream para escrever os quadros e os registros das pessoas.
+ */
+import java.io.DataOutputStream;
+
+/**
+ * Importa a classe IOException para tratar erros de comunicação com o coordenador.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe InetAddress para conectar ao coordenador pela interface local.
+ */
+import java.net.InetAddress;
+
+/**
+ * Importa a classe Socket para a conexão com o coordenador.
+ */
+import java.net.Socket;
+
+/**
+ * Importa a classe ByteBuffer para ler os registros das seções recebidas.
+ */
+import java.nio.ByteBuffer;
+
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Importa a classe SplittableRandom para sortear as posições iniciais, na mesma sequência da simulação em um processo.
+ */
+import java.util.SplittableRandom;
+
+/**
+ * Classe TrabalhadorFaixa representa um processo da simulação distribuída, dono de uma faixa de linhas do mapa
+ * (DecomposicaoFaixas). Ele guarda apenas as pessoas da sua faixa, com as agendas de contatos e as mensagens enviadas
+ * por elas, e executa as iterações com um MotorTick próprio, sincronizado com os outros processos pelo
+ * CoordenadorDistribuido. Cada iteração tem quatro etapas:
+ *
+ * 1. Move as pessoas da faixa e os atores, que todos os processos conhecem, e retira da agenda as mensagens da iteração.
+ * 2. Separa as pessoas que saíram da faixa (migrantes, com a agenda de contatos) e as que estão na borda da faixa de
+ *    outro processo (fantasmas, apenas com posição e estado), e envia ao coordenador uma seção para cada processo e
+ *    a lista das mensagens cujo destinatário não está mais na faixa.
+ * 3. Recebe do coordenador as seções dos outros processos: os migrantes passam a ser da faixa, e os fantasmas entram no
+ *    índice espacial depois deles, para serem vistos como vizinhos sem serem processados.
+ * 4. Executa a fase de interações com as mensagens destinadas às pessoas da faixa, descarta os fantasmas e envia ao
+ *    coordenador os contadores da iteração.
+ *
+ * Como o movimento, os contágios e as mensagens dependem apenas da semente, das identidades e da iteração, e os
+ * fantasmas levam o estado da iteração anterior, cada pessoa tem na faixa exatamente os mesmos vizinhos e a mesma
+ * evolução que teria na simulação em um único processo. Os processos não reordenam as pessoas na memória.
+ */
+class TrabalhadorFaixa {
+    /**
+     * Índice deste processo, que define a sua faixa.
+     */
+    private final int processo;
+
+    /**
+     * Divisão das linhas do mapa entre os processos.
+     */
+    private final DecomposicaoFaixas faixas;
+
+    /**
+     * Número de colunas do mapa.
+     */
+    private final int colunas;
+
+    /**
+     * Raio de contato, que também é a altura da borda das faixas.
+     */
+    private final int raio;
+
+    /**
+     * Pessoas da faixa e, durante a fase de interações, os fantasmas recebidos.
+     */
+    private final Populacao populacao;
+
+    /**
+     * Índice espacial que cobre a faixa e a sua borda.
+     */
+    private final IndiceEspacial indice;
+
+    /**
+     * Motor que executa as fases de cada iteração sobre as pessoas da faixa.
+     */
+    private final MotorTick motor;
+
+    /**
+     * Migrantes para cada processo na iteração corrente.
+     */
+    private final BufferTroca[] migrantes;
+
+    /**
+     * Fantasmas para cada processo na iteração corrente. O buffer deste processo guarda as pessoas que saíram da faixa
+     * mas continuam na sua borda, e não passa pelo coordenador.
+     */
+    private final BufferTroca[] fantasmas;
+
+    /**
+     * Destinatários de mensagens da iteração que não estão na faixa depois do movimento.
+     */
+    private final BufferTroca entregasRemotas;
+
+    /**
+     * Seções recebidas de cada processo na iteração corrente.
+     */
+    private byte[][] recebidas;
+
+    /**
+     * Tamanho, em bytes, da seção recebida de cada processo.
+     */
+    private final int[] tamanhosRecebidos;
+
+    /**
+     * Listas de destinatários recebidas de cada processo na iteração corrente.
+     */
+    private byte[][] entregasRecebidas;
+
+    /**
+     * Tamanho, em bytes, da lista de destinatários recebida de cada processo.
+     */
+    private final int[] tamanhosEntregas;
+
+    /**
+     * Tabela de contatos do último migrante recebido, reaproveitada entre os migrantes.
+     */
+    private int[] tabela = new int[0];
+
+    /**
+     * Identidades dos destinatários das mensagens entregues na faixa na iteração corrente.
+     */
+    private int[] entregas = new int[16];
+
+    /**
+     * Número de destinatários em entregas.
+     */
+    private int numEntregas;
+
+    /**
+     * Leitura dos bytes alocados e das coletas de lixo, enviada ao coordenador a cada iteração.
+     */
+    private final TelemetriaMemoria telemetria = new TelemetriaMemoria();
+
+    /**
+     * Fluxo de leitura da conexão com o coordenador.
+     */
+    private final DataInputStream entrada;
+
+    /**
+     * Fluxo de escrita da conexão com o coordenador.
+     */
+    private final DataOutputStream saida;
+
+    /**
+     * Construtor da classe TrabalhadorFaixa. Sorteia as posições iniciais de todas as pessoas, na mesma sequência da
+     * simulação em um processo, e guarda apenas as da faixa; os atores são criados em seguida, como lá.
+     *
+     * @param configuracao  A configuração da simulação, com a semente já definida pelo coordenador.
+     * @param processo      O índice deste processo.
+     * @param conexao       A conexão com o coordenador.
+     * @throws IOException Se não for possível abrir os fluxos da conexão.
+     */
+    public TrabalhadorFaixa(Configuracao configuracao, int processo, Socket conexao) throws IOException {
+        int linhas = configuracao.getLinhas();
+        int numPessoas = configuracao.getPessoas();
+        int processos = configuracao.getProcessos();
+        this.processo = processo;
+        this.faixas = new DecomposicaoFaixas(linhas, processos);
+        this.colunas = configuracao.getColunas();
+        this.raio = configuracao.getRaioContato();
+
+        SplittableRandom random = new SplittableRandom(configuracao.getSemente());
+        GeradorAleatorio gerador = new GeradorAleatorio(configuracao.getSemente());
+        int inicioBorda = faixas.inicioComBorda(processo, raio);
+        int fimBorda = faixas.fimComBorda(processo, raio);
+        int capacidade = (int) ((long) numPessoas * (fimBorda - inicioBorda) / linhas) + 1;
+        this.populacao = new Populacao(capacidade, gerador);
+        populacao.contatos.garantirCapacidade(numPessoas);
+        long numInfectados = Math.round(configuracao.getFracaoInfectados() * numPessoas);
+        for (int i = 0; i < numPessoas; i++) {
+            int x = random.nextInt(linhas);
+            int y = random.nextInt(colunas);
+            if (faixas.dono(x) == processo) {
+                populacao.adicionar(i, x, y, i < numInfectados ? Populacao.MAL_INFORMADA : Populacao.BEM_INFORMADA, 0);
+            }
+        }
+        populacao.getMovimento().configurar(linhas, colunas, configuracao.getFracaoPolos(), configuracao.getPolos(),
+                configuracao.getAtracaoPolos(), configuracao.getFracaoLevy(), configuracao.getExpoenteLevy());
+
+        this.indice = new IndiceEspacial(linhas, colunas, inicioBorda, fimBorda, capacidade);
+        this.motor = Simulacao.criarMotor(configuracao, populacao, indice, Simulacao.criarAtores(configuracao, random));
+
+        /**
+         * As posições depois das pessoas próprias guardam cópias das vizinhas de outros processos; a reordenação as
+         * misturaria às próprias, então as faixas não reordenam a população.
+         */
+        motor.setIntervaloReordenacao(0);
+
+        this.migrantes = new BufferTroca[processos];
+        this.fantasmas = new BufferTroca[processos];
+        for (int k = 0; k < processos; k++) {
+            migrantes[k] = new BufferTroca();
+            fantasmas[k] = new BufferTroca();
+        }
+        this.entregasRemotas = new BufferTroca();
+        this.recebidas = new byte[processos][0];
+        this.tamanhosRecebidos = new int[processos];
+        this.entregasRecebidas = new byte[processos][0];
+        this.tamanhosEntregas = new int[processos];
+
+        conexao.setTcpNoDelay(true);
+        this.entrada = new DataInputStream(new BufferedInputStream(conexao.getInputStream(), 1 << 16));
+        this.saida = new DataOutputStream(new BufferedOutputStream(conexao.getOutputStream(), 1 << 16));
+        saida.writeInt(processo);
+        saida.flush();
+    }
+
+    /**
+     * Ponto de entrada de um processo da simulação distribuída, iniciado pelo CoordenadorDistribuido por meio de
+     * "java Simulacao --trabalhador porta processo argumentos...".
+     *
+     * @param args  A porta do coordenador, o índice do processo e os argumentos da simulação.
+     * @throws IOException Se a comunicação com o coordenador falhar.
+     */
+    public static void main(String[] args) throws IOException {
+        int porta = Integer.parseInt(args[0]);
+        int processo = Integer.parseInt(args[1]);
+        Configuracao configuracao = Configuracao.deArgumentos(Arrays.copyOfRange(args, 2, args.length));
+        try (Socket conexao = new Socket(InetAddress.getLoopbackAddress(), porta)) {
+            new TrabalhadorFaixa(configuracao, processo, conexao).executar(configuracao.getIteracoes());
+        }
+    }
+
+    /**
+     * Executa todas as iterações da simulação, em sincronia com os outros processos.
+     *
+     * @param numIteracoes  O número de iterações.
+     * @throws IOException Se a comunicação com o coordenador falhar.
+     */
+    public void executar(long numIteracoes) throws IOException {
+        long coletasAnteriores = telemetria.coletas();
+        long tempoGcAnterior = telemetria.tempoColetasMs();
+        try {
+            for (long iteracao = 0; iteracao < numIteracoes; iteracao++) {
+                long alocacaoInicio = telemetria.bytesAlocados();
+                motor.executarDeslocamento(iteracao);
+                separar(iteracao);
+                enviarSecoes();
+                receberSecoes();
+                int proprias = incorporar();
+
+                indice.reconstruir(populacao);
+                motor.setPessoasProprias(proprias);
+                motor.executarInteracoes(entregas, numEntregas);
+                for (int i = populacao.tamanho() - 1; i >= proprias; i--) {
+                    populacao.remover(i);
+                }
+
+                long coletas = telemetria.coletas();
+                long tempoGc = telemetria.tempoColetasMs();
+                saida.writeLong(populacao.getMalInformadas());
+                saida.writeLong(populacao.getBemInformadas());
+                saida.writeLong(populacao.getResistentes());
+                saida.writeLong(motor.getNovasInfeccoes());
+                saida.writeLong(motor.getCuras());
+                saida.writeLong(motor.getEntradasContatos());
+                saida.writeLong(telemetria.bytesAlocados() - alocacaoInicio);
+                saida.writeLong(coletas - coletasAnteriores);
+                saida.writeLong(tempoGc - tempoGcAnterior);
+                saida.flush();
+                coletasAnteriores = coletas;
+                tempoGcAnterior = tempoGc;
+            }
+        } finally {
+            motor.encerrar();
+        }
+    }
+
+    /**
+     * Separa, depois do movimento, as pessoas que saíram da faixa e as que estão na borda de outras faixas, e as
+     * mensagens da iteração cujo destinatário não está mais na faixa. As pessoas são percorridas do fim para o começo,
+     * para que a última pessoa, que toma o lugar de cada migrante removido, já tenha sido separada.
+     *
+     * @param iteracao  A iteração corrente.
+     * @throws IOException Nunca, pois os buffers são em memória.
+     */
+    private void separar(long iteracao) throws IOException {
+        for (int k = 0; k < migrantes.length; k++) {
+            migrantes[k].limpar();
+            fantasmas[k].limpar();
+        }
+        entregasRemotas.limpar();
+
+        int ultimaLinha = faixas.getLinhas() - 1;
+        for (int i = populacao.tamanho() - 1; i >= 0; i--) {
+            int x = populacao.getX(i);
+            int y = populacao.getY(i);
+            int identidade = populacao.getIdentidade(i);
+            byte estado = populacao.getEstado(i);
+            int dono = faixas.dono(x);
+
+            // A pessoa é vizinha das faixas que estão a até raio linhas dela.
+            int ultimoVizinho = faixas.dono(Math.min(ultimaLinha, x + raio));
+            for (int k = faixas.dono(Math.max(0, x - raio)); k <= ultimoVizinho; k++) {
+                if (k != dono) {
+                    BufferTroca fantasma = fantasmas[k];
+                    fantasma.writeInt(identidade);
+                    fantasma.writeInt(x);
+                    fantasma.writeInt(y);
+                    fantasma.writeByte(estado);
+                    fantasma.registros++;
+                }
+            }
+
+            if (dono != processo) {
+                BufferTroca migrante = migrantes[dono];
+                int tamanhoTabela = populacao.contatos.tamanhoTabela(identidade);
+                migrante.writeInt(identidade);
+                migrante.writeInt(x);
+                migrante.writeInt(y);
+                migrante.writeByte(estado);
+                migrante.writeLong(populacao.getResistenciaAte(i));
+                migrante.writeInt(populacao.contatos.grau(identidade));
+                migrante.writeInt(tamanhoTabela);
+                for (int k = 0; k < tamanhoTabela; k++) {
+                    migrante.writeInt(populacao.contatos.valorTabela(identidade, k));
+                }
+                migrante.registros++;
+                populacao.contatos.remover(identidade);
+                populacao.remover(i);
+            }
+        }
+
+        numEntregas = 0;
+        int retiradas = motor.getAgendaMensagens().retirar(iteracao);
+        int[] destinatarios = motor.getAgendaMensagens().getDestinatariosRetirados();
+        for (int k = 0; k < retiradas; k++) {
+            if (populacao.procurar(destinatarios[k]) >= 0) {
+                adicionarEntrega(destinatarios[k]);
+            } else {
+                entregasRemotas.writeInt(destinatarios[k]);
+            }
+        }
+    }
+
+    /**
+     * Envia ao coordenador a seção de cada outro processo, com os migrantes seguidos dos fantasmas, e a lista dos
+     * destinatários de mensagens que não estão na faixa. A seção deste processo é enviada vazia.
+     *
+     * @throws IOException Se a comunicação com o coordenador falhar.
+     */
+    private void enviarSecoes() throws IOException {
+        for (int k = 0; k < migrantes.length; k++) {
+            if (k == processo) {
+                saida.writeInt(0);
+                continue;
+            }
+            saida.writeInt(8 + migrantes[k].size() + fantasmas[k].size());
+            saida.writeInt(migrantes[k].registros);
+            migrantes[k].writeTo(saida);
+            saida.writeInt(fantasmas[k].registros);
+            fantasmas[k].writeTo(saida);
+        }
+        saida.writeInt(entregasRemotas.size());
+        entregasRemotas.writeTo(saida);
+        saida.flush();
+    }
+
+    /**
+     * Recebe do coordenador as seções e as listas de destinatários enviadas a este processo pelos outros.
+     *
+     * @throws IOException Se a comunicação com o coordenador falhar.
+     */
+    private void receberSecoes() throws IOException {
+        for (int w = 0; w < recebidas.length; w++) {
+            int tamanho = entrada.readInt();
+            if (recebidas[w].length < tamanho) {
+                recebidas[w] = new byte[Math.max(tamanho, recebidas[w].length * 2)];
+            }
+            entrada.readFully(recebidas[w], 0, tamanho);
+            tamanhosRecebidos[w] = tamanho;
+        }
+        for (int w = 0; w < entregasRecebidas.length; w++) {
+            int tamanho = entrada.readInt();
+            if (entregasRecebidas[w].length < tamanho) {
+                entregasRecebidas[w] = new byte[Math.max(tamanho, entregasRecebidas[w].length * 2)];
+            }
+            entrada.readFully(entregasRecebidas[w], 0, tamanho);
+            tamanhosEntregas[w] = tamanho;
+        }
+    }
+
+    /**
+     * Acrescenta à população os migrantes recebidos, depois os fantasmas recebidos e os que saíram desta faixa mas
+     * continuam na sua borda, e junta às entregas da faixa as mensagens recebidas cujo destinatário agora está nela.
+     *
+     * @return O número de pessoas da faixa, que ocupam as primeiras posições da população.
+     */
+    private int incorporar() {
+        int[] inicioFantasmas = new int[recebidas.length];
+        for (int w = 0; w < recebidas.length; w++) {
+            if (tamanhosRecebidos[w] == 0) {
+                continue;
+            }
+            ByteBuffer secao = ByteBuffer.wrap(recebidas[w], 0, tamanhosRecebidos[w]);
+            for (int n = secao.getInt(); n > 0; n--) {
+                int identidade = secao.getInt();
+                int x = secao.getInt();
+                int y = secao.getInt();
+                byte estado = secao.get();
+                long resistenciaAte = secao.getLong();
+                int grau = secao.getInt();
+                int tamanhoTabela = secao.getInt();
+                if (tabela.length < tamanhoTabela) {
+                    tabela = new int[tamanhoTabela];
+                }
+                for (int k = 0; k < tamanhoTabela; k++) {
+                    tabela[k] = secao.getInt();
+                }
+                populacao.adicionar(identidade, x, y, estado, resistenciaAte);
+                populacao.contatos.restaurar(identidade, tabela, 0, tamanhoTabela, grau);
+            }
+            inicioFantasmas[w] = secao.position();
+        }
+        int proprias = populacao.tamanho();
+
+        for (int w = 0; w < recebidas.length; w++) {
+            if (tamanhosRecebidos[w] != 0) {
+                ByteBuffer secao = ByteBuffer.wrap(recebidas[w], 0, tamanhosRecebidos[w]);
+                secao.position(inicioFantasmas[w]);
+                adicionarFantasmas(secao);
+            }
+        }
+        ByteBuffer proprios = ByteBuffer.wrap(fantasmas[processo].bytes(), 0, fantasmas[processo].size());
+        for (int n = fantasmas[processo].registros; n > 0; n--) {
+            adicionarFantasma(proprios);
+        }
+
+        adicionarEntregas(ByteBuffer.wrap(entregasRemotas.bytes(), 0, entregasRemotas.size()), proprias);
+        for (int w = 0; w < entregasRecebidas.length; w++) {
+            adicionarEntregas(ByteBuffer.wrap(entregasRecebidas[w], 0, tamanhosEntregas[w]), proprias);
+        }
+        return proprias;
+    }
+
+    /**
+     * Acrescenta à população os fantasmas de uma seção, precedidos pela quantidade.
+     *
+     * @param secao  A seção, posicionada na quantidade de fantasmas.
+     */
+    private void adicionarFantasmas(ByteBuffer secao) {
+        for (int n = secao.getInt(); n > 0; n--) {
+            adicionarFantasma(secao);
+        }
+    }
+
+    /**
+     * Acrescenta à população um fantasma lido da seção. O fantasma não é resistente, pois a resistência só é lida
+     * na avaliação da própria pessoa, que é feita pelo processo dono dela.
+     *
+     * @param secao  A seção, posicionada no registro do fantasma.
+     */
+    private void adicionarFantasma(ByteBuffer secao) {
+        int identidade = secao.getInt();
+        int x = secao.getInt();
+        int y = secao.getInt();
+        populacao.adicionar(identidade, x, y, secao.get(), 0);
+    }
+
+    /**
+     * Junta às entregas da faixa os destinatários de uma lista que são pessoas da faixa.
+     *
+     * @param lista     A lista de identidades.
+     * @param proprias  O número de pessoas da faixa.
+     */
+    private void adicionarEntregas(ByteBuffer lista, int proprias) {
+        while (lista.hasRemaining()) {
+            int destinatario = lista.getInt();
+            int lugar = populacao.procurar(destinatario);
+            if (lugar >= 0 && lugar < proprias) {
+                adicionarEntrega(destinatario);
+            }
+        }
+    }
+
+    /**
+     * Acrescenta um destinatário às entregas da faixa.
+     *
+     * @param destinatario  A identidade do destinatário.
+     */
+    private void adicionarEntrega(int destinatario) {
+        if (numEntregas == entregas.length) {
+            entregas = Arrays.copyOf(entregas, numEntregas * 2);
+        }
+        entregas[numEntregas++] = destinatario;
+    }
+
+    /**
+     * Classe BufferTroca representa um buffer de bytes em memória com os registros de uma seção, reaproveitado entre
+     * as iterações, que expõe o array interno para ser lido sem cópia.
+     */
+    private static final class BufferTroca extends DataOutputStream {
+        /**
+         * Número de registros escritos desde a última limpeza.
+         */
+        int registros;
+
+        /**
+         * Construtor da classe BufferTroca.
+         */
+        BufferTroca() {
+            super(new Bytes());
+        }
+
+        /**
+         * Descarta o conteúdo e o número de registros.
+         */
+        void limpar() {
+            ((Bytes) out).reset();
+            written = 0;
+            registros = 0;
+        }
+
+        /**
+         * Retorna o array interno, válido até a próxima escrita.
+         *
+         * @return Os bytes escritos, nas primeiras size() posições.
+         */
+        byte[] bytes() {
+            return ((Bytes) out).interno();
+        }
+
+        /**
+         * Escreve o conteúdo em outro fluxo.
+         *
+         * @param destino  O fluxo de destino.
+         * @throws IOException Se a escrita no destino falhar.
+         */
+        void writeTo(DataOutputStream destino) throws IOException {
+            ((Bytes) out).writeTo(destino);
+        }
+    }
+
+    /**
+     * Classe Bytes representa um ByteArrayOutputStream que expõe o seu array interno.
+     */
+    private static final class Bytes extends ByteArrayOutputStream {
+        /**
+         * Construtor da classe Bytes.
+         */
+        Bytes() {
+            super(1024);
+        }
+
+        /**
+         * Retorna o array interno.
+         *
+         * @return O array interno.
+         */
+        byte[] interno() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/**
+ * Importa a classe IOException para tratar erros de gravação.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe PrintStream para gravar a tabela de resultados.
+ */
+import java.io.PrintStream;
+
+/**
+ * Importa a classe StandardCharsets para gravar a tabela em UTF-8.
+ */
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Importa a classe Files para criar o arquivo de resultados.
+ */
+import java.nio.file.Files;
+
+/**
+ * Importa a classe Paths para localizar o arquivo de resultados.
+ */
+import java.nio.file.Paths;
+
+/**
+ * Importa a classe ArrayList para montar as listas de argumentos e de resultados.
+ */
+import java.util.ArrayList;
+
+/**
+ * Importa a classe Arrays para trabalhar com arrays.
+ */
+import java.util.Arrays;
+
+/**
+ * Importa a classe List para trabalhar com listas.
+ */
+import java.util.List;
+
+/**
+ * Importa a classe SplittableRandom para sortear as posições iniciais de cada simulação.
+ */
+import java.util.SplittableRandom;
+
+/**
+ * Importa a classe ExecutionException para tratar erros das simulações.
+ */
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Importa a interface ExecutorService para executar as simulações em paralelo.
+ */
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Importa a classe Executors para criar o conjunto limitado de threads.
+ */
+import java.util.concurrent.Executors;
+
+/**
+ * Importa a interface Future para aguardar o resultado de cada simulação.
+ */
+import java.util.concurrent.Future;
+
+/**
+ * Classe Varredura representa a execução de uma mesma simulação para todas as combinações de uma grade de parâmetros,
+ * com várias repetições de cada combinação, e a gravação de uma única tabela de resultados em CSV.
+ *
+ * As simulações são independentes e rodam em paralelo em um conjunto limitado de threads ("--paralelas", por padrão o
+ * número de processadores), cada uma em uma única thread, de modo que o tempo total cai com o número de núcleos.
+ * As regiões fora do heap com os registros das pessoas são obtidas de um ReservatorioMemoria compartilhado e devolvidas
+ * ao fim de cada simulação, para serem reaproveitadas pelas seguintes.
+ *
+ * Uso: Simulacao --varredura --grade "pessoas=1000,10000;densidade=0.05,0.5;duracao-resistencia=10,30;geradoras=1,5"
+ * --repeticoes 3 --saida varredura.csv [argumentos da simulação]. As chaves da grade são os nomes dos argumentos da
+ * simulação sem os hífens, além de "densidade" (pessoas por célula), que define um mapa quadrado com a área necessária.
+ * Os demais argumentos valem para todas as simulações. A repetição r usa a semente "--semente" + r, a mesma em todas
+ * as combinações, e a tabela sai na ordem das combinações e das repetições, independentemente da ordem de término.
+ */
+class Varredura {
+    /**
+     * Chave da grade que define a densidade de pessoas por célula do mapa.
+     */
+    private static final String DENSIDADE = "densidade";
+
+    /**
+     * Nomes das colunas de resultados da tabela, depois das colunas dos parâmetros da grade.
+     */
+    private static final String[] COLUNAS = {
+        "semente", "pessoas", "linhas", "colunas", "iteracoes", "mal_informadas", "bem_informadas", "resistentes",
+        "pico_mal_informadas", "iteracao_pico", "duracao_ms"
+    };
+
+    /**
+     * Executa a varredura.
+     *
+     * @param args  Os argumentos da varredura e os argumentos comuns a todas as simulações.
+     * @throws IOException Se a tabela de resultados não puder ser gravada.
+     * @throws InterruptedException Se a espera pelas simulações for interrompida.
+     * @throws IllegalArgumentException Se algum argumento for inválido.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String grade = null;
+        int repeticoes = 1;
+        int paralelas = Runtime.getRuntime().availableProcessors();
+        String saida = "varredura.csv";
+
+        /**
+         * Cada simulação usa uma única thread, a menos que "--threads" seja informado; as demais threads
+         * ficam para as outras simulações. O modo sem interface é sempre usado.
+         */
+        List<String> comuns = new ArrayList<>(Arrays.asList("--threads", "1"));
+        for (int i = 0; i < args.length; i++) {
+            String argumento = args[i];
+            if (argumento.startsWith("--") && Configuracao.ehOpcao(argumento.substring(2))) {
+                comuns.add(argumento);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("O argumento " + argumento + " precisa de um valor.");
+            }
+            String valor = args[++i];
+            try {
+                switch (argumento) {
+                    case "--grade":
+                        grade = valor;
+                        break;
+                    case "--repeticoes":
+                        repeticoes = Integer.parseInt(valor);
+                        break;
+                    case "--paralelas":
+                        paralelas = Integer.parseInt(valor);
+                        break;
+                    case "--saida":
+                        saida = valor;
+                        break;
+                    default:
+                        comuns.add(argumento);
+                        comuns.add(valor);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido para " + argumento + ": " + valor, e);
+            }
+        }
+        comuns.add("--sem-interface");
+        if (grade == null) {
+            throw new IllegalArgumentException("A varredura precisa do argumento --grade.");
+        }
+        if (repeticoes <= 0 || paralelas <= 0) {
+            throw new IllegalArgumentException("O número de repetições e de simulações em paralelo deve ser maior que zero.");
+        }
+
+        /**
+         * Lê a grade: uma lista de chaves, cada uma com a lista dos seus valores.
+         */
+        String[] dimensoes = grade.split(";");
+        String[] chaves = new String[dimensoes.length];
+        String[][] valores = new String[dimensoes.length][];
+        long combinacoes = 1;
+        for (int d = 0; d < dimensoes.length; d++) {
+            int igual = dimensoes[d].indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("Dimensão inválida da grade: " + dimensoes[d] + ". Use chave=valor,valor.");
+            }
+            chaves[d] = dimensoes[d].substring(0, igual).trim();
+            valores[d] = dimensoes[d].substring(igual + 1).split(",");
+            for (int v = 0; v < valores[d].length; v++) {
+                valores[d][v] = valores[d][v].trim();
+            }
+            combinacoes *= valores[d].length;
+        }
+        if (combinacoes * repeticoes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A grade tem combinações demais: " + combinacoes + ".");
+        }
+
+        /**
+         * Monta e valida a configuração de cada simulação antes de começar, para que um valor inválido
+         * seja informado de imediato, e não depois de horas de varredura.
+         */
+        long semente = Configuracao.deArgumentos(comuns.toArray(new String[0])).getSemente();
+        System.out.println("Semente: " + semente);
+        List<Configuracao> configuracoes = new ArrayList<>();
+        List<String[]> linhasGrade = new ArrayList<>();
+        for (int c = 0; c < combinacoes; c++) {
+            String[] combinacao = new String[dimensoes.length];
+            int resto = c;
+            for (int d = dimensoes.length - 1; d >= 0; d--) {
+                combinacao[d] = valores[d][resto % valores[d].length];
+                resto /= valores[d].length;
+            }
+            for (int r = 0; r < repeticoes; r++) {
+                configuracoes.add(configuracao(comuns, chaves, combinacao, semente + r));
+                linhasGrade.add(combinacao);
+            }
+        }
+
+        /**
+         * Executa as simulações em um conjunto limitado de threads e aguarda os resultados na ordem da grade.
+         */
+        ReservatorioMemoria reservatorio = new ReservatorioMemoria();
+        ExecutorService executor = Executors.newFixedThreadPool(paralelas);
+        long inicio = System.nanoTime();
+        long[][] resultados = new long[configuracoes.size()][];
+        try {
+            List<Future<long[]>> futuros = new ArrayList<>();
+            for (Configuracao configuracao : configuracoes) {
+                futuros.add(executor.submit(() -> executar(configuracao, reservatorio)));
+            }
+            for (int i = 0; i < futuros.size(); i++) {
+                try {
+                    resultados[i] = futuros.get(i).get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException("Falha na simulação " + (i + 1) + " da varredura.", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long duracao = System.nanoTime() - inicio;
+
+        /**
+         * Grava a tabela com uma linha por simulação: índice da combinação, repetição, parâmetros da grade e resultados.
+         * Uma coluna de resultado com o mesmo nome de uma chave da grade (por exemplo, "pessoas") não é repetida.
+         */
+        try (PrintStream tabela = new PrintStream(Files.newOutputStream(Paths.get(saida)), false, StandardCharsets.UTF_8.name())) {
+            tabela.print("combinacao,repeticao");
+            for (String chave : chaves) {
+                tabela.print("," + chave);
+            }
+            boolean[] repetida = new boolean[COLUNAS.length];
+            for (int k = 0; k < COLUNAS.length; k++) {
+                repetida[k] = Arrays.asList(chaves).contains(COLUNAS[k]);
+                if (!repetida[k]) {
+                    tabela.print("," + COLUNAS[k]);
+                }
+            }
+            tabela.println();
+            for (int i = 0; i < resultados.length; i++) {
+                tabela.print((i / repeticoes) + "," + (i % repeticoes));
+                for (String valor : linhasGrade.get(i)) {
+                    tabela.print("," + valor);
+                }
+                for (int k = 0; k < COLUNAS.length; k++) {
+                    if (!repetida[k]) {
+                        tabela.print("," + resultados[i][k]);
+                    }
+                }
+                tabela.println();
+            }
+            if (tabela.checkError()) {
+                throw new IOException("Erro ao gravar a tabela da varredura em " + saida + ".");
+            }
+        }
+        System.out.println("Varredura: " + resultados.length + " simulações em " + (duracao / 1_000_000) + " ms, com até "
+                + paralelas + " em paralelo; " + reservatorio.getReaproveitados() + " regiões de memória reaproveitadas e "
+                + reservatorio.getCriados() + " criadas. Resultados em " + saida + ".");
+    }
+
+    /**
+     * Monta a configuração de uma simulação da varredura.
+     *
+     * @param comuns      Os argumentos comuns a todas as simulações.
+     * @param chaves      As chaves da grade.
+     * @param combinacao  O valor de cada chave nesta combinação.
+     * @param semente     A semente da simulação.
+     * @return A configuração validada.
+     * @throws IOException Se o arquivo de cenário não puder ser lido.
+     * @throws IllegalArgumentException Se algum valor for inválido.
+     */
+    private static Configuracao configuracao(List<String> comuns, String[] chaves, String[] combinacao, long semente)
+            throws IOException {
+        List<String> argumentos = new ArrayList<>(comuns);
+        argumentos.add("--semente");
+        argumentos.add(Long.toString(semente));
+        String densidade = null;
+        for (int d = 0; d < chaves.length; d++) {
+            if (chaves[d].equals(DENSIDADE)) {
+                densidade = combinacao[d];
+            } else {
+                argumentos.add("--" + chaves[d]);
+                argumentos.add(combinacao[d]);
+            }
+        }
+        Configuracao configuracao = Configuracao.deArgumentos(argumentos.toArray(new String[0]));
+        if (densidade == null) {
+            return configuracao;
+        }
+
+        /**
+         * Com a densidade, o mapa é um quadrado com área suficiente para as pessoas da combinação.
+         */
+        double pessoasPorCelula;
+        try {
+            pessoasPorCelula = Double.parseDouble(densidade);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + DENSIDADE + ": " + densidade, e);
+        }
+        if (!(pessoasPorCelula > 0)) {
+            throw new IllegalArgumentException("A densidade deve ser maior que zero.");
+        }
+        long lado = Math.max(1, (long) Math.ceil(Math.sqrt(configuracao.getPessoas() / pessoasPorCelula)));
+        if (lado > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A densidade " + densidade + " exige um mapa grande demais.");
+        }
+        argumentos.add("--linhas");
+        argumentos.add(Long.toString(lado));
+        argumentos.add("--colunas");
+        argumentos.add(Long.toString(lado));
+        return Configuracao.deArgumentos(argumentos.toArray(new String[0]));
+    }
+
+    /**
+     * Executa uma simulação sem interface e retorna os seus resultados.
+     *
+     * @param configuracao  A configuração da simulação.
+     * @param reservatorio  O reservatório de onde as regiões da população são obtidas e para onde são devolvidas.
+     * @return Os valores das colunas COLUNAS, na mesma ordem.
+     */
+    private static long[] executar(Configuracao configuracao, ReservatorioMemoria reservatorio) {
+        long inicio = System.nanoTime();
+        long semente = configuracao.getSemente();
+        GeradorAleatorio gerador = new GeradorAleatorio(semente);
+        SplittableRandom random = new SplittableRandom(semente);
+        Populacao populacao = Simulacao.criarPopulacao(configuracao, gerador, random, reservatorio);
+        List<IAtor> atores = Simulacao.criarAtores(configuracao, random);
+
+        IndiceEspacial indice = Simulacao.criarIndice(populacao, configuracao.getLinhas(), configuracao.getColunas());
+        MotorTick motor = Simulacao.criarMotor(configuracao, populacao, indice, atores);
+        long picoMalInformadas = populacao.getMalInformadas();
+        long iteracaoPico = 0;
+        try {
+            for (long iteracao = 0; iteracao < configuracao.getIteracoes(); iteracao++) {
+                motor.executarMovimento(iteracao);
+                motor.executarInteracoes();
+                if (populacao.getMalInformadas() > picoMalInformadas) {
+                    picoMalInformadas = populacao.getMalInformadas();
+                    iteracaoPico = iteracao + 1;
+                }
+            }
+            return new long[] {
+                semente, populacao.tamanho(), configuracao.getLinhas(), configuracao.getColunas(), configuracao.getIteracoes(),
+                populacao.getMalInformadas(), populacao.getBemInformadas(), populacao.getResistentes(),
+                picoMalInformadas, iteracaoPico, (System.nanoTime() - inicio) / 1_000_000
+            };
+        } finally {
+            motor.encerrar();
+            populacao.devolverMemoria(reservatorio);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Importa a interface ThreadMXBean da JVM HotSpot para medir os bytes alocados pela thread do teste.
+ */
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Importa a classe IOException para tratar erros de leitura da configuração e do rastro.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe ManagementFactory para obter o ThreadMXBean da JVM.
+ */
+import java.lang.management.ManagementFactory;
+
+/**
+ * Importa a classe Files para criar e apagar o arquivo temporário do rastro.
+ */
+import java.nio.file.Files;
+
+/**
+ * Importa a classe Path para indicar o arquivo temporário do rastro.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe SplittableRandom para sortear as posições iniciais, como a simulação.
+ */
+import java.util.SplittableRandom;
+
+/**
+ * Importa os métodos de asserção do JUnit.
+ */
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Importa o método assertTrue do JUnit.
+ */
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Importa o método assumeTrue do JUnit, para pular o teste em JVMs que não medem a alocação por thread.
+ */
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Importa a anotação Test do JUnit.
+ */
+import org.junit.Test;
+
+/**
+ * Classe AlocacaoIteracaoTest confere que as iterações da simulação não alocam memória depois de aquecidas.
+ * Cada iteração é medida pelo ThreadMXBean.getThreadAllocatedBytes da thread do teste. Com uma thread, o motor executa
+ * as fases nessa mesma thread, então a medida cobre o movimento, o índice, as interações e as mensagens. As iterações
+ * em que alguma estrutura cresceu (MotorTick.getCapacidadeEstruturas) podem alocar e não são conferidas.
+ */
+public class AlocacaoIteracaoTest {
+    /**
+     * Número de iterações executadas antes das medidas, para que as agendas cresçam e o JIT compile o laço.
+     */
+    private static final int ITERACOES_AQUECIMENTO = 400;
+
+    /**
+     * Número de iterações sem crescimento das estruturas que devem ser conferidas.
+     */
+    private static final int ITERACOES_CONFERIDAS = 50;
+
+    /**
+     * Número máximo de iterações medidas até que ITERACOES_CONFERIDAS delas sejam conferidas.
+     */
+    private static final int LIMITE_ITERACOES_MEDIDAS = 2000;
+
+    /**
+     * Argumentos da simulação medida: contatos, mensagens, resistência e atores em patrulha.
+     */
+    private static final String[] ARGUMENTOS = {
+        "--sem-interface", "--linhas", "40", "--colunas", "40", "--pessoas", "400", "--semente", "17",
+        "--threads", "1", "--fracao-infectados", "0.02", "--aceitacao-mensagem", "0.05", "--atraso-mensagem", "2",
+        "--atraso-mensagem-max", "9", "--duracao-resistencia", "40", "--meios", "4", "--destruidoras", "2",
+        "--patrulha", "3", "--fracao-polos", "0.3", "--fracao-levy", "0.2", "--intervalo-reordenacao", "16"
+    };
+
+    /**
+     * Confere que as iterações estáveis do motor não alocam nenhum byte.
+     *
+     * @throws IOException Se a configuração não puder ser lida.
+     */
+    @Test
+    public void iteracoesEstaveisNaoAlocam() throws IOException {
+        executarEConferir(null);
+    }
+
+    /**
+     * Confere que as iterações estáveis continuam sem alocar com o rastro e a análise dos surtos ativos.
+     *
+     * @throws IOException Se a configuração não puder ser lida ou o rastro não puder ser gravado.
+     */
+    @Test
+    public void iteracoesComRastroEAnaliseNaoAlocam() throws IOException {
+        Path arquivo = Files.createTempFile("alocacao", ".fntr");
+        try {
+            executarEConferir(arquivo);
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    /**
+     * Monta a simulação, aquece as iterações e confere os bytes alocados em cada iteração medida.
+     *
+     * @param arquivoRastro  O arquivo do rastro, ou null para rodar sem o rastro e sem a análise dos surtos.
+     * @throws IOException Se a configuração não puder ser lida ou o rastro não puder ser gravado.
+     */
+    private static void executarEConferir(Path arquivoRastro) throws IOException {
+        java.lang.management.ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(mxBean instanceof ThreadMXBean && ((ThreadMXBean) mxBean).isThreadAllocatedMemorySupported());
+        ThreadMXBean threads = (ThreadMXBean) mxBean;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long idThread = Thread.currentThread().getId();
+
+        Configuracao configuracao = Configuracao.deArgumentos(ARGUMENTOS);
+        long semente = configuracao.getSemente();
+        GeradorAleatorio gerador = new GeradorAleatorio(semente);
+        SplittableRandom random = new SplittableRandom(semente);
+        Populacao populacao = Simulacao.criarPopulacao(configuracao, gerador, random, null);
+        MotorTick motor = Simulacao.criarMotor(configuracao, populacao, Simulacao.criarAtores(configuracao, random));
+
+        GravadorRastro rastro = null;
+        AnaliseSurto analise = null;
+        if (arquivoRastro != null) {
+            rastro = new GravadorRastro(arquivoRastro, populacao, 0, 100);
+            analise = new AnaliseSurto(populacao, motor.getIndice(), configuracao.getRaioContato(), 0);
+            populacao.setRastro(rastro);
+            motor.setRastro(rastro);
+            motor.setAnalise(analise);
+        }
+
+        try {
+            long iteracao = 0;
+            for (; iteracao < ITERACOES_AQUECIMENTO; iteracao++) {
+                executarIteracao(motor, rastro, analise, iteracao);
+            }
+
+            /**
+             * A própria leitura do contador pode alocar alguns bytes; essa parcela fixa é medida com duas leituras
+             * seguidas e descontada de cada iteração.
+             */
+            long antes = threads.getThreadAllocatedBytes(idThread);
+            long leitura = threads.getThreadAllocatedBytes(idThread) - antes;
+
+            int conferidas = 0;
+            for (int k = 0; k < LIMITE_ITERACOES_MEDIDAS && conferidas < ITERACOES_CONFERIDAS; k++, iteracao++) {
+                long capacidadeAntes = motor.getCapacidadeEstruturas();
+                antes = threads.getThreadAllocatedBytes(idThread);
+                executarIteracao(motor, rastro, analise, iteracao);
+                long alocados = threads.getThreadAllocatedBytes(idThread) - antes - leitura;
+                if (motor.getCapacidadeEstruturas() != capacidadeAntes) {
+                    continue;
+                }
+                assertEquals("Bytes alocados na iteração " + (iteracao + 1), 0, alocados);
+                conferidas++;
+            }
+            assertTrue("Poucas iterações sem crescimento das estruturas: " + conferidas,
+                    conferidas == ITERACOES_CONFERIDAS);
+        } finally {
+            motor.encerrar();
+            if (rastro != null) {
+                rastro.close();
+            }
+        }
+    }
+
+    /**
+     * Executa uma iteração completa do motor, como o laço de Simulacao.main sem interface.
+     *
+     * @param motor     O motor da simulação.
+     * @param rastro    O gravador do rastro, ou null.
+     * @param analise   A análise dos surtos, ou null.
+     * @param iteracao  O número da iteração, a partir de zero.
+     * @throws IOException Se a gravação do rastro falhou.
+     */
+    private static void executarIteracao(MotorTick motor, GravadorRastro rastro, AnaliseSurto analise, long iteracao)
+            throws IOException {
+        motor.executarMovimento(iteracao);
+        motor.executarInteracoes();
+        if (rastro != null) {
+            rastro.fimIteracao(iteracao);
+        }
+        if (analise != null) {
+            analise.concluirIteracao();
+        }
+    }
+}
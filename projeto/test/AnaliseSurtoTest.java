@@ -0,0 +1,92 @@
+/**
+ * Importa a classe IOException para tratar erros de leitura da configuração.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe Arrays para acrescentar o intervalo de reordenação aos argumentos.
+ */
+import java.util.Arrays;
+
+/**
+ * Importa a classe SplittableRandom para sortear as posições iniciais, como a simulação.
+ */
+import java.util.SplittableRandom;
+
+/**
+ * Importa os métodos de asserção do JUnit.
+ */
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Importa a anotação Test do JUnit.
+ */
+import org.junit.Test;
+
+/**
+ * Classe AnaliseSurtoTest confere que a análise dos surtos não depende da ordem das pessoas na memória. A reordenação
+ * pela curva de Morton muda a ordem em que as faixas e as mensagens são processadas, mas não os resultados; as fontes
+ * das infecções, e com elas a floresta, o número de reprodução e os surtos, também não devem mudar.
+ */
+public class AnaliseSurtoTest {
+    /**
+     * Número de iterações simuladas.
+     */
+    private static final int ITERACOES = 150;
+
+    /**
+     * Argumentos da simulação: mapa denso e mensagens aceitas com frequência, para que várias mensagens cheguem à
+     * mesma pessoa na mesma iteração e a escolha da fonte apareça na análise.
+     */
+    private static final String[] ARGUMENTOS = {
+        "--sem-interface", "--linhas", "200", "--colunas", "200", "--pessoas", "20000", "--semente", "3",
+        "--threads", "2", "--fracao-infectados", "0.001", "--aceitacao-mensagem", "0.6", "--atraso-mensagem", "1",
+        "--atraso-mensagem-max", "3", "--duracao-resistencia", "40", "--meios", "20", "--destruidoras", "20"
+    };
+
+    /**
+     * Confere que as linhas da análise e o resumo são os mesmos sem reordenação e com a reordenação a cada 8 iterações.
+     *
+     * @throws IOException Se a configuração não puder ser lida.
+     */
+    @Test
+    public void resumoNaoDependeDaReordenacao() throws IOException {
+        String semReordenacao = executar(0);
+        String comReordenacao = executar(8);
+        assertEquals(semReordenacao, comReordenacao);
+    }
+
+    /**
+     * Executa a simulação com a análise dos surtos e monta a saída da análise.
+     *
+     * @param intervaloReordenacao  O intervalo de reordenação das pessoas na memória, ou 0 para não reordenar.
+     * @return As linhas da análise de cada iteração, seguidas do resumo.
+     * @throws IOException Se a configuração não puder ser lida.
+     */
+    private static String executar(long intervaloReordenacao) throws IOException {
+        String[] argumentos = Arrays.copyOf(ARGUMENTOS, ARGUMENTOS.length + 2);
+        argumentos[ARGUMENTOS.length] = "--intervalo-reordenacao";
+        argumentos[ARGUMENTOS.length + 1] = Long.toString(intervaloReordenacao);
+        Configuracao configuracao = Configuracao.deArgumentos(argumentos);
+        long semente = configuracao.getSemente();
+        GeradorAleatorio gerador = new GeradorAleatorio(semente);
+        SplittableRandom random = new SplittableRandom(semente);
+        Populacao populacao = Simulacao.criarPopulacao(configuracao, gerador, random, null);
+        MotorTick motor = Simulacao.criarMotor(configuracao, populacao, Simulacao.criarAtores(configuracao, random));
+        AnaliseSurto analise = new AnaliseSurto(populacao, motor.getIndice(), configuracao.getRaioContato(), 0);
+        motor.setAnalise(analise);
+
+        StringBuilder saida = new StringBuilder();
+        try {
+            for (long iteracao = 0; iteracao < ITERACOES; iteracao++) {
+                motor.executarMovimento(iteracao);
+                motor.executarInteracoes();
+                analise.concluirIteracao();
+                saida.append(analise.linha(iteracao + 1)).append('\n');
+            }
+        } finally {
+            motor.encerrar();
+        }
+        return saida.append(analise.resumo()).toString();
+    }
+}
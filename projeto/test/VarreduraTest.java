@@ -0,0 +1,63 @@
+/**
+ * Importa a classe IOException para tratar erros de gravação e leitura da tabela.
+ */
+import java.io.IOException;
+
+/**
+ * Importa a classe StandardCharsets para ler a tabela em UTF-8.
+ */
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Importa a classe Files para criar, ler e apagar a tabela temporária.
+ */
+import java.nio.file.Files;
+
+/**
+ * Importa a classe Path para indicar a tabela temporária.
+ */
+import java.nio.file.Path;
+
+/**
+ * Importa a classe List para trabalhar com as linhas da tabela.
+ */
+import java.util.List;
+
+/**
+ * Importa os métodos de asserção do JUnit.
+ */
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Importa a anotação Test do JUnit.
+ */
+import org.junit.Test;
+
+/**
+ * Classe VarreduraTest confere a leitura dos argumentos da varredura de parâmetros.
+ */
+public class VarreduraTest {
+    /**
+     * Confere que as opções sem valor, como "--analise", não consomem o argumento seguinte: a varredura deve gravar a
+     * tabela no arquivo de "--saida", com uma linha por combinação da grade.
+     *
+     * @throws IOException Se a tabela não puder ser gravada ou lida.
+     * @throws InterruptedException Se a espera pelas simulações for interrompida.
+     */
+    @Test
+    public void opcaoSemValorNaoConsomeOArgumentoSeguinte() throws IOException, InterruptedException {
+        Path saida = Files.createTempFile("varredura", ".csv");
+        try {
+            Varredura.main(new String[] {
+                "--grade", "pessoas=100,200", "--iteracoes", "10", "--semente", "7", "--analise",
+                "--saida", saida.toString()
+            });
+            List<String> linhas = Files.readAllLines(saida, StandardCharsets.UTF_8);
+            assertEquals(3, linhas.size());
+            assertEquals("0,0,100,7", linhas.get(1).substring(0, "0,0,100,7".length()));
+            assertEquals("1,0,200,7", linhas.get(2).substring(0, "1,0,200,7".length()));
+        } finally {
+            Files.deleteIfExists(saida);
+        }
+    }
+}